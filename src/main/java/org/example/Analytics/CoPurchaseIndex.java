@@ -0,0 +1,261 @@
+package org.example.Analytics;
+
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Events.ChangeConsumer;
+import org.example.Events.ChangeEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Customers also bought": per product, the products most often ordered together with it.
+ *
+ * <p>Maintenance:
+ * <ul>
+ *   <li>Fed by the change stream: a created order adds one co-purchase per pair of distinct
+ *       products, a deleted order removes its pairs, an update does both (before and after image) unless it
+ *       leaves the distinct products unchanged (status transitions, quantity edits).</li>
+ *   <li>Each product tracks at most {@code capacity} neighbors. When its table is full, a new
+ *       neighbor replaces the lowest-count one and inherits that count (Space-Saving), so rare pairs
+ *       are pruned while frequent ones survive. Memory is bounded by
+ *       {@code products-in-multi-product-orders x capacity} entries, whatever the catalog size.</li>
+ *   <li>Baskets with more than {@link #MAX_BASKET_PRODUCTS} distinct products only count their first
+ *       ones, so one huge order cannot cost quadratic time.</li>
+ * </ul>
+ *
+ * <p>Reads: {@link #alsoBought} returns a cached top-N list (rebuilt after the product's table
+ * changed), so a lookup is a map hit plus, at most, sorting {@code capacity} entries.
+ *
+ * <p>Thread-safety: one writer (the consumer thread); readers from any thread.
+ */
+public final class CoPurchaseIndex implements ChangeConsumer {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    public static final int DEFAULT_TOP_N = 5;
+    public static final int MAX_BASKET_PRODUCTS = 64;
+
+    /**
+     * A neighbor and how many orders contained both products (Space-Saving may overestimate
+     * pruned-and-returned neighbors by the count they inherited).
+     */
+    public record Recommendation(String productId, long count) {
+    }
+
+    private final int capacity;
+    private final int topN;
+    private final Map<String, Neighbors> byProduct = new ConcurrentHashMap<>();
+
+    public CoPurchaseIndex() {
+        this(DEFAULT_CAPACITY, DEFAULT_TOP_N);
+    }
+
+    /**
+     * @param capacity neighbors tracked per product (memory bound)
+     * @param topN     neighbors returned per product (at most {@code capacity})
+     */
+    public CoPurchaseIndex(int capacity, int topN) {
+        if (capacity <= 0 || topN <= 0) throw new IllegalArgumentException("capacity and topN must be > 0");
+        this.capacity = capacity;
+        this.topN = Math.min(topN, capacity);
+    }
+
+    // ------------------------------------------------------------
+    // Change stream
+    // ------------------------------------------------------------
+
+    @Override
+    public void onEvent(ChangeEvent event, boolean endOfBatch) {
+        if (!"order".equals(event.getEntity())) return;
+        String[] before = event.getBefore() instanceof Order o ? distinctProductIds(o.getProducts()) : null;
+        String[] after = event.getAfter() instanceof Order o ? distinctProductIds(o.getProducts()) : null;
+        // status changes and quantity edits keep the same pairs; re-applying them would only
+        // churn the tables (and inflate counts where the remove finds a pruned neighbor)
+        if (before != null && after != null && sameProducts(before, after)) return;
+        if (before != null) apply(before, -1);
+        if (after != null) apply(after, +1);
+    }
+
+    /**
+     * Counts the co-purchases of one order.
+     */
+    public void add(Order order) {
+        apply(distinctProductIds(order.getProducts()), +1);
+    }
+
+    /**
+     * Takes back the co-purchases of one order (deleted, or its old version on update).
+     */
+    public void remove(Order order) {
+        apply(distinctProductIds(order.getProducts()), -1);
+    }
+
+    private void apply(String[] ids, long delta) {
+        if (ids.length < 2) return;
+        for (int i = 0; i < ids.length; i++) {
+            Neighbors n = byProduct.get(ids[i]);
+            if (n == null) {
+                if (delta < 0) continue;
+                n = byProduct.computeIfAbsent(ids[i], k -> new Neighbors(capacity));
+            }
+            for (int j = 0; j < ids.length; j++) {
+                if (j != i) n.add(ids[j], delta);
+            }
+            if (n.isEmpty()) byProduct.remove(ids[i], n);
+        }
+    }
+
+    private static String[] distinctProductIds(List<Product> lines) {
+        if (lines == null || lines.isEmpty()) return new String[0];
+        String[] ids = new String[Math.min(lines.size(), MAX_BASKET_PRODUCTS)];
+        int n = 0;
+        outer:
+        for (Product p : lines) {
+            String id = p.getId();
+            if (id == null) continue;
+            for (int i = 0; i < n; i++) if (ids[i].equals(id)) continue outer;
+            if (n == ids.length) break;
+            ids[n++] = id;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    /**
+     * True if both baskets hold the same distinct products (in any order), so they count the same pairs.
+     */
+    private static boolean sameProducts(String[] a, String[] b) {
+        if (a.length != b.length) return false;
+        if (a.length < 2) return true; // neither counts a pair
+        String[] x = a.clone(), y = b.clone();
+        Arrays.sort(x);
+        Arrays.sort(y);
+        return Arrays.equals(x, y);
+    }
+
+    // ------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------
+
+    /**
+     * Top co-purchased products of one product, most frequent first.
+     *
+     * @return unmodifiable list of at most {@code topN} recommendations (empty if unknown)
+     */
+    public List<Recommendation> alsoBought(String productId) {
+        Neighbors n = productId == null ? null : byProduct.get(productId);
+        return n == null ? List.of() : n.top(topN);
+    }
+
+    /**
+     * Recommendations for a basket: neighbor counts of all its products are summed, products
+     * already in the basket are left out.
+     *
+     * @param basket product IDs already chosen
+     * @param limit  maximum number of recommendations
+     * @return unmodifiable list, most frequent first
+     */
+    public List<Recommendation> forBasket(Collection<String> basket, int limit) {
+        Set<String> chosen = new HashSet<>(basket);
+        Map<String, Long> sums = new HashMap<>();
+        for (String id : chosen) {
+            for (Recommendation r : alsoBought(id)) {
+                if (!chosen.contains(r.productId())) sums.merge(r.productId(), r.count(), Long::sum);
+            }
+        }
+        List<Recommendation> out = new ArrayList<>(sums.size());
+        sums.forEach((id, count) -> out.add(new Recommendation(id, count)));
+        out.sort(Neighbors.ORDER);
+        return Collections.unmodifiableList(out.subList(0, Math.min(limit, out.size())));
+    }
+
+    /**
+     * @return number of products with at least one tracked neighbor
+     */
+    public int size() {
+        return byProduct.size();
+    }
+
+    // ------------------------------------------------------------
+    // Per-product neighbor table
+    // ------------------------------------------------------------
+
+    /**
+     * Up to {@code capacity} (neighbor, count) slots in parallel arrays; written by the single
+     * writer under the monitor, the top-N list is cached for readers until the next write.
+     */
+    private static final class Neighbors {
+        static final Comparator<Recommendation> ORDER = Comparator
+                .comparingLong(Recommendation::count).reversed()
+                .thenComparing(Recommendation::productId);
+
+        private final String[] ids;
+        private final long[] counts;
+        private int size;
+        private volatile List<Recommendation> cachedTop;
+
+        Neighbors(int capacity) {
+            this.ids = new String[capacity];
+            this.counts = new long[capacity];
+        }
+
+        synchronized void add(String id, long delta) {
+            int i = indexOf(id);
+            if (i >= 0) {
+                counts[i] += delta;
+                if (counts[i] <= 0) removeAt(i);
+            } else if (delta > 0) {
+                if (size < ids.length) {
+                    ids[size] = id;
+                    counts[size] = delta;
+                    size++;
+                } else {
+                    int min = 0;
+                    for (int j = 1; j < size; j++) if (counts[j] < counts[min]) min = j;
+                    ids[min] = id;             // Space-Saving: evict the rarest neighbor,
+                    counts[min] += delta;      // inheriting its count as the error bound
+                }
+            } else {
+                return; // decrement of a pruned neighbor
+            }
+            cachedTop = null;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        List<Recommendation> top(int n) {
+            List<Recommendation> top = cachedTop;
+            if (top != null) return top;
+            synchronized (this) {
+                List<Recommendation> all = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) all.add(new Recommendation(ids[i], counts[i]));
+                all.sort(ORDER);
+                top = List.copyOf(all.subList(0, Math.min(n, all.size())));
+                cachedTop = top;
+                return top;
+            }
+        }
+
+        private int indexOf(String id) {
+            for (int i = 0; i < size; i++) if (ids[i].equals(id)) return i;
+            return -1;
+        }
+
+        private void removeAt(int i) {
+            size--;
+            ids[i] = ids[size];
+            counts[i] = counts[size];
+            ids[size] = null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.Analytics;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch: approximate per-key counts in fixed memory.
+ *
+ * <ul>
+ *   <li>{@code depth} rows of {@code width} counters; a key increments one counter per row and its
+ *       estimate is the minimum over its counters.</li>
+ *   <li>Estimates never undercount. With {@code width = e / epsilon} and {@code depth = ln(1 / delta)}
+ *       they overcount by more than {@code epsilon * total} with probability at most {@code delta}.</li>
+ *   <li>Sketches of equal shape can be added and subtracted, which is what makes sliding windows
+ *       cheap (see {@link TrendingProducts}).</li>
+ * </ul>
+ *
+ * <p>Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final long[] counts; // row-major: row * width + column
+    private long total;
+
+    /**
+     * @param depth rows (independent hash functions)
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) throw new IllegalArgumentException("depth and width must be > 0");
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.counts = new long[depth * this.width];
+    }
+
+    /**
+     * Sizes a sketch for the given error bound.
+     *
+     * @param epsilon relative error, as a fraction of the total count (e.g. 0.001)
+     * @param delta   probability that an estimate exceeds that error (e.g. 0.01)
+     */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon and delta must be in (0, 1)");
+        }
+        return new CountMinSketch((int) Math.ceil(Math.log(1 / delta)), (int) Math.ceil(Math.E / epsilon));
+    }
+
+    /**
+     * A zeroed sketch with the same shape (so the two can be combined).
+     */
+    public CountMinSketch emptyCopy() {
+        return new CountMinSketch(depth, width);
+    }
+
+    // ------------------------------------------------------------
+    // Updates and estimates
+    // ------------------------------------------------------------
+
+    public void add(String key, long count) {
+        add(hash(key), count);
+    }
+
+    public long estimate(String key) {
+        return estimate(hash(key));
+    }
+
+    /**
+     * Adds with a precomputed {@link #hash}, for callers updating several sketches with one key.
+     */
+    void add(long hash, long count) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0, base = 0; row < depth; row++, base += width) {
+            counts[base + ((h1 + row * h2) & mask)] += count;
+        }
+        total += count;
+    }
+
+    long estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0, base = 0; row < depth; row++, base += width) {
+            min = Math.min(min, counts[base + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    /**
+     * 64-bit hash of {@code key}; the two halves drive the row hashes (double hashing).
+     * FNV-1a over the chars, then a mix so both halves depend on every char: keys whose 32-bit
+     * {@code String.hashCode()} collide still get different cells.
+     */
+    static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 29);
+    }
+
+    // ------------------------------------------------------------
+    // Combining
+    // ------------------------------------------------------------
+
+    public void addAll(CountMinSketch other) {
+        requireSameShape(other);
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+    }
+
+    public void subtractAll(CountMinSketch other) {
+        requireSameShape(other);
+        for (int i = 0; i < counts.length; i++) counts[i] -= other.counts[i];
+        total -= other.total;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    private void requireSameShape(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("sketch shapes differ: " + depth + "x" + width
+                    + " vs " + other.depth + "x" + other.width);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Introspection
+    // ------------------------------------------------------------
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Size of the counter array in bytes.
+     */
+    public long memoryBytes() {
+        return (long) counts.length * Long.BYTES;
+    }
+}
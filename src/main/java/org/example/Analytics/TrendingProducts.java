@@ -0,0 +1,302 @@
+package org.example.Analytics;
+
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Events.ChangeConsumer;
+import org.example.Events.ChangeEvent;
+import org.example.Events.ChangeType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * "Trending now": the most ordered products over sliding windows (by default the last 5, 15 and
+ * 60 minutes), fed by order creations on the change stream.
+ *
+ * <p>Design:
+ * <ul>
+ *   <li>Time is cut into buckets (1 minute by default); each bucket has its own {@link CountMinSketch}.</li>
+ *   <li>Each window keeps a running sketch (sum of its buckets) and a top-K table. When a bucket
+ *       leaves a window its sketch is subtracted and the window's top-K is re-estimated.</li>
+ *   <li>Memory is fixed: {@code (buckets of the longest window + windows)} sketches plus K entries
+ *       per window. Accuracy is set by the sketch's {@code epsilon}/{@code delta}.</li>
+ *   <li>{@link #top} copies K entries: O(K), independent of the number of orders or products.</li>
+ * </ul>
+ *
+ * <p>Time is the order's {@code createdAt}: orders older than the longest window (e.g. replayed
+ * history) are ignored, orders from the future count for the current bucket. Counts are order
+ * lines (units), so a line with quantity 3 counts 3.
+ *
+ * <p>Thread-safety: updates arrive on the change-stream consumer thread, queries from anywhere;
+ * both synchronize on this object.
+ */
+public final class TrendingProducts implements ChangeConsumer {
+
+    public static final Duration DEFAULT_BUCKET = Duration.ofMinutes(1);
+    public static final List<Duration> DEFAULT_WINDOWS =
+            List.of(Duration.ofMinutes(5), Duration.ofMinutes(15), Duration.ofMinutes(60));
+    public static final int DEFAULT_TOP_K = 10;
+    public static final double DEFAULT_EPSILON = 0.005; // 5 x 1024 counters per sketch, ~2.5 MB in total
+    public static final double DEFAULT_DELTA = 0.01;
+
+    /**
+     * One entry of a trending list; {@code count} is an estimate that never undercounts.
+     */
+    public record Trend(String productId, long count) {
+    }
+
+    private final long bucketMillis;
+    private final List<Duration> windowDurations;
+    private final LongSupplier clock;
+
+    // Ring of per-bucket sketches covering the longest window
+    private final CountMinSketch[] buckets;
+    private final long[] bucketIds;
+    private long head = Long.MIN_VALUE; // newest bucket id
+
+    private final Window[] windows;
+
+    public TrendingProducts() {
+        this(DEFAULT_BUCKET, DEFAULT_WINDOWS, DEFAULT_TOP_K, DEFAULT_EPSILON, DEFAULT_DELTA,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param bucket  time resolution; every window must be a whole number of buckets
+     * @param windows window lengths
+     * @param topK    entries kept per window
+     * @param epsilon sketch error as a fraction of the window's total (smaller = wider sketches)
+     * @param delta   probability of exceeding that error (smaller = deeper sketches)
+     * @param clock   current time in epoch milliseconds
+     */
+    public TrendingProducts(Duration bucket, List<Duration> windows, int topK,
+                            double epsilon, double delta, LongSupplier clock) {
+        this.bucketMillis = bucket.toMillis();
+        if (bucketMillis <= 0) throw new IllegalArgumentException("bucket must be positive");
+        if (windows.isEmpty()) throw new IllegalArgumentException("at least one window is required");
+        if (topK <= 0) throw new IllegalArgumentException("topK must be > 0");
+        this.windowDurations = List.copyOf(windows);
+        this.clock = clock;
+
+        CountMinSketch shape = CountMinSketch.withError(epsilon, delta);
+        this.windows = new Window[windows.size()];
+        int longest = 0;
+        for (int i = 0; i < this.windows.length; i++) {
+            long millis = windows.get(i).toMillis();
+            if (millis <= 0 || millis % bucketMillis != 0) {
+                throw new IllegalArgumentException("window " + windows.get(i) + " is not a multiple of " + bucket);
+            }
+            int length = (int) (millis / bucketMillis);
+            this.windows[i] = new Window(length, shape.emptyCopy(), topK);
+            longest = Math.max(longest, length);
+        }
+        this.buckets = new CountMinSketch[longest];
+        this.bucketIds = new long[longest];
+        for (int i = 0; i < longest; i++) {
+            buckets[i] = shape.emptyCopy();
+            bucketIds[i] = Long.MIN_VALUE;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Change stream
+    // ------------------------------------------------------------
+
+    @Override
+    public void onEvent(ChangeEvent event, boolean endOfBatch) {
+        if (event.getType() != ChangeType.CREATE || !(event.getAfter() instanceof Order order)) return;
+        List<Product> lines = order.getProducts();
+        if (lines == null || lines.isEmpty()) return;
+        // placements expand quantities into repeated lines: count each run once
+        String runId = null;
+        long run = 0;
+        for (Product p : lines) {
+            String id = p.getId();
+            if (id == null) continue;
+            if (id.equals(runId)) {
+                run++;
+                continue;
+            }
+            if (runId != null) record(runId, run, order.getCreatedAt());
+            runId = id;
+            run = 1;
+        }
+        if (runId != null) record(runId, run, order.getCreatedAt());
+    }
+
+    // ------------------------------------------------------------
+    // Updates and queries
+    // ------------------------------------------------------------
+
+    /**
+     * Counts {@code units} of a product ordered at {@code timeMillis}.
+     */
+    public synchronized void record(String productId, long units, long timeMillis) {
+        advance();
+        long bucket = Math.min(Math.floorDiv(timeMillis, bucketMillis), head);
+        if (bucket <= head - buckets.length || units <= 0) return; // older than the longest window
+
+        long hash = CountMinSketch.hash(productId);
+        int slot = slotOf(bucket);
+        if (bucketIds[slot] != bucket) return; // cannot happen after advance(); defensive
+        buckets[slot].add(hash, units);
+        for (Window w : windows) {
+            if (bucket <= head - w.length) continue;
+            w.sketch.add(hash, units);
+            w.offer(productId, w.sketch.estimate(hash));
+        }
+    }
+
+    /**
+     * Current top products of one configured window, highest first.
+     *
+     * @param window one of the configured window lengths
+     * @throws IllegalArgumentException if the window is not configured
+     */
+    public synchronized List<Trend> top(Duration window) {
+        int i = windowDurations.indexOf(window);
+        if (i < 0) throw new IllegalArgumentException("window " + window + " is not one of " + windowDurations);
+        advance();
+        return windows[i].snapshot();
+    }
+
+    public List<Duration> getWindows() {
+        return windowDurations;
+    }
+
+    /**
+     * Bytes held by the sketches (the top-K tables are negligible next to them).
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (CountMinSketch b : buckets) bytes += b.memoryBytes();
+        for (Window w : windows) bytes += w.sketch.memoryBytes();
+        return bytes;
+    }
+
+    // ------------------------------------------------------------
+    // Rotation
+    // ------------------------------------------------------------
+
+    /**
+     * Moves the head to the current bucket, expiring the buckets that leave each window.
+     */
+    private void advance() {
+        long now = Math.floorDiv(clock.getAsLong(), bucketMillis);
+        if (now <= head) return;
+        if (head == Long.MIN_VALUE || now - head >= buckets.length) {
+            // first use, or idle for longer than the longest window: everything expired
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[slotOf(now - i)].clear();
+                bucketIds[slotOf(now - i)] = now - i;
+            }
+            for (Window w : windows) w.reset();
+            head = now;
+            return;
+        }
+        while (head < now) {
+            head++;
+            for (Window w : windows) {
+                long leaving = head - w.length;
+                int slot = slotOf(leaving);
+                if (bucketIds[slot] == leaving) w.expire(buckets[slot]);
+            }
+            int slot = slotOf(head);
+            buckets[slot].clear();
+            bucketIds[slot] = head;
+        }
+        for (Window w : windows) w.reestimate();
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+
+    // ------------------------------------------------------------
+    // Window
+    // ------------------------------------------------------------
+
+    /**
+     * Running sketch over the window's buckets plus a top-K table. K is small, so the table is two
+     * parallel arrays with a tracked minimum: an update is one scan of K entries, no allocation.
+     */
+    private static final class Window {
+        final int length;
+        final CountMinSketch sketch;
+        final String[] keys;
+        final long[] counts;
+        int size;
+        int minIndex;
+
+        Window(int length, CountMinSketch sketch, int topK) {
+            this.length = length;
+            this.sketch = sketch;
+            this.keys = new String[topK];
+            this.counts = new long[topK];
+        }
+
+        void offer(String key, long estimate) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    counts[i] = estimate;
+                    if (i == minIndex) findMin();
+                    return;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = estimate;
+                size++;
+                findMin();
+            } else if (estimate > counts[minIndex]) {
+                keys[minIndex] = key;
+                counts[minIndex] = estimate;
+                findMin();
+            }
+        }
+
+        void expire(CountMinSketch bucket) {
+            sketch.subtractAll(bucket);
+        }
+
+        /**
+         * Refreshes the kept entries after buckets expired; entries that dropped to zero leave.
+         */
+        void reestimate() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                long estimate = sketch.estimate(keys[i]);
+                if (estimate <= 0) continue;
+                keys[kept] = keys[i];
+                counts[kept] = estimate;
+                kept++;
+            }
+            Arrays.fill(keys, kept, size, null);
+            size = kept;
+            findMin();
+        }
+
+        void reset() {
+            sketch.clear();
+            Arrays.fill(keys, null);
+            size = 0;
+            minIndex = 0;
+        }
+
+        List<Trend> snapshot() {
+            List<Trend> out = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) out.add(new Trend(keys[i], counts[i]));
+            out.sort(Comparator.comparingLong(Trend::count).reversed().thenComparing(Trend::productId));
+            return out;
+        }
+
+        private void findMin() {
+            minIndex = 0;
+            for (int i = 1; i < size; i++) if (counts[i] < counts[minIndex]) minIndex = i;
+        }
+    }
+}
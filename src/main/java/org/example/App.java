@@ -1,22 +1,52 @@
 package org.example;
 
+import org.example.Analytics.CoPurchaseIndex;
+import org.example.Analytics.TrendingProducts;
+import org.example.Archive.OrderArchive;
 import org.example.Entity.Category;
 import org.example.Entity.Customer;
 import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
 import org.example.Entity.Product;
+import org.example.Error.ErrorHandling;
 import org.example.Error.Safe;
-import org.example.ImplRepo.InMemoryCurd;
-import org.example.ImplRepo.InMemoryOrderImp;
+import org.example.Events.AuditLogConsumer;
+import org.example.Events.ChangeRingBuffer;
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.TieredOrderRepo;
+import org.example.ImplRepo.TransactionManager;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Metrics.PrometheusExporter;
+import org.example.Query.Fields;
+import org.example.Query.Plan;
+import org.example.Query.Query;
+import org.example.Replication.ReadOnlyRepo;
+import org.example.Replication.ReplicaApplier;
+import org.example.Replication.ReplicationClient;
+import org.example.Replication.ReplicationLog;
+import org.example.Replication.ReplicationServer;
 import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Service.CartService;
 import org.example.Service.OrderService;
 import org.example.Service.ServiceCrud;
+import org.example.Storage.Repositories;
+import org.example.Storage.StorageConfig;
 import org.example.Utils.Data;
 import org.example.Utils.Identify;
+import org.example.Utils.TableRenderer;
 import org.example.Utils.Utility;
+import org.example.Workload.SyntheticData;
+import org.example.Workload.WorkloadDriver;
+import com.sun.net.httpserver.HttpServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.example.Utils.Identify.updateFlow;
@@ -45,18 +75,80 @@ public class App {
     private static final Logger log = LoggerFactory.getLogger(App.class);
 
     // ===== Repositories & Services =====
-    private static final CrudRepo<Customer, String> customerRepo = new InMemoryCurd<>();
-    private static final CrudRepo<Product, String> prodRepo = new InMemoryCurd<>();
-    private static final CrudRepo<Order, String> orderRepo = new InMemoryOrderImp();
-
-    private static final ServiceCrud<Customer, String> customerService = new ServiceCrud<>(customerRepo);
-    private static final ServiceCrud<Product, String> prodService = new ServiceCrud<>(prodRepo);
+    // One commit clock for all three repositories => snapshots are consistent across them
+    private static final MvccClock clock = MvccClock.global();
+    // Engine per entity from the storage config (-Dbutik.storage.config=path, -Dbutik.storage.<entity>.engine=name);
+    // the older -Dbutik.orders.shards=N and -Dbutik.orders.archive.dir=path still select sharded / tiered orders
+    private static final Repositories storage = Repositories.open(StorageConfig.load(), clock);
+    private static final CrudRepo<Customer, String> customerRepo = storage.customers();
+    private static final CrudRepo<Product, String> prodRepo = storage.products();
+    private static final CrudRepo<Order, String> orderRepo = storage.orders();
+    private static ScheduledExecutorService orderArchiver;
+
+    // ===== Metrics (export with -Dbutik.metrics.port=9404 and/or -Dbutik.metrics.file=path) =====
+    private static final MetricsRegistry metrics = MetricsRegistry.global();
+    private static final PrometheusExporter metricsExporter = new PrometheusExporter(metrics);
+    private static HttpServer metricsServer;
+    private static ScheduledExecutorService metricsFileWriter;
+
+    // ===== Replication (-Dbutik.replication.port=P on the primary, -Dbutik.replication.follow=host:P on the follower) =====
+    private static final String followPrimary = System.getProperty("butik.replication.follow");
+    private static ReplicationServer replicationServer;
+    private static ReplicationClient replicationClient;
+
+    private static final ServiceCrud<Customer, String> customerService =
+            new ServiceCrud<>(serving(customerRepo), "customer", metrics);
+    private static final ServiceCrud<Product, String> prodService =
+            new ServiceCrud<>(serving(prodRepo), "product", metrics);
     private static final OrderService orderService =
-            new OrderService(orderRepo, prodService, customerService);
+            new OrderService(serving(orderRepo), prodService, customerService, metrics);
+    // Server-side carts: survive leaving the order screen, expire after 30 idle minutes
+    private static final CartService cartService = new CartService(orderService);
+
+    // ===== Transactions: placement and cascades commit atomically across the three repositories =====
+    private static final TransactionManager transactions = new TransactionManager(
+            clock, TransactionManager.DEFAULT_STRIPES, TransactionManager.DEFAULT_ATTEMPTS, metrics);
+
+    static {
+        customerService.useTransactions(transactions);
+        prodService.useTransactions(transactions);
+        orderService.useTransactions(transactions);
+    }
+
+    // ===== Change stream (CDC): every service mutation is published here =====
+    private static final ChangeRingBuffer changes =
+            new ChangeRingBuffer(1 << 16, ChangeRingBuffer.ProducerMode.MULTI);
+    // "Trending now" (last 5/15/60 minutes), fed by order creations on the change stream
+    private static final TrendingProducts trending = new TrendingProducts();
+    // "Customers also bought", maintained from order creates/updates/deletes on the change stream
+    private static final CoPurchaseIndex coPurchases = new CoPurchaseIndex();
 
     // Shared scanner for the entire app lifetime
     private static final Scanner scanner = new Scanner(System.in);
 
+    // ===== Listing tables (fixed widths, paged; -Dbutik.ui.pageSize=N rows per page) =====
+    private static final int PAGE_SIZE = Math.max(1, Integer.getInteger("butik.ui.pageSize", TableRenderer.DEFAULT_PAGE_SIZE));
+    private static final int ORDER_ITEMS_WIDTH = 60;
+    private static final TableRenderer<Customer> customerTable = new TableRenderer<Customer>()
+            .text("ID", 12, Customer::getId)
+            .text("Name", 20, Customer::getName)
+            .text("City", 20, Customer::getCity);
+    private static final TableRenderer<Product> productTable = new TableRenderer<Product>()
+            .text("ID", 12, Product::getId)
+            .text("Name", 20, Product::getName)
+            .text("Category", 20, p -> p.getCategory() == null ? null : p.getCategory().name())
+            .money("Price", 10, Product::getPrice);
+    private static final TableRenderer<Order> orderTable = new TableRenderer<Order>()
+            .text("ID", 12, Order::getId)
+            .text("CustomerId", 12, Order::getCustomerId)
+            .column("Products (qty)", ORDER_ITEMS_WIDTH, TableRenderer.Align.LEFT, App::writeOrderItems)
+            .money("Total", 10, Order::getTotal)
+            .text("Status", 10, o -> String.valueOf(o.getStatus()));
+    private static final TableRenderer<TrendingProducts.Trend> trendTable = new TableRenderer<TrendingProducts.Trend>()
+            .text("ID", 12, TrendingProducts.Trend::productId)
+            .text("Name", 20, t -> prodService.findOptionalById(t.productId()).map(Product::getName).orElse("-"))
+            .column("Units", 10, TableRenderer.Align.RIGHT, (t, out) -> out.append(t.count()));
+
     // Current entity context: "Customer" | "Product" | "Order"
     private static String idx;
 
@@ -70,10 +162,14 @@ public class App {
      */
     public static void start() {
         Utility.printBanner();
-        seedData();
+        startMetricsExport();
+        startChangeStream();
+        startReplication();
+        if (followPrimary == null) seedData(); // a follower gets its data from the primary
+        startOrderArchiver();
 
         while (true) {
-            System.out.println("Choose an entity:\n1) Customer\n2) Product\n3) Order\n4) Exit");
+            System.out.println("Choose an entity:\n1) Customer\n2) Product\n3) Order\n4) Trending products\n5) Reports\n6) Exit");
             String choice = Utility.readLine("Your choice: ");
 
             switch (choice) {
@@ -90,8 +186,19 @@ public class App {
                     secondMenu("Order");
                     break;
                 case "4":
+                    showTrending();
+                    break;
+                case "5":
+                    Safe.run(App::showReports, "Reports");
+                    break;
+                case "6":
                     System.out.println("Bye!");
                     log.info("Application exit by user.");
+                    stopMetricsExport();
+                    changes.close();
+                    stopReplication();
+                    if (orderArchiver != null) orderArchiver.shutdownNow();
+                    Safe.run(storage::close, "Close storage");
                     return;
                 default:
                     System.out.println("Invalid selection. Please try again.");
@@ -135,8 +242,7 @@ public class App {
                             // Wrap in Safe.run to keep UI responsive on exceptions
                             Safe.run(() -> {
                                 Order o = createOrderInteractive();
-                                if (o == null) return; // user aborted
-                                orderService.create(o);
+                                if (o == null) return; // user aborted or saved the cart
                                 System.out.printf("✓ Order created. ID: %s | Total: %.2f%n",
                                         o.getId(), o.getTotal());
                                 log.info("Order created id={} customerId={} items={}",
@@ -151,47 +257,12 @@ public class App {
 
                 case 2: // View all
                     if ("Product".equals(idx)) {
-                        List<Product> products = prodService.getAll();
-                        if (products.isEmpty()) {
-                            System.out.println("No products found.");
-                            log.info("Products list requested but empty.");
-                            break;
-                        }
-                        printAllProducts(products);
-
+                        browse(productTable, prodService, null, "No products found.");
                     } else if ("Order".equals(idx)) {
-                        List<Order> orders = orderService.getAll();
-
-                        if (orders.isEmpty()) {
-                            System.out.println("No orders found.");
-                            log.info("Orders list requested but empty.");
-                            break;
-                        }
-                        System.out.println("-----------------".repeat(10));
-                        System.out.printf("%-12s %-12s %-65s %-10s%n",
-                                "ID", "CustomerId", "Products (qty)", "Total");
-                        System.out.println("-----------------".repeat(10));
-                        orders.forEach(o -> {
-                            String items = formatOrderItemsNamesWithQty(o);
-                            System.out.printf("%-12s %-12s %-60s %10.2f%n",
-                                    o.getId(), o.getCustomerId(), items, o.getTotal());
-                        });
-                        System.out.println("=".repeat(120));
+                        browse(orderTable, orderService, null, "No orders found.");
                     } else { // Customer
-                        List<Customer> customers = customerService.getAll();
-                        if (customers.isEmpty()) {
-                            System.out.println("No customers found.");
-                            log.info("Customers list requested but empty.");
-                            break;
-                        }
-                        System.out.println("------------------".repeat(5));
-                        System.out.printf("%-12s %-20s %-20s%n", "ID", "Name", "City");
-                        System.out.println("------------------".repeat(5));
-                        customers.forEach(c ->
-                                System.out.printf("%-12s %-20s %-20s%n",
-                                        c.getId(), c.getName(), c.getCity()));
+                        browse(customerTable, customerService, null, "No customers found.");
                     }
-                    System.out.println("=".repeat(120));
                     break;
 
                 case 3: // Update (generic)
@@ -217,8 +288,10 @@ public class App {
                 case 4: // Delete
                     String delId = Utility.readLine("Enter " + entity + " ID to delete: ");
                     Safe.run(() -> {
-                        if ("Customer".equals(idx)) customerService.delete(delId);
-                        else if ("Product".equals(idx)) prodService.delete(delId);
+                        if ("Customer".equals(idx)) {
+                            int removed = orderService.deleteCustomerCascade(delId);
+                            if (removed > 0) System.out.println("  (with " + removed + " order(s))");
+                        } else if ("Product".equals(idx)) prodService.delete(delId);
                         else orderService.delete(delId);
                         System.out.println("✓ Deleted successfully.");
                         log.info("Deleted {} id={}", idx, delId);
@@ -259,18 +332,23 @@ public class App {
     }
 
     /**
-     * Simple table print for products.
+     * Pages through a service's entities; returns the first non-navigation input (see {@link TableRenderer#browse}).
      */
-    private static void printAllProducts(List<Product> products) {
-        System.out.println("----------------".repeat(5));
-        System.out.printf("%-12s %-20s %-20s %-10s%n", "ID", "Name", "Category", "Price");
-        System.out.println("----------------".repeat(5));
-        products.forEach(p ->
-                System.out.printf("%-12s %-20s %-20s %10.2f%n",
-                        p.getId(), p.getName(),
-                        (p.getCategory() == null ? "-" : p.getCategory().name()),
-                        p.getPrice()));
-        System.out.println("=".repeat(120));
+    private static <T extends Identifiable<String>> String browse(TableRenderer<T> table, ServiceCrud<T, String> service,
+                                                                  String prompt, String empty) {
+        String input = table.browse(new TableRenderer.PageSource<>() {
+            @Override
+            public long count() {
+                return service.count();
+            }
+
+            @Override
+            public List<T> page(int offset, int limit) {
+                return service.getPage(offset, limit);
+            }
+        }, PAGE_SIZE, prompt, empty);
+        if (input == null) log.info("List requested but empty: {}", empty);
+        return input;
     }
 
     // ==================== Summaries & inline editors ====================
@@ -350,8 +428,9 @@ public class App {
                 .reduce((a, b) -> a + ", " + b)
                 .orElse("-");
 
-        return String.format("- CustomerId: %s%n- Products: %s%n- Total: %.2f",
-                o.getCustomerId(), products, o.getTotal());
+        return String.format("- CustomerId: %s%n- Created: %s%n- Status: %s%n- Products: %s%n- Total: %.2f",
+                o.getCustomerId(), java.time.Instant.ofEpochMilli(o.getCreatedAt()), o.getStatus(), products,
+                o.getTotal());
 
 
     }
@@ -514,41 +593,45 @@ public class App {
     // ==================== Helpers ====================
 
     /**
-     * Build "Name xQty" list, truncated for table width.
+     * Writes "Name xQty, ..." in first-appearance order, stopping once the column is full.
+     * Orders hold a handful of lines, so the quadratic scan beats building a map per row.
      */
-    private static String formatOrderItemsNamesWithQty(Order o) {
-        if (o.getProducts() == null || o.getProducts().isEmpty()) return "-";
-        String s = o.getProducts().stream()
-                .collect(Collectors.groupingBy(Product::getName, Collectors.counting()))
-                .entrySet().stream()
-                .map(e -> e.getKey() + " x" + e.getValue())
-                .reduce((a, b) -> a + ", " + b)
-                .orElse("-");
-        if (s.length() > 60) s = s.substring(0, Math.max(0, 60 - 3)) + "...";
-        return s;
+    private static void writeOrderItems(Order o, StringBuilder out) {
+        List<Product> products = o.getProducts();
+        if (products == null || products.isEmpty()) {
+            out.append('-');
+            return;
+        }
+        int start = out.length();
+        int n = products.size();
+        outer:
+        for (int i = 0; i < n && out.length() - start <= ORDER_ITEMS_WIDTH; i++) {
+            String name = products.get(i).getName();
+            for (int j = 0; j < i; j++) {
+                if (Objects.equals(name, products.get(j).getName())) continue outer;
+            }
+            int qty = 1;
+            for (int k = i + 1; k < n; k++) {
+                if (Objects.equals(name, products.get(k).getName())) qty++;
+            }
+            if (out.length() > start) out.append(", ");
+            out.append(name).append(" x").append(qty);
+        }
     }
 
     /**
      * Show customers and return a valid ID or null if user typed 'back'.
      */
     private static String pickCustomerIdOrBack() {
-        List<Customer> allCustomers = customerService.getAll();
-        if (allCustomers.isEmpty()) {
-            System.out.println("No customers available. Add customers first.");
-            return null;
-        }
-        System.out.printf("%-12s %-20s %-20s%n", "ID", "Name", "City");
-        System.out.println("--------------------------------------------------------");
-        allCustomers.forEach(c ->
-                System.out.printf("%-12s %-20s %-20s%n", c.getId(), c.getName(), c.getCity())
-        );
-        System.out.println("=".repeat(Math.max(0, allCustomers.size() - 1)));
+        String prompt = "Enter Customer ID (or 'back' to cancel): ";
+        String customerId = browse(customerTable, customerService, prompt, "No customers available. Add customers first.");
+        if (customerId == null) return null;
 
         while (true) {
-            String customerId = Utility.readNonEmpty("Enter Customer ID (or 'back' to cancel): ");
             if ("back".equalsIgnoreCase(customerId)) return null;
-            if (customerService.findOptionalById(customerId).isPresent()) return customerId;
-            System.out.println("Customer not found: " + customerId);
+            if (!customerId.isEmpty() && customerService.findOptionalById(customerId).isPresent()) return customerId;
+            if (!customerId.isEmpty()) System.out.println("Customer not found: " + customerId);
+            customerId = Utility.readNonEmpty(prompt);
         }
     }
 
@@ -556,23 +639,18 @@ public class App {
      * Print all products (helper for order builder).
      */
     private static void showAllProducts() {
-        List<Product> allProducts = prodService.getAll();
-        if (allProducts.isEmpty()) {
-            System.out.println("No products available. Add products first.");
-            return;
-        }
-        printAllProducts(allProducts);
+        browse(productTable, prodService, null, "No products available. Add products first.");
     }
 
     /**
-     * Interactively builds an {@link org.example.Entity.Order}:
+     * Interactively fills the customer's cart and places it as an order:
      * <ol>
-     *   <li>Pick a valid customer (or abort).</li>
-     *   <li>Display products and collect productId → quantity.</li>
-     *   <li>Expand quantities to a flat list of products and compute total.</li>
+     *   <li>Pick a valid customer (or abort); a cart saved earlier is resumed.</li>
+     *   <li>Display products and add productId → quantity to the cart.</li>
+     *   <li>Check the cart out (or keep it for later).</li>
      * </ol>
      *
-     * @return a new Order or {@code null} if aborted by user
+     * @return the placed Order or {@code null} if aborted or saved for later
      */
 
     private static Order createOrderInteractive() {
@@ -583,41 +661,39 @@ public class App {
                 System.out.println("Order creation aborted.");
                 return null;
             }
+            cartService.find(customerId).ifPresent(saved ->
+                    System.out.println("Resuming saved cart: " + saved.size() + " product(s)."));
 
             // (2) products
             showAllProducts();
 
-            // (3) collect items
-            Map<String, Integer> items = new LinkedHashMap<>();
+            // (3) fill the cart
             while (true) {
-                String pid = Utility.readNonEmpty("Enter Product ID (or 'done' to finish): ");
+                String pid = Utility.readNonEmpty("Enter Product ID ('done' to check out, 'save' to keep the cart): ");
                 if (pid.equalsIgnoreCase("done")) break;
+                if (pid.equalsIgnoreCase("save")) {
+                    System.out.println("Cart saved for " + cartService.getIdleTtl().toMinutes() + " minutes.");
+                    return null;
+                }
 
-                var pOpt = prodService.findOptionalById(pid);
-                if (pOpt.isEmpty()) {
+                if (prodService.findOptionalById(pid).isEmpty()) {
                     System.out.println("Product not found: " + pid);
                     continue;
                 }
                 int qty = Utility.readPositiveInt("Qty: ");
-                items.merge(pid, qty, Integer::sum);
+                try {
+                    showRecommendations(cartService.add(customerId, pid, qty).keySet());
+                } catch (ErrorHandling.Validation | ErrorHandling.NotFound ex) {
+                    System.out.println(ex.getMessage());
+                }
             }
-            if (items.isEmpty()) {
+            if (cartService.find(customerId).isEmpty()) {
                 System.out.println("No items selected. Order creation aborted.");
                 return null;
             }
 
-            // (4) expand product list
-            List<Product> productList = new ArrayList<>();
-            for (Map.Entry<String, Integer> e : items.entrySet()) {
-                Product p = prodService.findOptionalById(e.getKey()).orElseThrow();
-                for (int i = 0; i < e.getValue(); i++) productList.add(p);
-            }
-
-            // (5) compute total
-            double total = productList.stream().mapToDouble(Product::getPrice).sum();
-
-            // (6) construct order
-            return new Order(customerId, total, productList);
+            // (4) place the cart (validated, priced and stored by the order service)
+            return cartService.checkout(customerId);
 
         } catch (Exception ex) {
             log.error("Failed to create order", ex);
@@ -626,6 +702,270 @@ public class App {
         }
     }
 
+    /**
+     * One line of "customers also bought" suggestions for the current basket (nothing if none).
+     */
+    private static void showRecommendations(Collection<String> basket) {
+        List<Product> suggestions = orderService.recommendFor(basket, 3);
+        if (suggestions.isEmpty()) return;
+        StringBuilder line = new StringBuilder("  Customers also bought: ");
+        for (int i = 0; i < suggestions.size(); i++) {
+            Product p = suggestions.get(i);
+            if (i > 0) line.append(", ");
+            line.append(p.getName()).append(" (").append(p.getId()).append(')');
+        }
+        System.out.println(line);
+    }
+
+    // ==================== Change stream ====================
+
+    /**
+     * Attaches the services to the change stream and starts the built-in consumers.
+     */
+    private static void startChangeStream() {
+        customerService.publishChangesTo(changes);
+        prodService.publishChangesTo(changes);
+        orderService.publishChangesTo(changes);
+        changes.subscribe("audit", new AuditLogConsumer(), 1024);
+        changes.subscribe("trending", trending, 1024);
+        changes.subscribe("co-purchases", coPurchases, 1024);
+        orderService.useRecommendations(coPurchases);
+    }
+
+    /**
+     * Prints the trending products of every window (approximate unit counts).
+     */
+    private static void showTrending() {
+        for (java.time.Duration window : trending.getWindows()) {
+            System.out.println("Trending, last " + window.toMinutes() + " min:");
+            List<TrendingProducts.Trend> top = trending.top(window);
+            if (top.isEmpty()) System.out.println("  (no orders)");
+            else trendTable.render(top);
+        }
+    }
+
+    // ==================== Reports ====================
+
+    /**
+     * Ad-hoc reports built as {@link Query queries}; each prints its plan before the result.
+     */
+    private static void showReports() {
+        System.out.println("Reports:\n1) Latest orders of a customer\n2) Revenue over the last N days"
+                + "\n3) Customers per city\n4) Average price per category\n5) Orders per status"
+                + "\n6) Order archive\n7) Storage engines");
+        String choice = Utility.readLine("Your choice: ");
+        switch (choice) {
+            case "1": {
+                String customerId = Utility.readNonEmpty("Customer ID: ");
+                Plan<Order> plan = orderService.query(Query.orders()
+                        .where(Fields.Orders.CUSTOMER_ID, customerId)
+                        .orderByDescending(Fields.Orders.CREATED_AT)
+                        .limit(PAGE_SIZE));
+                System.out.print(plan.explain());
+                List<Order> latest = plan.list();
+                if (latest.isEmpty()) System.out.println("No orders found.");
+                else orderTable.render(latest);
+                break;
+            }
+            case "2": {
+                int days = Utility.readPositiveInt("Days: ");
+                long from = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+                Plan<Order> plan = orderService.query(Query.orders().atLeast(Fields.Orders.CREATED_AT, from));
+                System.out.print(plan.explain());
+                DoubleSummaryStatistics revenue = plan.stats(Order::getTotal);
+                System.out.printf("Orders: %d | Revenue: %.2f | Average order: %.2f%n",
+                        revenue.getCount(), revenue.getSum(), revenue.getAverage());
+                break;
+            }
+            case "3": {
+                Plan<Customer> plan = customerService.query(Query.customers());
+                System.out.print(plan.explain());
+                Map<String, Long> perCity = new TreeMap<>(Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+                perCity.putAll(plan.countBy(Fields.Customers.CITY));
+                perCity.forEach((city, n) ->
+                        System.out.printf("  %-20s %d%n", city, n));
+                break;
+            }
+            case "4": {
+                Plan<Product> plan = prodService.query(Query.products());
+                System.out.print(plan.explain());
+                Map<Category, Long> counts = plan.countBy(Fields.Products.CATEGORY);
+                plan.sumBy(Fields.Products.CATEGORY, Product::getPrice).forEach((cat, sum) ->
+                        System.out.printf("  %-20s %8.2f (%d products)%n",
+                                cat == null ? "-" : cat.name(), sum / counts.get(cat), counts.get(cat)));
+                break;
+            }
+            case "5": {
+                for (OrderStatus status : OrderStatus.values()) {
+                    System.out.printf("  %-10s %d%n", status, orderService.countByStatus(status));
+                }
+                String answer = Utility.readLine("Move every order of one status to another? (y/N): ");
+                if (answer.equalsIgnoreCase("y")) moveOrdersInBulk();
+                break;
+            }
+            case "6":
+                showOrderArchive();
+                break;
+            case "7":
+                storage.stores().forEach(store -> System.out.printf("  %-9s %,d stored | %s%n",
+                        store.entity(), ((CrudRepo<?, ?>) store.repo()).count(), store));
+                break;
+            default:
+                System.out.println("Invalid selection.");
+        }
+    }
+
+    /**
+     * Bulk lifecycle step, e.g. every PICKED order to SHIPPED.
+     */
+    private static void moveOrdersInBulk() {
+        OrderStatus from = readStatus("From status: ");
+        OrderStatus to = readStatus("To status: ");
+        if (from == null || to == null) return;
+        List<String> ids = orderService.findByStatus(from).stream().map(Order::getId).toList();
+        OrderService.TransitionReport report = orderService.transitionAll(ids, to);
+        System.out.printf("✓ %d of %d order(s) moved to %s.%n", report.changed(), report.requested(), to);
+        report.rejected().stream().limit(5).forEach(f -> System.out.println("  " + f.message()));
+        log.info("Bulk transition {} -> {}: {} of {} moved", from, to, report.changed(), report.requested());
+    }
+
+    private static OrderStatus readStatus(String prompt) {
+        String name = Utility.readLine(prompt).trim().toUpperCase(Locale.ROOT);
+        try {
+            return OrderStatus.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown status: " + name + " (one of " + Arrays.toString(OrderStatus.values()) + ")");
+            return null;
+        }
+    }
+
+    // ==================== Order archive ====================
+
+    /**
+     * Checks for cold orders every 5 minutes; a segment is written once the policy's minimum batch
+     * is cold (primary only: a follower's orders come from the primary).
+     */
+    private static void startOrderArchiver() {
+        if (!(orderRepo instanceof TieredOrderRepo tiered) || followPrimary != null) return;
+        orderArchiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        orderArchiver.scheduleWithFixedDelay(() -> {
+            try {
+                tiered.archiveCold();
+            } catch (RuntimeException ex) {
+                log.error("Archiving cold orders failed", ex);
+            }
+        }, 0, 5, TimeUnit.MINUTES);
+    }
+
+    private static void showOrderArchive() {
+        if (!(orderRepo instanceof TieredOrderRepo tiered)) {
+            System.out.println("No archive configured (start with -Dbutik.storage.order.engine=tiered -Dbutik.storage.order.archive.dir=path).");
+            return;
+        }
+        OrderArchive archive = tiered.getArchive();
+        System.out.printf("In memory: %d order(s) | Archived: %d order(s) in %d segment(s), %d KiB on disk%n",
+                tiered.hotCount(), archive.size(), archive.segments().size(), archive.diskBytes() / 1024);
+        System.out.printf("Archive policy: %s orders older than %d day(s) | Block cache: %d hit(s), %d miss(es)%n",
+                tiered.getPolicy().statuses(), tiered.getPolicy().minAge().toDays(),
+                archive.cacheHits(), archive.cacheMisses());
+        String answer = Utility.readLine("Archive cold orders now, however few? (y/N): ");
+        if (answer.equalsIgnoreCase("y")) {
+            System.out.printf("✓ %d order(s) archived.%n", tiered.archiveCold(System.currentTimeMillis(), 1));
+        }
+    }
+
+    // ==================== Replication ====================
+
+    /**
+     * Services of a follower only read: writes are rejected and arrive through replication instead.
+     */
+    private static <T extends Identifiable<ID>, ID> CrudRepo<T, ID> serving(CrudRepo<T, ID> repo) {
+        return followPrimary == null ? repo : new ReadOnlyRepo<>(repo);
+    }
+
+    /**
+     * Primary ({@code butik.replication.port}): ships the change stream to followers.
+     * Follower ({@code butik.replication.follow}): applies the primary's log to the local repositories.
+     */
+    private static void startReplication() {
+        if (followPrimary != null) {
+            ReplicaApplier applier = new ReplicaApplier()
+                    .register("customer", customerRepo)
+                    .register("product", prodRepo)
+                    .register("order", orderRepo);
+            replicationClient = ReplicationClient.follow(followPrimary.trim(), applier);
+            System.out.println("Read-only follower of " + followPrimary.trim());
+            return;
+        }
+        Integer port = Integer.getInteger("butik.replication.port");
+        if (port == null) return;
+        ReplicationLog replicationLog = new ReplicationLog();
+        changes.subscribe("replication", replicationLog, ReplicationServer.DEFAULT_MAX_BATCH);
+        try {
+            replicationServer = ReplicationServer.start(replicationLog, port, ReplicationServer.DEFAULT_MAX_BATCH);
+        } catch (Exception ex) {
+            log.error("Could not start replication on port {}", port, ex);
+        }
+    }
+
+    private static void stopReplication() {
+        if (replicationServer != null) replicationServer.close();
+        if (replicationClient != null) replicationClient.close();
+    }
+
+    // ==================== Metrics export ====================
+
+    /**
+     * Starts the optional Prometheus exports configured by system properties:
+     * {@code butik.metrics.port} (HTTP endpoint on localhost) and
+     * {@code butik.metrics.file} (text file rewritten every 15 seconds).
+     */
+    private static void startMetricsExport() {
+        String port = System.getProperty("butik.metrics.port");
+        if (port != null && !port.isBlank()) {
+            try {
+                metricsServer = metricsExporter.serve(Integer.parseInt(port.trim()));
+            } catch (Exception ex) {
+                log.error("Could not start metrics endpoint on port {}", port, ex);
+            }
+        }
+
+        String file = System.getProperty("butik.metrics.file");
+        if (file != null && !file.isBlank()) {
+            Path path = Path.of(file.trim());
+            metricsFileWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-file-writer");
+                t.setDaemon(true);
+                return t;
+            });
+            metricsFileWriter.scheduleAtFixedRate(() -> writeMetricsFile(path), 15, 15, TimeUnit.SECONDS);
+            log.info("Writing Prometheus metrics to {}", path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Stops the HTTP endpoint and writes a final metrics file (if configured).
+     */
+    private static void stopMetricsExport() {
+        if (metricsServer != null) metricsServer.stop(0);
+        if (metricsFileWriter != null) {
+            metricsFileWriter.shutdownNow();
+            writeMetricsFile(Path.of(System.getProperty("butik.metrics.file").trim()));
+        }
+    }
+
+    private static void writeMetricsFile(Path path) {
+        try {
+            metricsExporter.writeToFile(path);
+        } catch (Exception ex) {
+            log.warn("Could not write metrics file {}: {}", path, ex.getMessage());
+        }
+    }
+
     // ==================== Seed (optional demo data) ====================
 
     /**
@@ -633,9 +973,27 @@ public class App {
      * - Creates customers & products
      * - Creates orders and assigns customers in a round-robin fashion
      * Assumes entities generate their own IDs (e.g., UUID).
+     * With {@code -Dbutik.seed.customers=N} (plus optional {@code .products}, {@code .orders} and
+     * {@code -Dbutik.seed=S}) a synthetic data set of that size is loaded instead.
+     * Skipped when a durable storage engine already restored data.
      */
     @SuppressWarnings("unused")
     private static void seedData() {
+        if (customerRepo.count() + prodRepo.count() + orderRepo.count() > 0) {
+            log.info("Storage already holds data; not seeding.");
+            return;
+        }
+        Integer syntheticCustomers = Integer.getInteger("butik.seed.customers");
+        if (syntheticCustomers != null) {
+            int products = Integer.getInteger("butik.seed.products", Math.max(1, syntheticCustomers / 10));
+            int orders = Integer.getInteger("butik.seed.orders", syntheticCustomers * 10);
+            var took = new WorkloadDriver(customerService, prodService, orderService,
+                    new SyntheticData(Long.getLong("butik.seed", 42L))).load(syntheticCustomers, products, orders);
+            log.info("Seeded synthetic data: {} customers, {} products, {} orders in {} ms.",
+                    syntheticCustomers, products, orders, took.toMillis());
+            return;
+        }
+
         // Customers
         List<String> cid = new ArrayList<>();
         for (Customer customer : Data.getCustomers()) {
@@ -0,0 +1,63 @@
+package org.example.Archive;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides which orders are cold enough to leave the in-memory tier.
+ *
+ * <p>An order is archived once it is older than {@code minAge} (by {@code createdAt}) and its
+ * status is one of {@code statuses}. Archived orders are immutable, so by default only final
+ * orders (SHIPPED, CANCELLED) qualify: open orders stay in memory however old they are.
+ * Scheduled passes wait until {@code minBatch} orders are cold, so segments do not end up tiny.
+ *
+ * @param minAge   minimum age before an order may be archived
+ * @param statuses statuses an archived order may have
+ * @param minBatch cold orders needed before a scheduled pass writes a segment
+ */
+public record ArchivePolicy(Duration minAge, Set<OrderStatus> statuses, int minBatch) {
+
+    public static final Duration DEFAULT_MIN_AGE = Duration.ofDays(30);
+    public static final int DEFAULT_MIN_BATCH = 4096;
+
+    public ArchivePolicy {
+        Objects.requireNonNull(minAge, "minAge must not be null");
+        if (minAge.isNegative()) throw new IllegalArgumentException("minAge must be >= 0");
+        if (minBatch <= 0) throw new IllegalArgumentException("minBatch must be > 0");
+        statuses = statuses == null || statuses.isEmpty()
+                ? Set.of() : Set.copyOf(EnumSet.copyOf(statuses));
+    }
+
+    /**
+     * Final orders older than {@link #DEFAULT_MIN_AGE}.
+     */
+    public static ArchivePolicy defaults() {
+        return finalOrdersOlderThan(DEFAULT_MIN_AGE);
+    }
+
+    /**
+     * SHIPPED and CANCELLED orders older than {@code minAge}.
+     */
+    public static ArchivePolicy finalOrdersOlderThan(Duration minAge) {
+        return new ArchivePolicy(minAge, EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED), DEFAULT_MIN_BATCH);
+    }
+
+    /**
+     * Orders created before this instant (epoch milliseconds) are old enough at {@code nowMillis}.
+     */
+    public long cutoff(long nowMillis) {
+        return nowMillis - minAge.toMillis();
+    }
+
+    /**
+     * @return true if {@code order} may be archived at {@code nowMillis}
+     */
+    public boolean isCold(Order order, long nowMillis) {
+        return order.getCreatedAt() < cutoff(nowMillis) && statuses.contains(order.getStatus());
+    }
+}
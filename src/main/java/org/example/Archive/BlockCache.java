@@ -0,0 +1,89 @@
+package org.example.Archive;
+
+import org.example.Entity.Order;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small LRU cache of decoded archive blocks, shared by all segments of an {@link OrderArchive}.
+ *
+ * <ul>
+ *   <li>Blocks are cached decoded (frozen orders sorted by ID), so a hit costs a binary search,
+ *       not an inflate + decode.</li>
+ *   <li>A cached order is the same instance on every read, which keeps identity-based checks
+ *       (e.g. transaction read validation) stable while its block stays cached.</li>
+ *   <li>Misses load outside the lock; if two threads load the same block, the first one cached wins.</li>
+ * </ul>
+ */
+final class BlockCache {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Order[]> blocks;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity maximum number of cached blocks (0 disables caching)
+     */
+    BlockCache(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be >= 0");
+        this.capacity = capacity;
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Order[]> eldest) {
+                return size() > BlockCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * The decoded block, from the cache or read through {@code segment}.
+     */
+    Order[] get(Segment segment, int block) {
+        long key = ((long) segment.sequence() << 32) | block;
+        lock.lock();
+        try {
+            Order[] cached = blocks.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        Order[] loaded = segment.readBlock(block);
+        if (capacity == 0) return loaded;
+        lock.lock();
+        try {
+            Order[] raced = blocks.putIfAbsent(key, loaded);
+            return raced != null ? raced : loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cached block of one segment.
+     */
+    void invalidate(Segment segment) {
+        lock.lock();
+        try {
+            blocks.keySet().removeIf(key -> (key >>> 32) == segment.sequence());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+}
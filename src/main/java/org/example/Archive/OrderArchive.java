@@ -0,0 +1,326 @@
+package org.example.Archive;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for orders: a directory of immutable, compressed, block-indexed segment files.
+ *
+ * <ul>
+ *   <li>{@link #write} turns a batch of orders into a new segment file ({@code orders-NNNNNNNN.seg});
+ *       it becomes visible to reads only once {@link #publish}ed.</li>
+ *   <li>Segments found in the directory are reopened on {@link #open}, so archived orders survive
+ *       restarts; leftover {@code .tmp} files from an interrupted write are deleted.</li>
+ *   <li>Reads go newest segment first. Only footers (block index, customer blocks, bloom filter)
+ *       are kept on the heap; blocks are read on demand through a small shared LRU of decoded blocks.</li>
+ *   <li>Segments are never rewritten. An archived order that must disappear (superseded by a newer
+ *       copy, or deleted) is {@link #retire}d: hidden in memory, still on disk.</li>
+ * </ul>
+ *
+ * <p>Thread-safety: reads run concurrently with each other and with {@link #publish}
+ * (copy-on-write segment list); {@code write} and {@code publish} are serialized.
+ */
+public final class OrderArchive implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+
+    public static final int DEFAULT_BLOCK_BYTES = 16 * 1024;  // uncompressed bytes per block (~100 orders)
+    public static final int DEFAULT_CACHED_BLOCKS = 512;      // ~8 MiB of raw order data
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path dir;
+    private final int blockBytes;
+    private final BlockCache cache;
+    private volatile List<Segment> segments; // newest first, never modified in place
+    private int nextSequence;
+
+    private OrderArchive(Path dir, int blockBytes, int cachedBlocks, List<Segment> segments, int nextSequence) {
+        this.dir = dir;
+        this.blockBytes = blockBytes;
+        this.cache = new BlockCache(cachedBlocks);
+        this.segments = segments;
+        this.nextSequence = nextSequence;
+    }
+
+    public static OrderArchive open(Path dir) throws IOException {
+        return open(dir, DEFAULT_BLOCK_BYTES, DEFAULT_CACHED_BLOCKS);
+    }
+
+    /**
+     * Opens (or creates) the archive in {@code dir}.
+     *
+     * @param dir          segment directory; created if missing
+     * @param blockBytes   target uncompressed block size for new segments
+     * @param cachedBlocks decoded blocks kept in memory (0 disables the cache)
+     * @throws IOException if the directory or one of its segments cannot be read
+     */
+    public static OrderArchive open(Path dir, int blockBytes, int cachedBlocks) throws IOException {
+        Objects.requireNonNull(dir, "dir must not be null");
+        if (blockBytes <= 0) throw new IllegalArgumentException("blockBytes must be > 0");
+        Files.createDirectories(dir);
+
+        List<Segment> found = new ArrayList<>();
+        int next = 1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX + ".tmp")) {
+                    log.warn("Deleting incomplete archive segment {}", file);
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                int sequence = sequenceOf(name);
+                if (sequence <= 0) continue;
+                try {
+                    found.add(Segment.open(file, sequence));
+                } catch (IOException ex) {
+                    for (Segment s : found) s.close();
+                    throw ex;
+                }
+                next = Math.max(next, sequence + 1);
+            }
+        }
+        found.sort(Comparator.comparingInt(Segment::sequence).reversed());
+        log.info("Opened order archive {} ({} segments)", dir.toAbsolutePath(), found.size());
+        return new OrderArchive(dir, blockBytes, cachedBlocks, List.copyOf(found), next);
+    }
+
+    // ------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------
+
+    /**
+     * Writes {@code orders} into a new segment file, not yet visible to reads.
+     *
+     * @param orders orders to archive (distinct IDs, any order)
+     * @return the written segment; {@link #publish} it to make it readable
+     * @throws IOException if the segment cannot be written (nothing is left behind)
+     */
+    public synchronized Segment write(Collection<Order> orders) throws IOException {
+        if (orders.isEmpty()) throw new IllegalArgumentException("nothing to archive");
+        List<Order> sorted = new ArrayList<>(orders);
+        sorted.sort(Comparator.comparing(Order::getId));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getId().equals(sorted.get(i - 1).getId())) {
+                throw new IllegalArgumentException("duplicate order id: " + sorted.get(i).getId());
+            }
+        }
+        int sequence = nextSequence++;
+        Path file = dir.resolve(String.format("%s%08d%s", PREFIX, sequence, SUFFIX));
+        new SegmentWriter(blockBytes).write(file, sorted);
+        return Segment.open(file, sequence);
+    }
+
+    /**
+     * Makes a written segment visible to reads.
+     */
+    public synchronized void publish(Segment segment) {
+        List<Segment> next = new ArrayList<>(segments.size() + 1);
+        next.add(segment);
+        next.addAll(segments);
+        segments = List.copyOf(next);
+    }
+
+    /**
+     * Hides the archived copy of {@code id}, if any (e.g. after the order was changed or deleted
+     * in memory while it was being archived). In memory only: segment files are immutable.
+     *
+     * @return true if an archived copy was hidden
+     */
+    public boolean retire(String id) {
+        for (Segment s : segments) {
+            int block = s.blockOf(id);
+            if (block < 0) continue;
+            Order o = Segment.find(cache.get(s, block), id);
+            if (o != null) {
+                s.retire(o);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------
+    // Reads
+    // ------------------------------------------------------------
+
+    public Optional<Order> findById(String id) {
+        if (id == null) return Optional.empty();
+        for (Segment s : segments) {
+            int block = s.blockOf(id);
+            if (block < 0) continue;
+            Order o = Segment.find(cache.get(s, block), id);
+            if (o != null) return Optional.of(o);
+        }
+        return Optional.empty();
+    }
+
+    public boolean contains(String id) {
+        return findById(id).isPresent();
+    }
+
+    /**
+     * Archived orders of one customer: reads only the blocks the customer index points at.
+     */
+    public List<Order> findByCustomer(String customerId) {
+        if (customerId == null) return List.of();
+        List<Order> out = new ArrayList<>();
+        for (Segment s : segments) {
+            for (int block : s.blocksOf(customerId)) {
+                for (Order o : cache.get(s, block)) {
+                    if (customerId.equals(o.getCustomerId()) && !s.isRetired(o.getId())) out.add(o);
+                }
+            }
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Archived orders created in {@code [fromMillis, toMillis)}, in no particular order; skips
+     * segments and blocks whose time range does not overlap.
+     */
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        List<Order> out = new ArrayList<>();
+        for (Segment s : segments) {
+            if (s.countIfCovered(fromMillis, toMillis) == 0) continue;
+            for (int b = 0; b < s.blockCount(); b++) {
+                if (!s.blockOverlaps(b, fromMillis, toMillis)) continue;
+                for (Order o : cache.get(s, b)) {
+                    if (o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis && !s.isRetired(o.getId())) {
+                        out.add(o);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        long n = 0;
+        for (Segment s : segments) {
+            long covered = s.countIfCovered(fromMillis, toMillis);
+            if (covered >= 0) {
+                n += covered;
+                continue;
+            }
+            for (int b = 0; b < s.blockCount(); b++) {
+                if (!s.blockOverlaps(b, fromMillis, toMillis)) continue;
+                for (Order o : cache.get(s, b)) {
+                    if (o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis && !s.isRetired(o.getId())) n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Archived orders in one status: reads only segments whose footer counts include it.
+     */
+    public List<Order> findByStatus(OrderStatus status) {
+        if (status == null) return List.of();
+        return segments.stream()
+                .filter(s -> s.countByStatus(status) > 0)
+                .flatMap(this::stream)
+                .filter(o -> o.getStatus() == status)
+                .toList();
+    }
+
+    public long countByStatus(OrderStatus status) {
+        if (status == null) return 0;
+        long n = 0;
+        for (Segment s : segments) n += s.countByStatus(status);
+        return n;
+    }
+
+    /**
+     * Streams every archived order, block by block. Bypasses the block cache, so a full scan
+     * does not evict the blocks that point lookups keep hot.
+     */
+    public Stream<Order> stream() {
+        return segments.stream().flatMap(this::stream);
+    }
+
+    private Stream<Order> stream(Segment s) {
+        return IntStream.range(0, s.blockCount())
+                .mapToObj(s::readBlock)
+                .flatMap(Stream::of)
+                .filter(o -> !s.isRetired(o.getId()));
+    }
+
+    // ------------------------------------------------------------
+    // Stats
+    // ------------------------------------------------------------
+
+    /**
+     * Number of archived (not retired) orders, from the segment footers.
+     */
+    public long size() {
+        long n = 0;
+        for (Segment s : segments) n += s.size();
+        return n;
+    }
+
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    public long diskBytes() {
+        long n = 0;
+        for (Segment s : segments) n += s.diskBytes();
+        return n;
+    }
+
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    public long cacheMisses() {
+        return cache.misses();
+    }
+
+    public Path directory() {
+        return dir;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException first = null;
+        for (Segment s : segments) {
+            cache.invalidate(s);
+            try {
+                s.close();
+            } catch (IOException ex) {
+                if (first == null) first = ex;
+            }
+        }
+        segments = List.of();
+        if (first != null) throw first;
+    }
+
+    private static int sequenceOf(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) return -1;
+        try {
+            return Integer.parseInt(fileName, PREFIX.length(), fileName.length() - SUFFIX.length(), 10);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
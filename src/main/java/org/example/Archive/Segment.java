@@ -0,0 +1,338 @@
+package org.example.Archive;
+
+import org.example.Codec.EntityDecoder;
+import org.example.Codec.Varint;
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive segment file: orders sorted by ID, cut into Deflate-compressed blocks.
+ *
+ * <p>Layout:
+ * <pre>
+ * header:  magic:int format:varint
+ * blocks:  [deflate(record*)]*                 — records in the {@code Codec.Schema} layout
+ * footer:  orderCount:varint minCreated:zz maxCreated:zz
+ *          statusCount:varint [status:str count:varint]*
+ *          blockCount:varint [firstId:str offset:varlong compressed:varint raw:varint orders:varint
+ *                             minCreated:zz maxCreated:zz crc32:int]*
+ *          customerCount:varint [customerId:str blocks:varint [blockDelta:varint]*]*
+ *          bloom filter over the order IDs
+ * trailer: footerOffset:long footerLength:int footerCrc32:int magic:int
+ * </pre>
+ *
+ * <p>Opening a segment reads only the footer: the block index (first ID and location of every
+ * block), the blocks holding each customer's orders and the bloom filter stay on the heap, the
+ * orders themselves stay on disk. A lookup by ID is a bloom check, a binary search over the block
+ * index and one block read; blocks are checksummed and read with positional reads, so any number
+ * of threads can read concurrently.
+ *
+ * <p>Orders superseded after archiving (see {@link OrderArchive#retire}) are remembered in memory
+ * and hidden from every read.
+ */
+public final class Segment implements AutoCloseable {
+
+    static final int MAGIC = 0x42544b41; // "BTKA"
+    static final int FORMAT = 1;
+    static final int TRAILER_BYTES = Long.BYTES + 3 * Integer.BYTES;
+
+    private final int sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final long diskBytes;
+
+    private final int orderCount;
+    private final long minCreated;
+    private final long maxCreated;
+    private final int[] statusCounts = new int[OrderStatus.values().length];
+
+    // block index
+    private final String[] firstIds;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int[] blockOrders;
+    private final long[] blockMinCreated;
+    private final long[] blockMaxCreated;
+    private final int[] checksums;
+
+    private final Map<String, int[]> customerBlocks;
+    private final BloomFilter bloom;
+
+    /**
+     * Archived orders superseded by a newer copy in memory (or deleted): orderId -> archived order.
+     */
+    private final Map<String, Order> retired = new ConcurrentHashMap<>();
+
+    private Segment(int sequence, Path path, FileChannel channel) throws IOException {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.diskBytes = channel.size();
+        if (diskBytes < Integer.BYTES + TRAILER_BYTES) throw corrupt("file too short");
+
+        ByteBuffer header = readFully(0, Integer.BYTES + 1);
+        if (header.getInt() != MAGIC) throw corrupt("not a segment file");
+        int format = header.get();
+        if (format != FORMAT) throw corrupt("unsupported format " + format);
+
+        ByteBuffer trailer = readFully(diskBytes - TRAILER_BYTES, TRAILER_BYTES);
+        long footerOffset = trailer.getLong();
+        int footerLength = trailer.getInt();
+        int footerCrc = trailer.getInt();
+        if (trailer.getInt() != MAGIC || footerOffset < 0 || footerLength < 0
+                || footerOffset + footerLength != diskBytes - TRAILER_BYTES) {
+            throw corrupt("bad trailer");
+        }
+        ByteBuffer footer = readFully(footerOffset, footerLength);
+        CRC32 crc = new CRC32();
+        crc.update(footer.duplicate());
+        if ((int) crc.getValue() != footerCrc) throw corrupt("footer checksum mismatch");
+
+        try {
+            EntityDecoder decoder = new EntityDecoder();
+            this.orderCount = Varint.readInt(footer);
+            this.minCreated = Varint.unZigZag(Varint.readLong(footer));
+            this.maxCreated = Varint.unZigZag(Varint.readLong(footer));
+
+            int statuses = Varint.readInt(footer);
+            for (int i = 0; i < statuses; i++) {
+                String name = decoder.readString(footer);
+                int count = Varint.readInt(footer);
+                for (OrderStatus s : OrderStatus.values()) {
+                    if (s.name().equals(name)) statusCounts[s.ordinal()] = count;
+                }
+            }
+
+            int blocks = Varint.readInt(footer);
+            firstIds = new String[blocks];
+            offsets = new long[blocks];
+            compressedLengths = new int[blocks];
+            rawLengths = new int[blocks];
+            blockOrders = new int[blocks];
+            blockMinCreated = new long[blocks];
+            blockMaxCreated = new long[blocks];
+            checksums = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                firstIds[b] = decoder.readString(footer);
+                offsets[b] = Varint.readLong(footer);
+                compressedLengths[b] = Varint.readInt(footer);
+                rawLengths[b] = Varint.readInt(footer);
+                blockOrders[b] = Varint.readInt(footer);
+                blockMinCreated[b] = Varint.unZigZag(Varint.readLong(footer));
+                blockMaxCreated[b] = Varint.unZigZag(Varint.readLong(footer));
+                checksums[b] = footer.getInt();
+            }
+
+            int customers = Varint.readInt(footer);
+            customerBlocks = new HashMap<>(Math.max(16, customers * 4 / 3 + 1));
+            for (int c = 0; c < customers; c++) {
+                String customerId = decoder.readString(footer);
+                int[] list = new int[Varint.readInt(footer)];
+                int block = 0;
+                for (int i = 0; i < list.length; i++) list[i] = block += Varint.readInt(footer);
+                customerBlocks.put(customerId, list);
+            }
+            bloom = BloomFilter.read(footer);
+        } catch (RuntimeException ex) {
+            throw corrupt("malformed footer (" + ex.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Opens a segment file, reading and verifying its footer.
+     *
+     * @param sequence segment number, unique within its archive
+     * @throws IOException if the file cannot be read or is not a valid segment
+     */
+    static Segment open(Path path, int sequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new Segment(sequence, path, channel);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Metadata
+    // ------------------------------------------------------------
+
+    public int sequence() {
+        return sequence;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Live (not retired) orders in the segment.
+     */
+    public int size() {
+        return orderCount - retired.size();
+    }
+
+    public long diskBytes() {
+        return diskBytes;
+    }
+
+    public int blockCount() {
+        return firstIds.length;
+    }
+
+    boolean blockOverlaps(int block, long fromMillis, long toMillis) {
+        return blockMinCreated[block] < toMillis && blockMaxCreated[block] >= fromMillis;
+    }
+
+    /**
+     * Live orders in one status, from the footer counts.
+     */
+    long countByStatus(OrderStatus status) {
+        long n = statusCounts[status.ordinal()];
+        for (Order o : retired.values()) {
+            if (o.getStatus() == status) n--;
+        }
+        return n;
+    }
+
+    /**
+     * Live orders created in {@code [fromMillis, toMillis)} when the whole segment is in range,
+     * otherwise -1 (the caller must read the overlapping blocks).
+     */
+    long countIfCovered(long fromMillis, long toMillis) {
+        if (maxCreated < fromMillis || minCreated >= toMillis) return 0;
+        if (minCreated >= fromMillis && maxCreated < toMillis) return size();
+        return -1;
+    }
+
+    // ------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------
+
+    /**
+     * @return the block that would hold {@code id}, or -1 if the segment certainly does not
+     */
+    int blockOf(String id) {
+        if (firstIds.length == 0 || retired.containsKey(id) || !bloom.mightContain(id)) return -1;
+        int i = Arrays.binarySearch(firstIds, id);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * Blocks holding orders of {@code customerId}, ascending (empty if none).
+     */
+    int[] blocksOf(String customerId) {
+        int[] blocks = customerBlocks.get(customerId);
+        return blocks == null ? new int[0] : blocks;
+    }
+
+    boolean isRetired(String id) {
+        return !retired.isEmpty() && retired.containsKey(id);
+    }
+
+    /**
+     * Hides an archived order from every read of this segment.
+     */
+    void retire(Order archived) {
+        retired.put(archived.getId(), archived);
+    }
+
+    /**
+     * Binary search for {@code id} in a decoded block.
+     */
+    static Order find(Order[] block, String id) {
+        int lo = 0;
+        int hi = block.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = block[mid].getId().compareTo(id);
+            if (cmp == 0) return block[mid];
+            if (cmp < 0) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return null;
+    }
+
+    /**
+     * Reads, verifies, inflates and decodes one block.
+     *
+     * @return the block's orders, frozen and sorted by ID
+     * @throws UncheckedIOException if the block cannot be read or fails its checksum
+     */
+    Order[] readBlock(int block) {
+        try {
+            ByteBuffer compressed = readFully(offsets[block], compressedLengths[block]);
+            CRC32 crc = new CRC32();
+            crc.update(compressed.duplicate());
+            if ((int) crc.getValue() != checksums[block]) throw corrupt("block " + block + " checksum mismatch");
+
+            byte[] raw = new byte[rawLengths[block]];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int n = 0;
+                while (n < raw.length && !inflater.finished()) {
+                    int read = inflater.inflate(raw, n, raw.length - n);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                    n += read;
+                }
+                if (n != raw.length) throw corrupt("block " + block + " is truncated");
+            } catch (DataFormatException ex) {
+                throw corrupt("block " + block + " does not inflate (" + ex.getMessage() + ")");
+            } finally {
+                inflater.end();
+            }
+
+            EntityDecoder decoder = new EntityDecoder();
+            ByteBuffer in = ByteBuffer.wrap(raw);
+            Order[] orders = new Order[blockOrders[block]];
+            for (int i = 0; i < orders.length; i++) {
+                Order o = decoder.decodeOrder(in);
+                o.freeze();
+                orders[i] = o;
+            }
+            return orders;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return path.getFileName() + " (" + size() + " orders, " + blockCount() + " blocks, " + diskBytes + " bytes)";
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position + buf.position());
+            if (n < 0) throw corrupt("unexpected end of file");
+        }
+        return buf.flip();
+    }
+
+    private IOException corrupt(String what) {
+        return new IOException("corrupt archive segment " + path + ": " + what);
+    }
+}
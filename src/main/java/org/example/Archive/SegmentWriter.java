@@ -0,0 +1,201 @@
+package org.example.Archive;
+
+import org.example.Codec.EntityEncoder;
+import org.example.Codec.Varint;
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one immutable segment file (layout: see {@link Segment}).
+ *
+ * <p>Single use: one writer per segment file. The file is written to {@code <name>.tmp}, forced
+ * to disk and atomically renamed, so a segment file either exists complete or not at all.
+ */
+final class SegmentWriter {
+
+    private final EntityEncoder encoder = new EntityEncoder();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final CRC32 crc = new CRC32();
+    private final int blockBytes;
+
+    // block index, filled while writing
+    private final List<String> firstIds = new ArrayList<>();
+    private final List<long[]> blockInfo = new ArrayList<>(); // offset, compressed, raw, orders, minCreated, maxCreated, crc
+    private final Map<String, List<Integer>> customerBlocks = new HashMap<>();
+    private final Map<OrderStatus, Integer> statusCounts = new EnumMap<>(OrderStatus.class);
+
+    private ByteBuffer raw;
+    private byte[] compressed = new byte[0];
+
+    /**
+     * @param blockBytes target uncompressed block size (a block ends after the order crossing it)
+     */
+    SegmentWriter(int blockBytes) {
+        if (blockBytes <= 0) throw new IllegalArgumentException("blockBytes must be > 0");
+        this.blockBytes = blockBytes;
+        this.raw = ByteBuffer.allocate(blockBytes + 1024);
+    }
+
+    /**
+     * Writes {@code orders} (sorted by ID, no duplicates) to {@code file}.
+     *
+     * @throws IOException if the file cannot be written; no partial file is left behind
+     */
+    void write(Path file, List<Order> orders) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        BloomFilter bloom = new BloomFilter(orders.size());
+        long minCreated = Long.MAX_VALUE;
+        long maxCreated = Long.MIN_VALUE;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Varint.MAX_INT_BYTES);
+            header.putInt(Segment.MAGIC);
+            Varint.writeInt(header, Segment.FORMAT);
+            writeFully(out, header.flip());
+
+            int blockStart = 0;
+            for (int i = 0; i < orders.size(); i++) {
+                Order o = orders.get(i);
+                int size = encoder.sizeOf(o);
+                if (raw.remaining() < size) raw = grow(raw, size);
+                encoder.encode(o, raw);
+                bloom.add(o.getId());
+                minCreated = Math.min(minCreated, o.getCreatedAt());
+                maxCreated = Math.max(maxCreated, o.getCreatedAt());
+                if (o.getStatus() != null) statusCounts.merge(o.getStatus(), 1, Integer::sum);
+                if (raw.position() >= blockBytes || i == orders.size() - 1) {
+                    flushBlock(out, orders, blockStart, i + 1);
+                    blockStart = i + 1;
+                }
+            }
+
+            long footerOffset = out.position();
+            ByteBuffer footer = footer(orders.size(), minCreated, maxCreated, bloom);
+            crc.reset();
+            crc.update(footer.duplicate());
+            int footerLength = footer.remaining();
+            writeFully(out, footer);
+
+            ByteBuffer trailer = ByteBuffer.allocate(Segment.TRAILER_BYTES);
+            trailer.putLong(footerOffset).putInt(footerLength).putInt((int) crc.getValue()).putInt(Segment.MAGIC);
+            writeFully(out, trailer.flip());
+            out.force(true);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        } finally {
+            deflater.end();
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void flushBlock(FileChannel out, List<Order> orders, int from, int to) throws IOException {
+        raw.flip();
+        int rawLength = raw.remaining();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        if (compressed.length < rawLength + 64) compressed = new byte[rawLength + rawLength / 8 + 64];
+        int n = 0;
+        while (!deflater.finished()) {
+            if (n == compressed.length) compressed = Arrays.copyOf(compressed, n * 2);
+            n += deflater.deflate(compressed, n, compressed.length - n);
+        }
+        raw.clear();
+
+        crc.reset();
+        crc.update(compressed, 0, n);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int block = firstIds.size();
+        for (int i = from; i < to; i++) {
+            Order o = orders.get(i);
+            min = Math.min(min, o.getCreatedAt());
+            max = Math.max(max, o.getCreatedAt());
+            String customerId = o.getCustomerId();
+            if (customerId == null) continue;
+            List<Integer> blocks = customerBlocks.computeIfAbsent(customerId, k -> new ArrayList<>(2));
+            if (blocks.isEmpty() || blocks.get(blocks.size() - 1) != block) blocks.add(block);
+        }
+        firstIds.add(orders.get(from).getId());
+        blockInfo.add(new long[]{out.position(), n, rawLength, to - from, min, max, crc.getValue()});
+        writeFully(out, ByteBuffer.wrap(compressed, 0, n));
+    }
+
+    private ByteBuffer footer(int orderCount, long minCreated, long maxCreated, BloomFilter bloom) {
+        ByteBuffer out = ByteBuffer.allocate(256 + bloom.serializedSize());
+        Varint.writeInt(out, orderCount);
+        Varint.writeLong(out, Varint.zigZag(minCreated));
+        Varint.writeLong(out, Varint.zigZag(maxCreated));
+
+        Varint.writeInt(out, statusCounts.size());
+        for (Map.Entry<OrderStatus, Integer> e : statusCounts.entrySet()) {
+            out = ensure(out, EntityEncoder.stringSize(e.getKey().name()) + Varint.MAX_INT_BYTES);
+            EntityEncoder.writeString(out, e.getKey().name());
+            Varint.writeInt(out, e.getValue());
+        }
+
+        out = ensure(out, Varint.MAX_INT_BYTES);
+        Varint.writeInt(out, firstIds.size());
+        for (int b = 0; b < firstIds.size(); b++) {
+            long[] info = blockInfo.get(b);
+            out = ensure(out, EntityEncoder.stringSize(firstIds.get(b)) + 6 * Varint.MAX_LONG_BYTES + Integer.BYTES);
+            EntityEncoder.writeString(out, firstIds.get(b));
+            Varint.writeLong(out, info[0]);
+            Varint.writeInt(out, (int) info[1]);
+            Varint.writeInt(out, (int) info[2]);
+            Varint.writeInt(out, (int) info[3]);
+            Varint.writeLong(out, Varint.zigZag(info[4]));
+            Varint.writeLong(out, Varint.zigZag(info[5]));
+            out.putInt((int) info[6]);
+        }
+
+        out = ensure(out, Varint.MAX_INT_BYTES);
+        Varint.writeInt(out, customerBlocks.size());
+        for (Map.Entry<String, List<Integer>> e : customerBlocks.entrySet()) {
+            List<Integer> blocks = e.getValue();
+            out = ensure(out, EntityEncoder.stringSize(e.getKey()) + (blocks.size() + 1) * Varint.MAX_INT_BYTES);
+            EntityEncoder.writeString(out, e.getKey());
+            Varint.writeInt(out, blocks.size());
+            int previous = 0;
+            for (int block : blocks) {
+                Varint.writeInt(out, block - previous); // ascending: delta-coded
+                previous = block;
+            }
+        }
+
+        out = ensure(out, bloom.serializedSize());
+        bloom.write(out);
+        return out.flip();
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buf, int extra) {
+        return buf.remaining() >= extra ? buf : grow(buf, extra);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf, int extra) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + extra));
+        bigger.put(buf.flip());
+        return bigger;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) out.write(buf);
+    }
+}
@@ -0,0 +1,436 @@
+package org.example.Codec;
+
+import org.example.Entity.Category;
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Workload.SyntheticData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the binary codec with Java serialization and JSON on synthetic orders: encode and
+ * decode time per order and bytes per order.
+ *
+ * <ul>
+ *   <li>Binary: one reusable {@link EntityEncoder} writing into a direct buffer, one reusable
+ *       {@link EntityDecoder} reading it back in place; plus an {@link OrderView} scan (total and
+ *       customer filter without building entities).</li>
+ *   <li>Java serialization: the entities are not {@code Serializable}, so orders are mapped to
+ *       serializable records first (mapping included in the time), one stream per order.</li>
+ *   <li>JSON: there is no JSON library on the classpath, so this is a straightforward hand-written
+ *       writer and a generic tree parser (maps and lists, then mapped to entities), which is what
+ *       a library-less export would look like. Each line embeds its full product, as toString does.</li>
+ * </ul>
+ * Each format runs a few warm-up rounds before the measured ones; the median round is reported.
+ * Results feed a sink so the JIT cannot drop the work. The numbers are a guide, not a JMH-grade
+ * measurement.
+ *
+ * <p>Usage: {@code mvn -q exec:java -Dexec.mainClass=org.example.Codec.CodecBenchmark
+ * -Dexec.args="orders=100000 rounds=5 warmup=3 seed=42"}
+ */
+public final class CodecBenchmark {
+
+    private static volatile long sink;
+
+    private final List<Order> orders;
+
+    public CodecBenchmark(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    /**
+     * One measured format: median nanoseconds per order for each phase and average encoded size.
+     */
+    public record Result(String format, double encodeNanos, double decodeNanos, double bytesPerOrder) {
+    }
+
+    // ------------------------------------------------------------
+    // Runs
+    // ------------------------------------------------------------
+
+    public List<Result> run(int warmup, int rounds) {
+        List<Result> results = new ArrayList<>();
+        results.add(binary(warmup, rounds));
+        results.add(view(warmup, rounds));
+        results.add(javaSerialization(warmup, rounds));
+        results.add(json(warmup, rounds));
+        return results;
+    }
+
+    private Result binary(int warmup, int rounds) {
+        EntityEncoder encoder = new EntityEncoder();
+        EntityDecoder decoder = new EntityDecoder();
+        long total = 0;
+        for (Order o : orders) total += encoder.sizeOf(o);
+        ByteBuffer segment = ByteBuffer.allocateDirect((int) total);
+        double encode = median(warmup, rounds, () -> {
+            segment.clear();
+            for (Order o : orders) encoder.encode(o, segment);
+            return segment.position();
+        });
+        double decode = median(warmup, rounds, () -> {
+            segment.flip();
+            long h = 0;
+            while (segment.hasRemaining()) h += decoder.decodeOrder(segment).getProducts().size();
+            return h;
+        });
+        return new Result("binary (direct buffer)", encode, decode, (double) total / orders.size());
+    }
+
+    private Result view(int warmup, int rounds) {
+        EntityEncoder encoder = new EntityEncoder();
+        long total = 0;
+        for (Order o : orders) total += encoder.sizeOf(o);
+        ByteBuffer segment = ByteBuffer.allocateDirect((int) total);
+        for (Order o : orders) encoder.encode(o, segment);
+        String customer = orders.getFirst().getCustomerId();
+        OrderView view = new OrderView();
+        double scan = median(warmup, rounds, () -> {
+            long h = 0;
+            for (int at = 0; at < segment.limit(); ) {
+                at = view.wrap(segment, at);
+                if (view.customerIdEquals(customer)) h++;
+                h += (long) view.total();
+            }
+            return h;
+        });
+        return new Result("binary view (total + filter)", Double.NaN, scan, (double) total / orders.size());
+    }
+
+    private Result javaSerialization(int warmup, int rounds) {
+        byte[][] encoded = new byte[orders.size()][];
+        double encode = median(warmup, rounds, () -> {
+            long bytes = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = serialize(OrderRecord.of(orders.get(i)));
+                bytes += encoded[i].length;
+            }
+            return bytes;
+        });
+        double decode = median(warmup, rounds, () -> {
+            long h = 0;
+            for (byte[] b : encoded) h += ((OrderRecord) deserialize(b)).toOrder().getProducts().size();
+            return h;
+        });
+        return new Result("java.io serialization", encode, decode, averageLength(encoded));
+    }
+
+    private Result json(int warmup, int rounds) {
+        byte[][] encoded = new byte[orders.size()][];
+        StringBuilder sb = new StringBuilder(1024);
+        double encode = median(warmup, rounds, () -> {
+            long bytes = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                sb.setLength(0);
+                Json.write(sb, orders.get(i));
+                encoded[i] = sb.toString().getBytes(StandardCharsets.UTF_8);
+                bytes += encoded[i].length;
+            }
+            return bytes;
+        });
+        double decode = median(warmup, rounds, () -> {
+            long h = 0;
+            for (byte[] b : encoded) h += Json.readOrder(new String(b, StandardCharsets.UTF_8)).getProducts().size();
+            return h;
+        });
+        return new Result("JSON (hand-written)", encode, decode, averageLength(encoded));
+    }
+
+    /**
+     * Runs {@code round} {@code warmup + rounds} times and returns the median measured ns per order.
+     */
+    private double median(int warmup, int rounds, RoundBody round) {
+        for (int i = 0; i < warmup; i++) sink += round.run();
+        double[] perOrder = new double[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            sink += round.run();
+            perOrder[i] = (double) (System.nanoTime() - start) / orders.size();
+        }
+        Arrays.sort(perOrder);
+        return perOrder[rounds / 2];
+    }
+
+    @FunctionalInterface
+    private interface RoundBody {
+        long run();
+    }
+
+    private static double averageLength(byte[][] encoded) {
+        long bytes = 0;
+        for (byte[] b : encoded) bytes += b.length;
+        return (double) bytes / encoded.length;
+    }
+
+    // ------------------------------------------------------------
+    // Java serialization baseline
+    // ------------------------------------------------------------
+
+    private record ProductRecord(String id, long version, String name, String category, Double price)
+            implements Serializable {
+    }
+
+    private record OrderRecord(String id, long version, String customerId, long createdAt,
+                               List<ProductRecord> lines) implements Serializable {
+
+        static OrderRecord of(Order o) {
+            Map<Product, ProductRecord> mapped = new IdentityHashMap<>(); // keep repeated lines shared
+            List<ProductRecord> lines = new ArrayList<>(o.getProducts().size());
+            for (Product p : o.getProducts()) {
+                lines.add(mapped.computeIfAbsent(p, k -> new ProductRecord(k.getId(), k.getVersion(), k.getName(),
+                        k.getCategory() == null ? null : k.getCategory().name(), k.getPrice())));
+            }
+            return new OrderRecord(o.getId(), o.getVersion(), o.getCustomerId(), o.getCreatedAt(), lines);
+        }
+
+        Order toOrder() {
+            Map<ProductRecord, Product> mapped = new IdentityHashMap<>();
+            List<Product> products = new ArrayList<>(lines.size());
+            for (ProductRecord r : lines) products.add(mapped.computeIfAbsent(r, k -> newProduct(
+                    k.id(), k.version(), k.name(), k.category(), k.price())));
+            return newOrder(id, version, customerId, createdAt, products);
+        }
+    }
+
+    private static Product newProduct(String id, long version, String name, String category, Double price) {
+        Product p = new Product(name, category == null ? null : Category.valueOf(category), price);
+        p.setId(id);
+        p.setVersion(version);
+        return p;
+    }
+
+    private static Order newOrder(String id, long version, String customerId, long createdAt, List<Product> products) {
+        Order o = new Order(customerId, 0.0, products);
+        o.setId(id);
+        o.setVersion(version);
+        o.setCreatedAt(createdAt);
+        o.getTotal();
+        return o;
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // JSON baseline
+    // ------------------------------------------------------------
+
+    private static final class Json {
+
+        static void write(StringBuilder sb, Order o) {
+            sb.append("{\"id\":");
+            string(sb, o.getId());
+            sb.append(",\"version\":").append(o.getVersion()).append(",\"customerId\":");
+            string(sb, o.getCustomerId());
+            sb.append(",\"createdAt\":").append(o.getCreatedAt()).append(",\"products\":[");
+            List<Product> lines = o.getProducts();
+            for (int i = 0; i < lines.size(); i++) {
+                Product p = lines.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":");
+                string(sb, p.getId());
+                sb.append(",\"version\":").append(p.getVersion()).append(",\"name\":");
+                string(sb, p.getName());
+                sb.append(",\"category\":");
+                string(sb, p.getCategory() == null ? null : p.getCategory().name());
+                sb.append(",\"price\":").append(p.getPrice()).append('}');
+            }
+            sb.append("]}");
+        }
+
+        private static void string(StringBuilder sb, String s) {
+            if (s == null) {
+                sb.append("null");
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') sb.append('\\').append(c);
+                else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                else sb.append(c);
+            }
+            sb.append('"');
+        }
+
+        @SuppressWarnings("unchecked")
+        static Order readOrder(String json) {
+            Map<String, Object> m = (Map<String, Object>) new Parser(json).value();
+            List<Product> products = new ArrayList<>();
+            for (Object line : (List<Object>) m.get("products")) {
+                Map<String, Object> p = (Map<String, Object>) line;
+                products.add(newProduct((String) p.get("id"), ((Number) p.get("version")).longValue(),
+                        (String) p.get("name"), (String) p.get("category"),
+                        p.get("price") == null ? null : ((Number) p.get("price")).doubleValue()));
+            }
+            return newOrder((String) m.get("id"), ((Number) m.get("version")).longValue(), (String) m.get("customerId"),
+                    ((Number) m.get("createdAt")).longValue(), products);
+        }
+
+        /**
+         * Minimal recursive-descent parser: objects, arrays, strings, numbers, literals.
+         */
+        private static final class Parser {
+            private final String s;
+            private int i;
+
+            Parser(String s) {
+                this.s = s;
+            }
+
+            Object value() {
+                skipWhitespace();
+                char c = s.charAt(i);
+                switch (c) {
+                    case '{' -> {
+                        i++;
+                        Map<String, Object> m = new LinkedHashMap<>();
+                        skipWhitespace();
+                        if (s.charAt(i) == '}') {
+                            i++;
+                            return m;
+                        }
+                        do {
+                            skipWhitespace();
+                            String key = string();
+                            skipWhitespace();
+                            expect(':');
+                            m.put(key, value());
+                            skipWhitespace();
+                        } while (s.charAt(i++) == ',');
+                        return m;
+                    }
+                    case '[' -> {
+                        i++;
+                        List<Object> list = new ArrayList<>();
+                        skipWhitespace();
+                        if (s.charAt(i) == ']') {
+                            i++;
+                            return list;
+                        }
+                        do {
+                            list.add(value());
+                            skipWhitespace();
+                        } while (s.charAt(i++) == ',');
+                        return list;
+                    }
+                    case '"' -> {
+                        return string();
+                    }
+                    case 'n' -> {
+                        i += 4;
+                        return null;
+                    }
+                    case 't' -> {
+                        i += 4;
+                        return Boolean.TRUE;
+                    }
+                    case 'f' -> {
+                        i += 5;
+                        return Boolean.FALSE;
+                    }
+                    default -> {
+                        int start = i;
+                        while (i < s.length() && "+-0123456789.eE".indexOf(s.charAt(i)) >= 0) i++;
+                        String number = s.substring(start, i);
+                        return number.contains(".") || number.contains("e") || number.contains("E")
+                                ? (Number) Double.parseDouble(number) : (Number) Long.parseLong(number);
+                    }
+                }
+            }
+
+            private String string() {
+                expect('"');
+                StringBuilder sb = new StringBuilder();
+                while (true) {
+                    char c = s.charAt(i++);
+                    if (c == '"') return sb.toString();
+                    if (c != '\\') {
+                        sb.append(c);
+                        continue;
+                    }
+                    char e = s.charAt(i++);
+                    if (e == 'u') {
+                        sb.append((char) Integer.parseInt(s, i, i + 4, 16));
+                        i += 4;
+                    } else {
+                        sb.append(e);
+                    }
+                }
+            }
+
+            private void expect(char c) {
+                if (s.charAt(i++) != c) throw new IllegalArgumentException("expected '" + c + "' at " + (i - 1));
+            }
+
+            private void skipWhitespace() {
+                while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // CLI
+    // ------------------------------------------------------------
+
+    public static void main(String[] args) {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int orderCount = Integer.parseInt(opt.getOrDefault("orders", "100000"));
+        int rounds = Integer.parseInt(opt.getOrDefault("rounds", "5"));
+        int warmup = Integer.parseInt(opt.getOrDefault("warmup", "3"));
+        long seed = Long.parseLong(opt.getOrDefault("seed", "42"));
+
+        SyntheticData data = new SyntheticData(seed);
+        List<Customer> customers = data.customers(Math.max(1, orderCount / 10)).collect(Collectors.toList());
+        List<Product> products = data.products(1000).collect(Collectors.toList());
+        List<Order> orders = data.orders(orderCount, customers, products).collect(Collectors.toList());
+        System.out.printf("%d orders, %.1f lines per order; %d warm-up + %d measured rounds (median)%n",
+                orderCount, orders.stream().mapToInt(o -> o.getProducts().size()).average().orElse(0), warmup, rounds);
+
+        System.out.printf("%-30s %14s %14s %12s%n", "format", "encode ns/op", "decode ns/op", "bytes/op");
+        for (Result r : new CodecBenchmark(orders).run(warmup, rounds)) {
+            System.out.printf("%-30s %14s %14.0f %12.1f%n", r.format(),
+                    Double.isNaN(r.encodeNanos()) ? "-" : String.format("%.0f", r.encodeNanos()),
+                    r.decodeNanos(), r.bytesPerOrder());
+        }
+        if (sink == 42) System.out.println(); // keeps the sink observable
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.Codec;
+
+import org.example.Entity.Category;
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Entity.Product;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads records written by {@link EntityEncoder} into fresh, mutable entities.
+ *
+ * <ul>
+ *   <li>Reads straight from the buffer at its position, so a record in a direct or memory-mapped
+ *       buffer is decoded in place without copying it to the heap first.</li>
+ *   <li>Strings are built from the buffer's backing array when it has one, otherwise from one
+ *       reusable scratch array.</li>
+ *   <li>Follows the {@link Schema} evolution rules: trailing fields from newer writers are skipped,
+ *       fields older writers did not have keep their defaults.</li>
+ * </ul>
+ * Callers that only need a few order fields can avoid building entities with {@link OrderView}.
+ *
+ * <p>Not thread-safe: use one decoder per thread.
+ */
+public final class EntityDecoder {
+
+    private byte[] scratch = new byte[64];
+    private Product[] distinct = new Product[16];
+
+    // ------------------------------------------------------------
+    // Records
+    // ------------------------------------------------------------
+
+    /**
+     * Decodes the record at {@code in}'s position and advances past it.
+     *
+     * @return a Customer, Product or Order
+     * @throws IllegalArgumentException if the record is truncated or malformed
+     */
+    public Object decode(ByteBuffer in) {
+        return read(in, (byte) 0);
+    }
+
+    public Customer decodeCustomer(ByteBuffer in) {
+        return (Customer) read(in, Schema.KIND_CUSTOMER);
+    }
+
+    public Product decodeProduct(ByteBuffer in) {
+        return (Product) read(in, Schema.KIND_PRODUCT);
+    }
+
+    public Order decodeOrder(ByteBuffer in) {
+        return (Order) read(in, Schema.KIND_ORDER);
+    }
+
+    public Object decode(byte[] record) {
+        return decode(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Skips the record at {@code in}'s position without decoding it.
+     *
+     * @return the record's kind (see {@link Schema})
+     */
+    public static byte skip(ByteBuffer in) {
+        try {
+            byte kind = in.get();
+            Varint.readInt(in); // schema version
+            int length = Varint.readInt(in);
+            in.position(in.position() + length);
+            return kind;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("corrupt entity record", e);
+        }
+    }
+
+    /**
+     * @param expected required kind, or 0 for any
+     */
+    private Object read(ByteBuffer in, byte expected) {
+        try {
+            byte kind = in.get();
+            if (expected != 0 && kind != expected) {
+                throw new IllegalArgumentException("expected " + Schema.entityName(expected)
+                        + " record, found kind " + kind);
+            }
+            Varint.readInt(in); // schema version: every version so far is append-only
+            int length = Varint.readInt(in);
+            int end = in.position() + length;
+            if (length < 0 || end > in.limit()) throw new IllegalArgumentException("record body exceeds buffer");
+            Object entity = switch (kind) {
+                case Schema.KIND_CUSTOMER -> readCustomer(in, end);
+                case Schema.KIND_PRODUCT -> readProduct(in, end);
+                case Schema.KIND_ORDER -> readOrder(in, end);
+                default -> throw new IllegalArgumentException("unknown record kind: " + kind);
+            };
+            in.position(end); // skip fields added by newer writers
+            return entity;
+        } catch (BufferUnderflowException | ClassCastException e) {
+            throw new IllegalArgumentException("corrupt entity record", e);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Bodies (each field is read only if the writer had it)
+    // ------------------------------------------------------------
+
+    private Customer readCustomer(ByteBuffer in, int end) {
+        String id = readString(in);
+        long version = Varint.readLong(in);
+        String name = in.position() < end ? readString(in) : null;
+        String city = in.position() < end ? readString(in) : null;
+        Customer c = new Customer(); // no-arg: skips generating a random ID that would be overwritten
+        c.setId(id);
+        c.setName(name);
+        c.setCity(city);
+        c.setVersion(version);
+        return c;
+    }
+
+    private Product readProduct(ByteBuffer in, int end) {
+        String id = readString(in);
+        long version = Varint.readLong(in);
+        String name = in.position() < end ? readString(in) : null;
+        String category = in.position() < end ? readString(in) : null;
+        double price = in.position() < end ? in.getDouble() : Double.NaN;
+        Product p = new Product();
+        p.setId(id);
+        p.setName(name);
+        p.setCategory(categoryOf(category));
+        p.setPrice(Double.isNaN(price) ? null : price);
+        p.setVersion(version);
+        return p;
+    }
+
+    private Order readOrder(ByteBuffer in, int end) {
+        String id = readString(in);
+        long version = Varint.readLong(in);
+        String customerId = in.position() < end ? readString(in) : null;
+        long createdAt = in.position() < end ? Varint.readLong(in) : 0L;
+        List<Product> lines = new ArrayList<>();
+        if (in.position() < end) {
+            int productCount = readCount(in, end);
+            if (distinct.length < productCount) distinct = new Product[productCount];
+            for (int i = 0; i < productCount; i++) {
+                int productEnd = readCount(in, end) + in.position(); // a product's length is bounded the same way
+                distinct[i] = readProduct(in, productEnd);
+                in.position(productEnd);
+            }
+            int lineCount = readCount(in, end);
+            lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                int index = Varint.readInt(in);
+                if (index >= productCount) throw new IllegalArgumentException("line refers to product #" + index);
+                lines.add(distinct[index]);
+            }
+            Arrays.fill(distinct, 0, productCount, null);
+        }
+        OrderStatus status = in.position() < end ? statusOf(readString(in)) : OrderStatus.PLACED;
+        Order o = new Order();
+        o.setId(id);
+        o.setCustomerId(customerId);
+        o.setProducts(lines);
+        o.setVersion(version);
+        o.setCreatedAt(createdAt);
+        o.setStatus(status);
+        o.getTotal(); // recompute from the lines
+        return o;
+    }
+
+    /**
+     * Reads a count of what follows in the record body. Every element takes at least one byte, so a
+     * larger count (e.g. from a corrupt replication frame) is rejected before it sizes an allocation.
+     */
+    private static int readCount(ByteBuffer in, int end) {
+        int count = Varint.readInt(in);
+        if (count < 0 || count > end - in.position()) {
+            throw new IllegalArgumentException("count " + count + " exceeds the record body");
+        }
+        return count;
+    }
+
+    private static Category categoryOf(String name) {
+        if (name == null) return null;
+        try {
+            return Category.valueOf(name);
+        } catch (IllegalArgumentException unknown) {
+            return null; // written by a newer version with more categories
+        }
+    }
+
+    /**
+     * Status by name; null for a status this version does not know.
+     */
+    static OrderStatus statusOf(String name) {
+        if (name == null) return null;
+        try {
+            return OrderStatus.valueOf(name);
+        } catch (IllegalArgumentException unknown) {
+            return null; // written by a newer version with more statuses
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Strings
+    // ------------------------------------------------------------
+
+    /**
+     * Reads a {@code str} field (see {@link Schema}) and advances past it.
+     */
+    public String readString(ByteBuffer in) {
+        int length = Varint.readInt(in) - 1;
+        if (length < 0) return null;
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        String s;
+        if (in.hasArray()) {
+            s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            in.get(scratch, 0, length);
+            s = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+}
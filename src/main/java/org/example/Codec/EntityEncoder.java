@@ -0,0 +1,252 @@
+package org.example.Codec;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes Customers, Products and Orders in the {@link Schema} layout.
+ *
+ * <ul>
+ *   <li>Reusable: the encoder keeps its output buffer and scratch arrays between calls, so a
+ *       steady stream of records allocates nothing but the occasional buffer growth.</li>
+ *   <li>The record size is computed first ({@link #sizeOf}), so the body length is written up
+ *       front and the record goes straight into the target buffer, heap or direct.</li>
+ *   <li>ASCII strings (IDs, most names) are copied char by char without a {@code byte[]}.</li>
+ * </ul>
+ *
+ * <p>Not thread-safe: use one encoder per thread.
+ */
+public final class EntityEncoder {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private Product[] distinct = new Product[16]; // order encoding: distinct products of the order
+    private int[] lineIndex = new int[32];        // order encoding: product index of each line
+    private int distinctCount;
+    private int lineCount;
+
+    // ------------------------------------------------------------
+    // Records
+    // ------------------------------------------------------------
+
+    /**
+     * Encodes into the encoder's own buffer.
+     *
+     * @return the record, from position 0 to its limit; valid until the next call on this encoder
+     */
+    public ByteBuffer encode(Object entity) {
+        int body = bodySize(entity);
+        int size = recordSize(body);
+        if (buffer.capacity() < size) buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        buffer.clear();
+        write(entity, body, buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * @return a copy of the encoded record
+     */
+    public byte[] toBytes(Object entity) {
+        ByteBuffer record = encode(entity);
+        return Arrays.copyOf(record.array(), record.limit());
+    }
+
+    /**
+     * Encodes at {@code out}'s position (e.g. into a direct or mapped buffer) and advances it.
+     *
+     * @throws BufferOverflowException if the record does not fit; {@code out} is left unchanged
+     */
+    public void encode(Object entity, ByteBuffer out) {
+        int body = bodySize(entity);
+        if (out.remaining() < recordSize(body)) throw new BufferOverflowException();
+        write(entity, body, out);
+    }
+
+    /**
+     * Encoded size of the record in bytes.
+     *
+     * @throws IllegalArgumentException if the value is not a Customer, Product or Order
+     */
+    public int sizeOf(Object entity) {
+        return recordSize(bodySize(entity));
+    }
+
+    private static int recordSize(int body) {
+        return 1 + Varint.sizeOfInt(Schema.VERSION) + Varint.sizeOfInt(body) + body;
+    }
+
+    /**
+     * @param body size from {@link #bodySize}, called just before (it fills the order scratch arrays)
+     */
+    private void write(Object entity, int body, ByteBuffer out) {
+        out.put(Schema.kindOf(entity));
+        Varint.writeInt(out, Schema.VERSION);
+        Varint.writeInt(out, body);
+        switch (entity) {
+            case Customer c -> writeCustomer(out, c);
+            case Product p -> writeProduct(out, p);
+            case Order o -> writeOrder(out, o);
+            default -> throw new IllegalArgumentException("no binary schema for " + entity.getClass().getName());
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Bodies
+    // ------------------------------------------------------------
+
+    private int bodySize(Object entity) {
+        return switch (entity) {
+            case Customer c -> stringSize(c.getId()) + Varint.sizeOfLong(c.getVersion())
+                    + stringSize(c.getName()) + stringSize(c.getCity());
+            case Product p -> productSize(p);
+            case Order o -> orderSize(o);
+            default -> throw new IllegalArgumentException("no binary schema for " + entity.getClass().getName());
+        };
+    }
+
+    private void writeCustomer(ByteBuffer out, Customer c) {
+        writeString(out, c.getId());
+        Varint.writeLong(out, c.getVersion());
+        writeString(out, c.getName());
+        writeString(out, c.getCity());
+    }
+
+    private static int productSize(Product p) {
+        return stringSize(p.getId()) + Varint.sizeOfLong(p.getVersion()) + stringSize(p.getName())
+                + stringSize(categoryName(p)) + Double.BYTES;
+    }
+
+    private void writeProduct(ByteBuffer out, Product p) {
+        writeString(out, p.getId());
+        Varint.writeLong(out, p.getVersion());
+        writeString(out, p.getName());
+        writeString(out, categoryName(p));
+        out.putDouble(p.getPrice() == null ? Double.NaN : p.getPrice());
+    }
+
+    /**
+     * Sizes the order and indexes its lines: repeated lines (one per unit) share one product entry.
+     */
+    private int orderSize(Order o) {
+        List<Product> lines = o.getProducts() == null ? List.of() : o.getProducts();
+        distinctCount = 0;
+        lineCount = lines.size();
+        if (lineIndex.length < lineCount) lineIndex = new int[Math.max(lineCount, lineIndex.length * 2)];
+        int size = stringSize(o.getId()) + Varint.sizeOfLong(o.getVersion()) + stringSize(o.getCustomerId())
+                + Varint.sizeOfLong(o.getCreatedAt());
+        for (int i = 0; i < lineCount; i++) {
+            Product p = lines.get(i);
+            int index = indexOf(p);
+            if (index < 0) {
+                if (distinctCount == distinct.length) distinct = Arrays.copyOf(distinct, distinctCount * 2);
+                index = distinctCount++;
+                distinct[index] = p;
+                int productSize = productSize(p);
+                size += Varint.sizeOfInt(productSize) + productSize;
+            }
+            lineIndex[i] = index;
+            size += Varint.sizeOfInt(index);
+        }
+        return size + Varint.sizeOfInt(distinctCount) + Varint.sizeOfInt(lineCount) + stringSize(statusName(o));
+    }
+
+    private void writeOrder(ByteBuffer out, Order o) {
+        writeString(out, o.getId());
+        Varint.writeLong(out, o.getVersion());
+        writeString(out, o.getCustomerId());
+        Varint.writeLong(out, o.getCreatedAt());
+        Varint.writeInt(out, distinctCount);
+        for (int i = 0; i < distinctCount; i++) {
+            Varint.writeInt(out, productSize(distinct[i]));
+            writeProduct(out, distinct[i]);
+        }
+        Varint.writeInt(out, lineCount);
+        for (int i = 0; i < lineCount; i++) Varint.writeInt(out, lineIndex[i]);
+        writeString(out, statusName(o));
+        Arrays.fill(distinct, 0, distinctCount, null); // do not pin the products
+    }
+
+    /**
+     * Baskets hold few distinct products, and the lines of one product are usually the same
+     * instance, so a linear scan (identity first) beats hashing.
+     */
+    private int indexOf(Product p) {
+        for (int i = 0; i < distinctCount; i++) if (distinct[i] == p) return i;
+        for (int i = 0; i < distinctCount; i++) if (distinct[i].equals(p)) return i;
+        return -1;
+    }
+
+    private static String categoryName(Product p) {
+        return p.getCategory() == null ? null : p.getCategory().name();
+    }
+
+    private static String statusName(Order o) {
+        return o.getStatus() == null ? null : o.getStatus().name();
+    }
+
+    // ------------------------------------------------------------
+    // Strings
+    // ------------------------------------------------------------
+
+    /**
+     * Encoded size of a {@code str} field (see {@link Schema}).
+     */
+    public static int stringSize(String s) {
+        if (s == null) return 1;
+        int bytes = utf8Length(s);
+        return Varint.sizeOfInt(bytes + 1) + bytes;
+    }
+
+    /**
+     * Writes a {@code str} field (see {@link Schema}), for framing around entity records.
+     */
+    public static void writeString(ByteBuffer out, String s) {
+        if (s == null) {
+            out.put((byte) 0);
+            return;
+        }
+        int bytes = utf8Length(s);
+        Varint.writeInt(out, bytes + 1);
+        int start = out.position();
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) { // not ASCII: start over with the JDK encoder
+                out.position(start);
+                out.put(s.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            out.put((byte) c);
+        }
+    }
+
+    /**
+     * UTF-8 length without encoding (unpaired surrogates count 1 byte, as {@code getBytes} writes '?').
+     */
+    static int utf8Length(String s) {
+        int n = s.length();
+        int bytes = n;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 2; // 4 bytes for 2 chars
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // unpaired: encoded as '?'
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+}
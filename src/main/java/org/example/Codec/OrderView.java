@@ -0,0 +1,265 @@
+package org.example.Codec;
+
+import org.example.Entity.OrderStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy, read-only view of an encoded Order: fields are read from the buffer on demand,
+ * without building the Order or its Products.
+ *
+ * <ul>
+ *   <li>{@link #wrap} only walks the varints to find where the fields start; numbers are read in
+ *       place, and strings are only built when asked for.</li>
+ *   <li>{@link #customerIdEquals} compares against the encoded bytes, so filters allocate nothing.</li>
+ *   <li>{@link #total()} sums the line prices straight from the product table.</li>
+ *   <li>Absolute reads only: the wrapped buffer's position and limit are never changed, so one
+ *       mapped segment can be shared by several views.</li>
+ * </ul>
+ *
+ * <p>A view is reusable ({@link #wrap} again for the next record) and not thread-safe.
+ */
+public final class OrderView {
+
+    private ByteBuffer buffer;
+    private int end;          // end of the body
+    private int idPos;        // position of each field's first byte, -1 if the writer did not have it
+    private int customerIdPos;
+    private long version;
+    private long createdAt;
+    private int productsPos;  // the productCount varint
+    private int linesPos;     // the lineCount varint
+    private int productCount;
+    private int lineCount;
+    private int cursor;       // read position used by the varint helpers
+    private double[] prices = new double[16]; // total(): price of each distinct product
+
+    /**
+     * Points the view at the order record starting at {@code offset}.
+     *
+     * @return offset just past the record (where the next record starts)
+     * @throws IllegalArgumentException if the record is not an order or is malformed
+     */
+    public int wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        try {
+            cursor = offset;
+            byte kind = buffer.get(cursor++);
+            if (kind != Schema.KIND_ORDER) throw new IllegalArgumentException("not an order record: kind " + kind);
+            readVarint(); // schema version
+            int length = readVarint();
+            end = cursor + length;
+            if (length < 0 || end > buffer.limit()) throw new IllegalArgumentException("record body exceeds buffer");
+
+            idPos = cursor;
+            skipString();
+            version = readVarlong();
+            customerIdPos = -1;
+            createdAt = 0;
+            productsPos = linesPos = -1;
+            productCount = lineCount = 0;
+            if (cursor < end) {
+                customerIdPos = cursor;
+                skipString();
+            }
+            if (cursor < end) createdAt = readVarlong();
+            if (cursor < end) {
+                productsPos = cursor;
+                productCount = readCount();
+                for (int i = 0; i < productCount; i++) {
+                    int productLength = readCount(); // a product's length is bounded the same way
+                    cursor += productLength;
+                }
+                linesPos = cursor;
+                lineCount = readCount();
+            }
+            return end;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("corrupt order record", e);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Fields
+    // ------------------------------------------------------------
+
+    public String id() {
+        return stringAt(idPos);
+    }
+
+    public String customerId() {
+        return customerIdPos < 0 ? null : stringAt(customerIdPos);
+    }
+
+    /**
+     * Compares the encoded customer ID with {@code customerId} without decoding it.
+     * Only ASCII IDs (all generated IDs) compare without allocation; others fall back to decoding.
+     */
+    public boolean customerIdEquals(String customerId) {
+        if (customerIdPos < 0) return customerId == null;
+        if (customerId == null) return customerId() == null;
+        cursor = customerIdPos;
+        int length = readStringLength();
+        if (length != customerId.length()) {
+            return length >= 0 && customerId.equals(customerId());
+        }
+        for (int i = 0; i < length; i++) {
+            char c = customerId.charAt(i);
+            if (c >= 0x80) return customerId.equals(customerId());
+            if (buffer.get(cursor + i) != (byte) c) return false;
+        }
+        return true;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Read on demand (it follows the line table): PLACED if the writer did not have the field,
+     * null for a status this version does not know.
+     */
+    public OrderStatus status() {
+        if (linesPos < 0) return OrderStatus.PLACED;
+        cursor = linesPos;
+        int lines = readVarint();
+        for (int i = 0; i < lines; i++) readVarint();
+        return cursor < end ? EntityDecoder.statusOf(stringAt(cursor)) : OrderStatus.PLACED;
+    }
+
+    /**
+     * @return creation time in epoch milliseconds (0 if the writer did not have it)
+     */
+    public long createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return number of order lines (one per unit)
+     */
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return number of distinct products in the order
+     */
+    public int productCount() {
+        return productCount;
+    }
+
+    /**
+     * Sum of the line prices (null prices count 0); equals {@code Order.getTotal()} up to rounding
+     * (that one sums with compensation).
+     *
+     * @throws IllegalArgumentException if a line refers to a product the record does not have
+     */
+    public double total() {
+        if (lineCount == 0) return 0.0;
+        if (prices.length < productCount) prices = new double[Math.max(productCount, prices.length * 2)];
+        try {
+            cursor = productsPos;
+            readVarint();
+            for (int i = 0; i < productCount; i++) {
+                int productEnd = readVarint() + cursor;
+                skipString();   // id
+                readVarlong();  // version
+                prices[i] = productEnd - cursor > 0 ? priceAt(productEnd) : 0.0;
+                cursor = productEnd;
+            }
+            cursor = linesPos;
+            readVarint();
+            double total = 0.0;
+            for (int i = 0; i < lineCount; i++) {
+                int index = readVarint();
+                if (index < 0 || index >= productCount) throw new IllegalArgumentException("line refers to product #" + index);
+                total += prices[index];
+            }
+            return total;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("corrupt order record", e);
+        }
+    }
+
+    /**
+     * Price field of the product body ending at {@code productEnd}; {@code cursor} is after its version.
+     */
+    private double priceAt(int productEnd) {
+        skipString(); // name
+        if (cursor >= productEnd) return 0.0;
+        skipString(); // category
+        if (cursor >= productEnd) return 0.0;
+        double price = buffer.getDouble(cursor);
+        return Double.isNaN(price) ? 0.0 : price;
+    }
+
+    // ------------------------------------------------------------
+    // Absolute reads
+    // ------------------------------------------------------------
+
+    private String stringAt(int pos) {
+        cursor = pos;
+        int length = readStringLength();
+        if (length < 0) return null;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + cursor, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(cursor, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count or length varint and checks it against the rest of the body, as
+     * {@code EntityDecoder} does, so a corrupt count neither runs past {@link #end} nor sizes an array.
+     */
+    private int readCount() {
+        int count = readVarint();
+        if (count < 0 || count > end - cursor) {
+            throw new IllegalArgumentException("count " + count + " exceeds the record body");
+        }
+        return count;
+    }
+
+    private void skipString() {
+        int length = readStringLength();
+        if (length > 0) cursor += length;
+    }
+
+    /**
+     * @return byte length of the string at {@code cursor}, -1 for null
+     */
+    private int readStringLength() {
+        int length = readVarint() - 1;
+        if (length > end - cursor) throw new IllegalArgumentException("string of " + length + " bytes exceeds the record body");
+        return length;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get(cursor++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    private long readVarlong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get(cursor++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varlong");
+    }
+
+    @Override
+    public String toString() {
+        if (buffer == null) return "OrderView{}";
+        return "OrderView{id='" + id() + "', customerId='" + customerId() + "', createdAt=" + createdAt
+                + ", lines=" + lineCount + '}';
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.Codec;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+
+/**
+ * Binary layout shared by {@link EntityEncoder}, {@link EntityDecoder} and {@link OrderView}.
+ *
+ * <p>Record: {@code kind:byte schemaVersion:varint bodyLength:varint body}. Bodies (version 1):
+ * <ul>
+ *   <li>Customer: {@code id:str version:varlong name:str city:str}</li>
+ *   <li>Product: {@code id:str version:varlong name:str category:str price:double}</li>
+ *   <li>Order: {@code id:str version:varlong customerId:str createdAt:varlong
+ *       productCount:varint [productLength:varint productBody]* lineCount:varint [productIndex:varint]*
+ *       status:str} — each distinct product is written once, repeated lines refer to it by index.
+ *       {@code status} was appended later; records without it read as PLACED.</li>
+ * </ul>
+ * {@code str} is {@code varint(utf8Length + 1)} followed by the UTF-8 bytes, 0 meaning null.
+ * Doubles are 8 bytes big-endian; a null price is written as NaN. Categories and statuses are
+ * written by name, so reordering {@code Category} or {@code OrderStatus} does not corrupt stored data.
+ *
+ * <p>Schema evolution:
+ * <ul>
+ *   <li>Fields are only ever appended to a body, never removed or reordered.</li>
+ *   <li>Every body (including nested products) is length-prefixed: a reader stops at the end of
+ *       the body, skipping trailing fields it does not know.</li>
+ *   <li>A reader gives fields the writer did not have their default (null, 0).</li>
+ *   <li>A category or status name the reader does not know decodes as null.</li>
+ *   <li>{@code schemaVersion} is the writer's {@link #VERSION}; readers only need it for changes
+ *       that cannot be expressed by appending.</li>
+ * </ul>
+ */
+public final class Schema {
+
+    public static final int VERSION = 1;
+
+    public static final byte KIND_CUSTOMER = 1;
+    public static final byte KIND_PRODUCT = 2;
+    public static final byte KIND_ORDER = 3;
+
+    private Schema() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a Customer, Product or Order
+     */
+    public static byte kindOf(Object entity) {
+        return switch (entity) {
+            case Customer c -> KIND_CUSTOMER;
+            case Product p -> KIND_PRODUCT;
+            case Order o -> KIND_ORDER;
+            default -> throw new IllegalArgumentException("no binary schema for " + entity.getClass().getName());
+        };
+    }
+
+    /**
+     * Entity name of a kind, as used by repositories and the change stream.
+     */
+    public static String entityName(byte kind) {
+        return switch (kind) {
+            case KIND_CUSTOMER -> "customer";
+            case KIND_PRODUCT -> "product";
+            case KIND_ORDER -> "order";
+            default -> throw new IllegalArgumentException("unknown record kind: " + kind);
+        };
+    }
+}
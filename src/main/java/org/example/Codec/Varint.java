@@ -0,0 +1,93 @@
+package org.example.Codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Unsigned LEB128 variable-length integers: 7 bits per byte, high bit set on every byte but the last.
+ *
+ * <ul>
+ *   <li>Values below 128 take one byte, below 16384 two, and so on; a long takes at most 10.</li>
+ *   <li>Negative values are legal but take the maximum width; signed fields that may be negative
+ *       go through {@link #zigZag}.</li>
+ * </ul>
+ */
+public final class Varint {
+
+    public static final int MAX_INT_BYTES = 5;
+    public static final int MAX_LONG_BYTES = 10;
+
+    private Varint() {
+    }
+
+    public static void writeInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static void writeLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the encoding is longer than {@link #MAX_INT_BYTES}
+     * @throws BufferUnderflowException if the buffer ends inside the value
+     */
+    public static int readInt(ByteBuffer in) {
+        int b = in.get();
+        if (b >= 0) return b; // one-byte fast path
+        int value = b & 0x7F;
+        for (int shift = 7; shift < 35; shift += 7) {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the encoding is longer than {@link #MAX_LONG_BYTES}
+     * @throws BufferUnderflowException if the buffer ends inside the value
+     */
+    public static long readLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varlong");
+    }
+
+    /**
+     * Bytes {@link #writeInt} uses for {@code value}.
+     */
+    public static int sizeOfInt(int value) {
+        return value == 0 ? 1 : (31 - Integer.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+
+    /**
+     * Bytes {@link #writeLong} uses for {@code value}.
+     */
+    public static int sizeOfLong(long value) {
+        return value == 0 ? 1 : (63 - Long.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+
+    /**
+     * Maps signed to unsigned so small magnitudes stay short: 0, -1, 1, -2 ... become 0, 1, 2, 3 ...
+     */
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
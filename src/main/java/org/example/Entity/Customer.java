@@ -1,14 +1,20 @@
 package org.example.Entity;
 
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Versioned;
 
 import java.util.Objects;
 import java.util.UUID;
 
-public class Customer implements Identifiable<String> {
+public class Customer implements Identifiable<String>, Versioned<Customer> {
+    // Cities repeat across millions of customers: equal ones share one String
+    public static final StringInterner CITIES = new StringInterner("city");
+
     private String id;
     private String name;
-    private String city;
+    private String city;    // interned through CITIES
+    private long version;   // optimistic-concurrency version (see Versioned)
+    private boolean frozen; // set once stored in a repository
 
 
     public Customer(String name, String city) {
@@ -16,15 +22,28 @@ public class Customer implements Identifiable<String> {
 //        We want to  generate a unique id simply t.ex 1234 or 1,2,3,4 so we will edit UUID toString method
         this.id = UUID.randomUUID().toString().split("-")[0]; // Generates a shorter unique ID
         this.name = name;
-        this.city = city;
+        this.city = CITIES.intern(city);
+    }
+
+    /**
+     * Empty customer without a generated ID, for decoders that set every field afterwards.
+     */
+    public Customer() {
     }
 
+    private Customer(Customer other) {
+        this.id = other.id;
+        this.version = other.version;
+        this.name = other.name;
+        this.city = other.city;
+    }
 
     public String getId() {
         return id;
     }
 
     public void setId(String id) {
+        ensureMutable();
         this.id = id;
     }
 
@@ -33,6 +52,7 @@ public class Customer implements Identifiable<String> {
     }
 
     public void setName(String name) {
+        ensureMutable();
         this.name = name;
     }
 
@@ -41,7 +61,40 @@ public class Customer implements Identifiable<String> {
     }
 
     public void setCity(String city) {
-        this.city = city;
+        ensureMutable();
+        this.city = CITIES.intern(city);
+    }
+
+    // ===== Immutable versions (see Versioned) =====
+
+    @Override
+    public Customer copy() {
+        return new Customer(this);
+    }
+
+    @Override
+    public void freeze() {
+        frozen = true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        ensureMutable();
+        this.version = version;
+    }
+
+    private void ensureMutable() {
+        if (frozen) throw new IllegalStateException("Customer " + id + " is a stored version; edit a copy()");
     }
 
     @Override
@@ -49,7 +102,7 @@ public class Customer implements Identifiable<String> {
         return "Customer{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", city='" + city + '\'' +
+                ", city='" + getCity() + '\'' +
                 '}';
 
     }
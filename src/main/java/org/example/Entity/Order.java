@@ -1,12 +1,18 @@
 package org.example.Entity;
 
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Versioned;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.UUID;
 
-public class Order implements Identifiable<String> {
+public class Order implements Identifiable<String>, Versioned<Order> {
     //    Order med egenskaper: orderId (String), products (List<Product>), customerName
 //(String
 //    ), totalAmount (double). Inkludera getters och setters.
@@ -14,23 +20,41 @@ public class Order implements Identifiable<String> {
     private String customerId;
     private double total;
     private List<Product> products; // Uncomment if you want to include products list
+    private Product[] lines;        // frozen orders keep the lines as a plain array (products == null)
+    private long createdAt; // epoch milliseconds, set when the order object is created
+    private OrderStatus status = OrderStatus.PLACED;
+    private long version;   // optimistic-concurrency version (see Versioned)
+    private boolean frozen; // set once stored in a repository
 
     public Order(String customerId, double totalAmount, List<Product> products) {
         this.id = UUID.randomUUID().toString().split("-")[0];
         this.customerId = customerId;
         this.total = totalAmount;
         this.products = products;
+        this.createdAt = System.currentTimeMillis();
     }
 
     public Order() {
 
     }
 
+    private Order(Order other) {
+        this.id = other.id;
+        this.version = other.version;
+        this.customerId = other.customerId;
+        this.total = other.total;
+        this.createdAt = other.createdAt;
+        this.status = other.status;
+        List<Product> source = other.getProducts();
+        this.products = source == null ? null : new ArrayList<>(source);
+    }
+
     public String getId() {
         return id;
     }
 
     public void setId(String id) {
+        ensureMutable();
         this.id = id;
     }
 
@@ -39,37 +63,133 @@ public class Order implements Identifiable<String> {
     }
 
     public void setCustomerId(String customerId) {
+        ensureMutable();
         this.customerId = customerId;
     }
 
     public double getTotal() {
+        if (frozen) return total; // computed once in freeze()
         total = (products == null) ? 0.0
                 : products.stream().mapToDouble(Product::getPrice).sum();
         return total;
     }
 
     public void setTotal(double total) {
+        ensureMutable();
         this.total = total;
     }
 
+    /**
+     * @return creation time in epoch milliseconds (0 if never set)
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        ensureMutable();
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * @return lifecycle status (PLACED for a new order)
+     */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status as is; {@code OrderService} validates transitions.
+     */
+    public void setStatus(OrderStatus status) {
+        ensureMutable();
+        this.status = status;
+    }
+
+    /**
+     * @return the order lines (one per unit); read-only once the order is frozen
+     */
     public List<Product> getProducts() {
-        return products;
+        if (!frozen) return products;
+        return lines == null ? null : new Lines(lines);
     }
 
     public void setProducts(List<Product> products) {
+        ensureMutable();
         this.products = products;
     }
 
+    /**
+     * @return number of order lines, 0 if the order has no product list; repositories tally this,
+     *     so it never throws and, once frozen, does not build the list view
+     */
+    public int lineCount() {
+        if (frozen) return lines == null ? 0 : lines.length;
+        return products == null ? 0 : products.size();
+    }
+
+    // ===== Immutable versions (see Versioned) =====
+
+    /**
+     * Mutable copy; the product list is copied so edits do not touch the stored version.
+     */
+    @Override
+    public Order copy() {
+        return new Order(this);
+    }
+
+    /**
+     * Freezes the order: the lines become an unmodifiable array of frozen products and the total
+     * is fixed. The array replaces the list (no wrapper object per stored order); {@link #getProducts()}
+     * returns a read-only view of it.
+     */
+    @Override
+    public void freeze() {
+        if (frozen) return;
+        getTotal();
+        if (products != null) {
+            // repeated lines share one frozen instance per distinct product object
+            Map<Product, Product> frozenByInstance = new IdentityHashMap<>();
+            Product[] frozenLines = new Product[products.size()];
+            for (int i = 0; i < frozenLines.length; i++) {
+                frozenLines[i] = frozenByInstance.computeIfAbsent(products.get(i), Versioned::frozenCopyOf);
+            }
+            lines = frozenLines;
+            products = null;
+        }
+        frozen = true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        ensureMutable();
+        this.version = version;
+    }
+
+    private void ensureMutable() {
+        if (frozen) throw new IllegalStateException("Order " + id + " is a stored version; edit a copy()");
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         Order order = (Order) o;
-        return Double.compare(total, order.total) == 0 && Objects.equals(id, order.id) && Objects.equals(customerId, order.customerId) && Objects.equals(products, order.products);
+        return Double.compare(total, order.total) == 0 && Objects.equals(id, order.id) && Objects.equals(customerId, order.customerId) && status == order.status && Objects.equals(getProducts(), order.getProducts());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, customerId, total, products);
+        return Objects.hash(id, customerId, total, status, getProducts());
     }
 
     @Override
@@ -78,9 +198,30 @@ public class Order implements Identifiable<String> {
                 "id='" + id + '\'' +
                 ", customerId='" + customerId + '\'' +
                 ", totalAmount=" + total +
-                ", products=" + products +
+                ", createdAt=" + createdAt +
+                ", status=" + status +
+                ", products=" + getProducts() +
                 '}';
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Read-only list view over a frozen order's line array.
+     */
+    private static final class Lines extends AbstractList<Product> implements RandomAccess {
+        private final Product[] lines;
+
+        Lines(Product[] lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public Product get(int index) {
+            return lines[index];
+        }
+
+        @Override
+        public int size() {
+            return lines.length;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.Entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of an order.
+ *
+ * <pre>
+ * PLACED → PAID → PICKED → SHIPPED
+ *    └───────┴───────┴────→ CANCELLED
+ * </pre>
+ * SHIPPED and CANCELLED are final.
+ */
+public enum OrderStatus {
+    PLACED,
+    PAID,
+    PICKED,
+    SHIPPED,
+    CANCELLED;
+
+    /**
+     * @return true if an order in this status may move to {@code next}
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        if (next == null || isTerminal()) return false;
+        return next == CANCELLED || next.ordinal() == ordinal() + 1;
+    }
+
+    /**
+     * @return true for SHIPPED and CANCELLED, which allow no further transition
+     */
+    public boolean isTerminal() {
+        return this == SHIPPED || this == CANCELLED;
+    }
+
+    /**
+     * @return the statuses an order may move to {@code target} from (empty for PLACED)
+     */
+    public static Set<OrderStatus> allowedFrom(OrderStatus target) {
+        Set<OrderStatus> from = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus s : values()) {
+            if (s.canTransitionTo(target)) from.add(s);
+        }
+        return from;
+    }
+}
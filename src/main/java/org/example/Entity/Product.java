@@ -1,28 +1,49 @@
 package org.example.Entity;
 
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Versioned;
 
 import java.util.Objects;
 import java.util.UUID;
 
-public class Product implements Identifiable<String> {
+public class Product implements Identifiable<String>, Versioned<Product> {
+    private static final Category[] CATEGORIES = Category.values();
+
     private String id;
     private String name;
-    private Enum<Category> category;
+    private byte category;  // Category ordinal, -1 = null
     private Double price;
+    private long version;   // optimistic-concurrency version (see Versioned)
+    private boolean frozen; // set once stored in a repository
 
     public Product(String name, Enum<Category> category, Double price) {
         this.id = UUID.randomUUID().toString().split("-")[0];
         this.name = name;
-        this.category = category;
+        this.category = ordinalOf(category);
         this.price = price;
     }
 
+    /**
+     * Empty product without a generated ID, for decoders that set every field afterwards.
+     */
+    public Product() {
+        this.category = ordinalOf(null);
+    }
+
+    private Product(Product other) {
+        this.id = other.id;
+        this.version = other.version;
+        this.name = other.name;
+        this.category = other.category;
+        this.price = other.price;
+    }
+
     public String getId() {
         return id;
     }
 
     public void setId(String id) {
+        ensureMutable();
         this.id = id;
     }
 
@@ -31,15 +52,21 @@ public class Product implements Identifiable<String> {
     }
 
     public void setName(String name) {
+        ensureMutable();
         this.name = name;
     }
 
     public Enum getCategory() {
-        return category;
+        return category < 0 ? null : CATEGORIES[category];
     }
 
     public void setCategory(Enum<Category> category) {
-        this.category = category;
+        ensureMutable();
+        this.category = ordinalOf(category);
+    }
+
+    private static byte ordinalOf(Enum<Category> category) {
+        return category == null ? -1 : (byte) category.ordinal();
     }
 
     public Double getPrice() {
@@ -47,15 +74,48 @@ public class Product implements Identifiable<String> {
     }
 
     public void setPrice(Double price) {
+        ensureMutable();
         this.price = price;
     }
 
+    // ===== Immutable versions (see Versioned) =====
+
+    @Override
+    public Product copy() {
+        return new Product(this);
+    }
+
+    @Override
+    public void freeze() {
+        frozen = true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        ensureMutable();
+        this.version = version;
+    }
+
+    private void ensureMutable() {
+        if (frozen) throw new IllegalStateException("Product " + id + " is a stored version; edit a copy()");
+    }
+
     @Override
     public String toString() {
         return "Product{" +
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
-                ", category=" + category +
+                ", category=" + getCategory() +
                 ", price=" + price +
                 '}';
     }
@@ -64,11 +124,11 @@ public class Product implements Identifiable<String> {
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         Product product = (Product) o;
-        return Objects.equals(id, product.id) && Objects.equals(name, product.name) && Objects.equals(category, product.category) && Objects.equals(price, product.price);
+        return Objects.equals(id, product.id) && Objects.equals(name, product.name) && category == product.category && Objects.equals(price, product.price);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, category, price);
+        return Objects.hash(id, name, getCategory(), price);
     }
 }
\ No newline at end of file
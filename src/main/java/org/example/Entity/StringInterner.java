@@ -0,0 +1,69 @@
+package org.example.Entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded interner for low-cardinality string attributes (e.g. {@link Customer#CITIES}).
+ *
+ * <ul>
+ *   <li>Equal values share one String however they were read (console, codec, seed data), so
+ *       millions of entities hold a few thousand city strings instead of a copy each.</li>
+ *   <li>Interning a known value is one concurrent-map lookup, without locking.</li>
+ *   <li>At most {@code maxSize} values are kept. Once full, new values are returned as they are:
+ *       they are simply not shared, and interning never fails. Values are not released, so the
+ *       bound also caps what free text (or one tenant) can pin in memory.</li>
+ * </ul>
+ *
+ * <p>Thread-safe.
+ */
+public final class StringInterner {
+
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    private final String name;
+    private final int maxSize;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * @param name    attribute name, for diagnostics
+     * @param maxSize distinct values kept at most
+     */
+    public StringInterner(String name, int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    public StringInterner(String name) {
+        this(name, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @return the shared instance equal to {@code value}, or {@code value} itself if it is new and
+     * the interner is full (null for null)
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        String shared = values.get(value);
+        if (shared != null) return shared;
+        if (values.size() >= maxSize) return value; // concurrent adds may overshoot by a few
+        shared = values.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    /**
+     * @return number of shared values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
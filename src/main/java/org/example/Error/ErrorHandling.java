@@ -43,4 +43,44 @@ public class ErrorHandling {
             super(message, cause);
         }
     }
+
+    /**
+     * Thrown when an optimistic update lost a race: the entity was changed by someone else
+     * since it was read (its version no longer matches).
+     */
+    public static class Conflict extends RuntimeException {
+        public Conflict(String message) {
+            super(message);
+        }
+
+        public Conflict(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown when a write reaches a read-only copy of the data (e.g. a replication follower).
+     */
+    public static class ReadOnly extends RuntimeException {
+        public ReadOnly(String message) {
+            super(message);
+        }
+
+        public ReadOnly(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown when a write would take a tenant past its resource quota, or its work queue is full.
+     */
+    public static class QuotaExceeded extends RuntimeException {
+        public QuotaExceeded(String message) {
+            super(message);
+        }
+
+        public QuotaExceeded(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package org.example.Error;
+
+/**
+ * Why a service call was rejected, as a value instead of an exception.
+ *
+ * <p>Used by the non-throwing service API ({@code tryCreate}, {@code tryPlace}, ...):
+ * <ul>
+ *   <li>No stack trace is captured; failures without an entity id are preallocated constants.</li>
+ *   <li>The message is only built when asked for, so a rejected bulk row costs one small allocation.</li>
+ *   <li>{@link #toException()} gives the matching {@link ErrorHandling} exception for callers that throw.</li>
+ * </ul>
+ */
+public final class Failure {
+
+    /**
+     * Failure kinds; {@link #label()} equals the simple name of the matching exception, so metrics
+     * and events look the same whichever API rejected the call.
+     */
+    public enum Code {
+        VALIDATION("Validation"),
+        NOT_FOUND("NotFound"),
+        DUPLICATE("Duplicate"),
+        CONFLICT("Conflict"),
+        READ_ONLY("ReadOnly"),
+        QUOTA_EXCEEDED("QuotaExceeded");
+
+        private final String label;
+
+        Code(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    // ===== Preallocated failures (no per-call state) =====
+    public static final Failure NULL_ENTITY = new Failure(Code.VALIDATION, "entity", null, "Entity must not be null");
+    public static final Failure NULL_ID = new Failure(Code.VALIDATION, "id", null, "ID must not be null");
+
+    private final Code code;
+    private final String field;
+    private final Object entityId;
+    private final String text;
+    private String message;
+
+    private Failure(Code code, String field, Object entityId, String text) {
+        this.code = code;
+        this.field = field;
+        this.entityId = entityId;
+        this.text = text;
+    }
+
+    /**
+     * @param code     failure kind
+     * @param field    offending field (e.g. "customerId"), or null
+     * @param entityId id the failure refers to (the entity's own id or the missing reference), or null;
+     *                 appended to the message as {@code text + entityId}
+     * @param text     message text (a constant, so nothing is concatenated until {@link #message()})
+     */
+    public static Failure of(Code code, String field, Object entityId, String text) {
+        return new Failure(code, field, entityId, text);
+    }
+
+    public static Failure validation(String field, String text) {
+        return new Failure(Code.VALIDATION, field, null, text);
+    }
+
+    public static Failure notFound(String field, Object entityId, String text) {
+        return new Failure(Code.NOT_FOUND, field, entityId, text);
+    }
+
+    public static Failure duplicate(Object entityId, String text) {
+        return new Failure(Code.DUPLICATE, "id", entityId, text);
+    }
+
+    public static Failure conflict(Object entityId, String text) {
+        return new Failure(Code.CONFLICT, "id", entityId, text);
+    }
+
+    /**
+     * Converts an {@link ErrorHandling} exception (e.g. one raised by the repository in a race)
+     * into a failure.
+     *
+     * @return the failure, or null if {@code ex} is not one of the {@link ErrorHandling} types
+     */
+    public static Failure from(RuntimeException ex) {
+        Code code;
+        if (ex instanceof ErrorHandling.Validation) code = Code.VALIDATION;
+        else if (ex instanceof ErrorHandling.NotFound) code = Code.NOT_FOUND;
+        else if (ex instanceof ErrorHandling.Duplicate) code = Code.DUPLICATE;
+        else if (ex instanceof ErrorHandling.Conflict) code = Code.CONFLICT;
+        else if (ex instanceof ErrorHandling.ReadOnly) code = Code.READ_ONLY;
+        else if (ex instanceof ErrorHandling.QuotaExceeded) code = Code.QUOTA_EXCEEDED;
+        else return null;
+        return new Failure(code, null, null, ex.getMessage());
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public Object getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Human-readable message, built on first use.
+     */
+    public String message() {
+        String m = message;
+        if (m == null) {
+            m = entityId == null ? String.valueOf(text) : text + entityId;
+            message = m;
+        }
+        return m;
+    }
+
+    /**
+     * The {@link ErrorHandling} exception the throwing API raises for this failure.
+     */
+    public RuntimeException toException() {
+        return switch (code) {
+            case VALIDATION -> new ErrorHandling.Validation(message());
+            case NOT_FOUND -> new ErrorHandling.NotFound(message());
+            case DUPLICATE -> new ErrorHandling.Duplicate(message());
+            case CONFLICT -> new ErrorHandling.Conflict(message());
+            case READ_ONLY -> new ErrorHandling.ReadOnly(message());
+            case QUOTA_EXCEEDED -> new ErrorHandling.QuotaExceeded(message());
+        };
+    }
+
+    @Override
+    public String toString() {
+        return code.label() + (field == null ? "" : "[" + field + "]") + ": " + message();
+    }
+}
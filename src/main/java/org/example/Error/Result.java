@@ -0,0 +1,74 @@
+package org.example.Error;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Outcome of a non-throwing service call: a value or a {@link Failure}.
+ *
+ * @param <T> value type
+ */
+public final class Result<T> {
+
+    private static final Result<?> OK_EMPTY = new Result<>(null, null);
+
+    private final T value;
+    private final Failure failure;
+
+    private Result(T value, Failure failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    public static <T> Result<T> ok(T value) {
+        return value == null ? ok() : new Result<>(value, null);
+    }
+
+    /**
+     * Success without a value (shared instance).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> ok() {
+        return (Result<T>) OK_EMPTY;
+    }
+
+    public static <T> Result<T> fail(Failure failure) {
+        return new Result<>(null, Objects.requireNonNull(failure, "failure must not be null"));
+    }
+
+    public boolean isOk() {
+        return failure == null;
+    }
+
+    /**
+     * @return the value (null for {@link #ok()} and failures)
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * @return the failure, or null on success
+     */
+    public Failure failure() {
+        return failure;
+    }
+
+    /**
+     * Value on success; otherwise throws the failure's {@link ErrorHandling} exception.
+     */
+    public T orElseThrow() {
+        if (failure != null) throw failure.toException();
+        return value;
+    }
+
+    public <R> Result<R> map(Function<? super T, ? extends R> fn) {
+        if (failure != null) return fail(failure);
+        return ok(fn.apply(value));
+    }
+
+    @Override
+    public String toString() {
+        return failure == null ? "Ok(" + value + ")" : "Fail(" + failure + ")";
+    }
+}
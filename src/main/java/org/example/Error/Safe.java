@@ -12,6 +12,15 @@ public final class Safe {
         } catch (ErrorHandling.Duplicate ex) {
             log.warn("{} - duplicate: {}", userAction, ex.getMessage());
             System.out.println("Duplicate: " + ex.getMessage());
+        } catch (ErrorHandling.Conflict ex) {
+            log.warn("{} - conflict: {}", userAction, ex.getMessage());
+            System.out.println("Changed by someone else, please reload and try again: " + ex.getMessage());
+        } catch (ErrorHandling.ReadOnly ex) {
+            log.warn("{} - read-only: {}", userAction, ex.getMessage());
+            System.out.println("Read-only: " + ex.getMessage());
+        } catch (ErrorHandling.QuotaExceeded ex) {
+            log.warn("{} - quota exceeded: {}", userAction, ex.getMessage());
+            System.out.println("Quota exceeded: " + ex.getMessage());
         } catch (ErrorHandling.NotFound ex) {
             log.warn("{} - not found: {}", userAction, ex.getMessage());
             System.out.println("Not found: " + ex.getMessage());
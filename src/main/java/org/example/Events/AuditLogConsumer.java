@@ -0,0 +1,21 @@
+package org.example.Events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Change consumer that writes an audit line per mutation (logger {@code org.example.Events.Audit}).
+ *
+ * <p>Enable with {@code <logger name="org.example.Events.Audit" level="DEBUG"/>} in logback.xml;
+ * when disabled the consumer only pays a level check per event.
+ */
+public class AuditLogConsumer implements ChangeConsumer {
+
+    private static final Logger audit = LoggerFactory.getLogger("org.example.Events.Audit");
+
+    @Override
+    public void onEvent(ChangeEvent event, boolean endOfBatch) {
+        if (!audit.isDebugEnabled()) return;
+        audit.debug("#{} {} {} id={}", event.getSequence(), event.getType(), event.getEntity(), event.getId());
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.Events;
+
+/**
+ * Downstream reader of the change stream (index, audit log, exporter, ...).
+ *
+ * <p>Each consumer runs on its own thread and sees every event in sequence order.
+ * Events arrive in batches; {@code endOfBatch} lets a consumer flush buffered work once per batch.
+ */
+@FunctionalInterface
+public interface ChangeConsumer {
+
+    /**
+     * Handles one event. The event object is a reused ring slot — do not keep a reference to it.
+     *
+     * @param event      the change
+     * @param endOfBatch true for the last event currently available
+     * @throws Exception any failure is logged and the consumer moves on to the next event
+     */
+    void onEvent(ChangeEvent event, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,71 @@
+package org.example.Events;
+
+/**
+ * One pre-allocated slot of the {@link ChangeRingBuffer}.
+ *
+ * <p>Slots are reused: consumers must copy anything they need to keep beyond
+ * {@link ChangeConsumer#onEvent(ChangeEvent, boolean)}.
+ *
+ * <ul>
+ *   <li>{@code before} is the stored entity prior to an update or delete (null on create).</li>
+ *   <li>{@code after} is the entity passed to the service's create or update (null on delete).</li>
+ * </ul>
+ */
+public final class ChangeEvent {
+
+    private long sequence;
+    private ChangeType type;
+    private String entity;
+    private Object id;
+    private Object before;
+    private Object after;
+
+    ChangeEvent() {
+    }
+
+    void set(long sequence, ChangeType type, String entity, Object id, Object before, Object after) {
+        this.sequence = sequence;
+        this.type = type;
+        this.entity = entity;
+        this.id = id;
+        this.before = before;
+        this.after = after;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * @return entity label of the publishing service (e.g. "customer")
+     */
+    public String getEntity() {
+        return entity;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public Object getBefore() {
+        return before;
+    }
+
+    public Object getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", entity='" + entity + '\'' +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.Events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, pre-allocated ring buffer carrying {@link ChangeEvent}s from the services to
+ * any number of independent consumers (Disruptor-style).
+ *
+ * <p>Design:
+ * <ul>
+ *   <li>Slots are allocated once; publishing copies references into a slot — no per-event allocation.</li>
+ *   <li>{@link ProducerMode#SINGLE} claims with a plain counter; {@link ProducerMode#MULTI} with one CAS.</li>
+ *   <li>A per-slot "round" flag marks a sequence as published, so consumers never see half-written slots.</li>
+ *   <li>Each consumer owns a thread and a sequence; it reads every available event in one batch.</li>
+ *   <li>Backpressure: a producer waits while the slowest consumer is a full ring behind
+ *       ({@link #publish}) or gets {@code false} back ({@link #tryPublish}).</li>
+ * </ul>
+ */
+public final class ChangeRingBuffer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeRingBuffer.class);
+
+    public enum ProducerMode {SINGLE, MULTI}
+
+    private final int capacity;
+    private final int mask;
+    private final int indexShift;
+    private final ProducerMode mode;
+
+    private final ChangeEvent[] slots;
+    private final AtomicIntegerArray rounds;
+
+    /**
+     * Highest claimed sequence.
+     */
+    private final Sequence cursor = new Sequence(-1);
+
+    /**
+     * Cached minimum of the consumer sequences (refreshed only when the ring looks full).
+     */
+    private final Sequence gatingCache = new Sequence(-1);
+
+    private final List<Sequence> gating = new CopyOnWriteArrayList<>();
+    private final List<ConsumerWorker> workers = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * @param capacity number of slots; rounded up to a power of two
+     * @param mode     whether one or several threads publish
+     */
+    public ChangeRingBuffer(int capacity, ProducerMode mode) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be >= 2");
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(this.capacity);
+        this.mode = Objects.requireNonNull(mode, "mode must not be null");
+
+        this.slots = new ChangeEvent[this.capacity];
+        this.rounds = new AtomicIntegerArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            slots[i] = new ChangeEvent();
+            rounds.set(i, -1);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Producer side
+    // ------------------------------------------------------------
+
+    /**
+     * Publishes a change, waiting for space if the slowest consumer is a full ring behind.
+     *
+     * @return the sequence number assigned to the event
+     */
+    public long publish(ChangeType type, String entity, Object id, Object before, Object after) {
+        long seq = claim();
+        int idleCount = 0;
+        while (seq - capacity > minimumGating(seq)) {
+            idleCount = idle(idleCount);
+        }
+        write(seq, type, entity, id, before, after);
+        return seq;
+    }
+
+    /**
+     * Publishes a change only if space is available right now.
+     *
+     * @return true if the event was published, false if the ring is full
+     */
+    public boolean tryPublish(ChangeType type, String entity, Object id, Object before, Object after) {
+        while (true) {
+            long current = cursor.get();
+            long seq = current + 1;
+            if (seq - capacity > minimumGating(seq)) return false;
+            if (mode == ProducerMode.SINGLE) {
+                cursor.lazySet(seq);
+            } else if (!cursor.compareAndSet(current, seq)) {
+                continue;
+            }
+            write(seq, type, entity, id, before, after);
+            return true;
+        }
+    }
+
+    private long claim() {
+        if (mode == ProducerMode.SINGLE) {
+            long seq = cursor.get() + 1;
+            cursor.lazySet(seq);
+            return seq;
+        }
+        return cursor.incrementAndGet();
+    }
+
+    private void write(long seq, ChangeType type, String entity, Object id, Object before, Object after) {
+        int index = (int) seq & mask;
+        slots[index].set(seq, type, entity, id, before, after);
+        rounds.lazySet(index, (int) (seq >>> indexShift)); // release: publishes the slot contents
+    }
+
+    private long minimumGating(long seq) {
+        long cached = gatingCache.get();
+        if (seq - capacity <= cached) return cached;
+        if (gating.isEmpty()) return seq; // nobody listening: never block
+        long min = Long.MAX_VALUE;
+        for (Sequence s : gating) min = Math.min(min, s.get());
+        gatingCache.lazySet(min);
+        return min;
+    }
+
+    // ------------------------------------------------------------
+    // Consumer side
+    // ------------------------------------------------------------
+
+    /**
+     * Starts a consumer on its own daemon thread. It receives events published after this call.
+     *
+     * @param name     thread / log name (e.g. "audit")
+     * @param consumer event handler
+     * @param maxBatch upper bound of events handed over before the consumer's position is published
+     * @return a handle exposing the consumer's lag
+     */
+    public Subscription subscribe(String name, ChangeConsumer consumer, int maxBatch) {
+        if (closed) throw new IllegalStateException("ring buffer is closed");
+        Sequence position = new Sequence(cursor.get());
+        gating.add(position);
+        gatingCache.set(Math.min(gatingCache.get(), position.get()));
+        ConsumerWorker worker = new ConsumerWorker(name, consumer, position, Math.max(1, maxBatch));
+        workers.add(worker);
+        worker.thread.start();
+        return worker;
+    }
+
+    private boolean isPublished(long seq) {
+        return rounds.get((int) seq & mask) == (int) (seq >>> indexShift);
+    }
+
+    /**
+     * Highest sequence in {@code [from, limit]} such that every sequence up to it is published.
+     */
+    private long highestPublished(long from, long limit) {
+        for (long seq = from; seq <= limit; seq++) {
+            if (!isPublished(seq)) return seq - 1;
+        }
+        return limit;
+    }
+
+    /**
+     * Spin, then yield, then park — keeps hand-off latency low without burning an idle core.
+     */
+    private static int idle(int idleCount) {
+        if (idleCount < 100) {
+            Thread.onSpinWait();
+        } else if (idleCount < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(1_000_000L, 1_000L << Math.min(10, (idleCount - 200) / 50)));
+        }
+        return idleCount + 1;
+    }
+
+    // ------------------------------------------------------------
+    // Lifecycle & introspection
+    // ------------------------------------------------------------
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return highest sequence claimed by a producer (-1 if nothing was published)
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Stops all consumers after they have drained what was published before this call.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ConsumerWorker w : workers) {
+            LockSupport.unpark(w.thread);
+            try {
+                w.thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handle for a running consumer.
+     */
+    public interface Subscription {
+
+        String getName();
+
+        /**
+         * @return number of published events this consumer has not processed yet
+         */
+        long getLag();
+    }
+
+    private final class ConsumerWorker implements Subscription, Runnable {
+        private final String name;
+        private final ChangeConsumer consumer;
+        private final Sequence position;
+        private final int maxBatch;
+        private final Thread thread;
+
+        ConsumerWorker(String name, ChangeConsumer consumer, Sequence position, int maxBatch) {
+            this.name = name;
+            this.consumer = consumer;
+            this.position = position;
+            this.maxBatch = maxBatch;
+            this.thread = new Thread(this, "change-consumer-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idleCount = 0;
+            while (true) {
+                long next = position.get() + 1;
+                long limit = Math.min(cursor.get(), next + maxBatch - 1);
+                long available = highestPublished(next, limit);
+                if (available < next) {
+                    if (closed && next > cursor.get()) break;
+                    idleCount = idle(idleCount);
+                    continue;
+                }
+                idleCount = 0;
+                for (long seq = next; seq <= available; seq++) {
+                    try {
+                        consumer.onEvent(slots[(int) seq & mask], seq == available);
+                    } catch (Exception ex) {
+                        log.error("Change consumer '{}' failed at sequence {}", name, seq, ex);
+                    }
+                }
+                position.lazySet(available);
+            }
+            gating.remove(position);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getLag() {
+            return Math.max(0, cursor.get() - position.get());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.Events;
+
+/**
+ * Kind of mutation carried by a {@link ChangeEvent}.
+ */
+public enum ChangeType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
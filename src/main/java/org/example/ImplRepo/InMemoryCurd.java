@@ -1,58 +1,100 @@
 package org.example.ImplRepo;
 
-import org.example.Reposotory.CrudRepo;
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.SnapshotRepo;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 
-public class InMemoryCurd<T extends Identifiable<ID>, ID> implements CrudRepo<T, ID> {
-    //    list to store entities in memory
-    private Map<ID, T> entities = new HashMap<>();
+public class InMemoryCurd<T extends Identifiable<ID>, ID> implements SnapshotRepo<T, ID> {
+    //    multi-version store: frozen entity versions by id (see VersionedStore)
+    private final VersionedStore<ID, T> entities;
 
     public InMemoryCurd(Map<ID, T> entities) {
-        this.entities = entities;
+        this(MvccClock.global());
+        entities.values().forEach(this::insert); // not create(): a subclass is not constructed yet
     }
 
     public InMemoryCurd() {
+        this(MvccClock.global());
+    }
+
+    /**
+     * @param clock commit clock shared with the other repositories that snapshots should span
+     */
+    public InMemoryCurd(MvccClock clock) {
+        this.entities = new VersionedStore<>(clock);
     }
 
     // ===== Method for CREATE entity =====
     @Override
-    public void create(T entity) {
-//        save entity to in-memory list
+    public T create(T entity) {
+        return insert(entity);
+    }
+
+    private T insert(T entity) {
+//        save a frozen copy; atomic check-and-insert so concurrent creates cannot overwrite each other
+        Objects.requireNonNull(entity, "entity must not be null");
         ID id = entity.getId();
-        entities.put(id, entity);
+        if (id == null) {
+            throw new IllegalArgumentException("Entity id must not be null");
+        }
+        return entities.write(id, current -> {
+            if (current != null) throw new IllegalArgumentException("duplicate id: " + id);
+            return entity;
+        }).stored();
     }
 
     /**
      * ===== Method UPDATE  =====
      *
      * @param entity take entity
+     * @throws org.example.Error.ErrorHandling.Conflict if the stored version changed since the entity was read
      */
     @Override
-    public void update(T entity) {
+    public T update(T entity) {
         Objects.requireNonNull(entity, "entity must not be null");
         ID id = entity.getId();
         if (id == null) {
             throw new IllegalArgumentException("Entity id must not be null");
         }
-// save the id and obj
-        entities.put(id, entity);
+// save the id and obj as a new immutable version: compare-and-set on the entity version
+        return entities.write(id, current -> {
+            if (current != null) VersionedStore.checkVersion(id, current, entity);
+            return entity;
+        }).stored();
     }
 
     // ===== Method Find All  =====
     @Override
-    public void delete(ID id) {
-        if (id != null) {
-            entities.remove(id);
-        }
+    public T delete(ID id) {
+        return id == null ? null : entities.write(id, current -> null).previous();
     }
 
     // ===== Method Find All  =====
     @Override
     public List<T> findAll() {
-        return List.copyOf(entities.values());
+        return entities.values();
+    }
+
+    // ===== Method Find Page  =====
+    @Override
+    public List<T> findPage(int offset, int limit) {
+        return entities.values(offset, limit);
+    }
+
+    // ===== Method Stream  =====
+    @Override
+    public Stream<T> stream() {
+        return entities.stream();
+    }
+
+    // ===== Method Count  =====
+    @Override
+    public long count() {
+        return entities.size();
     }
 
     /**
@@ -65,4 +107,20 @@ public class InMemoryCurd<T extends Identifiable<ID>, ID> implements CrudRepo<T,
         return Optional.ofNullable(entities.get(id));
 
     }
-}
\ No newline at end of file
+
+    // ===== Snapshot (MVCC) reads =====
+    @Override
+    public Snapshot openSnapshot() {
+        return entities.clock().openSnapshot();
+    }
+
+    @Override
+    public Optional<T> findById(ID id, Snapshot snapshot) {
+        return Optional.ofNullable(entities.get(id, snapshot));
+    }
+
+    @Override
+    public List<T> findAll(Snapshot snapshot) {
+        return entities.values(snapshot);
+    }
+}
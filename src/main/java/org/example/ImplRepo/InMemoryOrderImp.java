@@ -1,38 +1,90 @@
 package org.example.ImplRepo;
 
 import org.example.Entity.Order;
-import org.example.Reposotory.CrudRepo;
+import org.example.Entity.OrderStatus;
+import org.example.Reposotory.OrderRepo;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.SnapshotRepo;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * In-memory Order repository with:
  * <ul>
- *   <li>Primary store: {@code Map<orderId, Order>} — O(1) CRUD by ID.</li>
- *   <li>Secondary index: {@code Map<customerId, List<orderId>>} for efficient lookups.</li>
+ *   <li>Primary store: multi-version {@code Map<orderId, Order>} — O(1) CRUD by ID,
+ *       plus snapshot-consistent reads (see {@link VersionedStore}).</li>
+ *   <li>Secondary index: {@code Map<customerId, Set<orderId>>} for efficient lookups.</li>
+ *   <li>Time index: {@link TimePartitionedIndex} over {@code createdAt} (hourly partitions by default);
+ *       range queries only touch the partitions they overlap, older partitions are sealed into arrays.</li>
+ *   <li>Status index: one {@code Set<orderId>} per {@link OrderStatus}, so unpaid or unshipped
+ *       orders are found and counted without a scan.</li>
  * </ul>
  *
  * <p>Consistency:
  * <ul>
- *   <li>Indexes are updated on create, update (reindex if customer changes), and delete.</li>
- *   <li>Uses {@code computeIfAbsent} to atomically create per-customer lists.</li>
+ *   <li>Indexes are updated on create, update (reindex if customer or createdAt changes), and delete.</li>
+ *   <li>Per-customer sets are only changed inside {@code compute}, so adding the first order and
+ *       removing the last one are atomic; readers iterate a concurrent set without locking.</li>
+ *   <li>Every index is changed in the same per-key atomic step as the order itself, so a racing
+ *       create and delete of one ID cannot leave an entry behind, and the status and time counts
+ *       never disagree with the store.</li>
  * </ul>
  *
- * <p>Thread-safety: backed by {@code ConcurrentHashMap}.
+ * <p>Thread-safety: backed by {@code ConcurrentHashMap}; stored orders are frozen copies,
+ * so callers edit a {@code copy()} and pass it to {@link #update(Order)}.
  */
 
-public class InMemoryOrderImp implements CrudRepo<Order, String> {
+public class InMemoryOrderImp implements OrderRepo, SnapshotRepo<Order, String> {
 
     /**
-     * Primary store: orders by ID.
+     * Primary store: orders by ID (immutable versions).
      */
-    private final Map<String, Order> byId = new ConcurrentHashMap<>();
+    private final VersionedStore<String, Order> byId;
 
     /**
-     * Secondary index: customerId -> list of orderIds.
+     * Secondary index: customerId -> set of orderIds.
      */
-    private final Map<String, List<String>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byCustomer = new ConcurrentHashMap<>();
+
+    /**
+     * Secondary index: createdAt -> orderIds, partitioned by time.
+     */
+    private final TimePartitionedIndex byCreatedAt;
+
+    /**
+     * Secondary index: status -> set of orderIds (a set per status, created up front).
+     */
+    private final Map<OrderStatus, Set<String>> byStatus = new EnumMap<>(OrderStatus.class);
+
+    /**
+     * Lines of all stored orders, kept with the indexes.
+     */
+    private final LongAdder lines = new LongAdder();
+
+    public InMemoryOrderImp() {
+        this(MvccClock.global());
+    }
+
+    /**
+     * @param clock commit clock shared with the other repositories that snapshots should span
+     */
+    public InMemoryOrderImp(MvccClock clock) {
+        this(clock, new TimePartitionedIndex());
+    }
+
+    /**
+     * @param clock       commit clock shared with the other repositories that snapshots should span
+     * @param byCreatedAt time index to maintain (e.g. with daily partitions)
+     */
+    public InMemoryOrderImp(MvccClock clock, TimePartitionedIndex byCreatedAt) {
+        this.byId = new VersionedStore<>(clock);
+        this.byCreatedAt = Objects.requireNonNull(byCreatedAt, "byCreatedAt must not be null");
+        for (OrderStatus status : OrderStatus.values()) byStatus.put(status, ConcurrentHashMap.newKeySet());
+    }
 
     /**
      * Creates a new order and indexes it by customerId.
@@ -42,17 +94,17 @@ public class InMemoryOrderImp implements CrudRepo<Order, String> {
      * @throws IllegalArgumentException if order ID is null, blank, or duplicate
      */
     @Override
-    public void create(Order order) {
+    public Order create(Order order) {
         Objects.requireNonNull(order, "order must not be null");
         String id = order.getId();
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("order id must not be null/blank");
         }
-        if (byId.containsKey(id)) {
-            throw new IllegalArgumentException("duplicate order id: " + id);
-        }
-        byId.put(id, order);
-        indexCustomer(order.getCustomerId(), id); // maintain secondary index
+        return byId.write(id, current -> {
+            if (current != null) throw new IllegalArgumentException("duplicate order id: " + id);
+            index(order, id); // maintain secondary indexes
+            return order;
+        }).stored();
     }
 
     /**
@@ -60,25 +112,34 @@ public class InMemoryOrderImp implements CrudRepo<Order, String> {
      *
      * @param order the updated {@link Order}
      * @throws IllegalArgumentException if the entity does not exist or ID is missing
-     *
+     * @throws org.example.Error.ErrorHandling.Conflict if the order changed since it was read
      */
     @Override
-    public void update(Order order) {
+    public Order update(Order order) {
         Objects.requireNonNull(order, "order must not be null");
         String id = order.getId();
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("order id must not be null/blank");
         }
-        Order old = byId.get(id);
-        if (old == null) {
-            throw new IllegalArgumentException("order not found: " + id);
-        }
-        // Re-index if the customer has changed
-        if (!Objects.equals(old.getCustomerId(), order.getCustomerId())) {
-            deindexCustomer(old.getCustomerId(), id);
-            indexCustomer(order.getCustomerId(), id);
-        }
-        byId.put(id, order);
+        return byId.write(id, current -> {
+            if (current == null) throw new IllegalArgumentException("order not found: " + id);
+            VersionedStore.checkVersion(id, current, order); // optimistic compare-and-set
+            if (current.getStatus() != order.getStatus()) {
+                deindexStatus(current.getStatus(), id);
+                indexStatus(order.getStatus(), id);
+            }
+            // Re-index if the customer has changed
+            if (!Objects.equals(current.getCustomerId(), order.getCustomerId())) {
+                deindexCustomer(current.getCustomerId(), id);
+                indexCustomer(order.getCustomerId(), id);
+            }
+            if (current.getCreatedAt() != order.getCreatedAt()) {
+                byCreatedAt.remove(id, current.getCreatedAt());
+                byCreatedAt.add(id, order.getCreatedAt());
+            }
+            lines.add(order.lineCount() - current.lineCount());
+            return order;
+        }).stored();
     }
 
     /**
@@ -88,13 +149,13 @@ public class InMemoryOrderImp implements CrudRepo<Order, String> {
      * @throws IllegalArgumentException if order not found
      */
     @Override
-    public void delete(String id) {
+    public Order delete(String id) {
         Objects.requireNonNull(id, "id must not be null");
-        Order removed = byId.remove(id);
-        if (removed == null) {
-            throw new IllegalArgumentException("order not found: " + id);
-        }
-        deindexCustomer(removed.getCustomerId(), id);
+        return byId.write(id, current -> {
+            if (current == null) throw new IllegalArgumentException("order not found: " + id);
+            deindex(current, id);
+            return null;
+        }).previous();
     }
 
     /**
@@ -115,37 +176,261 @@ public class InMemoryOrderImp implements CrudRepo<Order, String> {
      */
     @Override
     public List<Order> findAll() {
-        return Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        return byId.values();
+    }
+
+    /**
+     * Returns one page of orders without copying the whole store.
+     *
+     * @param offset orders to skip
+     * @param limit  maximum orders to return
+     * @return unmodifiable page
+     */
+    @Override
+    public List<Order> findPage(int offset, int limit) {
+        return byId.values(offset, limit);
+    }
+
+    /**
+     * Streams the stored orders without copying them (weakly consistent).
+     *
+     * @return stream of orders
+     */
+    @Override
+    public Stream<Order> stream() {
+        return byId.stream();
+    }
+
+    /**
+     * Returns the number of stored orders in O(1).
+     *
+     * @return order count
+     */
+    @Override
+    public long count() {
+        return byId.size();
+    }
+
+    /**
+     * Returns the orders of one customer using the secondary index.
+     *
+     * @param customerId the customer ID
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findByCustomer(String customerId) {
+        if (customerId == null) return List.of();
+        Set<String> ids = byCustomer.get(customerId);
+        if (ids == null) return List.of();
+        List<Order> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Order o = byId.get(id);
+            if (o != null && customerId.equals(o.getCustomerId())) out.add(o);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Returns the orders created in {@code [fromMillis, toMillis)} using the time index.
+     *
+     * @param fromMillis start (inclusive), epoch milliseconds
+     * @param toMillis   end (exclusive), epoch milliseconds
+     * @return list of orders, oldest first (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        List<String> ids = byCreatedAt.ids(fromMillis, toMillis);
+        List<Order> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Order o = byId.get(id);
+            if (o != null && o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis) out.add(o);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Counts the orders created in {@code [fromMillis, toMillis)} from the time index alone.
+     *
+     * @param fromMillis start (inclusive), epoch milliseconds
+     * @param toMillis   end (exclusive), epoch milliseconds
+     * @return order count
+     */
+    @Override
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        return byCreatedAt.count(fromMillis, toMillis);
+    }
+
+    /**
+     * Returns the orders in one status using the status index.
+     *
+     * @param status the status
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        if (status == null) return List.of();
+        Set<String> ids = byStatus.get(status);
+        List<Order> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Order o = byId.get(id);
+            if (o != null && o.getStatus() == status) out.add(o);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Counts the orders in one status from the status index alone.
+     *
+     * @param status the status
+     * @return order count
+     */
+    @Override
+    public long countByStatus(OrderStatus status) {
+        return status == null ? 0 : byStatus.get(status).size();
+    }
+
+    /**
+     * Counts the lines of all stored orders in O(1).
+     *
+     * @return line count
+     */
+    @Override
+    public long countLines() {
+        return lines.sum();
+    }
+
+    /**
+     * Moves the listed orders in one pass over the store: each order and its status entry change
+     * in one atomic step, all under a single commit version (a snapshot sees the whole batch or
+     * none of it). The customer and time indexes are not touched.
+     *
+     * @param ids     order IDs (not null)
+     * @param from    statuses an order may be moved from
+     * @param to      new status
+     * @param changed receives (before, after) for every moved order, after the batch
+     * @return number of orders moved
+     */
+    @Override
+    public int transitionAll(Collection<String> ids, Set<OrderStatus> from, OrderStatus to,
+                             BiConsumer<Order, Order> changed) {
+        Objects.requireNonNull(to, "to must not be null");
+        return byId.writeAll(ids, (id, current) -> {
+            if (!from.contains(current.getStatus())) return null;
+            Order next = current.copy();
+            next.setStatus(to);
+            deindexStatus(current.getStatus(), id);
+            indexStatus(to, id);
+            return next;
+        }, changed);
+    }
+
+    /**
+     * Seals the time partitions that end at or before {@code millis} into compact arrays.
+     *
+     * @param millis cutoff, epoch milliseconds
+     * @return number of partitions sealed
+     */
+    public int sealPartitionsBefore(long millis) {
+        return byCreatedAt.sealBefore(millis);
+    }
+
+    // ------------------------------------------------------------
+    // Snapshot (MVCC) reads
+    // ------------------------------------------------------------
+
+    /**
+     * Opens a snapshot shared with every repository on the same {@link MvccClock}.
+     *
+     * @return snapshot; close when done
+     */
+    @Override
+    public Snapshot openSnapshot() {
+        return byId.clock().openSnapshot();
+    }
+
+    /**
+     * Finds an order as of the snapshot.
+     *
+     * @param id       the order ID
+     * @param snapshot read view
+     * @return optional {@link Order}
+     */
+    @Override
+    public Optional<Order> findById(String id, Snapshot snapshot) {
+        return Optional.ofNullable(byId.get(id, snapshot));
+    }
+
+    /**
+     * Returns all orders visible in the snapshot (unmodifiable).
+     *
+     * @param snapshot read view
+     * @return list of {@link Order} objects
+     */
+    @Override
+    public List<Order> findAll(Snapshot snapshot) {
+        return byId.values(snapshot);
     }
 
     // ------------------------------------------------------------
     // Internal index maintenance helpers
     // ------------------------------------------------------------
 
+    /**
+     * Adds an order to every secondary index; called inside the order's atomic write.
+     */
+    private void index(Order order, String orderId) {
+        indexStatus(order.getStatus(), orderId);
+        indexCustomer(order.getCustomerId(), orderId);
+        byCreatedAt.add(orderId, order.getCreatedAt());
+        lines.add(order.lineCount());
+    }
+
+    private void deindex(Order order, String orderId) {
+        deindexStatus(order.getStatus(), orderId);
+        deindexCustomer(order.getCustomerId(), orderId);
+        byCreatedAt.remove(orderId, order.getCreatedAt());
+        lines.add(-order.lineCount());
+    }
+
     /**
      * Adds an orderId under the given customerId.
-     * Uses computeIfAbsent for atomic list creation.
+     * Uses compute so set creation and insertion are one atomic step.
      *
      * @param customerId the customer ID
      * @param orderId    the order ID
      */
     private void indexCustomer(String customerId, String orderId) {
         if (customerId == null) return;
-        byCustomer.computeIfAbsent(customerId, k -> new ArrayList<>()).add(orderId);
+        byCustomer.compute(customerId, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(orderId);
+            return set;
+        });
+    }
+
+    /**
+     * Adds an orderId to its status set.
+     */
+    private void indexStatus(OrderStatus status, String orderId) {
+        if (status != null) byStatus.get(status).add(orderId);
+    }
+
+    private void deindexStatus(OrderStatus status, String orderId) {
+        if (status != null) byStatus.get(status).remove(orderId);
     }
 
     /**
-     * Removes an orderId from the customer's index list.
-     * Cleans up empty lists to prevent memory leaks.
+     * Removes an orderId from the customer's index set.
+     * Drops empty sets (atomically) to prevent memory leaks.
      *
      * @param customerId the customer ID
      * @param orderId    the order ID
      */
     private void deindexCustomer(String customerId, String orderId) {
         if (customerId == null) return;
-        List<String> list = byCustomer.get(customerId);
-        if (list == null) return;
-        list.remove(orderId);
-        if (list.isEmpty()) byCustomer.remove(customerId);
+        byCustomer.computeIfPresent(customerId, (k, set) -> {
+            set.remove(orderId);
+            return set.isEmpty() ? null : set;
+        });
     }
 }
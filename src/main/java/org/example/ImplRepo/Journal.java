@@ -0,0 +1,333 @@
+package org.example.ImplRepo;
+
+import org.example.Codec.EntityDecoder;
+import org.example.Codec.EntityEncoder;
+import org.example.Error.ErrorHandling;
+import org.example.Reposotory.Identifiable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of one entity's writes, replayed on startup (see {@link JournaledRepo}).
+ *
+ * <p>Layout:
+ * <pre>
+ * header:  magic:int format:byte entity:str
+ * records: [length:int crc32:int op:byte id:str entity record?]*   — entity records in the {@code Codec.Schema} layout
+ * </pre>
+ *
+ * <ul>
+ *   <li>A torn record at the end (crash during an append) is cut off on open; everything before it
+ *       is kept.</li>
+ *   <li>With {@code syncOnCommit}, {@link #sync} forces the file before a write is acknowledged.
+ *       Threads waiting at the same time share one force (group commit).</li>
+ *   <li>After a failed append or force the journal refuses further writes: memory may then hold a
+ *       change the file does not, so the store must be restarted (and replayed) to be writable again.</li>
+ * </ul>
+ */
+final class Journal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Journal.class);
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int MAGIC = 0x42544b4a; // "BTKJ"
+    private static final int FORMAT = 1;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024; // larger lengths can only be garbage
+
+    private final Path file;
+    private final String entity;
+    private final boolean syncOnCommit;
+    private final EntityEncoder encoder = new EntityEncoder(); // guarded by this
+    private final CRC32 crc = new CRC32();                     // guarded by this
+    private final Object forceLock = new Object();
+
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private volatile long written;
+    private volatile long forced;
+    private volatile IOException failure;
+    private long records;
+
+    private Journal(Path file, String entity, boolean syncOnCommit) {
+        this.file = file;
+        this.entity = entity;
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    /**
+     * Opens (or creates) the journal and replays it.
+     *
+     * @param file         journal file; its directory is created if missing
+     * @param entity       entity name recorded in the header ("customer", "product", "order")
+     * @param syncOnCommit force the file before acknowledging each write
+     * @param state        receives the live entities by ID, in the order they were first written
+     * @throws IOException if the file cannot be read, or belongs to another entity
+     */
+    static Journal open(Path file, String entity, boolean syncOnCommit, Map<String, Object> state) throws IOException {
+        Journal journal = new Journal(file, entity, syncOnCommit);
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        long end = Files.exists(file) && Files.size(file) > 0 ? journal.replay(state) : journal.create(file);
+        journal.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            if (journal.channel.size() > end) {
+                log.warn("Cutting torn tail of journal {} at byte {} ({} bytes dropped)", file, end, journal.channel.size() - end);
+                journal.channel.truncate(end);
+                journal.channel.force(true);
+            }
+            journal.channel.position(end);
+        } catch (IOException ex) {
+            journal.channel.close();
+            throw ex;
+        }
+        journal.written = end;
+        journal.forced = end;
+        return journal;
+    }
+
+    private long create(Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = header();
+            writeFully(out, header);
+            out.force(true);
+            return out.position();
+        }
+    }
+
+    /**
+     * Reads every intact record into {@code state}.
+     *
+     * @return offset just past the last intact record
+     */
+    private long replay(Map<String, Object> state) throws IOException {
+        EntityDecoder decoder = new EntityDecoder();
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024))) {
+            if (in.readInt() != MAGIC) throw corrupt("not a journal file");
+            int format = in.readByte();
+            if (format != FORMAT) throw corrupt("unsupported format " + format);
+            byte[] name = new byte[in.readUnsignedByte()];
+            in.readFully(name);
+            String owner = new String(name, StandardCharsets.UTF_8);
+            if (!owner.equals(entity)) throw corrupt("holds '" + owner + "', not '" + entity + "'");
+            long offset = Integer.BYTES + 2 + name.length;
+
+            byte[] body = new byte[256];
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) break;
+                    if (body.length < length) body = new byte[Math.max(length, body.length * 2)];
+                    in.readFully(body, 0, length);
+                } catch (EOFException torn) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body, 0, length);
+                if ((int) crc.getValue() != checksum) break;
+
+                ByteBuffer record = ByteBuffer.wrap(body, 0, length);
+                try {
+                    byte op = record.get();
+                    String id = decoder.readString(record);
+                    if (op == PUT) {
+                        state.put(id, decoder.decode(record));
+                    } else if (op == DELETE) {
+                        state.remove(id);
+                    } else {
+                        break;
+                    }
+                } catch (RuntimeException ex) {
+                    throw corrupt("record at byte " + offset + " does not decode (" + ex.getMessage() + ")");
+                }
+                offset += 2L * Integer.BYTES + length;
+                records++;
+            }
+            return offset;
+        } catch (EOFException ex) {
+            throw corrupt("header is truncated");
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------
+
+    /**
+     * Fails fast, before the caller changes memory, once the journal is unusable.
+     *
+     * @throws ErrorHandling.ReadOnly after an earlier append or force failed
+     */
+    void checkWritable() {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new ErrorHandling.ReadOnly("journal " + file + " failed (" + failed.getMessage()
+                    + "); restart to recover");
+        }
+    }
+
+    /**
+     * Appends one record (not yet forced).
+     *
+     * @param id    entity ID
+     * @param value the stored entity, or null for a delete
+     * @return journal offset the caller passes to {@link #sync}
+     * @throws UncheckedIOException if the record cannot be written (the journal turns read-only)
+     */
+    synchronized long append(String id, Object value) {
+        checkWritable();
+        ByteBuffer record = encode(id, value);
+        try {
+            writeFully(channel, record);
+        } catch (IOException ex) {
+            throw fail(ex);
+        }
+        records++;
+        written += record.limit();
+        return written;
+    }
+
+    /**
+     * Makes everything up to {@code offset} durable (no-op without {@code syncOnCommit}).
+     *
+     * @throws UncheckedIOException if the file cannot be forced (the journal turns read-only)
+     */
+    void sync(long offset) {
+        if (!syncOnCommit || forced >= offset) return;
+        synchronized (forceLock) {
+            if (forced >= offset) return;
+            long end = written; // everything appended so far goes out with this force
+            try {
+                channel.force(false);
+            } catch (IOException ex) {
+                throw fail(ex);
+            }
+            forced = end;
+        }
+    }
+
+    /**
+     * Replaces the journal with one PUT record per live entity (on open, before any writer exists).
+     *
+     * @param live current entities
+     * @throws IOException if the new file cannot be written; the old one is then kept
+     */
+    synchronized void rewrite(Collection<? extends Identifiable<String>> live) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long before = written;
+        try {
+            create(tmp);
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                out.position(out.size());
+                for (Identifiable<String> e : live) writeFully(out, encode(e.getId(), e));
+                out.force(true);
+            }
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            if (!channel.isOpen()) channel = FileChannel.open(file, StandardOpenOption.WRITE).position(before);
+            throw ex;
+        }
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        written = channel.size();
+        forced = written;
+        channel.position(written);
+        records = live.size();
+        log.info("Compacted journal {}: {} -> {} bytes", file, before, written);
+    }
+
+    // ------------------------------------------------------------
+    // Stats
+    // ------------------------------------------------------------
+
+    /**
+     * @return records in the file (replayed plus appended)
+     */
+    synchronized long records() {
+        return records;
+    }
+
+    long bytes() {
+        return written;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        try {
+            if (failure == null) channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private UncheckedIOException fail(IOException ex) {
+        if (failure == null) {
+            failure = ex;
+            log.error("Journal {} failed; rejecting further writes", file, ex);
+        }
+        return new UncheckedIOException(ex);
+    }
+
+    private ByteBuffer header() {
+        byte[] name = entity.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 255) throw new IllegalArgumentException("entity name too long: " + entity);
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 2 + name.length);
+        header.putInt(MAGIC).put((byte) FORMAT).put((byte) name.length).put(name);
+        return header.flip();
+    }
+
+    /**
+     * Encodes one record into the shared buffer ({@code length:int crc32:int body}).
+     */
+    private ByteBuffer encode(String id, Object value) {
+        int bodyLength = 1 + EntityEncoder.stringSize(id) + (value == null ? 0 : encoder.sizeOf(value));
+        if (buffer.capacity() < bodyLength + 2 * Integer.BYTES) {
+            buffer = ByteBuffer.allocate(Math.max(bodyLength + 2 * Integer.BYTES, buffer.capacity() * 2));
+        }
+        buffer.clear().position(2 * Integer.BYTES);
+        buffer.put(value == null ? DELETE : PUT);
+        EntityEncoder.writeString(buffer, id);
+        if (value != null) encoder.encode(value, buffer);
+        buffer.flip();
+        crc.reset();
+        crc.update(buffer.duplicate().position(2 * Integer.BYTES));
+        buffer.putInt(0, buffer.limit() - 2 * Integer.BYTES).putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer;
+    }
+
+    private IOException corrupt(String what) {
+        return new IOException("corrupt journal " + file + ": " + what);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) out.write(buf);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.ImplRepo;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Reposotory.OrderRepo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Durable order repository: {@link InMemoryOrderImp} plus a journal (see {@link JournaledRepo}).
+ *
+ * <p>The secondary indexes are the in-memory ones. Bulk status changes use the one-order-at-a-time
+ * default of {@link OrderRepo#transitionAll}, so every moved order is journaled like any update.
+ */
+public class JournaledOrderRepo extends JournaledRepo<Order> implements OrderRepo {
+
+    private final InMemoryOrderImp orders;
+
+    /**
+     * @param orders       empty in-memory order store
+     * @param file         journal file (created if missing)
+     * @param syncOnCommit force the journal before every write returns
+     * @throws IOException if the journal cannot be read or is not an order journal
+     */
+    public JournaledOrderRepo(InMemoryOrderImp orders, Path file, boolean syncOnCommit) throws IOException {
+        super(orders, "order", file, syncOnCommit);
+        this.orders = orders;
+    }
+
+    @Override
+    public List<Order> findByCustomer(String customerId) {
+        return orders.findByCustomer(customerId);
+    }
+
+    @Override
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        return orders.findCreatedBetween(fromMillis, toMillis);
+    }
+
+    @Override
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        return orders.countCreatedBetween(fromMillis, toMillis);
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        return orders.findByStatus(status);
+    }
+
+    @Override
+    public long countByStatus(OrderStatus status) {
+        return orders.countByStatus(status);
+    }
+
+    @Override
+    public long countLines() {
+        return orders.countLines();
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.ImplRepo;
+
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.SnapshotRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Durable repository: an in-memory store whose writes are also appended to a {@link Journal}.
+ *
+ * <ul>
+ *   <li>On construction the journal is replayed into the (empty) store, so the data survives
+ *       restarts. A journal with many more records than live entities is compacted first.</li>
+ *   <li>Each write changes the store and appends the stored version under a per-ID stripe lock,
+ *       so the journal holds the writes of one ID in commit order. With {@code syncOnCommit} the
+ *       write returns only once the record is on disk.</li>
+ *   <li>Reads, snapshots and indexes are the store's own; the journal is never read after startup.</li>
+ *   <li>Versions restart at 1 after a replay: the journal keeps states, not version history.</li>
+ * </ul>
+ *
+ * <p>Writes must all go through this repository (not the wrapped store), or they are not journaled.
+ *
+ * @param <T> entity type
+ */
+public class JournaledRepo<T extends Identifiable<String>> implements SnapshotRepo<T, String>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledRepo.class);
+
+    public static final int STRIPES = 64;                  // per-ID write locks
+    public static final long COMPACT_MIN_RECORDS = 10_000; // smaller journals are replayed as they are
+
+    private final SnapshotRepo<T, String> store;
+    private final Journal journal;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /**
+     * Opens {@code file} and replays it into {@code store}.
+     *
+     * @param store        empty in-memory store that will hold the data
+     * @param entity       entity name, checked against the journal header
+     * @param file         journal file (created if missing)
+     * @param syncOnCommit force the journal before every write returns; off leaves flushing to the
+     *                     OS, so a machine crash may lose the last writes (a process crash does not)
+     * @throws IOException if the journal cannot be read or belongs to another entity
+     */
+    @SuppressWarnings("unchecked")
+    public JournaledRepo(SnapshotRepo<T, String> store, String entity, Path file, boolean syncOnCommit) throws IOException {
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        if (store.count() != 0) throw new IllegalArgumentException("store must be empty");
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+
+        long started = System.nanoTime();
+        Map<String, Object> state = new LinkedHashMap<>();
+        this.journal = Journal.open(file, entity, syncOnCommit, state);
+        try {
+            for (Object value : state.values()) store.create((T) value);
+            if (journal.records() >= COMPACT_MIN_RECORDS && journal.records() > 2L * state.size()) {
+                journal.rewrite(store.findAll());
+            }
+        } catch (IOException | RuntimeException ex) {
+            journal.close();
+            throw ex;
+        }
+        log.info("Replayed journal {}: {} {}(s) in {} ms", file, state.size(), entity,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // ------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------
+
+    @Override
+    public T create(T entity) {
+        Objects.requireNonNull(entity, "entity must not be null");
+        String id = entity.getId();
+        return write(id, () -> store.create(entity), false);
+    }
+
+    @Override
+    public T update(T entity) {
+        Objects.requireNonNull(entity, "entity must not be null");
+        String id = entity.getId();
+        return write(id, () -> store.update(entity), false);
+    }
+
+    @Override
+    public T delete(String id) {
+        return write(id, () -> store.delete(id), true);
+    }
+
+    /**
+     * Applies {@code change} to the store and journals the outcome, then waits for the journal
+     * (outside the lock, so concurrent writers share one force).
+     *
+     * @return what {@code change} returned (the stored value, or the removed one for a delete)
+     */
+    private T write(String id, Supplier<T> change, boolean delete) {
+        if (id == null) return change.get(); // the store rejects (or ignores) it
+        T result;
+        long offset;
+        ReentrantLock lock = stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+        lock.lock();
+        try {
+            journal.checkWritable();
+            if (delete && store.findById(id).isEmpty()) {
+                return change.get(); // nothing to delete: the store decides between no-op and error
+            }
+            result = change.get();
+            offset = journal.append(id, delete ? null : result);
+        } finally {
+            lock.unlock();
+        }
+        journal.sync(offset);
+        return result;
+    }
+
+    // ------------------------------------------------------------
+    // Reads
+    // ------------------------------------------------------------
+
+    @Override
+    public Optional<T> findById(String id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return store.findAll();
+    }
+
+    @Override
+    public List<T> findPage(int offset, int limit) {
+        return store.findPage(offset, limit);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return store.stream();
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public Snapshot openSnapshot() {
+        return store.openSnapshot();
+    }
+
+    @Override
+    public Optional<T> findById(String id, Snapshot snapshot) {
+        return store.findById(id, snapshot);
+    }
+
+    @Override
+    public List<T> findAll(Snapshot snapshot) {
+        return store.findAll(snapshot);
+    }
+
+    // ------------------------------------------------------------
+    // Journal
+    // ------------------------------------------------------------
+
+    public Path journalFile() {
+        return journal.file();
+    }
+
+    public long journalBytes() {
+        return journal.bytes();
+    }
+
+    /**
+     * Forces the journal and closes it; writes fail afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.ImplRepo;
+
+import org.example.Reposotory.Snapshot;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Commit clock shared by the MVCC repositories.
+ *
+ * <p>How it works:
+ * <ul>
+ *   <li>Every write gets a commit version from {@link #beginWrite()} and installs its new entity
+ *       version before {@link #endWrite()}. Writers hold the <em>shared</em> side of a gate, so they
+ *       never block each other.</li>
+ *   <li>{@link #openSnapshot()} briefly takes the <em>exclusive</em> side: once it has it, every
+ *       version up to the current clock value is installed, so the snapshot is consistent.</li>
+ *   <li>Nested {@code beginWrite()} calls on the same thread reuse the outer version, so a
+ *       multi-repository write becomes visible atomically.</li>
+ *   <li>Open snapshots are tracked so repositories know which old versions they may discard.</li>
+ * </ul>
+ */
+public final class MvccClock {
+
+    private static final MvccClock GLOBAL = new MvccClock();
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private final ConcurrentSkipListMap<Long, Integer> openSnapshots = new ConcurrentSkipListMap<>();
+
+    /**
+     * [0] = nesting depth, [1] = commit version of the outermost write.
+     */
+    private final ThreadLocal<long[]> writeContext = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * @return the clock used by repositories created without an explicit clock
+     */
+    public static MvccClock global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Starts a write and returns its commit version. Always pair with {@link #endWrite()}.
+     *
+     * @return commit version for the entity versions installed by this write
+     */
+    public long beginWrite() {
+        gate.readLock().lock();
+        long[] ctx = writeContext.get();
+        if (ctx[0]++ == 0) ctx[1] = version.incrementAndGet();
+        return ctx[1];
+    }
+
+    /**
+     * Ends a write started with {@link #beginWrite()}.
+     */
+    public void endWrite() {
+        writeContext.get()[0]--;
+        gate.readLock().unlock();
+    }
+
+    /**
+     * Opens a snapshot at the latest committed version.
+     *
+     * @return snapshot; close it to let repositories reclaim old versions
+     */
+    public Snapshot openSnapshot() {
+        long readVersion;
+        gate.writeLock().lock();
+        try {
+            readVersion = version.get();
+            openSnapshots.merge(readVersion, 1, Integer::sum);
+        } finally {
+            gate.writeLock().unlock();
+        }
+        return new Snapshot(readVersion, () -> openSnapshots.computeIfPresent(readVersion,
+                (k, n) -> n == 1 ? null : n - 1));
+    }
+
+    /**
+     * @return read version of the oldest open snapshot, or {@link Long#MAX_VALUE} if none is open
+     */
+    public long oldestOpenSnapshot() {
+        var first = openSnapshots.firstEntry();
+        return first == null ? Long.MAX_VALUE : first.getKey();
+    }
+
+    /**
+     * @return latest commit version handed out
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+}
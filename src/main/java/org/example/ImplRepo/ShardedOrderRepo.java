@@ -0,0 +1,604 @@
+package org.example.ImplRepo;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Error.ErrorHandling;
+import org.example.Reposotory.OrderRepo;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Order repository partitioned by customer, one single-writer thread per shard.
+ *
+ * <ul>
+ *   <li>{@code customerId} hashes to one of N shards; all orders of a customer live in the same shard.</li>
+ *   <li>Each shard owns a plain {@code HashMap} store and customer index that only its own thread
+ *       touches, so there is no locking or CAS contention inside a shard.</li>
+ *   <li>A concurrent directory maps orderId to shard, so lookups by ID hop straight to the owner.</li>
+ *   <li>{@link #findByCustomer} is served by a single shard; {@link #findAll()} fans out to all
+ *       shards in parallel and concatenates the results.</li>
+ *   <li>Each shard keeps its own {@link TimePartitionedIndex}; {@link #findCreatedBetween} fans out
+ *       and merges the per-shard results by time.</li>
+ *   <li>Each shard keeps a set of orderIds per status; {@link #transitionAll} groups the IDs by
+ *       shard and moves each group in one task on its owner thread (one hop per shard, not per order).</li>
+ * </ul>
+ *
+ * <p>Callers block until the owning shard has executed their request, so the {@link OrderRepo}
+ * contract (synchronous, exceptions on failure) is unchanged. Stored orders are frozen, versioned
+ * copies exactly as in {@link InMemoryOrderImp}; snapshot reads are not supported.
+ *
+ * <p>Changing an order's customer moves it between shards: it is removed from the old shard,
+ * inserted into the new one and the directory is flipped. While it moves, {@link #findById} waits
+ * for the move and reads the new shard; an update or delete that resolved the old shard fails with
+ * a {@link ErrorHandling.Conflict} (the move changed the order), never with "not found".
+ */
+public class ShardedOrderRepo implements OrderRepo, AutoCloseable {
+
+    /**
+     * The shards; each one is confined to its executor thread.
+     */
+    private final Shard[] shards;
+
+    /**
+     * Directory: orderId -> owning shard. Created orders share their shard's {@link Home}; a move
+     * installs a fresh one, so a thread can tell by identity whether the order moved since it looked.
+     */
+    private final Map<String, Home> directory = new ConcurrentHashMap<>();
+
+    private final Home[] homes;
+
+    /**
+     * Orders being moved to another shard (between leaving the old shard and the directory flip).
+     */
+    private final Set<String> moving = ConcurrentHashMap.newKeySet();
+
+    public ShardedOrderRepo() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shardCount number of shards (and owner threads)
+     */
+    public ShardedOrderRepo(int shardCount) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be > 0");
+        this.shards = new Shard[shardCount];
+        this.homes = new Home[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+            homes[i] = new Home(i);
+        }
+    }
+
+    /**
+     * Creates a new order in its customer's shard.
+     *
+     * @param order the {@link Order} to store
+     * @throws NullPointerException     if order is null
+     * @throws IllegalArgumentException if order ID is null, blank, or duplicate
+     */
+    @Override
+    public Order create(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        String id = order.getId();
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("order id must not be null/blank");
+        }
+        int shard = shardOf(order.getCustomerId());
+        if (directory.putIfAbsent(id, homes[shard]) != null) {
+            throw new IllegalArgumentException("duplicate order id: " + id);
+        }
+        Order stored = VersionedStore.stamp(order, 1);   // copy/freeze on the caller thread
+        on(shard, s -> s.put(stored));
+        syncVersion(order, stored);
+        return stored;
+    }
+
+    /**
+     * Updates an existing order, moving it to another shard if the customer changed.
+     *
+     * @param order the updated {@link Order}
+     * @throws IllegalArgumentException if the entity does not exist or ID is missing
+     * @throws org.example.Error.ErrorHandling.Conflict if the order changed since it was read
+     */
+    @Override
+    public Order update(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        String id = order.getId();
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("order id must not be null/blank");
+        }
+        Home from = directory.get(id);
+        if (from == null) throw new IllegalArgumentException("order not found: " + id);
+        Order stored = VersionedStore.stamp(order, order.getVersion() + 1);
+        int to = shardOf(order.getCustomerId());
+
+        if (from.shard == to) {
+            write(id, from, s -> s.replace(stored, order));
+        } else {
+            if (!moving.add(id)) throw moved(id, null);
+            try {
+                Home now = directory.get(id); // re-read: no other move can start until we are done
+                if (now == null) throw new IllegalArgumentException("order not found: " + id);
+                if (now != from) throw moved(id, null);
+                on(from.shard, s -> s.remove(id, order));
+                on(to, s -> s.put(stored));
+                directory.put(id, new Home(to));
+            } finally {
+                moving.remove(id);
+            }
+        }
+        syncVersion(order, stored);
+        return stored;
+    }
+
+    /**
+     * Deletes an order.
+     *
+     * @param id the order ID to remove
+     * @throws IllegalArgumentException if order not found
+     */
+    @Override
+    public Order delete(String id) {
+        Objects.requireNonNull(id, "id must not be null");
+        Home home = directory.get(id);
+        if (home == null) throw new IllegalArgumentException("order not found: " + id);
+        Order removed = write(id, home, s -> s.remove(id, null));
+        directory.remove(id, home);
+        return removed;
+    }
+
+    /**
+     * Finds an order by ID (one hop to the owning shard).
+     *
+     * @param id the order ID
+     * @return optional {@link Order}, empty if not found
+     */
+    @Override
+    public Optional<Order> findById(String id) {
+        if (id == null) return Optional.empty();
+        while (true) {
+            Home home = directory.get(id);
+            if (home == null) return Optional.empty();
+            Order found = on(home.shard, s -> s.byId.get(id));
+            if (found != null || !movedFrom(id, home)) return Optional.ofNullable(found);
+            Thread.onSpinWait(); // moving to another shard: read it there
+        }
+    }
+
+    /**
+     * Returns all orders; the shards are scanned in parallel.
+     *
+     * @return unmodifiable list of all {@link Order} objects
+     */
+    @Override
+    public List<Order> findAll() {
+        List<CompletableFuture<List<Order>>> parts = new ArrayList<>(shards.length);
+        for (Shard s : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> new ArrayList<>(s.byId.values()), s.executor));
+        }
+        List<Order> out = new ArrayList<>(directory.size());
+        for (CompletableFuture<List<Order>> part : parts) out.addAll(join(part));
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Returns one page of orders: whole shards are skipped by their size, then only the shards
+     * holding the page are visited.
+     *
+     * @param offset orders to skip
+     * @param limit  maximum orders to return
+     * @return unmodifiable page
+     */
+    @Override
+    public List<Order> findPage(int offset, int limit) {
+        List<Order> out = new ArrayList<>(Math.max(0, limit));
+        int skip = Math.max(0, offset);
+        for (int i = 0; i < shards.length && out.size() < limit; i++) {
+            int size = shards[i].size;
+            if (skip >= size) {
+                skip -= size;
+                continue;
+            }
+            int from = skip;
+            int want = limit - out.size();
+            out.addAll(on(i, s -> {
+                List<Order> part = new ArrayList<>(Math.min(want, s.byId.size()));
+                int n = 0;
+                for (Order o : s.byId.values()) {
+                    if (n++ < from) continue;
+                    if (part.size() == want) break;
+                    part.add(o);
+                }
+                return part;
+            }));
+            skip = 0;
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Returns the number of stored orders without visiting the shards.
+     *
+     * @return order count
+     */
+    @Override
+    public long count() {
+        long n = 0;
+        for (Shard s : shards) n += s.size;
+        return n;
+    }
+
+    /**
+     * Returns the orders of one customer from its shard's index.
+     *
+     * @param customerId the customer ID
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findByCustomer(String customerId) {
+        if (customerId == null) return List.of();
+        return on(shardOf(customerId), s -> {
+            Set<String> ids = s.byCustomer.get(customerId);
+            if (ids == null) return List.of();
+            List<Order> out = new ArrayList<>(ids.size());
+            for (String id : ids) out.add(s.byId.get(id));
+            return Collections.unmodifiableList(out);
+        });
+    }
+
+    /**
+     * Returns the orders created in {@code [fromMillis, toMillis)}; every shard scans its own
+     * time index in parallel.
+     *
+     * @param fromMillis start (inclusive), epoch milliseconds
+     * @param toMillis   end (exclusive), epoch milliseconds
+     * @return list of orders, oldest first (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        List<CompletableFuture<List<Order>>> parts = new ArrayList<>(shards.length);
+        for (Shard s : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> {
+                List<String> ids = s.byCreatedAt.ids(fromMillis, toMillis);
+                List<Order> part = new ArrayList<>(ids.size());
+                for (String id : ids) part.add(s.byId.get(id));
+                return part;
+            }, s.executor));
+        }
+        List<Order> out = new ArrayList<>();
+        for (CompletableFuture<List<Order>> part : parts) out.addAll(join(part));
+        out.sort(Comparator.comparingLong(Order::getCreatedAt)); // merges the sorted runs
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Counts the orders created in {@code [fromMillis, toMillis)} from the shards' time indexes.
+     *
+     * @param fromMillis start (inclusive), epoch milliseconds
+     * @param toMillis   end (exclusive), epoch milliseconds
+     * @return order count
+     */
+    @Override
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        List<CompletableFuture<Long>> parts = new ArrayList<>(shards.length);
+        for (Shard s : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> s.byCreatedAt.count(fromMillis, toMillis), s.executor));
+        }
+        long n = 0;
+        for (CompletableFuture<Long> part : parts) n += join(part);
+        return n;
+    }
+
+    /**
+     * Returns the orders in one status; every shard reads its own status index in parallel.
+     *
+     * @param status the status
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        if (status == null) return List.of();
+        List<CompletableFuture<List<Order>>> parts = new ArrayList<>(shards.length);
+        for (Shard s : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> {
+                Set<String> ids = s.byStatus.get(status);
+                List<Order> part = new ArrayList<>(ids.size());
+                for (String id : ids) part.add(s.byId.get(id));
+                return part;
+            }, s.executor));
+        }
+        List<Order> out = new ArrayList<>();
+        for (CompletableFuture<List<Order>> part : parts) out.addAll(join(part));
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Counts the orders in one status without visiting the shards.
+     *
+     * @param status the status
+     * @return order count
+     */
+    @Override
+    public long countByStatus(OrderStatus status) {
+        if (status == null) return 0;
+        long n = 0;
+        for (Shard s : shards) n += s.statusCounts.get(status.ordinal());
+        return n;
+    }
+
+    /**
+     * Counts the lines of all stored orders without visiting the shards.
+     *
+     * @return line count
+     */
+    @Override
+    public long countLines() {
+        long n = 0;
+        for (Shard s : shards) n += s.lines;
+        return n;
+    }
+
+    /**
+     * Moves the listed orders with one task per shard, the shards in parallel. Each task checks,
+     * replaces and reindexes its orders on the owner thread; the customer and time indexes are not
+     * touched. An order whose customer moves it to another shard meanwhile is left as it is.
+     *
+     * @param ids     order IDs (not null)
+     * @param from    statuses an order may be moved from
+     * @param to      new status
+     * @param changed receives (before, after) for every moved order, after all shards finished
+     * @return number of orders moved
+     */
+    @Override
+    public int transitionAll(Collection<String> ids, Set<OrderStatus> from, OrderStatus to,
+                             BiConsumer<Order, Order> changed) {
+        Objects.requireNonNull(to, "to must not be null");
+        List<List<String>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) byShard.add(new ArrayList<>());
+        for (String id : ids) {
+            Home home = directory.get(id);
+            if (home != null) byShard.get(home.shard).add(id);
+        }
+        List<CompletableFuture<List<Order>>> parts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<String> group = byShard.get(i);
+            if (group.isEmpty()) continue;
+            Shard s = shards[i];
+            parts.add(CompletableFuture.supplyAsync(() -> s.transition(group, from, to), s.executor));
+        }
+        int moved = 0;
+        for (CompletableFuture<List<Order>> part : parts) {
+            List<Order> pairs = join(part);
+            for (int i = 0; i < pairs.size(); i += 2) changed.accept(pairs.get(i), pairs.get(i + 1));
+            moved += pairs.size() / 2;
+        }
+        return moved;
+    }
+
+    /**
+     * Seals the time partitions that end at or before {@code millis} in every shard.
+     *
+     * @param millis cutoff, epoch milliseconds
+     * @return number of partitions sealed
+     */
+    public int sealPartitionsBefore(long millis) {
+        int sealed = 0;
+        for (int i = 0; i < shards.length; i++) sealed += on(i, s -> s.byCreatedAt.sealBefore(millis));
+        return sealed;
+    }
+
+    /**
+     * @return number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stops the shard threads after the requests already queued have run.
+     */
+    @Override
+    public void close() {
+        for (Shard s : shards) s.executor.shutdown();
+        try {
+            for (Shard s : shards) s.executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Routing helpers
+    // ------------------------------------------------------------
+
+    private int shardOf(String customerId) {
+        int h = Objects.hashCode(customerId);
+        h ^= h >>> 16;
+        return (h & 0x7fffffff) % shards.length;
+    }
+
+    /**
+     * Runs {@code task} on the shard's owner thread and waits for the result.
+     */
+    private <R> R on(int shard, Function<Shard, R> task) {
+        Shard s = shards[shard];
+        if (Thread.currentThread() == s.owner) return task.apply(s);
+        return join(CompletableFuture.supplyAsync(() -> task.apply(s), s.executor));
+    }
+
+    /**
+     * Runs a write of one order on the shard the directory named; if the order has left that
+     * shard meanwhile (a concurrent update moved it), reports a conflict instead of "not found".
+     */
+    private <R> R write(String id, Home home, Function<Shard, R> task) {
+        try {
+            return on(home.shard, task);
+        } catch (IllegalArgumentException notFound) {
+            if (movedFrom(id, home)) throw moved(id, notFound);
+            throw notFound;
+        }
+    }
+
+    /**
+     * After the order was missing from {@code home}'s shard: true if a move was in progress then or
+     * has completed since. {@code moving} is read first, so a move that ends in between is seen in
+     * the directory.
+     */
+    private boolean movedFrom(String id, Home home) {
+        if (moving.contains(id)) return true;
+        Home now = directory.get(id);
+        return now != null && now != home;
+    }
+
+    private static ErrorHandling.Conflict moved(String id, Throwable cause) {
+        return new ErrorHandling.Conflict("Order was moved to another shard concurrently: " + id, cause);
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private static void syncVersion(Order caller, Order stored) {
+        if (!caller.isFrozen()) caller.setVersion(stored.getVersion());
+    }
+
+    /**
+     * A directory entry; compared by identity (see {@link #directory}).
+     */
+    private static final class Home {
+        final int shard;
+
+        Home(int shard) {
+            this.shard = shard;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Shard (confined to its executor thread)
+    // ------------------------------------------------------------
+
+    private static final class Shard {
+        final ExecutorService executor;
+        volatile Thread owner;
+        volatile int size;   // written by the owner only, read by count()
+        volatile long lines; // likewise, read by countLines()
+
+        final Map<String, Order> byId = new HashMap<>();
+        final Map<String, Set<String>> byCustomer = new HashMap<>();
+        final TimePartitionedIndex byCreatedAt = new TimePartitionedIndex();
+        final Map<OrderStatus, Set<String>> byStatus = new EnumMap<>(OrderStatus.class);
+        final AtomicIntegerArray statusCounts = new AtomicIntegerArray(OrderStatus.values().length); // written by the owner only
+
+        Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "order-shard-" + index);
+                t.setDaemon(true);
+                owner = t;
+                return t;
+            });
+            for (OrderStatus status : OrderStatus.values()) byStatus.put(status, new LinkedHashSet<>());
+        }
+
+        Void put(Order stored) {
+            byId.put(stored.getId(), stored);
+            index(stored.getCustomerId(), stored.getId());
+            byCreatedAt.add(stored.getId(), stored.getCreatedAt());
+            indexStatus(stored.getStatus(), stored.getId());
+            size = byId.size();
+            lines += stored.lineCount();
+            return null;
+        }
+
+        Void replace(Order stored, Order proposed) {
+            String id = stored.getId();
+            Order current = byId.get(id);
+            if (current == null) throw new IllegalArgumentException("order not found: " + id);
+            VersionedStore.checkVersion(id, current, proposed); // optimistic compare-and-set
+            byId.put(id, stored);
+            if (!Objects.equals(current.getCustomerId(), stored.getCustomerId())) {
+                deindex(current.getCustomerId(), id);
+                index(stored.getCustomerId(), id);
+            }
+            if (current.getCreatedAt() != stored.getCreatedAt()) {
+                byCreatedAt.remove(id, current.getCreatedAt());
+                byCreatedAt.add(id, stored.getCreatedAt());
+            }
+            if (current.getStatus() != stored.getStatus()) {
+                deindexStatus(current.getStatus(), id);
+                indexStatus(stored.getStatus(), id);
+            }
+            lines += stored.lineCount() - current.lineCount();
+            return null;
+        }
+
+        /**
+         * @param expected entity whose version must match (null = unconditional delete)
+         * @return the removed order
+         */
+        Order remove(String id, Order expected) {
+            Order current = byId.get(id);
+            if (current == null) throw new IllegalArgumentException("order not found: " + id);
+            if (expected != null) VersionedStore.checkVersion(id, current, expected);
+            byId.remove(id);
+            deindex(current.getCustomerId(), id);
+            byCreatedAt.remove(id, current.getCreatedAt());
+            deindexStatus(current.getStatus(), id);
+            size = byId.size();
+            lines -= current.lineCount();
+            return current;
+        }
+
+        /**
+         * @return (before, after) pairs of the moved orders, flattened
+         */
+        List<Order> transition(List<String> ids, Set<OrderStatus> from, OrderStatus to) {
+            List<Order> pairs = new ArrayList<>();
+            for (String id : ids) {
+                Order current = byId.get(id);
+                if (current == null || !from.contains(current.getStatus())) continue;
+                Order next = current.copy();
+                next.setStatus(to);
+                Order stored = VersionedStore.stamp(next, current.getVersion() + 1);
+                byId.put(id, stored);
+                deindexStatus(current.getStatus(), id);
+                indexStatus(to, id);
+                pairs.add(current);
+                pairs.add(stored);
+            }
+            return pairs;
+        }
+
+        private void indexStatus(OrderStatus status, String orderId) {
+            if (status != null && byStatus.get(status).add(orderId)) statusCounts.incrementAndGet(status.ordinal());
+        }
+
+        private void deindexStatus(OrderStatus status, String orderId) {
+            if (status != null && byStatus.get(status).remove(orderId)) statusCounts.decrementAndGet(status.ordinal());
+        }
+
+        private void index(String customerId, String orderId) {
+            if (customerId != null) byCustomer.computeIfAbsent(customerId, k -> new LinkedHashSet<>()).add(orderId);
+        }
+
+        private void deindex(String customerId, String orderId) {
+            if (customerId == null) return;
+            Set<String> ids = byCustomer.get(customerId);
+            if (ids != null && ids.remove(orderId) && ids.isEmpty()) byCustomer.remove(customerId);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package org.example.ImplRepo;
+
+import org.example.Archive.ArchivePolicy;
+import org.example.Archive.OrderArchive;
+import org.example.Archive.Segment;
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Error.ErrorHandling;
+import org.example.Reposotory.OrderRepo;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.SnapshotRepo;
+import org.example.Reposotory.Versioned;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier order repository: active orders in an in-memory {@link OrderRepo}, cold ones in an
+ * {@link OrderArchive} of compressed segment files.
+ *
+ * <ul>
+ *   <li>{@link #archiveCold} moves the orders the {@link ArchivePolicy} calls cold from memory into
+ *       a new segment, so the heap holds active orders rather than the whole order history.</li>
+ *   <li>Reads look in memory first and fall through to the archive: {@link #findById} via the
+ *       segments' bloom filters and block indexes, {@link #findByCustomer} via their customer
+ *       indexes, time and status queries via the segments' time ranges and status counts.</li>
+ *   <li>Archived orders are read-only: updating or deleting one throws {@link ErrorHandling.ReadOnly}.
+ *       The default policy only archives final orders, which have nothing left to change.</li>
+ * </ul>
+ *
+ * <p>Moving a batch: the segment is written and published while writers keep running; then,
+ * 1024 orders at a time with writers held off, every order still unchanged in
+ * memory is deleted there. Orders that changed in the meantime stay in memory and their archived
+ * copies are retired. Readers are never blocked; until an order is deleted from memory they may
+ * count it in both tiers.
+ *
+ * <p>Snapshot reads are supported when the in-memory repository supports them; archived orders
+ * are visible to every snapshot.
+ */
+public class TieredOrderRepo implements OrderRepo, SnapshotRepo<Order, String>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredOrderRepo.class);
+
+    public static final int SEGMENT_ORDERS = 1 << 16;  // max orders per segment
+    private static final int HANDOVER_BATCH = 1024;    // orders removed from memory per write-lock hold
+
+    private final OrderRepo hot;
+    private final OrderArchive archive;
+    private final ArchivePolicy policy;
+
+    /**
+     * Writes hold the read side; the hand-over of an archived batch holds the write side.
+     */
+    private final ReentrantReadWriteLock handover = new ReentrantReadWriteLock();
+
+    /**
+     * One archive pass at a time.
+     */
+    private final ReentrantLock pass = new ReentrantLock();
+
+    /**
+     * @param hot     in-memory repository for active orders (e.g. {@link InMemoryOrderImp})
+     * @param archive cold tier
+     * @param policy  which orders to archive
+     */
+    public TieredOrderRepo(OrderRepo hot, OrderArchive archive, ArchivePolicy policy) {
+        this.hot = Objects.requireNonNull(hot, "hot must not be null");
+        this.archive = Objects.requireNonNull(archive, "archive must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+    }
+
+    // ------------------------------------------------------------
+    // Archiving
+    // ------------------------------------------------------------
+
+    /**
+     * Archives the orders that are cold now, if there are at least {@link ArchivePolicy#minBatch} of them.
+     *
+     * @return number of orders moved out of memory
+     * @throws UncheckedIOException if a segment cannot be written (its orders stay in memory)
+     */
+    public int archiveCold() {
+        return archiveCold(System.currentTimeMillis(), policy.minBatch());
+    }
+
+    /**
+     * Archives the orders that are cold at {@code nowMillis}. A large backlog is cut by
+     * {@code createdAt} into segments of at most {@link #SEGMENT_ORDERS} orders, so each segment
+     * covers a narrow time range. Returns 0 at once if another pass is running.
+     *
+     * @param nowMillis current time, epoch milliseconds
+     * @param minBatch  do nothing unless at least this many orders are cold
+     * @return number of orders moved out of memory
+     * @throws UncheckedIOException if a segment cannot be written (its orders stay in memory)
+     */
+    public int archiveCold(long nowMillis, int minBatch) {
+        if (!pass.tryLock()) return 0;
+        try {
+            // oldest first; an order being re-timed concurrently may be listed twice
+            Map<String, Order> byId = new LinkedHashMap<>();
+            for (Order o : hot.findCreatedBetween(Long.MIN_VALUE, policy.cutoff(nowMillis))) {
+                if (policy.isCold(o, nowMillis)) byId.putIfAbsent(o.getId(), o);
+            }
+            List<Order> cold = new ArrayList<>(byId.values());
+            if (cold.isEmpty() || cold.size() < minBatch) return 0;
+            int moved = 0;
+            for (int from = 0; from < cold.size(); from += SEGMENT_ORDERS) {
+                moved += archive(cold.subList(from, Math.min(cold.size(), from + SEGMENT_ORDERS)));
+            }
+            return moved;
+        } finally {
+            pass.unlock();
+        }
+    }
+
+    /**
+     * Writes one segment, publishes it, then removes its orders from memory in small batches.
+     */
+    private int archive(List<Order> batch) {
+        long start = System.nanoTime();
+        Segment segment;
+        try {
+            segment = archive.write(batch);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not archive " + batch.size() + " orders", ex);
+        }
+        archive.publish(segment); // still in memory too: reads prefer the in-memory copy
+
+        int moved = 0;
+        for (int from = 0; from < batch.size(); from += HANDOVER_BATCH) {
+            handover.writeLock().lock();
+            try {
+                for (Order o : batch.subList(from, Math.min(batch.size(), from + HANDOVER_BATCH))) {
+                    Optional<Order> current = hot.findById(o.getId());
+                    if (current.isPresent() && unchanged(current.get(), o)) {
+                        hot.delete(o.getId());
+                        moved++;
+                    } else {
+                        archive.retire(o.getId()); // changed or deleted meanwhile: memory wins
+                    }
+                }
+            } finally {
+                handover.writeLock().unlock();
+            }
+        }
+        log.info("Archived {} orders into {} in {} ms", moved, segment, (System.nanoTime() - start) / 1_000_000);
+        return moved;
+    }
+
+    public OrderArchive getArchive() {
+        return archive;
+    }
+
+    public ArchivePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Number of orders held in memory.
+     */
+    public long hotCount() {
+        return hot.count();
+    }
+
+    /**
+     * Lines of the orders held in memory.
+     */
+    public long hotLineCount() {
+        return hot.countLines();
+    }
+
+    // ------------------------------------------------------------
+    // Writes (in-memory tier only)
+    // ------------------------------------------------------------
+
+    /**
+     * @throws IllegalArgumentException if the ID is missing or taken, in memory or in the archive
+     */
+    @Override
+    public Order create(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        handover.readLock().lock();
+        try {
+            if (archive.contains(order.getId())) {
+                throw new IllegalArgumentException("duplicate order id: " + order.getId());
+            }
+            return hot.create(order);
+        } finally {
+            handover.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws ErrorHandling.ReadOnly if the order has been archived
+     */
+    @Override
+    public Order update(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        handover.readLock().lock();
+        try {
+            return hot.update(order);
+        } catch (IllegalArgumentException notInMemory) {
+            if (archive.contains(order.getId())) throw archived(order.getId());
+            throw notInMemory;
+        } finally {
+            handover.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws ErrorHandling.ReadOnly if the order has been archived
+     */
+    @Override
+    public Order delete(String id) {
+        handover.readLock().lock();
+        try {
+            Order removed = hot.delete(id);
+            archive.retire(id); // in case a pass archived it a moment ago (bloom check, usually)
+            return removed;
+        } catch (IllegalArgumentException notInMemory) {
+            if (archive.contains(id)) throw archived(id);
+            throw notInMemory;
+        } finally {
+            handover.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves in-memory orders only; archived orders are left as they are (and reported as not
+     * moved, like missing ones).
+     */
+    @Override
+    public int transitionAll(Collection<String> ids, Set<OrderStatus> from, OrderStatus to,
+                             BiConsumer<Order, Order> changed) {
+        handover.readLock().lock();
+        try {
+            return hot.transitionAll(ids, from, to, changed);
+        } finally {
+            handover.readLock().unlock();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Reads (memory first, then the archive)
+    // ------------------------------------------------------------
+
+    @Override
+    public Optional<Order> findById(String id) {
+        Optional<Order> found = hot.findById(id);
+        return found.isPresent() ? found : archive.findById(id);
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return stream().toList();
+    }
+
+    @Override
+    public List<Order> findPage(int offset, int limit) {
+        return stream().skip(Math.max(0, offset)).limit(Math.max(0, limit)).toList();
+    }
+
+    /**
+     * In-memory orders, then archived ones (read block by block, without filling the block cache).
+     */
+    @Override
+    public Stream<Order> stream() {
+        return Stream.concat(hot.stream(), archive.stream().filter(o -> hot.findById(o.getId()).isEmpty()));
+    }
+
+    @Override
+    public long count() {
+        return hot.count() + archive.size();
+    }
+
+    @Override
+    public List<Order> findByCustomer(String customerId) {
+        return merge(hot.findByCustomer(customerId), archive.findByCustomer(customerId));
+    }
+
+    /**
+     * @return orders oldest first
+     */
+    @Override
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        List<Order> archived = archive.findCreatedBetween(fromMillis, toMillis);
+        List<Order> inMemory = hot.findCreatedBetween(fromMillis, toMillis);
+        if (archived.isEmpty()) return inMemory;
+        List<Order> out = new ArrayList<>(merge(inMemory, archived));
+        out.sort(Comparator.comparingLong(Order::getCreatedAt));
+        return Collections.unmodifiableList(out);
+    }
+
+    @Override
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        return hot.countCreatedBetween(fromMillis, toMillis) + archive.countCreatedBetween(fromMillis, toMillis);
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        return merge(hot.findByStatus(status), archive.findByStatus(status));
+    }
+
+    @Override
+    public long countByStatus(OrderStatus status) {
+        return hot.countByStatus(status) + archive.countByStatus(status);
+    }
+
+    // ------------------------------------------------------------
+    // Snapshot (MVCC) reads
+    // ------------------------------------------------------------
+
+    @Override
+    public Snapshot openSnapshot() {
+        return snapshots().openSnapshot();
+    }
+
+    @Override
+    public Optional<Order> findById(String id, Snapshot snapshot) {
+        Optional<Order> found = snapshots().findById(id, snapshot);
+        return found.isPresent() ? found : archive.findById(id);
+    }
+
+    @Override
+    public List<Order> findAll(Snapshot snapshot) {
+        List<Order> inMemory = snapshots().findAll(snapshot);
+        return merge(inMemory, archive.stream().toList());
+    }
+
+    @Override
+    public void close() {
+        if (hot instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.warn("Closing the in-memory order repository failed", ex);
+            }
+        }
+        try {
+            archive.close();
+        } catch (IOException ex) {
+            log.warn("Closing the order archive failed", ex);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private SnapshotRepo<Order, String> snapshots() {
+        if (hot instanceof SnapshotRepo<?, ?> repo) return (SnapshotRepo<Order, String>) repo;
+        throw new UnsupportedOperationException(hot.getClass().getSimpleName() + " does not support snapshots");
+    }
+
+    /**
+     * In-memory orders plus the archived ones not also in memory (an order is in both tiers only
+     * while its batch is being handed over).
+     */
+    private static List<Order> merge(List<Order> inMemory, List<Order> archived) {
+        if (archived.isEmpty()) return inMemory;
+        if (inMemory.isEmpty()) return archived;
+        Set<String> ids = new HashSet<>(inMemory.size() * 4 / 3 + 1);
+        for (Order o : inMemory) ids.add(o.getId());
+        List<Order> out = new ArrayList<>(inMemory.size() + archived.size());
+        out.addAll(inMemory);
+        for (Order o : archived) {
+            if (!ids.contains(o.getId())) out.add(o);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * True if {@code current} is still the version that was archived ({@code equals} alone
+     * ignores the version and createdAt).
+     */
+    private static boolean unchanged(Order current, Order archived) {
+        if (current == archived) return true;
+        return Versioned.versionOf(current) == Versioned.versionOf(archived)
+                && current.getCreatedAt() == archived.getCreatedAt()
+                && current.equals(archived);
+    }
+
+    private static ErrorHandling.ReadOnly archived(String id) {
+        return new ErrorHandling.ReadOnly("order is archived and can no longer be changed: " + id);
+    }
+}
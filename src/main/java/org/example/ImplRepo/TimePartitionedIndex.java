@@ -0,0 +1,321 @@
+package org.example.ImplRepo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary index from creation time to entity ID, split into fixed time partitions
+ * (e.g. one per hour or per day).
+ *
+ * <ul>
+ *   <li>Range queries only visit the partitions overlapping the range; partitions fully inside it
+ *       are counted without looking at their entries.</li>
+ *   <li>Open partitions are concurrent hash maps, so writers never contend on a sorted structure.</li>
+ *   <li>Sealed partitions are two sorted arrays ({@code long[]} times, {@code String[]} ids):
+ *       compact, binary-searchable, no per-entry objects. Older partitions are sealed automatically
+ *       when a newer one opens (see {@code openPartitions}) or explicitly via {@link #sealBefore}.</li>
+ *   <li>Writes to a sealed partition still work: a delete clears its slot, an insert (e.g. a backfill)
+ *       reopens the partition until it is sealed again.</li>
+ * </ul>
+ *
+ * <p>The index holds IDs only; callers resolve them against their primary store and should
+ * re-check the timestamp, like the customer index in {@link InMemoryOrderImp}.
+ */
+public final class TimePartitionedIndex {
+
+    public static final long HOUR_MILLIS = 3_600_000L;
+    public static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    public static final int DEFAULT_OPEN_PARTITIONS = 2;
+
+    private final long partitionMillis;
+    private final int openPartitions;
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final AtomicLong newestKey = new AtomicLong(Long.MIN_VALUE);
+
+    public TimePartitionedIndex() {
+        this(HOUR_MILLIS, DEFAULT_OPEN_PARTITIONS);
+    }
+
+    /**
+     * @param partitionMillis length of one partition (e.g. {@link #HOUR_MILLIS})
+     * @param openPartitions  newest partitions kept open; older ones are sealed when a newer one
+     *                        opens (0 = seal only via {@link #sealBefore})
+     */
+    public TimePartitionedIndex(long partitionMillis, int openPartitions) {
+        if (partitionMillis <= 0) throw new IllegalArgumentException("partitionMillis must be > 0");
+        if (openPartitions < 0) throw new IllegalArgumentException("openPartitions must be >= 0");
+        this.partitionMillis = partitionMillis;
+        this.openPartitions = openPartitions;
+    }
+
+    // ------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------
+
+    public void add(String id, long time) {
+        long key = keyOf(time);
+        Partition p = partitions.get(key);
+        if (p == null) {
+            Partition created = new Partition();
+            p = partitions.putIfAbsent(key, created);
+            if (p == null) {
+                p = created;
+                opened(key);
+            }
+        }
+        p.add(id, time);
+    }
+
+    public void remove(String id, long time) {
+        Partition p = partitions.get(keyOf(time));
+        if (p != null) p.remove(id, time);
+    }
+
+    // ------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------
+
+    /**
+     * IDs with {@code from <= time < to}, in time order.
+     */
+    public List<String> ids(long from, long to) {
+        if (from >= to) return List.of();
+        List<String> out = new ArrayList<>();
+        for (Partition p : overlapping(from, to).values()) p.collect(from, to, out);
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Number of entries with {@code from <= time < to}.
+     */
+    public long count(long from, long to) {
+        if (from >= to) return 0;
+        long n = 0;
+        for (Map.Entry<Long, Partition> e : overlapping(from, to).entrySet()) {
+            long start = e.getKey() * partitionMillis;
+            boolean whole = from <= start && start + partitionMillis <= to;
+            n += whole ? e.getValue().size() : e.getValue().count(from, to);
+        }
+        return n;
+    }
+
+    // ------------------------------------------------------------
+    // Sealing
+    // ------------------------------------------------------------
+
+    /**
+     * Seals every open partition that ends at or before {@code time}.
+     *
+     * @return number of partitions sealed
+     */
+    public int sealBefore(long time) {
+        int sealed = 0;
+        for (Partition p : partitions.headMap(keyOf(time)).values()) {
+            if (p.seal()) sealed++;
+        }
+        return sealed;
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    public int sealedCount() {
+        int n = 0;
+        for (Partition p : partitions.values()) if (p.isSealed()) n++;
+        return n;
+    }
+
+    public long getPartitionMillis() {
+        return partitionMillis;
+    }
+
+    private long keyOf(long time) {
+        return Math.floorDiv(time, partitionMillis);
+    }
+
+    private ConcurrentNavigableMap<Long, Partition> overlapping(long from, long to) {
+        return partitions.subMap(keyOf(from), true, keyOf(to - 1), true);
+    }
+
+    /**
+     * A newer partition opened: seal the ones that fell out of the open window.
+     */
+    private void opened(long key) {
+        if (openPartitions == 0) return;
+        if (newestKey.getAndAccumulate(key, Math::max) >= key) return; // an older partition (backfill); leave it open
+        for (Partition p : partitions.headMap(key - openPartitions, true).values()) p.seal();
+    }
+
+    // ------------------------------------------------------------
+    // Partition
+    // ------------------------------------------------------------
+
+    /**
+     * Open: concurrent map id -> time. Sealed: arrays sorted by (time, id); deleted slots are null.
+     * Adds and removes on an open partition share the read lock; sealing, reopening and sealed
+     * deletes take the write lock.
+     */
+    private static final class Partition {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Map<String, Long> open = new ConcurrentHashMap<>();
+        private long[] times;
+        private String[] ids;
+        private int live;
+
+        void add(String id, long time) {
+            lock.readLock().lock();
+            try {
+                if (open != null) {
+                    open.put(id, time);
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (open == null) reopen();
+                open.put(id, time);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String id, long time) {
+            lock.readLock().lock();
+            try {
+                if (open != null) {
+                    open.remove(id, time);
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (open != null) {
+                    open.remove(id, time);
+                    return;
+                }
+                for (int i = lowerBound(times, time); i < times.length && times[i] == time; i++) {
+                    if (id.equals(ids[i])) {
+                        ids[i] = null;
+                        live--;
+                        return;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void collect(long from, long to, List<String> out) {
+            lock.readLock().lock();
+            try {
+                if (open == null) {
+                    for (int i = lowerBound(times, from), end = lowerBound(times, to); i < end; i++) {
+                        if (ids[i] != null) out.add(ids[i]);
+                    }
+                    return;
+                }
+                List<Map.Entry<String, Long>> hits = new ArrayList<>();
+                for (Map.Entry<String, Long> e : open.entrySet()) {
+                    long t = e.getValue();
+                    if (t >= from && t < to) hits.add(Map.entry(e.getKey(), t));
+                }
+                hits.sort(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+                for (Map.Entry<String, Long> e : hits) out.add(e.getKey());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long count(long from, long to) {
+            lock.readLock().lock();
+            try {
+                long n = 0;
+                if (open == null) {
+                    for (int i = lowerBound(times, from), end = lowerBound(times, to); i < end; i++) {
+                        if (ids[i] != null) n++;
+                    }
+                } else {
+                    for (long t : open.values()) if (t >= from && t < to) n++;
+                }
+                return n;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return open != null ? open.size() : live;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean isSealed() {
+            lock.readLock().lock();
+            try {
+                return open == null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return true if this call sealed the partition
+         */
+        boolean seal() {
+            lock.writeLock().lock();
+            try {
+                if (open == null) return false;
+                List<Map.Entry<String, Long>> entries = new ArrayList<>(open.entrySet());
+                entries.sort(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+                times = new long[entries.size()];
+                ids = new String[entries.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    times[i] = entries.get(i).getValue();
+                    ids[i] = entries.get(i).getKey();
+                }
+                live = ids.length;
+                open = null;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void reopen() {
+            Map<String, Long> map = new ConcurrentHashMap<>(Math.max(16, live * 2));
+            for (int i = 0; i < ids.length; i++) if (ids[i] != null) map.put(ids[i], times[i]);
+            open = map;
+            times = null;
+            ids = null;
+            live = 0;
+        }
+
+        /**
+         * First index with {@code a[i] >= key}.
+         */
+        private static int lowerBound(long[] a, long key) {
+            int lo = 0, hi = a.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
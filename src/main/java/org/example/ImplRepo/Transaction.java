@@ -0,0 +1,210 @@
+package org.example.ImplRepo;
+
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * One optimistic transaction over any number of {@link CrudRepo}s (started by {@link TransactionManager}).
+ *
+ * <p>While the body runs nothing is locked:
+ * <ul>
+ *   <li>{@link #read} returns the current stored version and remembers exactly which instance was seen.</li>
+ *   <li>{@link #create}, {@link #update} and {@link #delete} are buffered (reads see them).</li>
+ *   <li>{@link #query} remembers the result of an index lookup so phantoms can be detected.</li>
+ * </ul>
+ * At commit the manager locks the touched keys, checks that every read is still current and applies
+ * the buffered writes under one commit version, so snapshot readers see all of them or none.
+ */
+public final class Transaction {
+
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+
+    /**
+     * A (repository, id) pair; repositories compare by identity.
+     */
+    record Key(CrudRepo<?, ?> repo, Object id) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.repo == repo && Objects.equals(k.id, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(repo) * 31 + Objects.hashCode(id);
+        }
+    }
+
+    enum WriteType {CREATE, UPDATE, DELETE}
+
+    record Write(WriteType type, Object entity) {
+    }
+
+    record QueryCheck(Key guard, Supplier<?> query, Object result) {
+    }
+
+    /**
+     * Stored instance observed per key (null = absent). Stored versions are immutable,
+     * so "unchanged" means "the very same instance is still stored".
+     */
+    final Map<Key, Object> reads = new LinkedHashMap<>();
+    final Map<Key, Write> writes = new LinkedHashMap<>();
+    final List<QueryCheck> queries = new ArrayList<>();
+    final List<Runnable> afterCommit = new ArrayList<>();
+
+    /**
+     * Instance each applied create/update stored, filled in at commit (see {@link #stored}).
+     */
+    final Map<Key, Object> stored = new HashMap<>();
+
+    /**
+     * Value each applied delete removed, filled in at commit (see {@link #removed}).
+     */
+    final Map<Key, Object> removed = new HashMap<>();
+
+    Transaction() {
+    }
+
+    /**
+     * @return the transaction running on this thread, or null
+     */
+    public static Transaction current() {
+        return CURRENT.get();
+    }
+
+    static void bind(Transaction tx) {
+        if (tx == null) CURRENT.remove();
+        else CURRENT.set(tx);
+    }
+
+    // ------------------------------------------------------------
+    // Reads
+    // ------------------------------------------------------------
+
+    /**
+     * Reads an entity (seeing this transaction's own pending writes).
+     *
+     * @return the entity, empty if absent or deleted in this transaction
+     */
+    @SuppressWarnings("unchecked")
+    public <T, ID> Optional<T> read(CrudRepo<T, ID> repo, ID id) {
+        Key key = new Key(repo, id);
+        Write pending = writes.get(key);
+        if (pending != null) {
+            return pending.type() == WriteType.DELETE ? Optional.empty() : Optional.of((T) pending.entity());
+        }
+        Optional<T> found = repo.findById(id);
+        reads.putIfAbsent(key, found.orElse(null));
+        return found;
+    }
+
+    /**
+     * Records a read made outside the transaction (e.g. a lookup run concurrently on another thread
+     * before it started) as if {@link #read} had returned {@code observed}: the commit fails
+     * validation, and the body re-runs, unless {@code observed} is still the stored instance.
+     *
+     * @param observed the stored instance that was read, or null if the entity was absent
+     */
+    public <T, ID> void assumeRead(CrudRepo<T, ID> repo, ID id, T observed) {
+        reads.putIfAbsent(new Key(repo, id), observed);
+    }
+
+    /**
+     * Runs an index query and re-checks it at commit time (the result must be {@code equals}).
+     * The guard key is locked during commit, so writers that also lock it (e.g. order placement
+     * reading the customer) cannot slip a phantom in between.
+     *
+     * @param guardRepo repository of the guard key
+     * @param guardId   id of the guard key (e.g. the customer whose orders are queried)
+     * @param query     side-effect-free lookup
+     * @return the query result
+     */
+    public <R> R query(CrudRepo<?, ?> guardRepo, Object guardId, Supplier<R> query) {
+        R result = query.get();
+        queries.add(new QueryCheck(new Key(guardRepo, guardId), query, result));
+        return result;
+    }
+
+    // ------------------------------------------------------------
+    // Buffered writes
+    // ------------------------------------------------------------
+
+    public <T extends Identifiable<ID>, ID> void create(CrudRepo<T, ID> repo, T entity) {
+        Key key = new Key(repo, entity.getId());
+        observe(key, repo, entity.getId());
+        Write pending = writes.get(key);
+        if (pending == null) {
+            writes.put(key, new Write(WriteType.CREATE, entity));
+        } else if (pending.type() == WriteType.DELETE) {
+            writes.put(key, new Write(WriteType.UPDATE, entity)); // delete + re-create = replace
+        } else {
+            throw new IllegalArgumentException("duplicate id in transaction: " + entity.getId());
+        }
+    }
+
+    public <T extends Identifiable<ID>, ID> void update(CrudRepo<T, ID> repo, T entity) {
+        Key key = new Key(repo, entity.getId());
+        observe(key, repo, entity.getId());
+        Write pending = writes.get(key);
+        if (pending == null || pending.type() == WriteType.UPDATE) {
+            writes.put(key, new Write(WriteType.UPDATE, entity));
+        } else if (pending.type() == WriteType.CREATE) {
+            writes.put(key, new Write(WriteType.CREATE, entity));
+        } else {
+            throw new IllegalArgumentException("entity deleted in this transaction: " + entity.getId());
+        }
+    }
+
+    public <T, ID> void delete(CrudRepo<T, ID> repo, ID id) {
+        Key key = new Key(repo, id);
+        observe(key, repo, id);
+        Write pending = writes.get(key);
+        if (pending != null && pending.type() == WriteType.CREATE) {
+            writes.remove(key); // created and deleted in the same transaction: nothing to apply
+        } else {
+            writes.put(key, new Write(WriteType.DELETE, null));
+        }
+    }
+
+    /**
+     * Registers work to run only if (and after) the transaction commits — e.g. publishing events.
+     *
+     * @param action callback
+     */
+    public void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    /**
+     * For {@link #afterCommit} callbacks: the instance the commit stored for {@code id} (the frozen
+     * copy, not the entity passed to {@link #create} or {@link #update}).
+     *
+     * @return the stored instance, or null if the transaction did not end up storing one
+     */
+    @SuppressWarnings("unchecked")
+    public <T, ID> T stored(CrudRepo<T, ID> repo, ID id) {
+        return (T) stored.get(new Key(repo, id));
+    }
+
+    /**
+     * For {@link #afterCommit} callbacks: the value the commit removed for {@code id}.
+     *
+     * @return the removed value, or null if the transaction did not remove one
+     */
+    @SuppressWarnings("unchecked")
+    public <T, ID> T removed(CrudRepo<T, ID> repo, ID id) {
+        return (T) removed.get(new Key(repo, id));
+    }
+
+    private <T, ID> void observe(Key key, CrudRepo<T, ID> repo, ID id) {
+        if (!reads.containsKey(key)) reads.put(key, repo.findById(id).orElse(null));
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.ImplRepo;
+
+import org.example.Error.ErrorHandling;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Metrics.OperationMetrics;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Versioned;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight optimistic transaction manager spanning several in-memory repositories.
+ *
+ * <p>Protocol (OCC with ordered striped locks):
+ * <ol>
+ *   <li>Run the body without locks; reads are recorded, writes buffered (see {@link Transaction}).</li>
+ *   <li>Lock the stripes of every touched key in ascending order (no deadlocks).</li>
+ *   <li>Validate: every key read still holds the same stored version, every recorded query still
+ *       returns the same result. On failure unlock, back off and re-run the body.</li>
+ *   <li>Apply the buffered writes under a single {@link MvccClock} commit version, unlock, then run
+ *       the after-commit callbacks. If a write fails (I/O error, read-only journal, a direct writer
+ *       racing in), the writes already applied are undone in reverse order before the error is
+ *       rethrown, so the transaction leaves all of its keys as they were.</li>
+ * </ol>
+ * Locks are held only for validate + apply (a few map operations), never while user code runs.
+ * Read-only transactions commit without locking. Calls to {@link #execute} nested in a running
+ * transaction join it.
+ *
+ * <p>Writes are only serialized against transactions if they go through the manager as well;
+ * {@code ServiceCrud} does this for every command once it is attached with {@code useTransactions}.
+ * Bulk writes that bypass {@link Transaction} run under {@link #exclusive} instead.
+ */
+public final class TransactionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionManager.class);
+
+    public static final int DEFAULT_STRIPES = 1024;
+    public static final int DEFAULT_ATTEMPTS = 8;
+
+    private final MvccClock clock;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final int maxAttempts;
+    private final OperationMetrics commitOp;
+
+    public TransactionManager(MvccClock clock) {
+        this(clock, DEFAULT_STRIPES, DEFAULT_ATTEMPTS, MetricsRegistry.global());
+    }
+
+    /**
+     * @param clock       commit clock shared with the repositories
+     * @param stripes     number of lock stripes (rounded up to a power of two)
+     * @param maxAttempts attempts before giving up with {@link ErrorHandling.Conflict}
+     * @param metrics     registry for commit latency and conflict counts
+     */
+    public TransactionManager(MvccClock clock, int stripes, int maxAttempts, MetricsRegistry metrics) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new ReentrantLock();
+        this.mask = n - 1;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.commitOp = metrics.operation("transaction", "all", "commit");
+    }
+
+    /**
+     * Runs {@code body} as one atomic transaction (or joins the transaction already running
+     * on this thread). The body may run several times; keep it free of side effects other than
+     * {@link Transaction} operations and {@link Transaction#afterCommit} callbacks.
+     *
+     * @param body transactional work
+     * @param <R>  result type
+     * @return the body's result from the attempt that committed
+     * @throws ErrorHandling.Conflict if validation kept failing for {@code maxAttempts} attempts
+     */
+    public <R> R execute(Supplier<R> body) {
+        if (Transaction.current() != null) return body.get();
+
+        for (int attempt = 1; ; attempt++) {
+            Transaction tx = new Transaction();
+            R result;
+            Transaction.bind(tx);
+            try {
+                result = body.get();
+            } finally {
+                Transaction.bind(null);
+            }
+
+            long start = System.nanoTime();
+            if (commit(tx)) {
+                commitOp.success(System.nanoTime() - start);
+                for (Runnable r : tx.afterCommit) {
+                    try {
+                        r.run();
+                    } catch (RuntimeException ex) {
+                        log.error("after-commit callback failed", ex);
+                    }
+                }
+                return result;
+            }
+            commitOp.error("Conflict");
+            if (attempt >= maxAttempts) {
+                throw new ErrorHandling.Conflict("transaction gave up after " + attempt
+                        + " attempts: data changed concurrently");
+            }
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(1_000L << Math.min(attempt, 10)));
+        }
+    }
+
+    /**
+     * Runnable flavour of {@link #execute(Supplier)}.
+     */
+    public void run(Runnable body) {
+        execute(() -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a direct write of many keys of one repository (e.g. a bulk update that bypasses
+     * {@link Transaction}) serialized with the transactions touching those keys: their stripes are
+     * held while {@code body} runs, and every write in it shares one commit version.
+     *
+     * @param repo the repository {@code body} writes to, as transactions see it
+     * @param ids  every key {@code body} may write
+     * @throws IllegalStateException if a transaction is running on this thread
+     */
+    public <R> R exclusive(CrudRepo<?, ?> repo, Collection<?> ids, Supplier<R> body) {
+        if (Transaction.current() != null) throw new IllegalStateException("exclusive writes cannot join a transaction");
+        int[] all = new int[ids.size()];
+        int n = 0;
+        for (Object id : ids) all[n++] = stripeOf(new Transaction.Key(repo, id));
+        int[] locked = distinctSorted(all, n);
+        for (int s : locked) stripes[s].lock();
+        try {
+            clock.beginWrite();
+            try {
+                return body.get();
+            } finally {
+                clock.endWrite();
+            }
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) stripes[locked[i]].unlock();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Commit
+    // ------------------------------------------------------------
+
+    private boolean commit(Transaction tx) {
+        if (tx.writes.isEmpty()) return true; // read-only: nothing to make atomic
+
+        int[] locked = stripesOf(tx);
+        for (int s : locked) stripes[s].lock();
+        try {
+            for (Map.Entry<Transaction.Key, Object> read : tx.reads.entrySet()) {
+                if (currentValue(read.getKey()) != read.getValue()) return false;
+            }
+            for (Transaction.QueryCheck q : tx.queries) {
+                if (!Objects.equals(q.query().get(), q.result())) return false;
+            }
+            for (Map.Entry<Transaction.Key, Transaction.Write> w : tx.writes.entrySet()) {
+                if (w.getValue().type() != Transaction.WriteType.UPDATE) continue;
+                Object observed = tx.reads.get(w.getKey());
+                if (observed != null && Versioned.versionOf(observed) != Versioned.versionOf(w.getValue().entity())) {
+                    throw new ErrorHandling.Conflict("id=" + w.getKey().id() + " was updated from a stale version");
+                }
+            }
+
+            clock.beginWrite(); // one commit version for every write below (and any undo)
+            List<Applied> applied = new ArrayList<>(tx.writes.size());
+            try {
+                for (Map.Entry<Transaction.Key, Transaction.Write> w : tx.writes.entrySet()) {
+                    Transaction.Key key = w.getKey();
+                    Object before = currentValue(key);
+                    Object result = apply(key, w.getValue());
+                    applied.add(new Applied(key, before));
+                    if (result == null) continue;
+                    if (w.getValue().type() == Transaction.WriteType.DELETE) tx.removed.put(key, result);
+                    else tx.stored.put(key, result);
+                }
+            } catch (RuntimeException ex) {
+                rollback(applied, ex);
+                throw ex;
+            } finally {
+                clock.endWrite();
+            }
+            return true;
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) stripes[locked[i]].unlock();
+        }
+    }
+
+    /**
+     * @return the stored instance, or for a delete the removed one
+     */
+    @SuppressWarnings("unchecked")
+    private static Object apply(Transaction.Key key, Transaction.Write write) {
+        CrudRepo<Object, Object> repo = (CrudRepo<Object, Object>) key.repo();
+        return switch (write.type()) {
+            case CREATE -> repo.create(write.entity());
+            case UPDATE -> repo.update(write.entity());
+            case DELETE -> repo.delete(key.id());
+        };
+    }
+
+    /**
+     * A write applied during commit and the value its key held before (null = absent).
+     */
+    private record Applied(Transaction.Key key, Object before) {
+    }
+
+    /**
+     * Undoes {@code applied} newest first. An undo that fails is logged and attached to
+     * {@code cause}; the others still run.
+     */
+    private static void rollback(List<Applied> applied, RuntimeException cause) {
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            Applied a = applied.get(i);
+            try {
+                restore(a.key(), a.before());
+            } catch (RuntimeException ex) {
+                cause.addSuppressed(ex);
+                log.error("Rolling back id={} failed; it keeps the value of the failed commit", a.key().id(), ex);
+            }
+        }
+    }
+
+    /**
+     * Puts {@code before} back (deleting the key if it was absent). A restored update gets the next
+     * version rather than its old one, so versions keep increasing.
+     */
+    @SuppressWarnings("unchecked")
+    private static void restore(Transaction.Key key, Object before) {
+        CrudRepo<Object, Object> repo = (CrudRepo<Object, Object>) key.repo();
+        Object now = repo.findById(key.id()).orElse(null);
+        if (before == null) {
+            if (now != null) repo.delete(key.id());
+        } else if (now == null) {
+            repo.create(Versioned.editableCopyOf(before));
+        } else if (now != before) {
+            Object copy = Versioned.editableCopyOf(before);
+            if (copy instanceof Versioned<?> v) v.setVersion(Versioned.versionOf(now));
+            repo.update(copy);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object currentValue(Transaction.Key key) {
+        Optional<Object> found = ((CrudRepo<Object, Object>) key.repo()).findById(key.id());
+        return found.orElse(null);
+    }
+
+    /**
+     * Distinct stripe indexes of all touched keys, ascending (the global lock order).
+     */
+    private int[] stripesOf(Transaction tx) {
+        int[] all = new int[tx.reads.size() + tx.writes.size() + tx.queries.size()];
+        int n = 0;
+        for (Transaction.Key k : tx.reads.keySet()) all[n++] = stripeOf(k);
+        for (Transaction.Key k : tx.writes.keySet()) all[n++] = stripeOf(k);
+        for (Transaction.QueryCheck q : tx.queries) all[n++] = stripeOf(q.guard());
+        return distinctSorted(all, n);
+    }
+
+    private static int[] distinctSorted(int[] all, int n) {
+        Arrays.sort(all, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || all[distinct - 1] != all[i]) all[distinct++] = all[i];
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    private int stripeOf(Transaction.Key key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.ImplRepo;
+
+import org.example.Error.ErrorHandling;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.Versioned;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Multi-version key/value store behind the in-memory repositories.
+ *
+ * <p>Layout: {@code Map<id, newest version>}; each version links to the previous one.
+ * <ul>
+ *   <li>Current reads look only at the newest version — one map lookup, no locks.</li>
+ *   <li>Snapshot reads walk back to the newest version committed at or before the snapshot.</li>
+ *   <li>Writes are per-key atomic ({@code compute}) and prune versions no open snapshot can see.</li>
+ *   <li>Deletes leave a tombstone while an older snapshot may still need the entity.</li>
+ * </ul>
+ * Stored values are frozen copies so they can be shared freely; for {@link Versioned} entities the
+ * copy is stamped with version = previous version + 1, and the caller's (mutable) instance is moved
+ * to that version too, so it can be updated again without re-reading.
+ *
+ * @param <ID> identifier type
+ * @param <T>  entity type
+ */
+final class VersionedStore<ID, T> {
+
+    private static final class Version<T> {
+        final long commit;
+        final T value; // null = tombstone
+        volatile Version<T> prev;
+
+        Version(long commit, T value, Version<T> prev) {
+            this.commit = commit;
+            this.value = value;
+            this.prev = prev;
+        }
+    }
+
+    private record Tombstone<ID>(ID id, long commit) {
+    }
+
+    private final MvccClock clock;
+    private final Map<ID, Version<T>> heads = new ConcurrentHashMap<>();
+    private final Queue<Tombstone<ID>> tombstones = new ConcurrentLinkedQueue<>();
+    private final AtomicLong live = new AtomicLong();
+
+    VersionedStore(MvccClock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    }
+
+    MvccClock clock() {
+        return clock;
+    }
+
+    // ------------------------------------------------------------
+    // Reads
+    // ------------------------------------------------------------
+
+    T get(ID id) {
+        if (id == null) return null;
+        Version<T> head = heads.get(id);
+        return head == null ? null : head.value;
+    }
+
+    T get(ID id, Snapshot snapshot) {
+        if (id == null) return null;
+        return visible(heads.get(id), snapshot.getReadVersion());
+    }
+
+    List<T> values() {
+        List<T> out = new ArrayList<>(heads.size());
+        for (Version<T> head : heads.values()) {
+            if (head.value != null) out.add(head.value);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Current values {@code offset .. offset+limit} in map order, without copying the rest.
+     */
+    List<T> values(int offset, int limit) {
+        List<T> out = new ArrayList<>(Math.max(0, Math.min(limit, heads.size())));
+        int skip = Math.max(0, offset);
+        for (Version<T> head : heads.values()) {
+            if (out.size() >= limit) break;
+            if (head.value == null) continue;
+            if (skip > 0) skip--;
+            else out.add(head.value);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Current values, streamed straight from the map (weakly consistent, splits for parallel streams).
+     */
+    Stream<T> stream() {
+        return heads.values().stream().map(head -> head.value).filter(Objects::nonNull);
+    }
+
+    List<T> values(Snapshot snapshot) {
+        long readVersion = snapshot.getReadVersion();
+        List<T> out = new ArrayList<>(heads.size());
+        for (Version<T> head : heads.values()) {
+            T value = visible(head, readVersion);
+            if (value != null) out.add(value);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    long size() {
+        return live.get();
+    }
+
+    private static <T> T visible(Version<T> v, long readVersion) {
+        while (v != null && v.commit > readVersion) v = v.prev;
+        return v == null ? null : v.value;
+    }
+
+    // ------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------
+
+    /**
+     * Outcome of a {@link #write}: the value replaced and the frozen value now stored (null = absent).
+     */
+    record Written<T>(T previous, T stored) {
+    }
+
+    /**
+     * Atomically replaces the current value of {@code id}.
+     *
+     * @param id     key
+     * @param change receives the current value (null if absent) and returns the new value
+     *               (null deletes); may throw to abort without writing
+     * @return the previous and the stored value
+     */
+    Written<T> write(ID id, UnaryOperator<T> change) {
+        sweepTombstones();
+        long commit = clock.beginWrite();
+        try {
+            @SuppressWarnings("unchecked")
+            T[] previous = (T[]) new Object[3];
+            heads.compute(id, (k, head) -> {
+                T current = head == null ? null : head.value;
+                T next = change.apply(current);
+                previous[0] = current;
+                previous[1] = next;
+                if (current == null && next == null) return head;
+                T stored = stamp(next, Versioned.versionOf(current) + 1);
+                previous[2] = stored;
+                Version<T> version = new Version<>(commit, stored, head);
+                prune(version, clock.oldestOpenSnapshot());
+                return version;
+            });
+            T current = previous[0];
+            T next = previous[1];
+            if (next instanceof Versioned<?> v && !v.isFrozen()) v.setVersion(Versioned.versionOf(previous[2]));
+            if (current == null && next != null) live.incrementAndGet();
+            if (current != null && next == null) {
+                live.decrementAndGet();
+                tombstones.add(new Tombstone<>(id, commit));
+            }
+            return new Written<>(current, previous[2]);
+        } finally {
+            clock.endWrite();
+        }
+    }
+
+    /**
+     * Conditionally replaces the current values of many existing keys under one commit version, so
+     * a snapshot sees all of the changes or none of them.
+     *
+     * @param ids     keys to visit, in order
+     * @param change  receives each key's current value (never null: absent keys are skipped) and
+     *                returns its new value, or null to leave it as is; runs inside the per-key atomic
+     *                step, so it must be quick and must not touch this store
+     * @param written receives (previous, stored) for every replaced value, after the whole batch
+     * @return number of values replaced
+     */
+    int writeAll(Iterable<ID> ids, BiFunction<ID, T, T> change, BiConsumer<T, T> written) {
+        sweepTombstones();
+        List<T> pairs = new ArrayList<>();
+        long commit = clock.beginWrite();
+        try {
+            long oldestSnapshot = clock.oldestOpenSnapshot();
+            for (ID id : ids) {
+                heads.computeIfPresent(id, (k, head) -> {
+                    if (head.value == null) return head; // tombstone
+                    T next = change.apply(k, head.value);
+                    if (next == null) return head;
+                    T stored = stamp(next, Versioned.versionOf(head.value) + 1);
+                    pairs.add(head.value);
+                    pairs.add(stored);
+                    Version<T> version = new Version<>(commit, stored, head);
+                    prune(version, oldestSnapshot);
+                    return version;
+                });
+            }
+        } finally {
+            clock.endWrite();
+        }
+        for (int i = 0; i < pairs.size(); i += 2) written.accept(pairs.get(i), pairs.get(i + 1));
+        return pairs.size() / 2;
+    }
+
+    /**
+     * Compare-and-set guard for updates: the proposed entity must carry the stored version.
+     *
+     * @throws ErrorHandling.Conflict if the entity was changed since {@code proposed} was read
+     */
+    static void checkVersion(Object id, Object current, Object proposed) {
+        long expected = Versioned.versionOf(proposed);
+        long actual = Versioned.versionOf(current);
+        if (expected != actual) {
+            throw new ErrorHandling.Conflict("id=" + id + " was modified concurrently (expected version "
+                    + expected + ", current " + actual + ")");
+        }
+    }
+
+    /**
+     * Frozen copy of {@code value} carrying the given version (plain copy for non-Versioned values).
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stamp(T value, long version) {
+        if (value == null) return null;
+        if (!(value instanceof Versioned<?> v)) return value;
+        Versioned<?> copy = (Versioned<?>) v.copy();
+        copy.setVersion(version);
+        copy.freeze();
+        return (T) copy;
+    }
+
+    /**
+     * Drops versions older than the newest one visible to the oldest open snapshot.
+     */
+    private static <T> void prune(Version<T> head, long oldestSnapshot) {
+        Version<T> v = head;
+        while (v != null && v.commit > oldestSnapshot) v = v.prev;
+        if (v != null) v.prev = null;
+    }
+
+    /**
+     * Removes tombstones that no open snapshot can observe any more.
+     */
+    private void sweepTombstones() {
+        if (tombstones.isEmpty()) return;
+        long oldest = clock.oldestOpenSnapshot();
+        Tombstone<ID> t;
+        while ((t = tombstones.peek()) != null && t.commit() <= oldest) {
+            if (!tombstones.remove(t)) continue;
+            long commit = t.commit();
+            heads.computeIfPresent(t.id(), (k, head) ->
+                    head.value == null && head.commit == commit ? null : head);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.Metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, HDR-style latency histogram (values in nanoseconds).
+ *
+ * <p>Layout:
+ * <ul>
+ *   <li>Values below {@code 2^SUB_BITS} get one exact bucket each.</li>
+ *   <li>Every higher power of two is split into {@code 2^(SUB_BITS-1)} linear sub-buckets,
+ *       so the relative error of a reported percentile stays below ~3%.</li>
+ * </ul>
+ *
+ * <p>Thread-safety: {@link #record(long)} is wait-free apart from the CAS inside
+ * {@link AtomicLongArray}; readers take a racy but monotonic snapshot.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;         // 64 exact buckets
+    private static final int HALF = SUB_COUNT >> 1;             // 32 sub-buckets per power of two
+    private static final int MAX_SHIFT = 63 - (SUB_BITS - 1);   // highest usable shift
+    private static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records one observation.
+     *
+     * @param nanos elapsed time in nanoseconds (negative values are clamped to 0)
+     */
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return number of recorded observations
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of all recorded values in nanoseconds
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return largest recorded value in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given quantile (upper bound of the matching bucket).
+     *
+     * @param quantile value in {@code [0.0, 1.0]}, e.g. 0.99 for p99
+     * @return latency in nanoseconds, or 0 when nothing was recorded
+     */
+    public long valueAt(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0L;
+
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(upperBoundOf(i), max());
+        }
+        return max();
+    }
+
+    // ------------------------------------------------------------
+    // Bucket math
+    // ------------------------------------------------------------
+
+    private static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        int sub = (int) (v >>> shift); // in [HALF, SUB_COUNT)
+        return SUB_COUNT + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int rel = index - SUB_COUNT;
+        int shift = rel / HALF + 1;
+        if (shift >= 63 - SUB_BITS) return Long.MAX_VALUE;
+        long sub = HALF + (rel % HALF);
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.Metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process registry for operation metrics and gauges.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Hand out one {@link OperationMetrics} per (layer, entity, operation).</li>
+ *   <li>Hold gauges such as repository sizes, sampled at export time.</li>
+ * </ul>
+ *
+ * <p>Callers are expected to look up their {@link OperationMetrics} once (e.g. in a constructor)
+ * and keep the reference, so the hot path never touches the registry map.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> repositorySizes = new ConcurrentHashMap<>();
+
+    /**
+     * @return the process-wide registry used by default wiring
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns (or creates) the metrics for an operation.
+     *
+     * @param layer     e.g. {@code service} or {@code repository}
+     * @param entity    e.g. {@code customer}
+     * @param operation e.g. {@code create}
+     * @return shared {@link OperationMetrics} instance
+     */
+    public OperationMetrics operation(String layer, String entity, String operation) {
+        String key = layer + '/' + entity + '/' + operation;
+        return operations.computeIfAbsent(key, k -> new OperationMetrics(layer, entity, operation));
+    }
+
+    /**
+     * Registers (or replaces) the size gauge for a repository.
+     *
+     * @param entity entity label
+     * @param size   supplier sampled at export time
+     */
+    public void repositorySize(String entity, LongSupplier size) {
+        repositorySizes.put(entity, size);
+    }
+
+    public Collection<OperationMetrics> getOperations() {
+        return operations.values();
+    }
+
+    public Map<String, LongSupplier> getRepositorySizes() {
+        return repositorySizes;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics for one operation (e.g. {@code service/customer/create}).
+ *
+ * <p>Tracks:
+ * <ul>
+ *   <li>Latency histogram for every call (success or failure).</li>
+ *   <li>Throughput counter (total calls).</li>
+ *   <li>Error counters keyed by exception type (e.g. {@code Validation}, {@code NotFound}).</li>
+ * </ul>
+ */
+public final class OperationMetrics {
+
+    private final String layer;
+    private final String entity;
+    private final String operation;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    OperationMetrics(String layer, String entity, String operation) {
+        this.layer = layer;
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void success(long nanos) {
+        calls.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Records a failed call and counts the error by its exception type.
+     *
+     * @param nanos elapsed time in nanoseconds
+     * @param error the thrown exception
+     */
+    public void failure(long nanos, Throwable error) {
+        success(nanos);
+        error(error.getClass().getSimpleName());
+    }
+
+    /**
+     * Records a failed call that was reported without an exception.
+     *
+     * @param nanos elapsed time in nanoseconds
+     * @param type  error type label (e.g. {@code Validation})
+     */
+    public void failure(long nanos, String type) {
+        success(nanos);
+        error(type);
+    }
+
+    /**
+     * Counts one error of the given type without recording a latency sample.
+     *
+     * @param type error type label (e.g. {@code Validation})
+     */
+    public void error(String type) {
+        errors.computeIfAbsent(type, k -> new LongAdder()).increment();
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return live view of error counters by type
+     */
+    public Map<String, LongAdder> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.Metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Renders a {@link MetricsRegistry} in the Prometheus text exposition format (v0.0.4).
+ *
+ * <p>Exported families:
+ * <ul>
+ *   <li>{@code butik_operation_latency_seconds} — summary with p50/p99/p99.9, {@code _sum} and {@code _count}.</li>
+ *   <li>{@code butik_operation_calls_total} — throughput counter.</li>
+ *   <li>{@code butik_operation_errors_total} — errors by type.</li>
+ *   <li>{@code butik_repository_size} — entities currently stored.</li>
+ * </ul>
+ *
+ * <p>Targets: any {@link Writer}, a local file (written atomically) or a small HTTP endpoint.
+ */
+public final class PrometheusExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final MetricsRegistry registry;
+
+    public PrometheusExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Renders all metrics as Prometheus text.
+     *
+     * @return exposition text
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(4096);
+        List<OperationMetrics> ops = new ArrayList<>(registry.getOperations());
+        ops.sort(Comparator.comparing(OperationMetrics::getLayer)
+                .thenComparing(OperationMetrics::getEntity)
+                .thenComparing(OperationMetrics::getOperation));
+
+        sb.append("# HELP butik_operation_latency_seconds Operation latency.\n");
+        sb.append("# TYPE butik_operation_latency_seconds summary\n");
+        for (OperationMetrics op : ops) {
+            LatencyHistogram h = op.getLatency();
+            for (double q : QUANTILES) {
+                sb.append("butik_operation_latency_seconds{");
+                labels(sb, op).append(",quantile=\"").append(q).append("\"} ")
+                        .append(h.valueAt(q) / NANOS_PER_SECOND).append('\n');
+            }
+            sb.append("butik_operation_latency_seconds_sum{");
+            labels(sb, op).append("} ").append(h.sum() / NANOS_PER_SECOND).append('\n');
+            sb.append("butik_operation_latency_seconds_count{");
+            labels(sb, op).append("} ").append(h.count()).append('\n');
+        }
+
+        sb.append("# HELP butik_operation_calls_total Operation calls.\n");
+        sb.append("# TYPE butik_operation_calls_total counter\n");
+        for (OperationMetrics op : ops) {
+            sb.append("butik_operation_calls_total{");
+            labels(sb, op).append("} ").append(op.getCalls()).append('\n');
+        }
+
+        sb.append("# HELP butik_operation_errors_total Operation errors by type.\n");
+        sb.append("# TYPE butik_operation_errors_total counter\n");
+        for (OperationMetrics op : ops) {
+            for (Map.Entry<String, LongAdder> e : op.getErrors().entrySet()) {
+                sb.append("butik_operation_errors_total{");
+                labels(sb, op).append(",type=\"").append(e.getKey()).append("\"} ")
+                        .append(e.getValue().sum()).append('\n');
+            }
+        }
+
+        sb.append("# HELP butik_repository_size Entities currently stored.\n");
+        sb.append("# TYPE butik_repository_size gauge\n");
+        for (Map.Entry<String, LongSupplier> e : registry.getRepositorySizes().entrySet()) {
+            sb.append("butik_repository_size{entity=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().getAsLong()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the exposition text to the given writer.
+     *
+     * @param out target writer (not closed)
+     * @throws IOException on write failure
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write(render());
+        out.flush();
+    }
+
+    /**
+     * Writes the exposition text to a file (e.g. for the node_exporter textfile collector).
+     * The file is replaced atomically so scrapers never see a partial write.
+     *
+     * @param file target file
+     * @throws IOException on write failure
+     */
+    public void writeToFile(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, render(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Starts a local HTTP endpoint serving {@code /metrics}.
+     *
+     * @param port TCP port on localhost
+     * @return the running server (call {@code stop(0)} to shut down)
+     * @throws IOException if the port cannot be bound
+     */
+    public HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        log.info("Prometheus metrics endpoint on http://localhost:{}/metrics", port);
+        return server;
+    }
+
+    private static StringBuilder labels(StringBuilder sb, OperationMetrics op) {
+        return sb.append("layer=\"").append(op.getLayer())
+                .append("\",entity=\"").append(op.getEntity())
+                .append("\",op=\"").append(op.getOperation()).append('"');
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted by {@code OrderService.place}; its duration covers the whole placement
+ * (customer lookup, product resolution, validation and the repository write).
+ *
+ * <p>Fields are only filled in when {@link #shouldCommit()} is true, so a disabled event
+ * costs a couple of branches.
+ */
+@Name("org.example.OrderPlaced")
+@Label("Order Placed")
+@Category({"Butik", "Orders"})
+@Description("An order was placed through OrderService")
+@StackTrace(false)
+public class OrderPlacedEvent extends Event {
+
+    @Label("Order Id")
+    public String orderId;
+
+    @Label("Customer Id")
+    public String customerId;
+
+    @Label("Line Count")
+    @Description("Distinct products in the order")
+    public int lineCount;
+
+    @Label("Item Count")
+    @Description("Total units across all lines")
+    public int itemCount;
+
+    @Label("Total")
+    public double total;
+}
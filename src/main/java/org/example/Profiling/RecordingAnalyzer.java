@@ -0,0 +1,150 @@
+package org.example.Profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.Metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a JFR recording into per-operation latency breakdowns.
+ *
+ * <p>Report sections:
+ * <ul>
+ *   <li>Repository operations by entity/operation: count, p50, p99, p99.9, max, total time.</li>
+ *   <li>Order placements: the same latency figures, plus how many of the slowest (above p99)
+ *       overlapped a GC pause or a contended monitor.</li>
+ *   <li>Validation failures by entity/operation/error type.</li>
+ * </ul>
+ *
+ * <p>Usage:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=butik.jfr,settings=profile ... org.example.Main
+ * mvn -q exec:java -Dexec.mainClass=org.example.Profiling.RecordingAnalyzer -Dexec.args=butik.jfr
+ * </pre>
+ */
+public final class RecordingAnalyzer {
+
+    private static final String REPOSITORY_OP = "org.example.RepositoryOp";
+    private static final String ORDER_PLACED = "org.example.OrderPlaced";
+    private static final String VALIDATION_FAILED = "org.example.ValidationFailed";
+
+    private final Map<String, LatencyHistogram> repositoryOps = new TreeMap<>();
+    private final LatencyHistogram placements = new LatencyHistogram();
+    private final List<long[]> placementIntervals = new ArrayList<>();
+    private final List<long[]> stallIntervals = new ArrayList<>();
+    private final Map<String, Long> validationFailures = new TreeMap<>();
+
+    private RecordingAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: RecordingAnalyzer <recording.jfr>");
+            return;
+        }
+        analyze(Path.of(args[0])).print(System.out);
+    }
+
+    /**
+     * Reads a recording file and aggregates the Butik events.
+     *
+     * @param recording path to a {@code .jfr} file
+     * @return the aggregated analyzer (call {@link #print(PrintStream)})
+     * @throws IOException if the file cannot be read
+     */
+    public static RecordingAnalyzer analyze(Path recording) throws IOException {
+        RecordingAnalyzer analyzer = new RecordingAnalyzer();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                analyzer.accept(file.readEvent());
+            }
+        }
+        return analyzer;
+    }
+
+    private void accept(RecordedEvent e) {
+        String type = e.getEventType().getName();
+        long nanos = e.getDuration().toNanos();
+        switch (type) {
+            case REPOSITORY_OP -> repositoryOps
+                    .computeIfAbsent(e.getString("entity") + "." + e.getString("operation"),
+                            k -> new LatencyHistogram())
+                    .record(nanos);
+            case ORDER_PLACED -> {
+                placements.record(nanos);
+                placementIntervals.add(interval(e.getStartTime(), e.getEndTime()));
+            }
+            case VALIDATION_FAILED -> validationFailures.merge(
+                    e.getString("entity") + "." + e.getString("operation") + " " + e.getString("errorType"),
+                    1L, Long::sum);
+            case "jdk.GarbageCollection", "jdk.JavaMonitorEnter" ->
+                    stallIntervals.add(interval(e.getStartTime(), e.getEndTime()));
+            default -> {
+                // not relevant for this report
+            }
+        }
+    }
+
+    /**
+     * Prints the report.
+     *
+     * @param out target stream
+     */
+    public void print(PrintStream out) {
+        out.println("== Repository operations ==");
+        header(out);
+        repositoryOps.forEach((name, h) -> row(out, name, h));
+
+        out.println();
+        out.println("== Order placements ==");
+        header(out);
+        row(out, "order.place", placements);
+        long p99 = placements.valueAt(0.99);
+        long slow = 0;
+        long slowDuringStall = 0;
+        for (long[] p : placementIntervals) {
+            if (p[1] - p[0] < p99) continue;
+            slow++;
+            for (long[] s : stallIntervals) {
+                if (s[0] < p[1] && p[0] < s[1]) {
+                    slowDuringStall++;
+                    break;
+                }
+            }
+        }
+        out.printf("Slow placements (>= p99): %d, overlapping GC/monitor stalls: %d%n", slow, slowDuringStall);
+
+        out.println();
+        out.println("== Validation failures ==");
+        if (validationFailures.isEmpty()) out.println("(none)");
+        validationFailures.forEach((k, v) -> out.printf("%-50s %8d%n", k, v));
+    }
+
+    private static void header(PrintStream out) {
+        out.printf("%-28s %10s %10s %10s %10s %10s %12s%n",
+                "Operation", "Count", "p50(us)", "p99(us)", "p99.9(us)", "max(us)", "total(ms)");
+    }
+
+    private static void row(PrintStream out, String name, LatencyHistogram h) {
+        out.printf("%-28s %10d %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                name, h.count(),
+                h.valueAt(0.5) / 1_000.0, h.valueAt(0.99) / 1_000.0, h.valueAt(0.999) / 1_000.0,
+                h.max() / 1_000.0, h.sum() / 1_000_000.0);
+    }
+
+    private static long[] interval(Instant start, Instant end) {
+        return new long[]{toNanos(start), toNanos(end)};
+    }
+
+    private static long toNanos(Instant t) {
+        return t.getEpochSecond() * 1_000_000_000L + t.getNano();
+    }
+}
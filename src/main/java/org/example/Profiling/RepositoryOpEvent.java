@@ -0,0 +1,32 @@
+package org.example.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one repository call (create, update, delete, findById, findAll).
+ * The event duration is the time spent inside the repository.
+ */
+@Name("org.example.RepositoryOp")
+@Label("Repository Operation")
+@Category({"Butik", "Repository"})
+@Description("A CrudRepo call made by the service layer")
+@StackTrace(false)
+public class RepositoryOpEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Entity Id")
+    public String entityId;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,65 @@
+package org.example.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.example.Error.ErrorHandling;
+import org.example.Error.Failure;
+
+/**
+ * JFR event for a service call rejected with one of the {@code ErrorHandling} exceptions
+ * (Validation, NotFound, Duplicate) or a {@link Failure} of the non-throwing API. Stack traces are
+ * kept so the caller can be identified.
+ */
+@Name("org.example.ValidationFailed")
+@Label("Validation Failed")
+@Category({"Butik", "Service"})
+@Description("A service operation was rejected by validation")
+public class ValidationFailedEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Error Type")
+    public String errorType;
+
+    @Label("Message")
+    public String message;
+
+    /**
+     * Emits an event if {@code error} is one of the {@link ErrorHandling} types and
+     * the event is enabled in the running recording.
+     *
+     * @param entity    entity label (e.g. "order")
+     * @param operation service operation (e.g. "create")
+     * @param error     the exception that rejected the call
+     */
+    public static void emit(String entity, String operation, RuntimeException error) {
+        if (error.getClass().getEnclosingClass() != ErrorHandling.class) return;
+        ValidationFailedEvent event = new ValidationFailedEvent();
+        if (!event.shouldCommit()) return;
+        event.entity = entity;
+        event.operation = operation;
+        event.errorType = error.getClass().getSimpleName();
+        event.message = error.getMessage();
+        event.commit();
+    }
+
+    /**
+     * Emits an event for a rejection reported as a {@link Failure}.
+     */
+    public static void emit(String entity, String operation, Failure failure) {
+        ValidationFailedEvent event = new ValidationFailedEvent();
+        if (!event.shouldCommit()) return;
+        event.entity = entity;
+        event.operation = operation;
+        event.errorType = failure.getCode().label();
+        event.message = failure.message();
+        event.commit();
+    }
+}
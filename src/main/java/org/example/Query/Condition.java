@@ -0,0 +1,79 @@
+package org.example.Query;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * One conjunct of a {@link Query}'s filter. Field conditions ({@link Equals}, {@link Range}) can be
+ * answered by an {@link Index}; {@link Matches} is always evaluated row by row.
+ *
+ * @param <T> entity type
+ */
+public sealed interface Condition<T> extends Predicate<T> {
+
+    /**
+     * @return human-readable form, used by {@link Plan#explain()}
+     */
+    String describe();
+
+    /**
+     * {@code field = value} (a null value matches entities whose field is null).
+     */
+    record Equals<T, V>(Field<T, V> field, V value) implements Condition<T> {
+        public Equals {
+            Objects.requireNonNull(field, "field must not be null");
+        }
+
+        @Override
+        public boolean test(T entity) {
+            return Objects.equals(field.get(entity), value);
+        }
+
+        @Override
+        public String describe() {
+            return field + " = " + value;
+        }
+    }
+
+    /**
+     * {@code from <= field < to}; a null bound is open, and entities whose field is null never match.
+     */
+    record Range<T, V extends Comparable<? super V>>(Field<T, V> field, V from, V to) implements Condition<T> {
+        public Range {
+            Objects.requireNonNull(field, "field must not be null");
+        }
+
+        @Override
+        public boolean test(T entity) {
+            V v = field.get(entity);
+            return v != null && (from == null || v.compareTo(from) >= 0) && (to == null || v.compareTo(to) < 0);
+        }
+
+        @Override
+        public String describe() {
+            if (from == null && to == null) return field + " is not null";
+            if (from == null) return field + " < " + to;
+            if (to == null) return field + " >= " + from;
+            return field + " in [" + from + ", " + to + ")";
+        }
+    }
+
+    /**
+     * Arbitrary predicate, with a description for {@link Plan#explain()}.
+     */
+    record Matches<T>(String description, Predicate<? super T> predicate) implements Condition<T> {
+        public Matches {
+            Objects.requireNonNull(predicate, "predicate must not be null");
+        }
+
+        @Override
+        public boolean test(T entity) {
+            return predicate.test(entity);
+        }
+
+        @Override
+        public String describe() {
+            return description;
+        }
+    }
+}
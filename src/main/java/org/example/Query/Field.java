@@ -0,0 +1,55 @@
+package org.example.Query;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A named, typed attribute of an entity, used in {@link Query} conditions, ordering and grouping.
+ *
+ * <p>Two fields are equal when they have the same name; the planner matches conditions to
+ * {@link Index indexes} that way, so one name must mean one attribute per entity type.
+ *
+ * @param <T> entity type
+ * @param <V> value type
+ */
+public final class Field<T, V> {
+
+    private final String name;
+    private final Function<? super T, ? extends V> getter;
+
+    private Field(String name, Function<? super T, ? extends V> getter) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.getter = Objects.requireNonNull(getter, "getter must not be null");
+    }
+
+    /**
+     * @param name   attribute name, as shown by {@link Plan#explain()}
+     * @param getter reads the attribute from an entity
+     */
+    public static <T, V> Field<T, V> of(String name, Function<? super T, ? extends V> getter) {
+        return new Field<>(name, getter);
+    }
+
+    public V get(T entity) {
+        return getter.apply(entity);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Field<?, ?> other && name.equals(other.name));
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.Query;
+
+import org.example.Entity.Category;
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Entity.Product;
+
+/**
+ * Queryable fields of the stored entities.
+ */
+public final class Fields {
+
+    private Fields() {
+    }
+
+    public static final class Customers {
+        public static final Field<Customer, String> ID = Field.of("id", Customer::getId);
+        public static final Field<Customer, String> NAME = Field.of("name", Customer::getName);
+        public static final Field<Customer, String> CITY = Field.of("city", Customer::getCity);
+
+        private Customers() {
+        }
+    }
+
+    public static final class Products {
+        public static final Field<Product, String> ID = Field.of("id", Product::getId);
+        public static final Field<Product, String> NAME = Field.of("name", Product::getName);
+        public static final Field<Product, Category> CATEGORY = Field.of("category", p -> (Category) p.getCategory());
+        public static final Field<Product, Double> PRICE = Field.of("price", Product::getPrice);
+
+        private Products() {
+        }
+    }
+
+    public static final class Orders {
+        public static final Field<Order, String> ID = Field.of("id", Order::getId);
+        public static final Field<Order, String> CUSTOMER_ID = Field.of("customerId", Order::getCustomerId);
+        public static final Field<Order, Long> CREATED_AT = Field.of("createdAt", Order::getCreatedAt);
+        public static final Field<Order, OrderStatus> STATUS = Field.of("status", Order::getStatus);
+        public static final Field<Order, Double> TOTAL = Field.of("total", Order::getTotal);
+        public static final Field<Order, Integer> ITEMS = Field.of("items",
+                o -> o.getProducts() == null ? 0 : o.getProducts().size());
+
+        private Orders() {
+        }
+    }
+}
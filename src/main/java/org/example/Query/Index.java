@@ -0,0 +1,173 @@
+package org.example.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * An access path the {@link QueryPlanner} may use instead of a scan: a repository lookup that
+ * answers one kind of condition on one field.
+ *
+ * <ul>
+ *   <li>{@link Kind#UNIQUE}: equality, at most one row (primary key).</li>
+ *   <li>{@link Kind#EQUALITY}: equality, the rows sharing a value (e.g. orders by customer); may
+ *       also count without fetching rows (e.g. orders by status).</li>
+ *   <li>{@link Kind#RANGE}: a {@code long} range, and equality as a one-value range (e.g. orders by time);
+ *       may also count without fetching rows.</li>
+ * </ul>
+ * Lookups must return exactly the rows matching the condition; the planner does not re-check it.
+ *
+ * @param <T> entity type
+ */
+public final class Index<T> {
+
+    /**
+     * Index kinds, most selective first; the planner prefers the earliest applicable one.
+     */
+    public enum Kind {UNIQUE, EQUALITY, RANGE}
+
+    @FunctionalInterface
+    public interface RangeLookup<T> {
+        /**
+         * @return rows with {@code from <= field < to}
+         */
+        List<T> find(long from, long to);
+    }
+
+    @FunctionalInterface
+    public interface RangeCount {
+        /**
+         * @return number of rows with {@code from <= field < to}
+         */
+        long count(long from, long to);
+    }
+
+    private final String name;
+    private final Field<T, ?> field;
+    private final Kind kind;
+    private final Function<Object, ? extends Collection<T>> equalityLookup;
+    private final RangeLookup<T> rangeLookup;
+    private final RangeCount rangeCount;
+    private final ToLongFunction<Object> equalityCount;
+
+    private Index(String name, Field<T, ?> field, Kind kind, Function<Object, ? extends Collection<T>> equalityLookup,
+                  ToLongFunction<Object> equalityCount, RangeLookup<T> rangeLookup, RangeCount rangeCount) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.field = Objects.requireNonNull(field, "field must not be null");
+        this.kind = kind;
+        this.equalityLookup = equalityLookup;
+        this.equalityCount = equalityCount;
+        this.rangeLookup = rangeLookup;
+        this.rangeCount = rangeCount;
+    }
+
+    /**
+     * @param lookup finds the row with the given value (e.g. {@code repo::findById})
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, V> Index<T> unique(String name, Field<T, V> field, Function<? super V, Optional<T>> lookup) {
+        Objects.requireNonNull(lookup, "lookup must not be null");
+        return new Index<>(name, field, Kind.UNIQUE,
+                v -> v == null ? List.of() : lookup.apply((V) v).map(List::of).orElse(List.of()), null, null, null);
+    }
+
+    /**
+     * @param lookup finds the rows with the given value (e.g. {@code OrderRepo::findByCustomer})
+     */
+    public static <T, V> Index<T> equality(String name, Field<T, V> field,
+                                           Function<? super V, ? extends Collection<T>> lookup) {
+        return equality(name, field, lookup, null);
+    }
+
+    /**
+     * @param lookup finds the rows with the given value
+     * @param count  counts the rows with the given value without fetching them, or null if it cannot
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, V> Index<T> equality(String name, Field<T, V> field,
+                                           Function<? super V, ? extends Collection<T>> lookup,
+                                           ToLongFunction<? super V> count) {
+        Objects.requireNonNull(lookup, "lookup must not be null");
+        return new Index<>(name, field, Kind.EQUALITY, v -> lookup.apply((V) v),
+                count == null ? null : v -> count.applyAsLong((V) v), null, null);
+    }
+
+    /**
+     * @param lookup finds the rows in a range
+     * @param count  counts the rows in a range without fetching them, or null if it cannot
+     */
+    public static <T> Index<T> range(String name, Field<T, Long> field, RangeLookup<T> lookup, RangeCount count) {
+        return new Index<>(name, field, Kind.RANGE, null, null, Objects.requireNonNull(lookup, "lookup must not be null"), count);
+    }
+
+    // ------------------------------------------------------------
+    // Planner hooks
+    // ------------------------------------------------------------
+
+    /**
+     * @return true if {@link #lookup} can answer {@code condition}
+     */
+    public boolean supports(Condition<T> condition) {
+        if (condition instanceof Condition.Equals<T, ?> eq) {
+            return field.equals(eq.field()) && (kind != Kind.RANGE || eq.value() instanceof Long);
+        }
+        return kind == Kind.RANGE && condition instanceof Condition.Range<T, ?> r && field.equals(r.field());
+    }
+
+    /**
+     * @return the rows matching {@code condition} (one that {@link #supports} accepts)
+     */
+    public Collection<T> lookup(Condition<T> condition) {
+        if (kind != Kind.RANGE) return equalityLookup.apply(((Condition.Equals<T, ?>) condition).value());
+        long[] bounds = bounds(condition);
+        return bounds[0] < bounds[1] ? rangeLookup.find(bounds[0], bounds[1]) : List.of();
+    }
+
+    /**
+     * @return the number of rows matching {@code condition}, if the index can count without fetching
+     */
+    public OptionalLong count(Condition<T> condition) {
+        if (kind == Kind.EQUALITY && equalityCount != null) {
+            return OptionalLong.of(equalityCount.applyAsLong(((Condition.Equals<T, ?>) condition).value()));
+        }
+        if (rangeCount == null) return OptionalLong.empty();
+        long[] bounds = bounds(condition);
+        return OptionalLong.of(bounds[0] < bounds[1] ? rangeCount.count(bounds[0], bounds[1]) : 0);
+    }
+
+    private static long[] bounds(Condition<?> condition) {
+        if (condition instanceof Condition.Equals<?, ?> eq) {
+            long v = (Long) eq.value();
+            return v == Long.MAX_VALUE ? new long[]{0, 0} : new long[]{v, v + 1};
+        }
+        Condition.Range<?, ?> r = (Condition.Range<?, ?>) condition;
+        return new long[]{
+                r.from() == null ? Long.MIN_VALUE : (Long) r.from(),
+                r.to() == null ? Long.MAX_VALUE : (Long) r.to()};
+    }
+
+    // ------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------
+
+    public String getName() {
+        return name;
+    }
+
+    public Field<T, ?> getField() {
+        return field;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + kind.name().toLowerCase() + " on " + field + ")";
+    }
+}
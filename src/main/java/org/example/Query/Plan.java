@@ -0,0 +1,217 @@
+package org.example.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A planned {@link Query}: the chosen access path plus the residual filter, ready to run.
+ *
+ * <ul>
+ *   <li>Every terminal call re-reads the repository, so a plan can be kept and re-run.</li>
+ *   <li>Reads see current committed data; a plan does not join an active transaction.</li>
+ *   <li>{@code orderBy} + {@code limit(k)} keeps a bounded heap of k rows instead of sorting every match.</li>
+ *   <li>Aggregates ignore ordering and limit, and stream the matches without collecting them.</li>
+ * </ul>
+ *
+ * @param <T> entity type
+ */
+public final class Plan<T> {
+
+    private final Query<T> query;
+    private final Index<T> index;          // null = scan
+    private final Condition<T> indexed;    // the condition answered by the index
+    private final List<Condition<T>> residual;
+    private final Supplier<Stream<T>> scan;
+    private final LongSupplier size;       // repository row count
+    private final boolean parallel;        // scan as a parallel stream
+
+    Plan(Query<T> query, Index<T> index, Condition<T> indexed, List<Condition<T>> residual,
+         Supplier<Stream<T>> scan, LongSupplier size, boolean parallel) {
+        this.query = query;
+        this.index = index;
+        this.indexed = indexed;
+        this.residual = List.copyOf(residual);
+        this.scan = scan;
+        this.size = size;
+        this.parallel = parallel;
+    }
+
+    // ------------------------------------------------------------
+    // Rows
+    // ------------------------------------------------------------
+
+    /**
+     * @return the matching rows, ordered and limited as the query asks (unmodifiable)
+     */
+    public List<T> list() {
+        int limit = query.getLimit();
+        if (limit == 0) return List.of();
+        Comparator<T> ordering = query.getOrdering();
+        Stream<T> matches = stream();
+        if (ordering == null) return matches.limit(limit).toList();
+        if (limit == Integer.MAX_VALUE) return matches.sorted(ordering).toList();
+        return matches.collect(topK(limit, ordering));
+    }
+
+    /**
+     * @return the matching rows, unordered and unlimited
+     */
+    public Stream<T> stream() {
+        Stream<T> source;
+        if (index != null) {
+            Collection<T> hits = index.lookup(indexed);
+            source = hits.size() >= QueryPlanner.PARALLEL_THRESHOLD ? hits.parallelStream() : hits.stream();
+        } else {
+            source = parallel ? scan.get().parallel() : scan.get();
+        }
+        Predicate<T> filter = residualFilter();
+        return filter == null ? source : source.filter(filter);
+    }
+
+    private Predicate<T> residualFilter() {
+        Predicate<T> filter = null;
+        for (Condition<T> c : residual) filter = filter == null ? c : filter.and(c);
+        return filter;
+    }
+
+    // ------------------------------------------------------------
+    // Aggregates (every match; ordering and limit do not apply)
+    // ------------------------------------------------------------
+
+    /**
+     * Counts the matches; answered from the index alone when it can count and nothing else filters.
+     */
+    public long count() {
+        if (index == null && residual.isEmpty()) return size.getAsLong(); // no condition at all
+        if (index != null && residual.isEmpty()) {
+            var counted = index.count(indexed);
+            if (counted.isPresent()) return counted.getAsLong();
+        }
+        return stream().count();
+    }
+
+    public double sum(ToDoubleFunction<? super T> value) {
+        return stream().mapToDouble(value).sum();
+    }
+
+    public OptionalDouble average(ToDoubleFunction<? super T> value) {
+        return stream().mapToDouble(value).average();
+    }
+
+    /**
+     * @return count, sum, min, average and max of {@code value} over the matches, in one pass
+     */
+    public DoubleSummaryStatistics stats(ToDoubleFunction<? super T> value) {
+        return stream().mapToDouble(value).summaryStatistics();
+    }
+
+    /**
+     * @return number of matches per value of {@code key} (a null value is its own group)
+     */
+    public <K> Map<K, Long> countBy(Field<T, K> key) {
+        return stream().collect(Collectors.toMap(key::get, t -> 1L, Long::sum, HashMap::new));
+    }
+
+    /**
+     * @return sum of {@code value} per value of {@code key} (a null value is its own group)
+     */
+    public <K> Map<K, Double> sumBy(Field<T, K> key, ToDoubleFunction<? super T> value) {
+        return stream().collect(Collectors.toMap(key::get, value::applyAsDouble, Double::sum, HashMap::new));
+    }
+
+    // ------------------------------------------------------------
+    // Explain
+    // ------------------------------------------------------------
+
+    /**
+     * @return the access path and the steps applied after it, one per line
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder("query:  ").append(query).append('\n');
+        if (index != null) {
+            sb.append("access: index ").append(index).append(" for ").append(indexed.describe());
+        } else {
+            sb.append("access: ").append(parallel ? "parallel scan" : "scan")
+                    .append(" of ~").append(String.format("%,d", size.getAsLong())).append(" rows");
+            sb.append(residual.isEmpty() ? "" : " (no index for these conditions)");
+        }
+        sb.append('\n');
+        if (!residual.isEmpty()) {
+            sb.append("filter: ");
+            for (int i = 0; i < residual.size(); i++) {
+                if (i > 0) sb.append(" and ");
+                sb.append(residual.get(i).describe());
+            }
+            sb.append('\n');
+        }
+        List<String> order = query.getOrderingNames();
+        int limit = query.getLimit();
+        if (!order.isEmpty()) {
+            sb.append("order:  ").append(String.join(", ", order));
+            sb.append(limit == Integer.MAX_VALUE ? " (full sort)" : " (top " + limit + ", bounded heap)").append('\n');
+        } else if (limit != Integer.MAX_VALUE) {
+            sb.append("limit:  ").append(limit).append(" (stops early)\n");
+        }
+        return sb.toString();
+    }
+
+    public Index<T> getIndex() {
+        return index;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    // ------------------------------------------------------------
+    // Top-k
+    // ------------------------------------------------------------
+
+    /**
+     * Keeps the first {@code k} rows by {@code ordering} in a max-heap of size k: O(n log k), and
+     * parallel streams merge per-thread heaps.
+     */
+    private static <T> Collector<T, PriorityQueue<T>, List<T>> topK(int k, Comparator<T> ordering) {
+        Comparator<T> reversed = ordering.reversed();
+        return Collector.of(
+                () -> new PriorityQueue<>(Math.min(k, 1024) + 1, reversed),
+                (heap, t) -> offer(heap, t, k, ordering),
+                (a, b) -> {
+                    for (T t : b) offer(a, t, k, ordering);
+                    return a;
+                },
+                heap -> {
+                    List<T> out = new ArrayList<>(heap);
+                    out.sort(ordering);
+                    return List.copyOf(out);
+                });
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T t, int k, Comparator<T> ordering) {
+        if (heap.size() < k) {
+            heap.add(t);
+        } else if (ordering.compare(t, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(t);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.Query;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Declarative query over one entity type: a conjunction of conditions, an optional ordering and
+ * a limit. A query only describes the result; {@link QueryPlanner#plan} decides how to fetch it
+ * and the returned {@link Plan} runs it (list or aggregate).
+ *
+ * <pre>{@code
+ * Plan<Order> plan = orderService.query(Query.orders()
+ *         .where(Fields.Orders.CUSTOMER_ID, "C1A2B3C4")
+ *         .atLeast(Fields.Orders.TOTAL, 100.0)
+ *         .orderByDescending(Fields.Orders.CREATED_AT)
+ *         .limit(10));
+ * plan.explain();  // index lookup byCustomer, then filter total >= 100.0, top 10
+ * plan.list();
+ * }</pre>
+ *
+ * <p>Not thread-safe while being built; do not modify a query after planning it.
+ *
+ * @param <T> entity type
+ */
+public final class Query<T> {
+
+    private final String entity;
+    private final List<Condition<T>> conditions = new ArrayList<>();
+    private final List<String> orderingNames = new ArrayList<>();
+    private Comparator<T> ordering;
+    private int limit = Integer.MAX_VALUE;
+
+    private Query(String entity) {
+        this.entity = Objects.requireNonNull(entity, "entity must not be null");
+    }
+
+    /**
+     * @param entity entity label for {@link Plan#explain()} (e.g. "order")
+     */
+    public static <T> Query<T> of(String entity) {
+        return new Query<>(entity);
+    }
+
+    public static Query<Customer> customers() {
+        return new Query<>("customer");
+    }
+
+    public static Query<Product> products() {
+        return new Query<>("product");
+    }
+
+    public static Query<Order> orders() {
+        return new Query<>("order");
+    }
+
+    // ------------------------------------------------------------
+    // Conditions (all must hold)
+    // ------------------------------------------------------------
+
+    /**
+     * {@code field = value}.
+     */
+    public <V> Query<T> where(Field<T, V> field, V value) {
+        conditions.add(new Condition.Equals<>(field, value));
+        return this;
+    }
+
+    /**
+     * {@code from <= field < to}; a null bound is open.
+     */
+    public <V extends Comparable<? super V>> Query<T> between(Field<T, V> field, V from, V to) {
+        conditions.add(new Condition.Range<>(field, from, to));
+        return this;
+    }
+
+    /**
+     * {@code field >= from}.
+     */
+    public <V extends Comparable<? super V>> Query<T> atLeast(Field<T, V> field, V from) {
+        return between(field, Objects.requireNonNull(from, "from must not be null"), null);
+    }
+
+    /**
+     * {@code field < to}.
+     */
+    public <V extends Comparable<? super V>> Query<T> below(Field<T, V> field, V to) {
+        return between(field, null, Objects.requireNonNull(to, "to must not be null"));
+    }
+
+    /**
+     * Any other predicate; never answered by an index.
+     *
+     * @param description shown by {@link Plan#explain()}
+     */
+    public Query<T> filter(String description, Predicate<? super T> predicate) {
+        conditions.add(new Condition.Matches<>(description, predicate));
+        return this;
+    }
+
+    // ------------------------------------------------------------
+    // Ordering and limit
+    // ------------------------------------------------------------
+
+    /**
+     * Sorts ascending by {@code field} (nulls last); further calls break ties.
+     */
+    public <V extends Comparable<? super V>> Query<T> orderBy(Field<T, V> field) {
+        return thenBy(field, Comparator.nullsLast(Comparator.<V>naturalOrder()), field.getName());
+    }
+
+    /**
+     * Sorts descending by {@code field} (nulls last); further calls break ties.
+     */
+    public <V extends Comparable<? super V>> Query<T> orderByDescending(Field<T, V> field) {
+        return thenBy(field, Comparator.nullsLast(Comparator.<V>reverseOrder()), field.getName() + " desc");
+    }
+
+    private <V> Query<T> thenBy(Field<T, V> field, Comparator<V> values, String name) {
+        Comparator<T> next = Comparator.comparing(field::get, values);
+        ordering = ordering == null ? next : ordering.thenComparing(next);
+        orderingNames.add(name);
+        return this;
+    }
+
+    /**
+     * Returns at most {@code limit} rows from {@link Plan#list()}; aggregates still cover every match.
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0");
+        this.limit = limit;
+        return this;
+    }
+
+    // ------------------------------------------------------------
+    // Accessors (for the planner)
+    // ------------------------------------------------------------
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public List<Condition<T>> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    /**
+     * @return the sort order, or null to keep the access path's order
+     */
+    public Comparator<T> getOrdering() {
+        return ordering;
+    }
+
+    public List<String> getOrderingNames() {
+        return Collections.unmodifiableList(orderingNames);
+    }
+
+    /**
+     * @return maximum rows listed ({@link Integer#MAX_VALUE} = no limit)
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(entity);
+        if (!conditions.isEmpty()) {
+            sb.append(" where ");
+            for (int i = 0; i < conditions.size(); i++) {
+                if (i > 0) sb.append(" and ");
+                sb.append(conditions.get(i).describe());
+            }
+        }
+        if (!orderingNames.isEmpty()) sb.append(" order by ").append(String.join(", ", orderingNames));
+        if (limit != Integer.MAX_VALUE) sb.append(" limit ").append(limit);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.Query;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chooses how to run a {@link Query} against one repository.
+ *
+ * <ul>
+ *   <li>Each field condition is matched against the registered {@link Index indexes}; the most
+ *       selective applicable one ({@link Index.Kind} order, then registration order) drives the
+ *       plan and every other condition becomes a row filter.</li>
+ *   <li>Without an applicable index the plan scans {@link CrudRepo#stream()}, as a parallel stream
+ *       from {@link #PARALLEL_THRESHOLD} rows.</li>
+ *   <li>Rule-based: no statistics are kept, so an index is always preferred over a scan.</li>
+ * </ul>
+ * {@link Plan#explain()} shows the decision. Thread-safe; indexes may be added at any time.
+ *
+ * @param <T> entity type
+ */
+public final class QueryPlanner<T> {
+
+    // Rows from which scans (and large index results) run as parallel streams
+    public static final long PARALLEL_THRESHOLD = 10_000;
+
+    private final CrudRepo<T, ?> repo;
+    private final List<Index<T>> indexes = new CopyOnWriteArrayList<>();
+
+    /**
+     * A planner with no indexes (every query scans); see {@link #over} for the usual setup.
+     */
+    public QueryPlanner(CrudRepo<T, ?> repo) {
+        this.repo = Objects.requireNonNull(repo, "repo must not be null");
+    }
+
+    /**
+     * A planner over {@code repo} with its primary key ({@code id} field, {@link CrudRepo#findById})
+     * registered, plus the secondary indexes of an {@link OrderRepo}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Identifiable<ID>, ID> QueryPlanner<T> over(CrudRepo<T, ID> repo) {
+        QueryPlanner<T> planner = new QueryPlanner<>(repo);
+        planner.addIndex(Index.unique("primaryKey", Field.<T, ID>of("id", Identifiable::getId), repo::findById));
+        if (repo instanceof OrderRepo orders) {
+            ((QueryPlanner<Order>) planner).addIndexes(orderIndexes(orders));
+        }
+        return planner;
+    }
+
+    /**
+     * The secondary indexes an {@link OrderRepo} really implements. Its default methods scan, so
+     * they are registered only when the implementation overrides them (e.g. {@code InMemoryOrderImp},
+     * {@code ShardedOrderRepo}).
+     */
+    public static List<Index<Order>> orderIndexes(OrderRepo repo) {
+        List<Index<Order>> out = new ArrayList<>(3);
+        if (overrides(repo, "findByCustomer", String.class)) {
+            out.add(Index.equality("byCustomer", Fields.Orders.CUSTOMER_ID, repo::findByCustomer));
+        }
+        if (overrides(repo, "findByStatus", OrderStatus.class)) {
+            ToLongFunction<OrderStatus> count = overrides(repo, "countByStatus", OrderStatus.class)
+                    ? repo::countByStatus : null;
+            out.add(Index.equality("byStatus", Fields.Orders.STATUS, repo::findByStatus, count));
+        }
+        if (overrides(repo, "findCreatedBetween", long.class, long.class)) {
+            Index.RangeCount count = overrides(repo, "countCreatedBetween", long.class, long.class)
+                    ? repo::countCreatedBetween : null;
+            out.add(Index.range("byCreatedAt", Fields.Orders.CREATED_AT, repo::findCreatedBetween, count));
+        }
+        return out;
+    }
+
+    private static boolean overrides(OrderRepo repo, String method, Class<?>... params) {
+        try {
+            return repo.getClass().getMethod(method, params).getDeclaringClass() != OrderRepo.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public QueryPlanner<T> addIndex(Index<T> index) {
+        indexes.add(Objects.requireNonNull(index, "index must not be null"));
+        return this;
+    }
+
+    public QueryPlanner<T> addIndexes(Iterable<Index<T>> more) {
+        more.forEach(this::addIndex);
+        return this;
+    }
+
+    public List<Index<T>> getIndexes() {
+        return List.copyOf(indexes);
+    }
+
+    // ------------------------------------------------------------
+    // Planning
+    // ------------------------------------------------------------
+
+    /**
+     * @return the plan for {@code query}; cheap, the repository is not read until the plan runs
+     */
+    public Plan<T> plan(Query<T> query) {
+        List<Condition<T>> conditions = query.getConditions();
+        Index<T> best = null;
+        Condition<T> indexed = null;
+        for (Condition<T> c : conditions) {
+            if (c instanceof Condition.Matches<T>) continue;
+            for (Index<T> index : indexes) {
+                if (index.supports(c) && (best == null || index.getKind().compareTo(best.getKind()) < 0)) {
+                    best = index;
+                    indexed = c;
+                }
+            }
+        }
+        List<Condition<T>> residual = new ArrayList<>(conditions);
+        if (indexed != null) residual.remove(indexed);
+        boolean parallel = best == null && repo.count() >= PARALLEL_THRESHOLD;
+        return new Plan<>(query, best, indexed, residual, repo::stream, repo::count, parallel);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.Replication;
+
+import org.example.Error.ErrorHandling;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of a repository, used by the services of a replication follower.
+ * Reads are delegated; every write throws {@link ErrorHandling.ReadOnly}.
+ */
+public class ReadOnlyRepo<T extends Identifiable<ID>, ID> implements CrudRepo<T, ID> {
+
+    private final CrudRepo<T, ID> delegate;
+
+    public ReadOnlyRepo(CrudRepo<T, ID> delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    }
+
+    @Override
+    public T create(T entity) {
+        throw readOnly();
+    }
+
+    @Override
+    public T update(T entity) {
+        throw readOnly();
+    }
+
+    @Override
+    public T delete(ID id) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<T> findPage(int offset, int limit) {
+        return delegate.findPage(offset, limit);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return delegate.stream();
+    }
+
+    private static ErrorHandling.ReadOnly readOnly() {
+        return new ErrorHandling.ReadOnly("this instance is a replication follower; write to the primary");
+    }
+}
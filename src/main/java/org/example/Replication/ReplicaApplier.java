@@ -0,0 +1,109 @@
+package org.example.Replication;
+
+import org.example.Events.ChangeType;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Versioned;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Follower side: applies replicated records to the local repositories.
+ *
+ * <ul>
+ *   <li>Records at or below the last applied sequence are skipped, so re-sent batches after a
+ *       reconnect are harmless.</li>
+ *   <li>Per entity the highest primary version seen wins. The primary's change stream may publish
+ *       two commits of the same entity out of order; the older one is ignored here, and a stale
+ *       update arriving after a delete does not resurrect the entity.</li>
+ *   <li>Versions are kept for live entities only. A delete moves its entry to a window of the last
+ *       {@link #MAX_TOMBSTONES} deletes, which covers the stream's reordering, so deleted IDs do not
+ *       accumulate.</li>
+ *   <li>Writes go straight to the repositories (no service validation): the primary already validated them.</li>
+ * </ul>
+ * Not thread-safe: driven by the single {@link ReplicationClient} thread.
+ */
+public class ReplicaApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaApplier.class);
+
+    static final int MAX_TOMBSTONES = 4096;
+
+    private final Map<String, CrudRepo<?, String>> repos = new HashMap<>();
+    private final Map<String, Long> versions = new HashMap<>(); // "entity:id" -> primary version
+    private final Map<String, Long> tombstones = new LinkedHashMap<>() { // recent deletes, oldest first
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TOMBSTONES;
+        }
+    };
+    private volatile long nextSequence;
+
+    /**
+     * Registers the local repository for an entity name used on the change stream.
+     *
+     * @param entity entity name ("customer", "product", "order")
+     * @param repo   local (writable) repository
+     * @return this
+     */
+    public ReplicaApplier register(String entity, CrudRepo<?, String> repo) {
+        repos.put(entity, repo);
+        return this;
+    }
+
+    /**
+     * @return the next sequence this follower needs (its catch-up offset)
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Applies one record (idempotent).
+     *
+     * @param record decoded record
+     */
+    @SuppressWarnings("unchecked")
+    public void apply(ReplicationRecord record) {
+        if (record.sequence() < nextSequence) return;
+        CrudRepo<Object, String> repo = (CrudRepo<Object, String>) repos.get(record.entity());
+        if (repo == null) {
+            log.warn("No replica repository for entity '{}', skipping #{}", record.entity(), record.sequence());
+        } else {
+            String key = record.entity() + ":" + record.id();
+            Long known = versions.get(key);
+            if (known == null) known = tombstones.get(key);
+            if (known == null || record.version() > known) {
+                write(repo, record);
+                if (record.type() == ChangeType.DELETE) {
+                    versions.remove(key);
+                    tombstones.put(key, record.version());
+                } else {
+                    tombstones.remove(key);
+                    versions.put(key, record.version());
+                }
+            }
+        }
+        nextSequence = record.sequence() + 1;
+    }
+
+    private static void write(CrudRepo<Object, String> repo, ReplicationRecord record) {
+        Optional<Object> stored = repo.findById(record.id());
+        if (record.type() == ChangeType.DELETE) {
+            if (stored.isPresent()) repo.delete(record.id());
+            return;
+        }
+        Object value = record.value();
+        if (stored.isPresent()) {
+            // local versions only guard local writes; adopt the stored one so the update applies
+            ((Versioned<?>) value).setVersion(Versioned.versionOf(stored.get()));
+            repo.update(value);
+        } else {
+            repo.create(value);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.Replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Follower side of log-shipping replication: connects to a {@link ReplicationServer}, asks for the
+ * records after the last one applied and feeds them to a {@link ReplicaApplier}.
+ *
+ * <p>On any connection failure it reconnects (every second) and resumes from its own offset, so a
+ * restarted network link or a primary that was briefly unreachable needs no manual catch-up.
+ * If the primary no longer has that offset the client stops and logs an error.
+ */
+public class ReplicationClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationClient.class);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+    private static final long RETRY_MILLIS = 1_000;
+
+    private final String host;
+    private final int port;
+    private final ReplicaApplier applier;
+    private final Thread worker;
+    private volatile Socket socket;
+    private volatile boolean closed;
+
+    /**
+     * Starts following the primary.
+     *
+     * @param host    primary host (normally localhost)
+     * @param port    primary replication port
+     * @param applier applies received records locally
+     */
+    public ReplicationClient(String host, int port, ReplicaApplier applier) {
+        this.host = host;
+        this.port = port;
+        this.applier = applier;
+        this.worker = new Thread(this::run, "replication-follower");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Parses {@code host:port}.
+     */
+    public static ReplicationClient follow(String hostAndPort, ReplicaApplier applier) {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("expected host:port, got " + hostAndPort);
+        return new ReplicationClient(hostAndPort.substring(0, colon),
+                Integer.parseInt(hostAndPort.substring(colon + 1)), applier);
+    }
+
+    private void run() {
+        while (!closed) {
+            try (Socket s = new Socket()) {
+                socket = s;
+                s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                s.setSoTimeout((int) (ReplicationServer.HEARTBEAT_MILLIS * 5)); // primary silent => reconnect
+                s.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(s.getOutputStream());
+                out.writeLong(applier.getNextSequence());
+                out.flush();
+                log.info("Following {}:{} from #{}", host, port, applier.getNextSequence());
+                if (!receive(new DataInputStream(new BufferedInputStream(s.getInputStream(), 1 << 16)))) return;
+            } catch (IOException e) {
+                if (closed) return;
+                log.warn("Replication link to {}:{} lost ({}); retrying", host, port, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Replication stopped: could not apply record after #{}", applier.getNextSequence() - 1, e);
+                return;
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the primary rejected our offset (stop following)
+     */
+    private boolean receive(DataInputStream in) throws IOException {
+        while (!closed) {
+            int count = in.readInt();
+            if (count < 0) {
+                log.error("Primary does not have offset #{} any more; re-seed this follower", applier.getNextSequence());
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] record = new byte[in.readInt()];
+                in.readFully(record);
+                applier.apply(ReplicationCodec.decode(record));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the next sequence this follower needs
+     */
+    public long getNextSequence() {
+        return applier.getNextSequence();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+    }
+}
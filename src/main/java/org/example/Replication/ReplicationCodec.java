@@ -0,0 +1,68 @@
+package org.example.Replication;
+
+import org.example.Codec.EntityDecoder;
+import org.example.Codec.EntityEncoder;
+import org.example.Codec.Varint;
+import org.example.Events.ChangeType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of {@link ReplicationRecord}s on top of the entity codec ({@link org.example.Codec}).
+ *
+ * <p>Layout: {@code seq:varlong type:byte entity:str id:str version:varlong hasValue:byte [entity record]},
+ * where the entity record is an {@link EntityEncoder} record (length-prefixed and schema-versioned,
+ * so a follower running older code skips fields it does not know).
+ *
+ * <p>Encoders and decoders are reused per thread (the log encodes on the change-stream consumer
+ * thread, the follower decodes on its receive thread).
+ */
+public final class ReplicationCodec {
+
+    private static final ThreadLocal<EntityEncoder> ENCODER = ThreadLocal.withInitial(EntityEncoder::new);
+    private static final ThreadLocal<EntityDecoder> DECODER = ThreadLocal.withInitial(EntityDecoder::new);
+
+    private ReplicationCodec() {
+    }
+
+    /**
+     * @return the encoded record
+     * @throws IllegalArgumentException if the value is not a Customer, Product or Order
+     */
+    public static byte[] encode(ReplicationRecord record) {
+        ByteBuffer value = record.value() == null ? null : ENCODER.get().encode(record.value());
+        int size = Varint.sizeOfLong(record.sequence()) + 1
+                + EntityEncoder.stringSize(record.entity()) + EntityEncoder.stringSize(record.id())
+                + Varint.sizeOfLong(record.version()) + 1 + (value == null ? 0 : value.remaining());
+        ByteBuffer out = ByteBuffer.allocate(size);
+        Varint.writeLong(out, record.sequence());
+        out.put((byte) record.type().ordinal());
+        EntityEncoder.writeString(out, record.entity());
+        EntityEncoder.writeString(out, record.id());
+        Varint.writeLong(out, record.version());
+        out.put((byte) (value == null ? 0 : 1));
+        if (value != null) out.put(value);
+        return out.array();
+    }
+
+    /**
+     * @param bytes an encoded record
+     * @return the decoded record; values are fresh, mutable entities
+     */
+    public static ReplicationRecord decode(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            EntityDecoder decoder = DECODER.get();
+            long sequence = Varint.readLong(in);
+            ChangeType type = ChangeType.values()[in.get()];
+            String entity = decoder.readString(in);
+            String id = decoder.readString(in);
+            long version = Varint.readLong(in);
+            Object value = in.get() != 0 ? decoder.decode(in) : null;
+            return new ReplicationRecord(sequence, type, entity, id, version, value);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("corrupt replication record", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.Replication;
+
+import org.example.Events.ChangeConsumer;
+import org.example.Events.ChangeEvent;
+import org.example.Events.ChangeType;
+import org.example.Reposotory.Versioned;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Primary-side replication log: a change-stream consumer that encodes every mutation and keeps
+ * the most recent records in memory for followers to stream (and catch up) from.
+ *
+ * <ul>
+ *   <li>Records get contiguous sequence numbers starting at 0.</li>
+ *   <li>At most {@code retention} records are kept; a follower asking for an older offset gets
+ *       {@link TruncatedException} and must be re-seeded.</li>
+ *   <li>Encoding happens on the change-stream consumer thread, off the request path.</li>
+ * </ul>
+ */
+public class ReplicationLog implements ChangeConsumer {
+
+    public static final int DEFAULT_RETENTION = 1 << 20;
+
+    private final byte[][] records; // ring: sequence s lives at s % records.length
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long firstSequence; // oldest retained sequence
+    private long nextSequence;  // sequence the next record will get
+
+    public ReplicationLog() {
+        this(DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param retention maximum number of records kept for catch-up
+     */
+    public ReplicationLog(int retention) {
+        if (retention <= 0) throw new IllegalArgumentException("retention must be > 0");
+        this.records = new byte[retention][];
+    }
+
+    @Override
+    public void onEvent(ChangeEvent event, boolean endOfBatch) {
+        // a DELETE's before is the value it removed, so it is newer than every earlier record of the id
+        long version = event.getType() == ChangeType.DELETE
+                ? Versioned.versionOf(event.getBefore()) + 1
+                : Versioned.versionOf(event.getAfter());
+        // nextSequence is only written by this (single consumer) thread, so encode outside the lock
+        byte[] record = ReplicationCodec.encode(new ReplicationRecord(nextSequence, event.getType(),
+                event.getEntity(), String.valueOf(event.getId()), version, event.getAfter()));
+        lock.lock();
+        try {
+            records[(int) (nextSequence % records.length)] = record;
+            nextSequence++;
+            firstSequence = Math.max(firstSequence, nextSequence - records.length);
+            if (endOfBatch) appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code max} encoded records starting at {@code from}, waiting up to
+     * {@code timeoutMillis} for the first one.
+     *
+     * @param from          first sequence wanted
+     * @param max           batch limit
+     * @param timeoutMillis how long to wait when nothing is available
+     * @return encoded records (empty on timeout)
+     * @throws TruncatedException if {@code from} is older than the retained records or beyond the head
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<byte[]> read(long from, int max, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            if (from < firstSequence || from > nextSequence) {
+                throw new TruncatedException("offset " + from + " not in log [" + firstSequence + ", " + nextSequence + "]");
+            }
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (from == nextSequence && nanos > 0) nanos = appended.awaitNanos(nanos);
+            if (from < firstSequence) throw new TruncatedException("offset " + from + " was truncated while waiting");
+
+            int n = (int) Math.min(max, nextSequence - from);
+            List<byte[]> out = new ArrayList<>(n);
+            for (long seq = from; seq < from + n; seq++) out.add(records[(int) (seq % records.length)]);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return sequence the next record will get (= number of records ever appended)
+     */
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A follower asked for an offset the log no longer (or never) had.
+     */
+    public static class TruncatedException extends RuntimeException {
+        public TruncatedException(String message) {
+            super(message);
+        }
+    }
+}
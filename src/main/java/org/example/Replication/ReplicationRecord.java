@@ -0,0 +1,17 @@
+package org.example.Replication;
+
+import org.example.Events.ChangeType;
+
+/**
+ * One replicated mutation as shipped from primary to follower.
+ *
+ * @param sequence position in the primary's replication log (contiguous from 0)
+ * @param type     kind of change
+ * @param entity   entity name ("customer", "product", "order")
+ * @param id       entity id
+ * @param version  primary-side version after the change (deletes: last version + 1)
+ * @param value    the new state; null for deletes
+ */
+public record ReplicationRecord(long sequence, ChangeType type, String entity, String id,
+                                long version, Object value) {
+}
@@ -0,0 +1,138 @@
+package org.example.Replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Primary side of log-shipping replication: serves the {@link ReplicationLog} to followers over TCP
+ * on the loopback interface.
+ *
+ * <p>Protocol (all integers big-endian):
+ * <ul>
+ *   <li>Follower → primary, once: {@code fromSequence:long}.</li>
+ *   <li>Primary → follower, repeated frames: {@code count:int} then {@code count} x {@code (length:int, record)}.
+ *       {@code count = 0} is a heartbeat (sent when idle for a second);
+ *       {@code count = -1} means the offset is not in the log and the connection is closed.</li>
+ * </ul>
+ * Each follower gets its own sender thread; a slow follower never blocks the primary's writers,
+ * it just falls behind in the log.
+ */
+public class ReplicationServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationServer.class);
+
+    public static final int DEFAULT_MAX_BATCH = 512;
+    static final long HEARTBEAT_MILLIS = 1_000;
+
+    private final ReplicationLog replicationLog;
+    private final int maxBatch;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger followerIds = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Binds the port and starts accepting followers.
+     *
+     * @param replicationLog log to serve
+     * @param port           TCP port on localhost (0 = ephemeral, see {@link #getPort()})
+     * @param maxBatch       records per frame
+     * @throws IOException if the port cannot be bound
+     */
+    public static ReplicationServer start(ReplicationLog replicationLog, int port, int maxBatch) throws IOException {
+        ReplicationServer server = new ReplicationServer(replicationLog, port, maxBatch);
+        Thread acceptor = new Thread(server::acceptLoop, "replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start(); // only once constructed, so the accept thread never sees a partial server
+        log.info("Replication primary listening on localhost:{}", server.getPort());
+        return server;
+    }
+
+    private ReplicationServer(ReplicationLog replicationLog, int port, int maxBatch) throws IOException {
+        this.replicationLog = replicationLog;
+        this.maxBatch = maxBatch;
+        this.serverSocket = new ServerSocket(port, 16, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                followers.add(socket);
+                Thread sender = new Thread(() -> serve(socket), "replication-sender-" + followerIds.incrementAndGet());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (!closed) log.warn("accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16))) {
+            socket.setTcpNoDelay(true);
+            long next = in.readLong();
+            log.info("Follower {} connected, streaming from #{}", socket.getRemoteSocketAddress(), next);
+            while (!closed) {
+                List<byte[]> batch;
+                try {
+                    batch = replicationLog.read(next, maxBatch, HEARTBEAT_MILLIS);
+                } catch (ReplicationLog.TruncatedException e) {
+                    log.warn("Follower {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                    out.writeInt(-1);
+                    out.flush();
+                    return;
+                }
+                out.writeInt(batch.size());
+                for (byte[] record : batch) {
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+                out.flush();
+                next += batch.size();
+            }
+        } catch (IOException e) {
+            if (!closed) log.info("Follower {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+        for (Socket s : followers) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+    }
+}
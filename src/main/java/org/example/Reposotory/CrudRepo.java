@@ -2,17 +2,69 @@ package org.example.Reposotory;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CrudRepo<T, ID> {
-    void create(T entity);
+    /**
+     * Stores a new entity.
+     *
+     * @return the instance actually stored (a frozen copy for versioned entities); hand this one to
+     * other threads, not {@code entity}, which the caller may keep editing
+     */
+    T create(T entity);
 
-    void update(T entity);
+    /**
+     * Replaces a stored entity.
+     *
+     * @return the instance actually stored, as for {@link #create}
+     */
+    T update(T entity);
 
     Optional<T> findById(ID id);
 
-    void delete(ID id);
+    /**
+     * Removes an entity.
+     *
+     * @return the value actually removed (null if there was none), read in the same atomic step
+     */
+    T delete(ID id);
 
     List<T> findAll();
 
+    /**
+     * Number of stored entities (used for repository size metrics).
+     * Implementations should override this with an O(1) count.
+     *
+     * @return entity count
+     */
+    default long count() {
+        return findAll().size();
+    }
+
+    /**
+     * One page of entities, for listing screens that must not materialize everything.
+     * Order is the repository's iteration order; concurrent writes may shift entries between pages.
+     * Implementations should override this to avoid copying the whole store.
+     *
+     * @param offset entities to skip
+     * @param limit  maximum entities to return
+     * @return the page (possibly empty)
+     */
+    default List<T> findPage(int offset, int limit) {
+        List<T> all = findAll();
+        int from = Math.min(Math.max(0, offset), all.size());
+        return all.subList(from, Math.min(all.size(), from + Math.max(0, limit)));
+    }
+
+    /**
+     * Streams the current entities without collecting them into a list first (used by query scans).
+     * Weakly consistent under concurrent writes; may be run in parallel.
+     * Implementations should override this to avoid copying the whole store.
+     *
+     * @return stream of entities
+     */
+    default Stream<T> stream() {
+        return findAll().stream();
+    }
 
 }
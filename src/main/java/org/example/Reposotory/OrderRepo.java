@@ -0,0 +1,123 @@
+package org.example.Reposotory;
+
+import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
+import org.example.Error.ErrorHandling;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Order-specific repository contract: CRUD plus secondary-index lookups.
+ *
+ * <p>Default methods fall back to a scan over {@link #findAll()}, so any order store works;
+ * indexed implementations (e.g. {@code InMemoryOrderImp}) override them.
+ */
+public interface OrderRepo extends CrudRepo<Order, String> {
+
+    /**
+     * Returns the orders of one customer.
+     *
+     * @param customerId the customer ID
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    default List<Order> findByCustomer(String customerId) {
+        return findAll().stream()
+                .filter(o -> Objects.equals(o.getCustomerId(), customerId))
+                .toList();
+    }
+
+    /**
+     * Returns the orders created in {@code [fromMillis, toMillis)}, oldest first.
+     *
+     * @param fromMillis start (inclusive), epoch milliseconds
+     * @param toMillis   end (exclusive), epoch milliseconds
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    default List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        return findAll().stream()
+                .filter(o -> o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis)
+                .sorted(Comparator.comparingLong(Order::getCreatedAt))
+                .toList();
+    }
+
+    /**
+     * Counts the orders created in {@code [fromMillis, toMillis)}.
+     */
+    default long countCreatedBetween(long fromMillis, long toMillis) {
+        return findAll().stream()
+                .filter(o -> o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis)
+                .count();
+    }
+
+    /**
+     * Returns the orders in one status.
+     *
+     * @param status the status
+     * @return list of orders (unmodifiable, possibly empty)
+     */
+    default List<Order> findByStatus(OrderStatus status) {
+        return findAll().stream()
+                .filter(o -> o.getStatus() == status)
+                .toList();
+    }
+
+    /**
+     * Counts the orders in one status.
+     */
+    default long countByStatus(OrderStatus status) {
+        return findAll().stream()
+                .filter(o -> o.getStatus() == status)
+                .count();
+    }
+
+    /**
+     * Counts the lines (one product unit each) of all stored orders.
+     */
+    default long countLines() {
+        return stream().mapToLong(Order::lineCount).sum();
+    }
+
+    /**
+     * Bulk status change: moves every listed order whose current status is in {@code from} to
+     * {@code to}, checked atomically per order. Missing orders and orders in another status are
+     * left as they are; the caller finds them by the IDs {@code changed} did not report.
+     *
+     * <p>The default updates one order at a time; indexed implementations change the orders and
+     * their status index in one pass.
+     *
+     * @param ids     order IDs (not null)
+     * @param from    statuses an order may be moved from
+     * @param to      new status
+     * @param changed receives (before, after) for every moved order
+     * @return number of orders moved
+     */
+    default int transitionAll(Collection<String> ids, Set<OrderStatus> from, OrderStatus to,
+                              BiConsumer<Order, Order> changed) {
+        int moved = 0;
+        for (String id : ids) {
+            while (true) {
+                Optional<Order> current = findById(id);
+                if (current.isEmpty() || !from.contains(current.get().getStatus())) break;
+                Order next = current.get().copy();
+                next.setStatus(to);
+                try {
+                    update(next);
+                } catch (ErrorHandling.Conflict raced) {
+                    continue; // changed concurrently: check the status again
+                } catch (IllegalArgumentException gone) {
+                    break;    // deleted concurrently
+                }
+                changed.accept(current.get(), next);
+                moved++;
+                break;
+            }
+        }
+        return moved;
+    }
+}
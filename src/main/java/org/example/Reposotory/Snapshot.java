@@ -0,0 +1,44 @@
+package org.example.Reposotory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A consistent, point-in-time read view across all repositories sharing one clock.
+ *
+ * <p>Reads through a snapshot see exactly the writes committed before it was opened, no matter
+ * how long the reader takes. Close it when done so old versions can be reclaimed:
+ * <pre>
+ * try (Snapshot s = orderRepo.openSnapshot()) {
+ *     List&lt;Order&gt; orders = orderRepo.findAll(s);
+ *     List&lt;Customer&gt; customers = customerRepo.findAll(s);
+ * }
+ * </pre>
+ */
+public final class Snapshot implements AutoCloseable {
+
+    private final long readVersion;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param readVersion highest commit version visible to this snapshot
+     * @param onClose     callback releasing the snapshot (called once)
+     */
+    public Snapshot(long readVersion, Runnable onClose) {
+        this.readVersion = readVersion;
+        this.onClose = onClose;
+    }
+
+    public long getReadVersion() {
+        return readVersion;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) onClose.run();
+    }
+}
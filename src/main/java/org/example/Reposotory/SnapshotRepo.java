@@ -0,0 +1,37 @@
+package org.example.Reposotory;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link CrudRepo} that also serves snapshot-consistent (MVCC) reads.
+ *
+ * <p>Repositories created with the same clock share snapshots: a {@link Snapshot} opened on one
+ * of them can be used to read all of them at the same point in time.
+ *
+ * @param <T>  entity type
+ * @param <ID> identifier type
+ */
+public interface SnapshotRepo<T, ID> extends CrudRepo<T, ID> {
+
+    /**
+     * Opens a snapshot at the latest committed version. Must not be called while the same thread
+     * is inside a repository write.
+     *
+     * @return snapshot to pass to the read methods; close it when done
+     */
+    Snapshot openSnapshot();
+
+    /**
+     * @param id       entity id
+     * @param snapshot read view
+     * @return the entity as it was when the snapshot was opened
+     */
+    Optional<T> findById(ID id, Snapshot snapshot);
+
+    /**
+     * @param snapshot read view
+     * @return all entities visible in the snapshot (unmodifiable)
+     */
+    List<T> findAll(Snapshot snapshot);
+}
@@ -0,0 +1,85 @@
+package org.example.Reposotory;
+
+/**
+ * Contract for entities stored as immutable versions.
+ *
+ * <p>Repositories keep a <em>frozen</em> copy of every entity they store, so readers can share
+ * instances across threads without seeing half-applied edits. Callers that want to change an
+ * entity edit a {@link #copy()} and hand it back through {@code update}.
+ *
+ * <p>Optimistic concurrency: every stored version carries a version number. {@code update}
+ * only succeeds if the entity's version still equals the stored one (compare-and-set) and
+ * then stores version + 1; otherwise it fails with {@code ErrorHandling.Conflict}.
+ *
+ * @param <T> the entity type
+ */
+public interface Versioned<T> {
+
+    /**
+     * Returns a mutable copy with the same id (collections are copied, not shared).
+     *
+     * @return editable copy
+     */
+    T copy();
+
+    /**
+     * Makes this instance read-only; setters throw {@link IllegalStateException} afterwards.
+     */
+    void freeze();
+
+    /**
+     * @return true once {@link #freeze()} was called
+     */
+    boolean isFrozen();
+
+    /**
+     * @return version number of the stored state this instance was read from (0 = never stored)
+     */
+    long getVersion();
+
+    /**
+     * Sets the version number (repositories only; throws once frozen).
+     *
+     * @param version new version number
+     */
+    void setVersion(long version);
+
+    /**
+     * @param entity any entity
+     * @return its version, or 0 if it is not {@link Versioned}
+     */
+    static long versionOf(Object entity) {
+        return entity instanceof Versioned<?> v ? v.getVersion() : 0L;
+    }
+
+    /**
+     * Returns a frozen copy of {@code entity}, or the entity itself if it is already frozen
+     * (or not {@link Versioned} at all).
+     *
+     * @param entity entity to store
+     * @param <T>    entity type
+     * @return immutable instance safe to share
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T frozenCopyOf(T entity) {
+        if (entity instanceof Versioned<?> v && !v.isFrozen()) {
+            Versioned<?> copy = (Versioned<?>) v.copy();
+            copy.freeze();
+            return (T) copy;
+        }
+        return entity;
+    }
+
+    /**
+     * Returns an editable copy of {@code entity} (or the entity itself if it is not {@link Versioned}).
+     *
+     * @param entity entity read from a repository
+     * @param <T>    entity type
+     * @return instance the caller may modify
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T editableCopyOf(T entity) {
+        if (entity instanceof Versioned<?> v) return (T) v.copy();
+        return entity;
+    }
+}
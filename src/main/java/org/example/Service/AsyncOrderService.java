@@ -0,0 +1,249 @@
+package org.example.Service;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Error.Failure;
+import org.example.Error.Result;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asynchronous order placement: the customer and product lookups of one order run in parallel on
+ * virtual threads instead of one after another on the caller's thread.
+ *
+ * <ul>
+ *   <li>Each request runs on its own virtual thread and returns a {@link CompletableFuture} at once.</li>
+ *   <li>Lookups are structured: they are forked by the request, bounded to {@code maxConcurrency}
+ *       in flight, and the request waits for them (interrupted if it no longer needs them) before
+ *       it completes, but never past its deadline: a lookup stuck in non-interruptible I/O is left
+ *       to finish in the background and its result is dropped. The first missing customer/product,
+ *       lookup error, deadline or cancellation interrupts the rest.</li>
+ *   <li>The deadline bounds the lookup phase; the order is then stored like {@link OrderService#tryPlace}
+ *       (same validation, transaction, metrics and events), with the concurrent reads joined to the
+ *       transaction's commit validation.</li>
+ *   <li>Cancelling the future interrupts the request; once the lookups are done the order may
+ *       already be stored, so retries should use an idempotency key upstream.</li>
+ * </ul>
+ * Worthwhile once the repositories sit behind I/O: a 200-line order then costs about
+ * {@code 200 / maxConcurrency} lookup round-trips instead of 200.
+ */
+public final class AsyncOrderService implements AutoCloseable {
+
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(2);
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private final OrderService orders;
+    private final Duration deadline;
+    private final int maxConcurrency;
+    private final ThreadFactory requestThreads = Thread.ofVirtual().name("order-place-", 0).factory();
+    private final ThreadFactory lookupThreads = Thread.ofVirtual().name("order-lookup-", 0).factory();
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public AsyncOrderService(OrderService orders) {
+        this(orders, DEFAULT_DEADLINE, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * @param orders         service that validates and stores the orders
+     * @param deadline       default time allowed for a request's lookups
+     * @param maxConcurrency lookups in flight per request
+     */
+    public AsyncOrderService(OrderService orders, Duration deadline, int maxConcurrency) {
+        this.orders = Objects.requireNonNull(orders, "orders must not be null");
+        this.deadline = Objects.requireNonNull(deadline, "deadline must not be null");
+        if (deadline.isNegative() || deadline.isZero()) throw new IllegalArgumentException("deadline must be positive");
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency must be > 0");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Places an order asynchronously.
+     *
+     * @return future of the stored order; completes exceptionally with the {@link org.example.Error.ErrorHandling}
+     * exception of a rejection, with {@link TimeoutException} past the deadline, or is cancelled
+     */
+    public CompletableFuture<Order> placeAsync(String customerId, Map<String, Integer> items) {
+        return submit(customerId, items, deadline, Result::orElseThrow);
+    }
+
+    /**
+     * Like {@link #placeAsync} but a rejected order completes normally with a {@link Failure}.
+     *
+     * @param deadline time allowed for the lookups of this request
+     * @return future of the result; completes exceptionally only on deadline, error or cancellation
+     */
+    public CompletableFuture<Result<Order>> tryPlaceAsync(String customerId, Map<String, Integer> items,
+                                                          Duration deadline) {
+        return submit(customerId, items, deadline, Function.identity());
+    }
+
+    public CompletableFuture<Result<Order>> tryPlaceAsync(String customerId, Map<String, Integer> items) {
+        return tryPlaceAsync(customerId, items, deadline);
+    }
+
+    private <R> CompletableFuture<R> submit(String customerId, Map<String, Integer> items, Duration timeout,
+                                            Function<Result<Order>, R> finish) {
+        if (closed) throw new IllegalStateException("AsyncOrderService is closed");
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        Map<String, Integer> request = items == null ? null : new HashMap<>(items); // caller may reuse its map
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Thread thread = requestThreads.newThread(() -> {
+            try {
+                if (future.isDone()) return; // cancelled before it started
+                future.complete(finish.apply(place(customerId, request, deadlineNanos)));
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                running.remove(Thread.currentThread());
+            }
+        });
+        running.add(thread);
+        future.whenComplete((r, ex) -> {
+            if (future.isCancelled()) thread.interrupt();
+        });
+        thread.start();
+        return future;
+    }
+
+    // ------------------------------------------------------------
+    // One request
+    // ------------------------------------------------------------
+
+    private Result<Order> place(String customerId, Map<String, Integer> items, long deadlineNanos)
+            throws InterruptedException, TimeoutException {
+        Failure invalid = OrderService.checkPlacement(customerId, items);
+        if (invalid != null) return Result.fail(invalid);
+
+        List<String> productIds = new ArrayList<>(items.keySet());
+        Object[] found = new Object[productIds.size() + 1];
+        int missing = lookUp(customerId, productIds, found, deadlineNanos);
+        if (missing == 0) return Result.fail(Failure.notFound("customerId", customerId, "Customer not found: "));
+        if (missing > 0) {
+            return Result.fail(Failure.notFound("productId", productIds.get(missing - 1), "Product not found: "));
+        }
+        Map<String, Product> products = HashMap.newHashMap(productIds.size());
+        for (int i = 0; i < productIds.size(); i++) products.put(productIds.get(i), (Product) found[i + 1]);
+        if (Thread.interrupted()) throw new InterruptedException("order placement cancelled");
+        return orders.tryPlaceResolved(customerId, items, (Customer) found[0], products);
+    }
+
+    /**
+     * Looks up the customer (slot 0) and the products (slots 1..n) on at most {@code maxConcurrency}
+     * forked virtual threads, each taking the next unclaimed slot. Returns early, with the rest
+     * interrupted, as soon as a lookup finds nothing.
+     *
+     * @param found receives the entities by slot
+     * @return the first slot found missing, or -1 if every slot was filled
+     */
+    private int lookUp(String customerId, List<String> productIds, Object[] found, long deadlineNanos)
+            throws InterruptedException, TimeoutException {
+        int n = found.length;
+        AtomicInteger nextSlot = new AtomicInteger();
+        BlockingQueue<Lookup> done = new LinkedBlockingQueue<>();
+        List<Thread> forks = new ArrayList<>(Math.min(n, maxConcurrency));
+        try {
+            for (int i = 0; i < Math.min(n, maxConcurrency); i++) {
+                Thread fork = lookupThreads.newThread(() -> {
+                    for (int slot; (slot = nextSlot.getAndIncrement()) < n && !Thread.currentThread().isInterrupted(); ) {
+                        try {
+                            Object value = slot == 0
+                                    ? orders.findCustomer(customerId).orElse(null)
+                                    : orders.findProduct(productIds.get(slot - 1)).orElse(null);
+                            done.add(new Lookup(slot, value, null));
+                        } catch (Throwable ex) {
+                            done.add(new Lookup(slot, null, ex));
+                            return;
+                        }
+                    }
+                });
+                forks.add(fork);
+                fork.start();
+            }
+            for (int pending = n; pending > 0; pending--) {
+                long left = deadlineNanos - System.nanoTime();
+                Lookup lookup = left > 0 ? done.poll(left, TimeUnit.NANOSECONDS) : null;
+                if (lookup == null) {
+                    throw new TimeoutException("order lookups exceeded the deadline (" + pending + " of " + n + " pending)");
+                }
+                if (lookup.error instanceof RuntimeException ex) throw ex;
+                if (lookup.error instanceof Error err) throw err;
+                if (lookup.error != null) throw new IllegalStateException(lookup.error);
+                if (lookup.value == null) return lookup.slot; // no need to wait for the rest
+                found[lookup.slot] = lookup.value;
+            }
+            return -1;
+        } finally {
+            shutdown(forks, deadlineNanos);
+        }
+    }
+
+    /**
+     * Interrupts the forks that are still running and waits for them until the deadline, so a
+     * lookup does not outlive its request unless it ignores the interrupt past the deadline.
+     */
+    private static void shutdown(List<Thread> forks, long deadlineNanos) {
+        for (Thread fork : forks) {
+            if (fork.isAlive()) fork.interrupt();
+        }
+        boolean interrupted = false;
+        for (Thread fork : forks) {
+            long left;
+            while (fork.isAlive() && (left = deadlineNanos - System.nanoTime()) > 0) {
+                try {
+                    fork.join(Duration.ofNanos(left));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private record Lookup(int slot, Object value, Throwable error) {
+    }
+
+    // ------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------
+
+    /**
+     * @return requests currently running
+     */
+    public int getRunning() {
+        return running.size();
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Rejects new requests and interrupts the running ones (their futures complete exceptionally).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        running.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,413 @@
+package org.example.Service;
+
+import org.example.Entity.Order;
+import org.example.Error.Failure;
+import org.example.Error.Result;
+import org.example.Utils.TimerWheel;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Server-side shopping carts (customerId → productId/qty) that survive the client session and
+ * turn into an order in one step.
+ *
+ * <ul>
+ *   <li>Finding a cart is one concurrent-map read; adding, changing or removing a line locks only
+ *       that cart and reschedules its timer in O(1).</li>
+ *   <li>A cart expires after {@code idleTtl} without activity. Expiry is driven by a hierarchical
+ *       {@link TimerWheel}: each tick only touches the carts that expire in it.</li>
+ *   <li>Memory is bounded under abandoned-cart churn: at most {@code maxCarts} carts (the ones
+ *       closest to expiry are evicted early beyond it) of at most {@code maxLines} lines each.</li>
+ *   <li>{@link #checkout} places the cart through {@link OrderService#tryPlace(String, String, Map)}
+ *       with a key per cart revision, so a repeated checkout of the same cart places one order.</li>
+ *   <li>Products and customers are checked when added; checkout validates everything again.</li>
+ * </ul>
+ *
+ * <p>Thread-safe.
+ */
+public final class CartService {
+
+    public static final Duration DEFAULT_IDLE_TTL = Duration.ofMinutes(30);
+    public static final int DEFAULT_MAX_CARTS = 1 << 22;
+    public static final int DEFAULT_MAX_LINES = 100;
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private static final String[] NO_IDS = new String[0];
+    private static final int[] NO_QUANTITIES = new int[0];
+
+    private final OrderService orders;
+    private final long idleTtlMillis;
+    private final int maxCarts;
+    private final int maxLines;
+    private final LongSupplier clock;
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final TimerWheel<Cart> wheel;
+    private final AtomicLong serials = new AtomicLong();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder checkedOut = new LongAdder();
+
+    public CartService(OrderService orders) {
+        this(orders, DEFAULT_IDLE_TTL, DEFAULT_MAX_CARTS, DEFAULT_MAX_LINES, DEFAULT_TICK, System::currentTimeMillis);
+    }
+
+    /**
+     * @param orders   service that places the checked-out carts
+     * @param idleTtl  how long a cart lives without activity
+     * @param maxCarts memory bound; the carts closest to expiry are evicted beyond it
+     * @param maxLines distinct products per cart
+     * @param tick     expiry resolution (carts live up to one tick longer than {@code idleTtl})
+     * @param clock    current time in epoch milliseconds
+     */
+    public CartService(OrderService orders, Duration idleTtl, int maxCarts, int maxLines, Duration tick,
+                       LongSupplier clock) {
+        this.orders = Objects.requireNonNull(orders, "orders must not be null");
+        this.idleTtlMillis = idleTtl.toMillis();
+        long tickMillis = tick.toMillis();
+        if (idleTtlMillis <= 0 || tickMillis <= 0) throw new IllegalArgumentException("idleTtl and tick must be positive");
+        if (maxCarts <= 0 || maxLines <= 0) throw new IllegalArgumentException("maxCarts and maxLines must be > 0");
+        this.maxCarts = maxCarts;
+        this.maxLines = maxLines;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        // level 0 spans a few minutes; longer TTLs cascade down from the upper levels
+        this.wheel = new TimerWheel<>(tickMillis, 256, clock.getAsLong());
+    }
+
+    // ------------------------------------------------------------
+    // Cart lines
+    // ------------------------------------------------------------
+
+    /**
+     * Adds {@code qty} of a product (on top of what the cart already holds), creating the cart if needed.
+     *
+     * @return the cart after the change
+     * @throws org.example.Error.ErrorHandling.NotFound   unknown customer (for a new cart) or product
+     * @throws org.example.Error.ErrorHandling.Validation qty not positive, or the cart is full
+     */
+    public Map<String, Integer> add(String customerId, String productId, int qty) {
+        if (qty <= 0) throw Failure.validation("qty", "Invalid qty for " + productId + ": " + qty).toException();
+        return change(customerId, productId, current -> {
+            long total = (long) current + qty;
+            return total > Integer.MAX_VALUE ? -1 : (int) total;
+        });
+    }
+
+    /**
+     * Sets the quantity of a product; 0 removes the line (and an emptied cart).
+     *
+     * @return the cart after the change
+     */
+    public Map<String, Integer> setQuantity(String customerId, String productId, int qty) {
+        if (qty < 0) throw Failure.validation("qty", "Invalid qty for " + productId + ": " + qty).toException();
+        if (qty == 0) return remove(customerId, productId);
+        return change(customerId, productId, current -> qty);
+    }
+
+    /**
+     * Removes a product line; a cart left empty is dropped.
+     *
+     * @return the cart after the change (empty if there is no cart)
+     */
+    public Map<String, Integer> remove(String customerId, String productId) {
+        Map<String, Integer> after = touch(customerId, cart -> {
+            cart.remove(productId);
+            return cart.snapshot();
+        });
+        return after == null ? Map.of() : after;
+    }
+
+    /**
+     * Returns the cart's lines, in the order they were added; counts as activity.
+     */
+    public Optional<Map<String, Integer>> find(String customerId) {
+        return Optional.ofNullable(touch(customerId, Cart::snapshot));
+    }
+
+    /**
+     * Drops the cart.
+     *
+     * @return true if there was one
+     */
+    public boolean clear(String customerId) {
+        Boolean cleared = touch(customerId, cart -> {
+            cart.lines = 0;
+            return true;
+        });
+        return cleared != null;
+    }
+
+    /**
+     * Applies a new quantity (computed from the current one, 0 if absent) to one line.
+     *
+     * @param quantity new quantity from the current one; negative = overflow
+     */
+    private Map<String, Integer> change(String customerId, String productId, ToIntFunction<Integer> quantity) {
+        if (customerId == null || customerId.isBlank()) {
+            throw Failure.validation("customerId", "customerId is empty").toException();
+        }
+        if (productId == null || productId.isBlank()) throw Failure.validation("productId", "productId is empty").toException();
+        if (orders.findProduct(productId).isEmpty()) {
+            throw Failure.notFound("productId", productId, "Product not found: ").toException();
+        }
+        long now = clock.getAsLong();
+        wheel.advance(now, this::expired);
+        while (true) {
+            Cart cart = carts.get(customerId);
+            if (cart == null) cart = open(customerId);
+            synchronized (cart) {
+                if (cart.closed) continue; // expired or evicted meanwhile: start a new one
+                try {
+                    int slot = cart.indexOf(productId);
+                    int qty = quantity.applyAsInt(slot < 0 ? 0 : cart.quantities[slot]);
+                    if (qty < 0) throw Failure.validation("qty", "Quantity too large for " + productId).toException();
+                    if (slot < 0 && cart.lines == maxLines) {
+                        throw Failure.validation("items", "Cart is full (" + maxLines + " products)").toException();
+                    }
+                    cart.put(slot, productId, qty);
+                    return cart.snapshot();
+                } finally {
+                    settle(cart, now); // a rejected first line leaves an empty cart: dropped here
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} on the customer's cart, if any, then reschedules it (or drops it if empty).
+     *
+     * @return the action's result, or null if there is no cart
+     */
+    private <R> R touch(String customerId, Function<Cart, R> action) {
+        long now = clock.getAsLong();
+        wheel.advance(now, this::expired);
+        Cart cart = customerId == null ? null : carts.get(customerId);
+        if (cart == null) return null;
+        synchronized (cart) {
+            if (cart.closed) return null;
+            try {
+                return action.apply(cart);
+            } finally {
+                settle(cart, now);
+            }
+        }
+    }
+
+    /**
+     * Creates the customer's cart (or returns the one another thread just created).
+     */
+    private Cart open(String customerId) {
+        if (orders.findCustomer(customerId).isEmpty()) {
+            throw Failure.notFound("customerId", customerId, "Customer not found: ").toException();
+        }
+        Cart fresh = new Cart(customerId, serials.incrementAndGet());
+        Cart existing = carts.putIfAbsent(customerId, fresh);
+        if (existing != null) return existing;
+        int over = carts.size() - maxCarts;
+        if (over > 0) wheel.pollEarliest(over, this::evicted);
+        return fresh;
+    }
+
+    /**
+     * After any access (caller holds the cart's monitor): restarts the idle timer, or drops an empty cart.
+     */
+    private void settle(Cart cart, long now) {
+        if (cart.closed) return;
+        if (cart.lines > 0) {
+            wheel.schedule(cart, now + idleTtlMillis);
+        } else {
+            close(cart);
+        }
+    }
+
+    private void close(Cart cart) {
+        cart.closed = true;
+        wheel.cancel(cart);
+        carts.remove(cart.customerId, cart);
+    }
+
+    private void expired(Cart cart) {
+        if (drop(cart)) expired.increment();
+    }
+
+    private void evicted(Cart cart) {
+        if (drop(cart)) evicted.increment();
+    }
+
+    /**
+     * Closes a cart the wheel let go of, unless it was touched (and rescheduled) since.
+     */
+    private boolean drop(Cart cart) {
+        synchronized (cart) {
+            if (cart.closed || cart.isScheduled()) return false;
+            close(cart);
+            return true;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Checkout
+    // ------------------------------------------------------------
+
+    /**
+     * Places the customer's cart as an order and drops the cart.
+     *
+     * @return the placed order
+     * @throws org.example.Error.ErrorHandling.NotFound if there is no cart (or a product is gone)
+     */
+    public Order checkout(String customerId) {
+        return tryCheckout(customerId).orElseThrow();
+    }
+
+    /**
+     * Like {@link #checkout} but reports a rejected order as a {@link Failure}; the cart is kept then,
+     * so it can be corrected and checked out again. If the cart changes while the order is being
+     * placed, only what was ordered is taken out of it; lines and quantities added meanwhile stay.
+     */
+    public Result<Order> tryCheckout(String customerId) {
+        wheel.advance(clock.getAsLong(), this::expired);
+        Cart cart = customerId == null ? null : carts.get(customerId);
+        Map<String, Integer> items = null;
+        long revision = 0;
+        if (cart != null) {
+            synchronized (cart) {
+                if (!cart.closed) {
+                    items = cart.snapshot();
+                    revision = cart.revision;
+                }
+            }
+        }
+        if (items == null) return Result.fail(Failure.notFound("customerId", customerId, "No cart for customer: "));
+
+        Result<Order> placed = orders.tryPlace("cart-" + cart.serial + "-" + revision, customerId, items);
+        if (placed.isOk()) {
+            synchronized (cart) {
+                if (!cart.closed) {
+                    if (cart.revision == revision) close(cart);
+                    else take(cart, items);
+                }
+            }
+            checkedOut.increment();
+        }
+        return placed;
+    }
+
+    /**
+     * Takes the ordered quantities out of a cart changed during checkout (caller holds its monitor).
+     */
+    private void take(Cart cart, Map<String, Integer> ordered) {
+        for (Map.Entry<String, Integer> line : ordered.entrySet()) {
+            int slot = cart.indexOf(line.getKey());
+            if (slot < 0) continue;
+            int left = cart.quantities[slot] - line.getValue();
+            if (left > 0) cart.put(slot, line.getKey(), left);
+            else cart.remove(line.getKey());
+        }
+        settle(cart, clock.getAsLong());
+    }
+
+    // ------------------------------------------------------------
+    // Introspection
+    // ------------------------------------------------------------
+
+    /**
+     * @return open carts
+     */
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * @return carts dropped after {@code idleTtl} without activity
+     */
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * @return carts dropped before their TTL because of {@code maxCarts}
+     */
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public long getCheckedOut() {
+        return checkedOut.sum();
+    }
+
+    public Duration getIdleTtl() {
+        return Duration.ofMillis(idleTtlMillis);
+    }
+
+    // ------------------------------------------------------------
+    // Cart
+    // ------------------------------------------------------------
+
+    /**
+     * One customer's cart: parallel arrays of product IDs and quantities in insertion order
+     * (a few dozen bytes plus the lines, no map per cart). Guarded by its own monitor.
+     */
+    private static final class Cart extends TimerWheel.Timeout {
+        final String customerId;
+        final long serial;      // unique per cart, for the checkout idempotency key
+        String[] productIds = NO_IDS;
+        int[] quantities = NO_QUANTITIES;
+        int lines;
+        long revision;          // bumped by every change to the lines, not by reads
+        boolean closed;         // expired, evicted, emptied or checked out; never reopened
+
+        Cart(String customerId, long serial) {
+            this.customerId = customerId;
+            this.serial = serial;
+        }
+
+        int indexOf(String productId) {
+            for (int i = 0; i < lines; i++) {
+                if (productIds[i].equals(productId)) return i;
+            }
+            return -1;
+        }
+
+        void put(int slot, String productId, int qty) {
+            revision++;
+            if (slot >= 0) {
+                quantities[slot] = qty;
+                return;
+            }
+            if (lines == productIds.length) {
+                int capacity = Math.max(4, lines * 2);
+                productIds = Arrays.copyOf(productIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+            }
+            productIds[lines] = productId;
+            quantities[lines] = qty;
+            lines++;
+        }
+
+        void remove(String productId) {
+            int slot = indexOf(productId);
+            if (slot < 0) return;
+            revision++;
+            System.arraycopy(productIds, slot + 1, productIds, slot, lines - slot - 1);
+            System.arraycopy(quantities, slot + 1, quantities, slot, lines - slot - 1);
+            productIds[--lines] = null;
+        }
+
+        Map<String, Integer> snapshot() {
+            Map<String, Integer> out = new LinkedHashMap<>(lines * 2);
+            for (int i = 0; i < lines; i++) out.put(productIds[i], quantities[i]);
+            return Collections.unmodifiableMap(out);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.Service;
+
+import org.example.Error.ErrorHandling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Retry helper for optimistic read-modify-write loops.
+ *
+ * <p>The attempt must re-read whatever it modifies: each retry starts from fresh state.
+ * Only {@link ErrorHandling.Conflict} triggers a retry; any other exception propagates at once.
+ * Between attempts the thread backs off for a short, jittered, exponentially growing pause
+ * so that colliding writers spread out instead of colliding again.
+ */
+public final class OptimisticRetry {
+
+    public static final int DEFAULT_ATTEMPTS = 5;
+
+    private OptimisticRetry() {
+    } // prevent instantiation
+
+    /**
+     * Runs {@code attempt} with {@link #DEFAULT_ATTEMPTS}.
+     */
+    public static <R> R run(Supplier<R> attempt) {
+        return run(DEFAULT_ATTEMPTS, attempt);
+    }
+
+    /**
+     * Runs {@code attempt} until it completes without a conflict.
+     *
+     * @param maxAttempts upper bound of attempts (>= 1)
+     * @param attempt     read-modify-write step
+     * @param <R>         result type
+     * @return the result of the first successful attempt
+     * @throws ErrorHandling.Conflict if every attempt conflicted
+     */
+    public static <R> R run(int maxAttempts, Supplier<R> attempt) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ErrorHandling.Conflict ex) {
+                if (i >= maxAttempts) throw ex;
+                long maxPause = 1_000L << Math.min(i, 10); // 2µs .. ~1ms
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(maxPause));
+            }
+        }
+    }
+}
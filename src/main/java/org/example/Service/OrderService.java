@@ -1,14 +1,32 @@
 package org.example.Service;
 
+import org.example.Analytics.CoPurchaseIndex;
 import org.example.Entity.Customer;
 import org.example.Entity.Order;
+import org.example.Entity.OrderStatus;
 import org.example.Entity.Product;
-import org.example.Error.ErrorHandling;
+import org.example.Events.ChangeType;
+import org.example.Error.Failure;
+import org.example.Error.Result;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Metrics.OperationMetrics;
+import org.example.Profiling.OrderPlacedEvent;
+import org.example.ImplRepo.Transaction;
 import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.OrderRepo;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Order-specific orchestration:
@@ -16,77 +34,487 @@ import java.util.Objects;
  *   <li>Validates customer existence before create/update.</li>
  *   <li>Expands product quantities, computes totals if needed.</li>
  *   <li>Provides convenience queries (e.g., by customer).</li>
+ *   <li>"Customers also bought" recommendations when a {@link CoPurchaseIndex} is attached.</li>
+ *   <li>{@link #tryPlace} reports rejected orders as a {@link Failure} for bulk and programmatic callers.</li>
+ *   <li>Placement with an idempotency key: a client retrying after a timeout gets the original order
+ *       back instead of a duplicate (see {@link IdempotencyCache}).</li>
+ *   <li>With transactions attached, placement and the customer cascade are atomic: an order is never
+ *       stored for a customer or product that was deleted (or repriced) while it was being placed.</li>
+ *   <li>Lifecycle transitions validated against {@link OrderStatus}, one order at a time or in bulk
+ *       ({@link #transitionAll}), plus lookups and counts by status.</li>
  * </ul>
  */
 
 public class OrderService extends ServiceCrud<Order, String> {
 
+    // Orders per repository call in transitionAll (and per set of locked stripes)
+    public static final int TRANSITION_BATCH = 4096;
+
     private final ServiceCrud<Product, String> productService;
     private final ServiceCrud<Customer, String> customerService;
+    private final OperationMetrics placeOp;
+    private final OperationMetrics transitionOp;
+    private final OperationMetrics transitionAllOp;
+
+    /**
+     * Optional co-purchase index (null = no recommendations).
+     */
+    private volatile CoPurchaseIndex coPurchases;
+
+    /**
+     * Results of keyed placements (see {@link #place(String, String, Map)}).
+     */
+    private volatile IdempotencyCache<Order> placements = new IdempotencyCache<>();
 
     public OrderService(CrudRepo<Order, String> orderRepo,
                         ServiceCrud<Product, String> productService,
                         ServiceCrud<Customer, String> customerService) {
-        super(orderRepo);
+        this(orderRepo, productService, customerService, MetricsRegistry.global());
+    }
+
+    public OrderService(CrudRepo<Order, String> orderRepo,
+                        ServiceCrud<Product, String> productService,
+                        ServiceCrud<Customer, String> customerService,
+                        MetricsRegistry metrics) {
+        super(orderRepo, "order", metrics);
         this.productService = Objects.requireNonNull(productService);
         this.customerService = Objects.requireNonNull(customerService);
+        this.placeOp = metrics.operation("service", "order", "place");
+        this.transitionOp = metrics.operation("service", "order", "transition");
+        this.transitionAllOp = metrics.operation("service", "order", "transitionAll");
+    }
+
+    /**
+     * Serve recommendations from the given index (it is fed separately, from the change stream).
+     *
+     * @param coPurchases index, or null to disable recommendations
+     */
+    public void useRecommendations(CoPurchaseIndex coPurchases) {
+        this.coPurchases = coPurchases;
+    }
+
+    /**
+     * Replace the cache that deduplicates keyed placements (e.g. with a different TTL or bound).
+     */
+    public void useIdempotency(IdempotencyCache<Order> placements) {
+        this.placements = Objects.requireNonNull(placements);
+    }
+
+    /**
+     * Products often bought together with the ones in {@code basket}; products that no longer
+     * exist are skipped.
+     *
+     * @param basket product IDs already chosen
+     * @param limit  maximum number of products
+     * @return recommended products, most co-purchased first (empty without an index)
+     */
+    public List<Product> recommendFor(Collection<String> basket, int limit) {
+        CoPurchaseIndex index = coPurchases;
+        if (index == null || basket.isEmpty()) return List.of();
+        List<Product> out = new ArrayList<>(limit);
+        for (CoPurchaseIndex.Recommendation r : index.forBasket(basket, limit)) {
+            productService.findOptionalById(r.productId()).ifPresent(out::add);
+        }
+        return out;
     }
 
     /**
      * Place new order from customerId + productId->qty
      */
     public Order place(String customerId, Map<String, Integer> items) {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Result<Order> result;
+        try {
+            result = inTransaction(() -> doPlace(customerId, items));
+        } catch (RuntimeException ex) {
+            failed(placeOp, start, ex);
+            throw ex;
+        }
+        Order o = recorded(placeOp, start, result).orElseThrow();
+        placed(event, o, customerId, items);
+        return o;
+    }
+
+    /**
+     * Like {@link #place} but reports a rejected order (unknown customer/product, bad quantity, ...)
+     * as a {@link Failure} instead of throwing.
+     */
+    public Result<Order> tryPlace(String customerId, Map<String, Integer> items) {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Result<Order> result;
+        try {
+            result = recorded(placeOp, start, inTransaction(() -> doPlace(customerId, items)));
+        } catch (RuntimeException ex) {
+            return rejected(placeOp, start, ex);
+        }
+        if (result.isOk()) placed(event, result.get(), customerId, items);
+        return result;
+    }
+
+    /**
+     * Like {@link #place(String, Map)}, deduplicated by a client idempotency key: repeating a call
+     * with the same key (e.g. a retry after a timeout) returns the order placed by the first call
+     * instead of placing another one, as long as the key is remembered.
+     *
+     * @param idempotencyKey client-chosen key, unique per intended order; null = no deduplication
+     * @return the placed order (for a repeated key: the stored, read-only version of the original)
+     * @throws org.example.Error.ErrorHandling.Conflict if the key was used for a different request
+     */
+    public Order place(String idempotencyKey, String customerId, Map<String, Integer> items) {
+        if (idempotencyKey == null) return place(customerId, items);
+        return tryPlace(idempotencyKey, customerId, items).orElseThrow();
+    }
+
+    /**
+     * Like {@link #place(String, String, Map)} but reports a rejected order as a {@link Failure}.
+     * Rejections are not remembered, so a corrected retry with the same key is placed normally.
+     */
+    public Result<Order> tryPlace(String idempotencyKey, String customerId, Map<String, Integer> items) {
+        Placement request = new Placement(customerId, items == null ? null : new HashMap<>(items));
+        return placements.execute(idempotencyKey, request, () -> {
+            Result<Order> placed = tryPlace(customerId, items);
+            if (!placed.isOk()) return placed;
+            // remember the shared stored version, not the caller's mutable instance
+            return Result.ok(findOptionalById(placed.get().getId()).orElse(placed.get()));
+        });
+    }
+
+    /**
+     * What a keyed placement asked for (its own copy of the items), kept with the cached result.
+     */
+    private record Placement(String customerId, Map<String, Integer> items) {
+    }
+
+    private static void placed(OrderPlacedEvent event, Order o, String customerId, Map<String, Integer> items) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.orderId = o.getId();
+            event.customerId = customerId;
+            event.lineCount = items.size();
+            event.itemCount = o.getProducts().size();
+            event.total = o.getTotal();
+            event.commit();
+        }
+    }
+
+    private Result<Order> doPlace(String customerId, Map<String, Integer> items) {
         if (customerId == null || customerId.isBlank())
-            throw new ErrorHandling.Validation("customerId is empty");
+            return Result.fail(Failure.validation("customerId", "customerId is empty"));
         // ensure customer exists
-        customerService.findOptionalById(customerId)
-                .orElseThrow(() -> new ErrorHandling.NotFound("Customer not found: " + customerId));
+        if (customerService.findOptionalById(customerId).isEmpty())
+            return Result.fail(Failure.notFound("customerId", customerId, "Customer not found: "));
 
         if (items == null || items.isEmpty())
-            throw new ErrorHandling.Validation("Order has no items");
+            return Result.fail(Failure.validation("items", "Order has no items"));
+        return createFrom(customerId, items, id -> productService.findOptionalById(id).orElse(null));
+    }
 
+    /**
+     * Expands {@code items} with the given product lookup (null = not found) and stores the order.
+     */
+    private Result<Order> createFrom(String customerId, Map<String, Integer> items, Function<String, Product> products) {
         // expand to product list
         java.util.ArrayList<Product> productList = new java.util.ArrayList<>();
         for (var e : items.entrySet()) {
-            Product p = productService.findOptionalById(e.getKey())
-                    .orElseThrow(() -> new ErrorHandling.NotFound("Product not found: " + e.getKey()));
+            Product p = products.apply(e.getKey());
+            if (p == null) return Result.fail(Failure.notFound("productId", e.getKey(), "Product not found: "));
             int qty = e.getValue() == null ? 0 : e.getValue();
-            if (qty <= 0) throw new ErrorHandling.Validation("Invalid qty for " + p.getId() + ": " + qty);
+            if (qty <= 0) return Result.fail(Failure.validation("qty", "Invalid qty for " + p.getId() + ": " + qty));
             for (int i = 0; i < qty; i++) productList.add(p);
         }
-        if (productList.isEmpty()) throw new ErrorHandling.Validation("Order has no items.");
+        if (productList.isEmpty()) return Result.fail(Failure.validation("items", "Order has no items."));
 
         double total = productList.stream().mapToDouble(Product::getPrice).sum();
         Order o = new Order(customerId, total, productList);
-        create(o); // uses validateOnCreate below
-        return o;
+        return tryCreate(o); // uses checkOnCreate below
+    }
+
+    // -------------------- Asynchronous placement (see AsyncOrderService) --------------------
+
+    /**
+     * Argument checks of a placement that need no lookup, so an async request fails before forking any.
+     *
+     * @return the first problem, or null
+     */
+    static Failure checkPlacement(String customerId, Map<String, Integer> items) {
+        if (customerId == null || customerId.isBlank()) return Failure.validation("customerId", "customerId is empty");
+        if (items == null || items.isEmpty()) return Failure.validation("items", "Order has no items");
+        for (var e : items.entrySet()) {
+            int qty = e.getValue() == null ? 0 : e.getValue();
+            if (qty <= 0) return Failure.validation("qty", "Invalid qty for " + e.getKey() + ": " + qty);
+        }
+        return null;
+    }
+
+    Optional<Customer> findCustomer(String customerId) {
+        return customerService.findOptionalById(customerId);
+    }
+
+    Optional<Product> findProduct(String productId) {
+        return productService.findOptionalById(productId);
+    }
+
+    /**
+     * Stores an order whose customer and products were already fetched (concurrently, outside the
+     * transaction). With transactions attached those reads join the commit validation as if made
+     * inside it; if validation fails, the retried attempt re-reads everything like {@link #tryPlace}.
+     * Timed and recorded as a placement.
+     *
+     * @param customer the customer as read
+     * @param products every product of {@code items}, as read
+     */
+    Result<Order> tryPlaceResolved(String customerId, Map<String, Integer> items,
+                                   Customer customer, Map<String, Product> products) {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] attempts = {0};
+        Result<Order> result;
+        try {
+            result = recorded(placeOp, start, inTransaction(() -> {
+                if (attempts[0]++ > 0) return doPlace(customerId, items); // pre-read values are stale
+                customerService.assumeRead(customerId, customer);
+                products.forEach(productService::assumeRead);
+                return createFrom(customerId, items, products::get);
+            }));
+        } catch (RuntimeException ex) {
+            return rejected(placeOp, start, ex);
+        }
+        if (result.isOk()) placed(event, result.get(), customerId, items);
+        return result;
+    }
+
+    /**
+     * Orders of one customer (uses the repository index when it is an {@link OrderRepo}).
+     */
+    public List<Order> findByCustomer(String customerId) {
+        if (crudRepo instanceof OrderRepo orders) return orders.findByCustomer(customerId);
+        return getAll().stream().filter(o -> Objects.equals(o.getCustomerId(), customerId)).toList();
+    }
+
+    /**
+     * Orders created in {@code [fromMillis, toMillis)}, oldest first (uses the repository's time
+     * index when it is an {@link OrderRepo}).
+     */
+    public List<Order> findCreatedBetween(long fromMillis, long toMillis) {
+        if (crudRepo instanceof OrderRepo orders) return orders.findCreatedBetween(fromMillis, toMillis);
+        return getAll().stream()
+                .filter(o -> o.getCreatedAt() >= fromMillis && o.getCreatedAt() < toMillis)
+                .sorted(Comparator.comparingLong(Order::getCreatedAt))
+                .toList();
+    }
+
+    /**
+     * Number of orders created in {@code [fromMillis, toMillis)}.
+     */
+    public long countCreatedBetween(long fromMillis, long toMillis) {
+        if (crudRepo instanceof OrderRepo orders) return orders.countCreatedBetween(fromMillis, toMillis);
+        return findCreatedBetween(fromMillis, toMillis).size();
+    }
+
+    /**
+     * Orders in one status (uses the repository's status index when it is an {@link OrderRepo}).
+     */
+    public List<Order> findByStatus(OrderStatus status) {
+        if (crudRepo instanceof OrderRepo orders) return orders.findByStatus(status);
+        return getAll().stream().filter(o -> o.getStatus() == status).toList();
+    }
+
+    /**
+     * Number of orders in one status.
+     */
+    public long countByStatus(OrderStatus status) {
+        if (crudRepo instanceof OrderRepo orders) return orders.countByStatus(status);
+        return findByStatus(status).size();
+    }
+
+    // ------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------
+
+    /**
+     * Moves one order to {@code to}, if its current status allows it (see {@link OrderStatus}).
+     *
+     * @return the updated order
+     * @throws org.example.Error.ErrorHandling.NotFound if there is no such order
+     * @throws org.example.Error.ErrorHandling.Conflict if the current status does not allow the move
+     */
+    public Order transition(String orderId, OrderStatus to) {
+        return tryTransition(orderId, to).orElseThrow();
+    }
+
+    /**
+     * Like {@link #transition} but reports a rejected move as a {@link Failure}.
+     */
+    public Result<Order> tryTransition(String orderId, OrderStatus to) {
+        long start = System.nanoTime();
+        try {
+            return recorded(transitionOp, start, OptimisticRetry.run(() -> inTransaction(() -> {
+                Order current = findOptionalById(orderId).orElse(null);
+                Failure invalid = checkTransition(orderId, current, to);
+                if (invalid != null) return Result.fail(invalid);
+                Order next = current.copy();
+                next.setStatus(to);
+                update(next);
+                return Result.ok(next);
+            })));
+        } catch (RuntimeException ex) {
+            return rejected(transitionOp, start, ex);
+        }
+    }
+
+    /**
+     * Moves many orders to {@code to} at once (e.g. "mark these 100k orders shipped").
+     *
+     * <ul>
+     *   <li>With an {@link OrderRepo}, every {@link #TRANSITION_BATCH} orders are one repository call
+     *       that checks and moves them and updates the status index in one pass, instead of one
+     *       validated update per order. Only the status changes, so the other order checks are not
+     *       repeated.</li>
+     *   <li>Each order moves atomically, and with transactions attached no transaction touching it
+     *       commits in between; the call as a whole is not one transaction.</li>
+     *   <li>Orders the batch left as they were (missing, in a status that does not allow the move,
+     *       or changed concurrently) go through {@link #tryTransition}, which moves them or reports why not.</li>
+     *   <li>Every move is published to the change stream.</li>
+     * </ul>
+     *
+     * @param orderIds orders to move (duplicates count once)
+     * @return how many orders moved, and a failure for each one that did not
+     * @throws IllegalStateException if called inside a transaction
+     */
+    public TransitionReport transitionAll(Collection<String> orderIds, OrderStatus to) {
+        long start = System.nanoTime();
+        Set<String> ids = new LinkedHashSet<>(orderIds);
+        List<Failure> rejected = new ArrayList<>();
+        int changed = 0;
+        if (to == null || !(crudRepo instanceof OrderRepo orders)) {
+            for (String id : ids) {
+                Result<Order> moved = tryTransition(id, to);
+                if (moved.isOk()) changed++;
+                else rejected.add(moved.failure());
+            }
+        } else {
+            Set<OrderStatus> from = OrderStatus.allowedFrom(to);
+            List<String> batch = new ArrayList<>(Math.min(ids.size(), TRANSITION_BATCH));
+            for (String id : ids) {
+                if (id != null) batch.add(id);
+                else rejected.add(checkTransition(null, null, to));
+                if (batch.size() == TRANSITION_BATCH) {
+                    changed += transitionBatch(orders, batch, from, to, rejected);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) changed += transitionBatch(orders, batch, from, to, rejected);
+        }
+        transitionAllOp.success(System.nanoTime() - start);
+        return new TransitionReport(to, ids.size(), changed, List.copyOf(rejected));
+    }
+
+    private int transitionBatch(OrderRepo orders, List<String> batch, Set<OrderStatus> from, OrderStatus to,
+                                List<Failure> rejected) {
+        List<Order> pairs = new ArrayList<>();
+        int changed = exclusive(batch, () -> orders.transitionAll(batch, from, to, (before, after) -> {
+            pairs.add(before);
+            pairs.add(after);
+        }));
+        Set<String> moved = HashSet.newHashSet(changed);
+        for (int i = 0; i < pairs.size(); i += 2) {
+            Order after = pairs.get(i + 1);
+            moved.add(after.getId());
+            publishChange(ChangeType.UPDATE, after.getId(), pairs.get(i), after);
+        }
+        if (moved.size() == batch.size()) return changed;
+        for (String id : batch) {
+            if (moved.contains(id)) continue;
+            Result<Order> retried = tryTransition(id, to);
+            if (retried.isOk()) changed++;
+            else rejected.add(retried.failure());
+        }
+        return changed;
+    }
+
+    /**
+     * @return why {@code current} cannot move to {@code to}, or null if it can
+     */
+    private static Failure checkTransition(String orderId, Order current, OrderStatus to) {
+        if (to == null) return Failure.validation("status", "Target status must not be null");
+        if (current == null) return Failure.notFound("orderId", orderId, "Order not found: ");
+        OrderStatus status = current.getStatus();
+        if (status == null || !status.canTransitionTo(to)) {
+            return Failure.of(Failure.Code.CONFLICT, "status", orderId,
+                    "Order cannot move from " + status + " to " + to + ": ");
+        }
+        return null;
+    }
+
+    /**
+     * Outcome of {@link #transitionAll}.
+     *
+     * @param requested distinct order IDs asked for
+     * @param changed   orders now in status {@code to}
+     * @param rejected  one failure per order left as it was
+     */
+    public record TransitionReport(OrderStatus to, int requested, int changed, List<Failure> rejected) {
+    }
+
+    /**
+     * Deletes a customer together with all of their orders, in one transaction.
+     * An order placed concurrently for the same customer either commits first (and is deleted here)
+     * or fails with NotFound afterwards.
+     *
+     * @param customerId customer to delete
+     * @return number of orders deleted
+     */
+    public int deleteCustomerCascade(String customerId) {
+        return inTransaction(() -> {
+            customerService.validateExist(customerId);
+            Transaction tx = Transaction.current();
+            List<String> orderIds = tx == null
+                    ? orderIdsOf(customerId)
+                    : tx.query(customerService.crudRepo, customerId, () -> orderIdsOf(customerId));
+            orderIds.forEach(this::delete);
+            customerService.delete(customerId);
+            return orderIds.size();
+        });
+    }
+
+    private List<String> orderIdsOf(String customerId) {
+        return findByCustomer(customerId).stream().map(Order::getId).sorted().toList();
     }
 
     @Override
-    protected void validateOnCreate(Order o) {
-        super.validateOnCreate(o); // checks id duplicate/null
+    protected Failure checkOnCreate(Order o) {
+        Failure failure = super.checkOnCreate(o); // checks id duplicate/null
+        if (failure != null) return failure;
         // domain checks:
-        ensureCustomerExists(o.getCustomerId());
-        ensureProductsNotEmpty(o.getProducts());
+        failure = checkCustomerExists(o.getCustomerId());
+        return failure != null ? failure : checkProductsNotEmpty(o.getProducts());
     }
 
     @Override
-    protected void validateOnUpdate(Order o) {
-        super.validateOnUpdate(o); // checks id exists
+    protected Failure checkOnUpdate(Order o) {
+        Failure failure = super.checkOnUpdate(o); // checks id exists
+        if (failure != null) return failure;
         // domain checks:
-        ensureCustomerExists(o.getCustomerId());
-        ensureProductsNotEmpty(o.getProducts());
+        failure = checkCustomerExists(o.getCustomerId());
+        return failure != null ? failure : checkProductsNotEmpty(o.getProducts());
     }
 
-    private void ensureCustomerExists(String customerId) {
+    private Failure checkCustomerExists(String customerId) {
         if (customerId == null || customerId.isBlank())
-            throw new ErrorHandling.Validation("customerId must not be empty");
-        customerService.findOptionalById(customerId)
-                .orElseThrow(() -> new ErrorHandling.NotFound("Customer not found: " + customerId));
+            return Failure.validation("customerId", "customerId must not be empty");
+        if (customerService.findOptionalById(customerId).isEmpty())
+            return Failure.notFound("customerId", customerId, "Customer not found: ");
+        return null;
     }
 
-    private void ensureProductsNotEmpty(List<Product> products) {
+    private Failure checkProductsNotEmpty(List<Product> products) {
         if (products == null || products.isEmpty())
-            throw new ErrorHandling.Validation("Order must contain at least one product");
+            return Failure.validation("products", "Order must contain at least one product");
+        return null;
     }
 }
@@ -1,12 +1,33 @@
 package org.example.Service;
 
 import org.example.Error.ErrorHandling;
+import org.example.Error.Failure;
+import org.example.Error.Result;
+import org.example.Events.ChangeRingBuffer;
+import org.example.Events.ChangeType;
+import org.example.ImplRepo.Transaction;
+import org.example.ImplRepo.TransactionManager;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Metrics.OperationMetrics;
+import org.example.Profiling.RepositoryOpEvent;
+import org.example.Profiling.ValidationFailedEvent;
+import org.example.Query.Plan;
+import org.example.Query.Query;
+import org.example.Query.QueryPlanner;
 import org.example.Reposotory.CrudRepo;
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Snapshot;
+import org.example.Reposotory.SnapshotRepo;
+import org.example.Reposotory.Versioned;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Minimal service wrapper over a {@code CrudRepo<T, ID>} repository.
@@ -15,6 +36,14 @@ import java.util.Optional;
  * <ul>
  *   <li>Provide Optional-based lookups.</li>
  *   <li>Centralize basic validation and exceptions for CRUD.</li>
+ *   <li>Offer a non-throwing variant of every command ({@code tryCreate}, ...) returning a {@link Result};
+ *       validation itself reports {@link Failure} values, and the throwing commands convert them.</li>
+ *   <li>Record latency, throughput and errors per operation (service and repository layer).</li>
+ *   <li>Emit JFR events for repository calls and validation failures.</li>
+ *   <li>Publish every successful mutation to an optional change stream.</li>
+ *   <li>Run commands as atomic transactions when a {@link TransactionManager} is attached;
+ *       reads and writes made while a transaction is active on the thread join it.</li>
+ *   <li>Plan ad-hoc {@link Query queries} over the repository's indexes ({@link #query}).</li>
  * </ul>
  *
  * @param <T>  entity type
@@ -25,8 +54,101 @@ public class ServiceCrud<T extends Identifiable<ID>, ID> {
 
     protected final CrudRepo<T, ID> crudRepo;
 
+    /**
+     * Entity label used in metrics (e.g. "customer").
+     */
+    protected final String entityName;
+    protected final MetricsRegistry metrics;
+
+    // Service-layer metrics (looked up once, recorded lock-free)
+    private final OperationMetrics createOp;
+    private final OperationMetrics updateOp;
+    private final OperationMetrics deleteOp;
+    private final OperationMetrics findOp;
+
+    // Repository-layer metrics
+    private final OperationMetrics repoCreateOp;
+    private final OperationMetrics repoUpdateOp;
+    private final OperationMetrics repoDeleteOp;
+    private final OperationMetrics repoFindOp;
+    private final OperationMetrics repoFindAllOp;
+
+    /**
+     * Optional change-data-capture stream (null = not published).
+     */
+    private volatile ChangeRingBuffer changes;
+
+    /**
+     * Optional transaction manager (null = commands write straight to the repository).
+     */
+    private volatile TransactionManager transactions;
+
+    /**
+     * Optional admission check for creates (null = every valid create is admitted).
+     */
+    private volatile Function<? super T, Failure> createAdmission;
+
+    /**
+     * Plans {@link #query} calls: primary key plus the repository's secondary indexes.
+     */
+    private final QueryPlanner<T> planner;
+
     public ServiceCrud(CrudRepo<T, ID> crudRepo) {
+        this(crudRepo, "entity", MetricsRegistry.global());
+    }
+
+    /**
+     * @param crudRepo   backing repository
+     * @param entityName metrics label for this entity type (e.g. "customer")
+     * @param metrics    registry receiving latency/throughput/error metrics
+     */
+    public ServiceCrud(CrudRepo<T, ID> crudRepo, String entityName, MetricsRegistry metrics) {
         this.crudRepo = Objects.requireNonNull(crudRepo, "crudRepo must not be null");
+        this.entityName = Objects.requireNonNull(entityName, "entityName must not be null");
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+
+        this.createOp = metrics.operation("service", entityName, "create");
+        this.updateOp = metrics.operation("service", entityName, "update");
+        this.deleteOp = metrics.operation("service", entityName, "delete");
+        this.findOp = metrics.operation("service", entityName, "find");
+
+        this.repoCreateOp = metrics.operation("repository", entityName, "create");
+        this.repoUpdateOp = metrics.operation("repository", entityName, "update");
+        this.repoDeleteOp = metrics.operation("repository", entityName, "delete");
+        this.repoFindOp = metrics.operation("repository", entityName, "findById");
+        this.repoFindAllOp = metrics.operation("repository", entityName, "findAll");
+
+        metrics.repositorySize(entityName, crudRepo::count);
+        this.planner = QueryPlanner.over(crudRepo);
+    }
+
+    /**
+     * Publish every successful create/update/delete of this service to the given ring buffer.
+     *
+     * @param changes target ring buffer, or null to stop publishing
+     */
+    public void publishChangesTo(ChangeRingBuffer changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Run every command of this service as a transaction of the given manager.
+     *
+     * @param transactions manager shared by the services whose repositories must commit together
+     */
+    public void useTransactions(TransactionManager transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Checks every create (including order placements) after the regular validation, e.g. against
+     * a tenant's quota.
+     *
+     * @param admission returns the failure that rejects the entity, or null to let it in;
+     *                  null removes the check
+     */
+    public void admitCreates(Function<? super T, Failure> admission) {
+        this.createAdmission = admission;
     }
 
     // -------------------- Commands --------------------
@@ -35,27 +157,160 @@ public class ServiceCrud<T extends Identifiable<ID>, ID> {
      * Create a new entity (fails if id is null or already exists).
      */
     public void create(T entity) {
-        validateOnCreate(entity);
-        crudRepo.create(entity);
-        afterCreate(entity);
+        long start = System.nanoTime();
+        Result<T> result;
+        try {
+            result = doCreate(entity);
+        } catch (RuntimeException ex) {
+            failed(createOp, start, ex);
+            throw ex;
+        }
+        recorded(createOp, start, result).orElseThrow();
+    }
+
+    /**
+     * Like {@link #create} but reports rejections as a {@link Failure} instead of throwing.
+     * Inside a caller's transaction a failure does not abort it; the caller decides.
+     */
+    public Result<T> tryCreate(T entity) {
+        long start = System.nanoTime();
+        try {
+            return recorded(createOp, start, doCreate(entity));
+        } catch (RuntimeException ex) {
+            return rejected(createOp, start, ex);
+        }
+    }
+
+    /**
+     * Bulk create without exception cost for rejected rows.
+     *
+     * @param entities rows to create, each in its own transaction
+     * @param rejected receives each rejected row with its failure
+     * @return number of entities created
+     */
+    public int tryCreateAll(Iterable<? extends T> entities, BiConsumer<? super T, Failure> rejected) {
+        int created = 0;
+        for (T entity : entities) {
+            Result<T> result = tryCreate(entity);
+            if (result.isOk()) created++;
+            else rejected.accept(entity, result.failure());
+        }
+        return created;
+    }
+
+    private Result<T> doCreate(T entity) {
+        return inTransaction(() -> {
+            Failure failure = checkOnCreate(entity);
+            Function<? super T, Failure> admission = createAdmission;
+            if (failure == null && admission != null) failure = admission.apply(entity);
+            if (failure != null) return Result.fail(failure);
+            T stored = repoCreate(entity);
+            onCommitted(entity.getId(), stored, false, committed -> {
+                afterCreate(committed);
+                publishChange(ChangeType.CREATE, committed.getId(), null, committed);
+            });
+            return Result.ok(entity);
+        });
     }
 
     /**
      * Update an existing entity (fails if id is null or not found).
      */
     public void update(T entity) {
-        validateOnUpdate(entity);
-        crudRepo.update(entity);
-        afterUpdate(entity);
+        long start = System.nanoTime();
+        Result<T> result;
+        try {
+            result = doUpdate(entity);
+        } catch (RuntimeException ex) {
+            failed(updateOp, start, ex);
+            throw ex;
+        }
+        recorded(updateOp, start, result).orElseThrow();
+    }
+
+    /**
+     * Like {@link #update} but reports rejections (including a stale version) as a {@link Failure}.
+     */
+    public Result<T> tryUpdate(T entity) {
+        long start = System.nanoTime();
+        try {
+            return recorded(updateOp, start, doUpdate(entity));
+        } catch (RuntimeException ex) {
+            return rejected(updateOp, start, ex);
+        }
+    }
+
+    private Result<T> doUpdate(T entity) {
+        return inTransaction(() -> {
+            Failure failure = checkOnUpdate(entity);
+            if (failure != null) return Result.fail(failure);
+            T before = changes == null ? null : crudRepo.findById(entity.getId()).orElse(null);
+            T stored = repoUpdate(entity);
+            onCommitted(entity.getId(), stored, false, committed -> {
+                afterUpdate(committed);
+                publishChange(ChangeType.UPDATE, committed.getId(), before, committed);
+            });
+            return Result.ok(entity);
+        });
+    }
+
+    /**
+     * Read-modify-write with optimistic retries: loads the current version, applies
+     * {@code editor} to a copy and updates; on a version conflict it starts over from a fresh read.
+     *
+     * @param id     entity id
+     * @param editor changes to apply (may run more than once, so keep it free of side effects)
+     * @return the updated entity (its version equals the stored one)
+     * @throws ErrorHandling.Conflict if every attempt conflicted
+     */
+    public T modify(ID id, Consumer<T> editor) {
+        Objects.requireNonNull(editor, "editor must not be null");
+        return OptimisticRetry.run(() -> {
+            T copy = Versioned.editableCopyOf(findByIdOrThrow(id));
+            editor.accept(copy);
+            update(copy);
+            return copy;
+        });
     }
 
     /**
      * Delete by id (fails if not found).
      */
     public void delete(ID id) {
-        validateExist(id);
-        crudRepo.delete(id);
-        afterDelete(id);
+        long start = System.nanoTime();
+        Result<ID> result;
+        try {
+            result = doDelete(id);
+        } catch (RuntimeException ex) {
+            failed(deleteOp, start, ex);
+            throw ex;
+        }
+        recorded(deleteOp, start, result).orElseThrow();
+    }
+
+    /**
+     * Like {@link #delete} but reports a missing entity as a {@link Failure}.
+     */
+    public Result<ID> tryDelete(ID id) {
+        long start = System.nanoTime();
+        try {
+            return recorded(deleteOp, start, doDelete(id));
+        } catch (RuntimeException ex) {
+            return rejected(deleteOp, start, ex);
+        }
+    }
+
+    private Result<ID> doDelete(ID id) {
+        return inTransaction(() -> {
+            Failure failure = checkExist(id);
+            if (failure != null) return Result.fail(failure);
+            T removed = repoDelete(id);
+            onCommitted(id, removed, true, before -> {
+                afterDelete(id);
+                publishChange(ChangeType.DELETE, id, before, null);
+            });
+            return Result.ok(id);
+        });
     }
 
     // -------------------- Queries --------------------
@@ -64,58 +319,410 @@ public class ServiceCrud<T extends Identifiable<ID>, ID> {
      * Return all entities (immutable snapshot recommended by repo).
      */
     public List<T> getAll() {
-        return crudRepo.findAll();  // NOTE: your CrudRepo should expose getAll(), not findAll()
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            List<T> all = crudRepo.findAll();  // NOTE: your CrudRepo should expose getAll(), not findAll()
+            repoFindAllOp.success(System.nanoTime() - start);
+            commit(event, repoFindAllOp, null, true);
+            return all;
+        } catch (RuntimeException ex) {
+            repoFindAllOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoFindAllOp, null, false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Return one page of entities (for paginated listings); timed like {@link #getAll()}.
+     */
+    public List<T> getPage(int offset, int limit) {
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            List<T> page = crudRepo.findPage(offset, limit);
+            repoFindAllOp.success(System.nanoTime() - start);
+            commit(event, repoFindAllOp, null, true);
+            return page;
+        } catch (RuntimeException ex) {
+            repoFindAllOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoFindAllOp, null, false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Plan a query over this service's repository; run it with {@link Plan#list()}, {@link Plan#count()}, etc.
+     */
+    public Plan<T> query(Query<T> query) {
+        return planner.plan(query);
+    }
+
+    /**
+     * Planner behind {@link #query}, e.g. to register an extra {@link org.example.Query.Index}.
+     */
+    public QueryPlanner<T> getPlanner() {
+        return planner;
+    }
+
+    /**
+     * Number of stored entities.
+     */
+    public long count() {
+        return crudRepo.count();
     }
 
     /**
      * Return Optional entity (empty if not found); does not throw.
      */
     public Optional<T> findOptionalById(ID id) {
-        requireIdNotNull(id);
-        return crudRepo.findById(id);
+        long start = System.nanoTime();
+        try {
+            requireIdNotNull(id);
+            Optional<T> found = repoFindById(id);
+            findOp.success(System.nanoTime() - start);
+            return found;
+        } catch (RuntimeException ex) {
+            failed(findOp, start, ex);
+            throw ex;
+        }
     }
 
     /**
      * Return entity or throw Safe.NotFound if missing.
      */
     public T findByIdOrThrow(ID id) {
+        long start = System.nanoTime();
+        try {
+            requireIdNotNull(id);
+            T found = repoFindById(id)
+                    .orElseThrow(() -> new ErrorHandling.NotFound("Entity not found: id=" + id));
+            findOp.success(System.nanoTime() - start);
+            return found;
+        } catch (RuntimeException ex) {
+            failed(findOp, start, ex);
+            throw ex;
+        }
+    }
+
+    // -------------------- Snapshot (MVCC) queries --------------------
+
+    /**
+     * Opens a consistent read view; it spans every repository sharing this repository's clock.
+     *
+     * @return snapshot to pass to {@link #getAll(Snapshot)} / {@link #findOptionalById(Object, Snapshot)}
+     * @throws UnsupportedOperationException if the repository has no snapshot support
+     */
+    public Snapshot openSnapshot() {
+        return snapshotRepo().openSnapshot();
+    }
+
+    /**
+     * Return all entities as of the snapshot; writers are not blocked while the caller iterates.
+     */
+    public List<T> getAll(Snapshot snapshot) {
+        return snapshotRepo().findAll(Objects.requireNonNull(snapshot, "snapshot must not be null"));
+    }
+
+    /**
+     * Return Optional entity as of the snapshot.
+     */
+    public Optional<T> findOptionalById(ID id, Snapshot snapshot) {
         requireIdNotNull(id);
-        return crudRepo.findById(id)
-                .orElseThrow(() -> new ErrorHandling.NotFound("Entity not found: id=" + id));
+        return snapshotRepo().findById(id, Objects.requireNonNull(snapshot, "snapshot must not be null"));
+    }
+
+    private SnapshotRepo<T, ID> snapshotRepo() {
+        if (crudRepo instanceof SnapshotRepo<T, ID> repo) return repo;
+        throw new UnsupportedOperationException(crudRepo.getClass().getSimpleName() + " does not support snapshots");
+    }
+
+    // -------------------- Instrumented repository access --------------------
+
+    /**
+     * Repository lookup recorded under the repository-layer metrics and as a JFR
+     * {@link RepositoryOpEvent}.
+     */
+    protected Optional<T> repoFindById(ID id) {
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Transaction tx = Transaction.current();
+            Optional<T> found = tx == null ? crudRepo.findById(id) : tx.read(crudRepo, id);
+            repoFindOp.success(System.nanoTime() - start);
+            commit(event, repoFindOp, id, true);
+            return found;
+        } catch (RuntimeException ex) {
+            repoFindOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoFindOp, id, false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Joins a read made outside the active transaction (if any) to it; see {@link Transaction#assumeRead}.
+     *
+     * @param observed the instance returned by {@link #findOptionalById} (null if it was absent)
+     */
+    void assumeRead(ID id, T observed) {
+        Transaction tx = Transaction.current();
+        if (tx != null) tx.assumeRead(crudRepo, id, observed);
+    }
+
+    /**
+     * @return the stored instance, or null inside a transaction (see {@link #onCommitted})
+     */
+    private T repoCreate(T entity) {
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            T stored = null;
+            Transaction tx = Transaction.current();
+            if (tx == null) stored = crudRepo.create(entity);
+            else tx.create(crudRepo, entity);
+            repoCreateOp.success(System.nanoTime() - start);
+            commit(event, repoCreateOp, entity.getId(), true);
+            return stored;
+        } catch (RuntimeException ex) {
+            repoCreateOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoCreateOp, entity.getId(), false);
+            throw raced(ex, entity.getId(), true);
+        }
+    }
+
+    /**
+     * @return the stored instance, or null inside a transaction (see {@link #onCommitted})
+     */
+    private T repoUpdate(T entity) {
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            T stored = null;
+            Transaction tx = Transaction.current();
+            if (tx == null) stored = crudRepo.update(entity);
+            else tx.update(crudRepo, entity);
+            repoUpdateOp.success(System.nanoTime() - start);
+            commit(event, repoUpdateOp, entity.getId(), true);
+            return stored;
+        } catch (RuntimeException ex) {
+            repoUpdateOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoUpdateOp, entity.getId(), false);
+            throw raced(ex, entity.getId(), false);
+        }
+    }
+
+    /**
+     * @return the removed value, or null inside a transaction (see {@link #onCommitted})
+     */
+    private T repoDelete(ID id) {
+        RepositoryOpEvent event = new RepositoryOpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            T removed = null;
+            Transaction tx = Transaction.current();
+            if (tx == null) removed = crudRepo.delete(id);
+            else tx.delete(crudRepo, id);
+            repoDeleteOp.success(System.nanoTime() - start);
+            commit(event, repoDeleteOp, id, true);
+            return removed;
+        } catch (RuntimeException ex) {
+            repoDeleteOp.failure(System.nanoTime() - start, ex);
+            commit(event, repoDeleteOp, id, false);
+            throw raced(ex, id, false);
+        }
+    }
+
+    /**
+     * Repositories report a lost race (the id was created or removed since it was checked) with an
+     * {@link IllegalArgumentException}; turns it into the {@link ErrorHandling} type the try* methods
+     * convert, after confirming the race with a fresh read.
+     *
+     * @param exists whether the race is a duplicate (true) or a missing entity (false)
+     */
+    private RuntimeException raced(RuntimeException ex, ID id, boolean exists) {
+        if (!(ex instanceof IllegalArgumentException) || repoFindById(id).isPresent() != exists) return ex;
+        return exists
+                ? new ErrorHandling.Duplicate("Entity already exists: id=" + id, ex)
+                : new ErrorHandling.NotFound("Entity not found: id=" + id, ex);
+    }
+
+    // -------------------- Transactions --------------------
+
+    /**
+     * Runs {@code body} in a transaction of the attached manager (joining one already active),
+     * or directly when no manager is attached.
+     */
+    protected <R> R inTransaction(Supplier<R> body) {
+        TransactionManager tm = transactions;
+        return tm == null || Transaction.current() != null ? body.get() : tm.execute(body);
+    }
+
+    protected void inTransaction(Runnable body) {
+        inTransaction(() -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a direct write of many keys (one that bypasses the repository commands above, e.g. a bulk
+     * update) serialized with the transactions of the attached manager on the same keys.
+     *
+     * @param ids every key {@code body} may write
+     * @throws IllegalStateException if called inside a transaction
+     */
+    protected <R> R exclusive(Collection<ID> ids, Supplier<R> body) {
+        TransactionManager tm = transactions;
+        if (Transaction.current() != null) throw new IllegalStateException("bulk writes cannot join a transaction");
+        return tm == null ? body.get() : tm.exclusive(crudRepo, ids, body);
+    }
+
+    /**
+     * Publishes a committed change to the change stream, if one is attached.
+     */
+    protected void publishChange(ChangeType type, ID id, T before, T after) {
+        ChangeRingBuffer ring = changes;
+        if (ring != null) ring.publish(type, entityName, id, before, after);
+    }
+
+    /**
+     * Runs {@code action} after the surrounding transaction commits (immediately if there is none).
+     */
+    protected void onCommit(Runnable action) {
+        Transaction tx = Transaction.current();
+        if (tx == null) action.run();
+        else tx.afterCommit(action);
+    }
+
+    /**
+     * Like {@link #onCommit}, passing what the repository actually wrote for {@code id}: the frozen
+     * instance it stored (the caller's entity stays mutable, so it must not reach other threads), or
+     * for a delete the value it removed (not an earlier read, which a concurrent update may have
+     * replaced). Skipped if nothing was written (deleted concurrently, or created and deleted again
+     * in the transaction).
+     *
+     * @param written the value returned by the repository, or null inside a transaction
+     * @param delete  true to pass the removed value instead of the stored one
+     */
+    private void onCommitted(ID id, T written, boolean delete, Consumer<T> action) {
+        Transaction tx = Transaction.current();
+        if (tx == null) {
+            if (written != null) action.accept(written);
+            return;
+        }
+        tx.afterCommit(() -> {
+            T committed = delete ? tx.removed(crudRepo, id) : tx.stored(crudRepo, id);
+            if (committed != null) action.accept(committed);
+        });
+    }
+
+    /**
+     * Ends a repository event and commits it if the recording wants it.
+     * Fields are only populated when enabled, so a disabled event costs nothing but the check.
+     */
+    private static void commit(RepositoryOpEvent event, OperationMetrics op, Object id, boolean success) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.entity = op.getEntity();
+        event.operation = op.getOperation();
+        event.entityId = id == null ? null : String.valueOf(id);
+        event.success = success;
+        event.commit();
+    }
+
+    /**
+     * Records a failed service call: latency + error counter, and a JFR
+     * {@link ValidationFailedEvent} for {@link ErrorHandling} rejections.
+     */
+    protected void failed(OperationMetrics op, long start, RuntimeException ex) {
+        op.failure(System.nanoTime() - start, ex);
+        ValidationFailedEvent.emit(op.getEntity(), op.getOperation(), ex);
+    }
+
+    /**
+     * Records a completed call: success, or a rejection counted under the same error label
+     * the exception would have had.
+     */
+    protected <R> Result<R> recorded(OperationMetrics op, long start, Result<R> result) {
+        if (result.isOk()) {
+            op.success(System.nanoTime() - start);
+        } else {
+            Failure failure = result.failure();
+            op.failure(System.nanoTime() - start, failure.getCode().label());
+            ValidationFailedEvent.emit(op.getEntity(), op.getOperation(), failure);
+        }
+        return result;
+    }
+
+    /**
+     * Converts an {@link ErrorHandling} exception raised below validation (e.g. a repository race)
+     * into a failed result; anything else is recorded and rethrown.
+     */
+    protected <R> Result<R> rejected(OperationMetrics op, long start, RuntimeException ex) {
+        Failure failure = Failure.from(ex);
+        if (failure == null) {
+            failed(op, start, ex);
+            throw ex;
+        }
+        return recorded(op, start, Result.fail(failure));
     }
 
     // -------------------- Validation --------------------
 
     /**
      * Validate before create.
+     *
+     * @return the first failure, or null if the entity may be created
      */
-    protected void validateOnCreate(T e) {
-        if (e == null) throw new ErrorHandling.Validation("Entity must not be null");
-        if (e.getId() == null) throw new ErrorHandling.Validation("ID must not be null");
-        if (crudRepo.findById(e.getId()).isPresent()) {
-            throw new ErrorHandling.Duplicate("Entity already exists: id=" + e.getId());
+    protected Failure checkOnCreate(T e) {
+        if (e == null) return Failure.NULL_ENTITY;
+        if (e.getId() == null) return Failure.NULL_ID;
+        if (repoFindById(e.getId()).isPresent()) {
+            return Failure.duplicate(e.getId(), "Entity already exists: id=");
         }
+        return null;
     }
 
     /**
      * Validate before update.
+     *
+     * @return the first failure, or null if the entity may be updated
      */
-    protected void validateOnUpdate(T e) {
-        if (e == null) throw new ErrorHandling.Validation("Entity must not be null");
-        if (e.getId() == null) throw new ErrorHandling.Validation("ID must not be null");
-        if (crudRepo.findById(e.getId()).isEmpty()) {
-            throw new ErrorHandling.NotFound("Entity not found: id=" + e.getId());
+    protected Failure checkOnUpdate(T e) {
+        if (e == null) return Failure.NULL_ENTITY;
+        if (e.getId() == null) return Failure.NULL_ID;
+        T stored = repoFindById(e.getId()).orElse(null);
+        if (stored == null) return Failure.notFound("id", e.getId(), "Entity not found: id=");
+        // fail fast on a stale version; the repository re-checks atomically (compare-and-set)
+        if (Versioned.versionOf(stored) != Versioned.versionOf(e)) {
+            return Failure.conflict(e.getId(), "Entity was modified concurrently: id=");
         }
+        return null;
     }
 
     /**
      * Ensure entity exists for operations like delete.
+     *
+     * @return a failure if the id is null or unknown, otherwise null
+     */
+    protected Failure checkExist(ID id) {
+        if (id == null) return Failure.NULL_ID;
+        if (repoFindById(id).isEmpty()) return Failure.notFound("id", id, "Entity not found: id=");
+        return null;
+    }
+
+    /**
+     * Throwing form of {@link #checkExist}.
      */
     protected void validateExist(ID id) {
-        requireIdNotNull(id);
-        if (crudRepo.findById(id).isEmpty()) {
-            throw new ErrorHandling.NotFound("Entity not found: id=" + id);
-        }
+        Failure failure = checkExist(id);
+        if (failure != null) throw failure.toException();
     }
 
     /**
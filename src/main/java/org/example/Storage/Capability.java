@@ -0,0 +1,57 @@
+package org.example.Storage;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * What a repository built by a {@link StorageEngine} can do. Configuration names are the
+ * lower-case constants with dashes ({@code ordered-scans}, {@code durable}, ...).
+ */
+public enum Capability {
+    /**
+     * Time-range scans answered from an index ordered by creation time, not a full scan.
+     */
+    ORDERED_SCANS,
+    /**
+     * Lookups by non-key fields (orders by customer or status) answered from an index.
+     */
+    SECONDARY_INDEXES,
+    /**
+     * Point-in-time reads on the shared commit clock ({@code SnapshotRepo}), so snapshots and
+     * transactions span this repository consistently with the others.
+     */
+    SNAPSHOTS,
+    /**
+     * Every acknowledged write survives a restart.
+     */
+    DURABLE,
+    /**
+     * Cold entities move to disk; only the hot set stays on the heap.
+     */
+    TIERED;
+
+    public String configName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code "durable, snapshots"}.
+     *
+     * @throws IllegalArgumentException on an unknown name
+     */
+    public static Set<Capability> parseList(String list) {
+        Set<Capability> out = EnumSet.noneOf(Capability.class);
+        if (list == null) return out;
+        for (String part : list.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) continue;
+            try {
+                out.add(valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_')));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("unknown storage capability: " + name);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.Storage;
+
+import org.example.ImplRepo.InMemoryCurd;
+import org.example.ImplRepo.JournaledOrderRepo;
+import org.example.ImplRepo.JournaledRepo;
+import org.example.ImplRepo.MvccClock;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@code journal}: the {@code memory} engine plus an append-only journal per entity
+ * ({@code <dir>/<entity>.journal}), replayed on startup ({@link JournaledRepo}).
+ *
+ * <p>Settings:
+ * <ul>
+ *   <li>{@code dir} (required) — journal directory; entities may share one;</li>
+ *   <li>{@code sync} — {@code commit} (default: a write returns once it is on disk) or
+ *       {@code none} (the OS flushes; survives a process crash, not a machine crash);</li>
+ *   <li>{@code partitionMinutes}, {@code openPartitions} — as for {@code memory}.</li>
+ * </ul>
+ */
+public final class JournalEngine implements StorageEngine {
+
+    @Override
+    public String name() {
+        return "journal";
+    }
+
+    @Override
+    public Set<Capability> capabilities(StorageSettings settings) {
+        Set<Capability> out = EnumSet.copyOf(new MemoryEngine().capabilities(settings));
+        if (syncOnCommit(settings)) out.add(Capability.DURABLE);
+        return out;
+    }
+
+    @Override
+    public <T extends Identifiable<String>> CrudRepo<T, String> openRepo(StorageSettings settings, MvccClock clock) throws IOException {
+        return new JournaledRepo<T>(new InMemoryCurd<>(clock), settings.entity(), file(settings), syncOnCommit(settings));
+    }
+
+    @Override
+    public OrderRepo openOrders(StorageSettings settings, MvccClock clock) throws IOException {
+        return new JournaledOrderRepo(MemoryEngine.newOrderStore(settings, clock), file(settings), syncOnCommit(settings));
+    }
+
+    private static Path file(StorageSettings settings) {
+        return settings.getPath("dir").resolve(settings.entity() + ".journal");
+    }
+
+    private static boolean syncOnCommit(StorageSettings settings) {
+        String sync = settings.getString("sync", "commit");
+        return switch (sync) {
+            case "commit" -> true;
+            case "none" -> false;
+            default -> throw new IllegalArgumentException("storage setting " + settings.entity()
+                    + ".sync must be 'commit' or 'none', not '" + sync + "'");
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.Storage;
+
+import org.example.ImplRepo.InMemoryCurd;
+import org.example.ImplRepo.InMemoryOrderImp;
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.TimePartitionedIndex;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@code memory}: multi-version in-memory maps ({@link InMemoryCurd}, {@link InMemoryOrderImp}).
+ * Nothing survives a restart.
+ *
+ * <p>Settings (orders): {@code partitionMinutes} (60) and {@code openPartitions} (2) of the
+ * creation-time index.
+ */
+public final class MemoryEngine implements StorageEngine {
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public Set<Capability> capabilities(StorageSettings settings) {
+        return isOrder(settings)
+                ? EnumSet.of(Capability.ORDERED_SCANS, Capability.SECONDARY_INDEXES, Capability.SNAPSHOTS)
+                : EnumSet.of(Capability.SNAPSHOTS);
+    }
+
+    @Override
+    public <T extends Identifiable<String>> CrudRepo<T, String> openRepo(StorageSettings settings, MvccClock clock) {
+        return new InMemoryCurd<>(clock);
+    }
+
+    @Override
+    public OrderRepo openOrders(StorageSettings settings, MvccClock clock) {
+        return newOrderStore(settings, clock);
+    }
+
+    static InMemoryOrderImp newOrderStore(StorageSettings settings, MvccClock clock) {
+        long partitionMillis = settings.getInt("partitionMinutes", 60) * 60_000L;
+        int open = settings.getInt("openPartitions", TimePartitionedIndex.DEFAULT_OPEN_PARTITIONS);
+        return new InMemoryOrderImp(clock, new TimePartitionedIndex(partitionMillis, open));
+    }
+
+    static boolean isOrder(StorageSettings settings) {
+        return Repositories.ORDER.equals(settings.entity());
+    }
+}
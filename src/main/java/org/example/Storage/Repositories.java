@@ -0,0 +1,180 @@
+package org.example.Storage;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.ImplRepo.MvccClock;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.OrderRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The customer, product and order repositories of one process, each opened by the
+ * {@link StorageEngine} its {@link StorageConfig} names.
+ *
+ * <ul>
+ *   <li>Misconfiguration fails fast: an unknown engine, an engine that cannot store the entity, or
+ *       one lacking a {@code require}d capability is an {@link IllegalArgumentException}.</li>
+ *   <li>An engine whose on-disk state cannot be opened falls back to {@code memory}, as long as it
+ *       was not {@link Capability#DURABLE} and {@code memory} meets the requirements; a durable
+ *       engine fails instead (starting empty would hide, and later overwrite, its data).</li>
+ * </ul>
+ */
+public final class Repositories implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Repositories.class);
+
+    public static final String CUSTOMER = "customer";
+    public static final String PRODUCT = "product";
+    public static final String ORDER = "order";
+
+    /**
+     * One opened repository and what it was opened with.
+     */
+    public record Store<R>(String entity, String engine, Set<Capability> capabilities, R repo) {
+        @Override
+        public String toString() {
+            return entity + ": " + engine + " " + capabilities.stream()
+                    .map(Capability::configName)
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+    }
+
+    private final Store<CrudRepo<Customer, String>> customers;
+    private final Store<CrudRepo<Product, String>> products;
+    private final Store<OrderRepo> orders;
+
+    private Repositories(Store<CrudRepo<Customer, String>> customers, Store<CrudRepo<Product, String>> products,
+                         Store<OrderRepo> orders) {
+        this.customers = customers;
+        this.products = products;
+        this.orders = orders;
+    }
+
+    /**
+     * Opens all three repositories.
+     *
+     * @param config engine selection and settings
+     * @param clock  commit clock shared by the repositories
+     * @throws IllegalArgumentException on a configuration error
+     * @throws UncheckedIOException     if a durable engine cannot open its data
+     */
+    public static Repositories open(StorageConfig config, MvccClock clock) {
+        List<Store<?>> opened = new ArrayList<>(3);
+        try {
+            Store<CrudRepo<Customer, String>> customers = open(config.settings(CUSTOMER), clock, StorageEngine::openRepo);
+            opened.add(customers);
+            Store<CrudRepo<Product, String>> products = open(config.settings(PRODUCT), clock, StorageEngine::openRepo);
+            opened.add(products);
+            Store<OrderRepo> orders = open(config.settings(ORDER), clock, StorageEngine::openOrders);
+            return new Repositories(customers, products, orders);
+        } catch (RuntimeException ex) {
+            for (Store<?> store : opened) closeQuietly(store);
+            throw ex;
+        }
+    }
+
+    private interface Opener<R> {
+        R open(StorageEngine engine, StorageSettings settings, MvccClock clock) throws IOException;
+    }
+
+    private static <R> Store<R> open(StorageSettings settings, MvccClock clock, Opener<R> opener) {
+        String entity = settings.entity();
+        StorageEngine engine = StorageEngines.get(settings.engine());
+        if (!engine.supports(entity)) {
+            throw new IllegalArgumentException("storage engine '" + engine.name() + "' cannot store " + entity + "s");
+        }
+        Set<Capability> capabilities = engine.capabilities(settings);
+        checkRequired(settings, engine, capabilities);
+        try {
+            Store<R> store = new Store<>(entity, engine.name(), capabilities, opener.open(engine, settings, clock));
+            log.info("Storage {}", store);
+            return store;
+        } catch (IOException ex) {
+            StorageEngine memory = StorageEngines.get("memory");
+            Set<Capability> fallback = memory.capabilities(settings);
+            if (capabilities.contains(Capability.DURABLE) || !fallback.containsAll(settings.required())) {
+                throw new UncheckedIOException("cannot open " + entity + " storage '" + engine.name() + "'", ex);
+            }
+            log.error("Could not open {} storage '{}'; keeping {}s in memory only", entity, engine.name(), entity, ex);
+            try {
+                return new Store<>(entity, memory.name(), fallback, opener.open(memory, settings, clock));
+            } catch (IOException impossible) {
+                throw new UncheckedIOException(impossible);
+            }
+        }
+    }
+
+    private static void checkRequired(StorageSettings settings, StorageEngine engine, Set<Capability> capabilities) {
+        Set<Capability> missing = EnumSet.noneOf(Capability.class);
+        missing.addAll(settings.required());
+        missing.removeAll(capabilities);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("storage engine '" + engine.name() + "' lacks "
+                    + missing.stream().map(Capability::configName).collect(Collectors.joining(", "))
+                    + " required for " + settings.entity() + "s");
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------
+
+    public CrudRepo<Customer, String> customers() {
+        return customers.repo();
+    }
+
+    public CrudRepo<Product, String> products() {
+        return products.repo();
+    }
+
+    public OrderRepo orders() {
+        return orders.repo();
+    }
+
+    /**
+     * @return customers, products, orders (for logs and reports)
+     */
+    public List<Store<?>> stores() {
+        return List.of(customers, products, orders);
+    }
+
+    /**
+     * Closes every repository that holds resources (journals, archive files, shard threads).
+     *
+     * @throws IOException the first failure; the other repositories are closed regardless
+     */
+    @Override
+    public void close() throws IOException {
+        Exception first = null;
+        for (Store<?> store : stores()) {
+            if (!(store.repo() instanceof AutoCloseable closeable)) continue;
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                if (first == null) first = ex;
+            }
+        }
+        if (first instanceof IOException io) throw io;
+        if (first instanceof RuntimeException re) throw re;
+        if (first != null) throw new IOException(first);
+    }
+
+    private static void closeQuietly(Store<?> store) {
+        if (!(store.repo() instanceof AutoCloseable closeable)) return;
+        try {
+            closeable.close();
+        } catch (Exception ex) {
+            log.warn("Closing {} storage failed", store.entity(), ex);
+        }
+    }
+}
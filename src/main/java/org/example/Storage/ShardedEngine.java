@@ -0,0 +1,44 @@
+package org.example.Storage;
+
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.ShardedOrderRepo;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@code sharded} (orders only): {@link ShardedOrderRepo}, orders partitioned by customer over
+ * single-writer shards. No snapshots: each shard commits on its own.
+ *
+ * <p>Settings: {@code shards} (number of shards, default one per CPU).
+ */
+public final class ShardedEngine implements StorageEngine {
+
+    @Override
+    public String name() {
+        return "sharded";
+    }
+
+    @Override
+    public boolean supports(String entity) {
+        return Repositories.ORDER.equals(entity);
+    }
+
+    @Override
+    public Set<Capability> capabilities(StorageSettings settings) {
+        return EnumSet.of(Capability.ORDERED_SCANS, Capability.SECONDARY_INDEXES);
+    }
+
+    @Override
+    public <T extends Identifiable<String>> CrudRepo<T, String> openRepo(StorageSettings settings, MvccClock clock) {
+        throw new UnsupportedOperationException("engine 'sharded' stores orders only");
+    }
+
+    @Override
+    public OrderRepo openOrders(StorageSettings settings, MvccClock clock) {
+        return new ShardedOrderRepo(settings.getInt("shards", Runtime.getRuntime().availableProcessors()));
+    }
+}
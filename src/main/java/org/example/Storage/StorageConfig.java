@@ -0,0 +1,140 @@
+package org.example.Storage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Which {@link StorageEngine} stores each entity, and how it is tuned.
+ *
+ * <p>Keys are {@code <entity>.<setting>} ({@code customer}, {@code product}, {@code order}) or
+ * {@code default.<setting>} for all entities, e.g.:
+ * <pre>
+ * order.engine=journal
+ * order.dir=data/journal
+ * order.require=durable
+ * product.engine=memory
+ * </pre>
+ * Sources, later ones winning:
+ * <ul>
+ *   <li>the older order switches {@code -Dbutik.orders.shards=N} (engine {@code sharded}) and
+ *       {@code -Dbutik.orders.archive.dir=path} (engine {@code tiered});</li>
+ *   <li>the properties file named by {@code -Dbutik.storage.config=path} (keys with or without the
+ *       {@code butik.storage.} prefix);</li>
+ *   <li>system properties {@code -Dbutik.storage.<entity>.<setting>=value}.</li>
+ * </ul>
+ * Immutable.
+ */
+public final class StorageConfig {
+
+    public static final String PREFIX = "butik.storage.";
+
+    private final Properties properties;
+
+    private StorageConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Reads the configuration of this process (see the class comment for the sources).
+     *
+     * @throws UncheckedIOException if {@code butik.storage.config} names an unreadable file
+     */
+    public static StorageConfig load() {
+        Properties merged = new Properties();
+        Integer shards = Integer.getInteger("butik.orders.shards");
+        if (shards != null && shards > 0) {
+            merged.setProperty("order.engine", "sharded");
+            merged.setProperty("order.shards", String.valueOf(shards));
+        }
+        String archive = System.getProperty("butik.orders.archive.dir");
+        if (archive != null && !archive.isBlank()) {
+            merged.setProperty("order.engine", "tiered");
+            merged.setProperty("order.archive.dir", archive.trim());
+            String days = System.getProperty("butik.orders.archive.afterDays");
+            if (days != null) merged.setProperty("order.archive.afterDays", days);
+        }
+
+        String file = System.getProperty(PREFIX + "config");
+        if (file != null && !file.isBlank()) {
+            Properties fromFile = new Properties();
+            try (Reader in = Files.newBufferedReader(Path.of(file.trim()))) {
+                fromFile.load(in);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("cannot read storage config " + file, ex);
+            }
+            putAll(merged, fromFile, false);
+        }
+        putAll(merged, System.getProperties(), true);
+        merged.remove("config");
+        return new StorageConfig(merged);
+    }
+
+    /**
+     * @param properties keys without the {@code butik.storage.} prefix (prefixed keys are accepted too)
+     */
+    public static StorageConfig of(Properties properties) {
+        Properties copy = new Properties();
+        putAll(copy, properties, false);
+        return new StorageConfig(copy);
+    }
+
+    /**
+     * @return a copy with one setting replaced, e.g. {@code with("order.engine", "sharded")}
+     */
+    public StorageConfig with(String key, String value) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.setProperty(key, value);
+        return new StorageConfig(copy);
+    }
+
+    /**
+     * @return a copy with {@code ${name}} replaced by {@code value} in every setting, e.g. a
+     * per-tenant directory from {@code default.dir=data/tenants/${tenant}}
+     */
+    public StorageConfig resolve(String name, String value) {
+        String placeholder = "${" + name + "}";
+        Properties copy = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            copy.setProperty(key, properties.getProperty(key).replace(placeholder, value));
+        }
+        return new StorageConfig(copy);
+    }
+
+    /**
+     * @return the settings whose key ends with {@code suffix} (e.g. {@code "dir"}), as key -> value
+     */
+    public Map<String, String> find(String suffix) {
+        Map<String, String> out = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(suffix)) out.put(key, properties.getProperty(key));
+        }
+        return out;
+    }
+
+    /**
+     * @param entity entity name ("customer", "product", "order")
+     */
+    public StorageSettings settings(String entity) {
+        return new StorageSettings(entity, properties);
+    }
+
+    /**
+     * Copies {@code source} into {@code target}, stripping the {@code butik.storage.} prefix.
+     */
+    private static void putAll(Properties target, Properties source, boolean prefixedOnly) {
+        for (String key : source.stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) {
+                target.setProperty(key.substring(PREFIX.length()), source.getProperty(key));
+            } else if (!prefixedOnly) {
+                target.setProperty(key, source.getProperty(key));
+            }
+        }
+    }
+}
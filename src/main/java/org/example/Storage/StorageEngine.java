@@ -0,0 +1,63 @@
+package org.example.Storage;
+
+import org.example.ImplRepo.MvccClock;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Storage-engine SPI: builds the repository behind one entity ("customer", "product", "order").
+ *
+ * <ul>
+ *   <li>Engines are discovered with {@link java.util.ServiceLoader} (see {@link StorageEngines}):
+ *       list the implementation in {@code META-INF/services/org.example.Storage.StorageEngine} and
+ *       give it a public no-arg constructor. The built-in engines are registered the same way.</li>
+ *   <li>{@link StorageConfig} picks an engine per entity by {@link #name()} and hands it that
+ *       entity's {@link StorageSettings} to tune it.</li>
+ *   <li>{@link #capabilities} tells the wiring (and the operator) what the repository can do; an
+ *       entity configured to {@code require} a capability refuses to start on an engine without it.</li>
+ * </ul>
+ * Implementations must be thread-safe; one instance opens the repositories of every entity.
+ */
+public interface StorageEngine {
+
+    /**
+     * @return configuration name, e.g. {@code "memory"}
+     */
+    String name();
+
+    /**
+     * @param entity entity name
+     * @return false if this engine cannot store the entity at all (e.g. an order-only engine)
+     */
+    default boolean supports(String entity) {
+        return true;
+    }
+
+    /**
+     * Capabilities of the repository {@link #openRepo} or {@link #openOrders} would build with
+     * these settings.
+     */
+    Set<Capability> capabilities(StorageSettings settings);
+
+    /**
+     * Opens the repository of a plain entity (customers, products).
+     *
+     * @param settings the entity's settings
+     * @param clock    commit clock shared by the repositories of one process
+     * @throws IOException if on-disk state cannot be opened
+     */
+    <T extends Identifiable<String>> CrudRepo<T, String> openRepo(StorageSettings settings, MvccClock clock) throws IOException;
+
+    /**
+     * Opens the order repository (with whatever secondary indexes the engine maintains).
+     *
+     * @param settings the order settings
+     * @param clock    commit clock shared by the repositories of one process
+     * @throws IOException if on-disk state cannot be opened
+     */
+    OrderRepo openOrders(StorageSettings settings, MvccClock clock) throws IOException;
+}
@@ -0,0 +1,60 @@
+package org.example.Storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the {@link StorageEngine}s on the class path, discovered once with {@link ServiceLoader}.
+ * When two engines share a name the first one found wins (a warning is logged).
+ */
+public final class StorageEngines {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageEngines.class);
+
+    private static volatile Map<String, StorageEngine> engines;
+
+    private StorageEngines() {
+    }
+
+    /**
+     * @param name engine name, e.g. {@code "memory"}
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public static StorageEngine get(String name) {
+        StorageEngine engine = engines().get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("unknown storage engine '" + name + "' (available: "
+                    + String.join(", ", engines().keySet()) + ")");
+        }
+        return engine;
+    }
+
+    public static Collection<StorageEngine> all() {
+        return engines().values();
+    }
+
+    private static Map<String, StorageEngine> engines() {
+        Map<String, StorageEngine> found = engines;
+        if (found != null) return found;
+        synchronized (StorageEngines.class) {
+            if (engines == null) {
+                Map<String, StorageEngine> byName = new LinkedHashMap<>();
+                for (StorageEngine engine : ServiceLoader.load(StorageEngine.class)) {
+                    StorageEngine first = byName.putIfAbsent(engine.name(), engine);
+                    if (first != null) {
+                        log.warn("Storage engine '{}' of {} ignored: already provided by {}", engine.name(),
+                                engine.getClass().getName(), first.getClass().getName());
+                    }
+                }
+                engines = Collections.unmodifiableMap(byName);
+            }
+            return engines;
+        }
+    }
+}
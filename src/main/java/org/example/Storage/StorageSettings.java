@@ -0,0 +1,81 @@
+package org.example.Storage;
+
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * One entity's view of the {@link StorageConfig}: {@code <entity>.<key>} falls back to
+ * {@code default.<key>}, then to the caller's default.
+ */
+public final class StorageSettings {
+
+    public static final String DEFAULTS = "default";
+
+    private final String entity;
+    private final Properties properties;
+
+    StorageSettings(String entity, Properties properties) {
+        this.entity = entity;
+        this.properties = properties;
+    }
+
+    public String entity() {
+        return entity;
+    }
+
+    /**
+     * @return configured engine name, {@code "memory"} if none is
+     */
+    public String engine() {
+        return getString("engine", "memory");
+    }
+
+    /**
+     * Capabilities the entity's engine must provide ({@code require=durable,snapshots}).
+     */
+    public Set<Capability> required() {
+        return Capability.parseList(getString("require", null));
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(entity + "." + key);
+        if (value == null) value = properties.getProperty(DEFAULTS + "." + key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("storage setting " + entity + "." + key + " is not a number: " + value);
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the setting is missing
+     */
+    public Path getPath(String key) {
+        String value = getString(key, null);
+        if (value == null) {
+            throw new IllegalArgumentException("storage setting " + entity + "." + key + " is required by engine '"
+                    + engine() + "'");
+        }
+        return Path.of(value);
+    }
+
+    @Override
+    public String toString() {
+        return entity + "=" + engine();
+    }
+}
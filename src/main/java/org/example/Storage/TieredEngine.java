@@ -0,0 +1,68 @@
+package org.example.Storage;
+
+import org.example.Archive.ArchivePolicy;
+import org.example.Archive.OrderArchive;
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.ShardedOrderRepo;
+import org.example.ImplRepo.TieredOrderRepo;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.OrderRepo;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@code tiered} (orders only): {@link TieredOrderRepo}, hot orders in memory, cold final orders
+ * in an on-disk {@link OrderArchive}. Only the archived orders survive a restart, so it is not
+ * {@link Capability#DURABLE}.
+ *
+ * <p>Settings:
+ * <ul>
+ *   <li>{@code archive.dir} (required) — segment directory;</li>
+ *   <li>{@code archive.afterDays} (30), {@code archive.minBatch} (4096) — the {@link ArchivePolicy};</li>
+ *   <li>{@code archive.blockBytes}, {@code archive.cachedBlocks} — segment block size and block cache;</li>
+ *   <li>{@code shards} — hot tier sharded over N shards instead of one in-memory store.</li>
+ * </ul>
+ */
+public final class TieredEngine implements StorageEngine {
+
+    @Override
+    public String name() {
+        return "tiered";
+    }
+
+    @Override
+    public boolean supports(String entity) {
+        return Repositories.ORDER.equals(entity);
+    }
+
+    @Override
+    public Set<Capability> capabilities(StorageSettings settings) {
+        Set<Capability> out = EnumSet.of(Capability.ORDERED_SCANS, Capability.SECONDARY_INDEXES, Capability.TIERED);
+        if (settings.getInt("shards", 0) <= 0) out.add(Capability.SNAPSHOTS);
+        return out;
+    }
+
+    @Override
+    public <T extends Identifiable<String>> CrudRepo<T, String> openRepo(StorageSettings settings, MvccClock clock) {
+        throw new UnsupportedOperationException("engine 'tiered' stores orders only");
+    }
+
+    @Override
+    public OrderRepo openOrders(StorageSettings settings, MvccClock clock) throws IOException {
+        ArchivePolicy defaults = ArchivePolicy.defaults();
+        ArchivePolicy policy = new ArchivePolicy(
+                Duration.ofDays(settings.getInt("archive.afterDays", (int) defaults.minAge().toDays())),
+                defaults.statuses(),
+                settings.getInt("archive.minBatch", defaults.minBatch()));
+        OrderArchive archive = OrderArchive.open(settings.getPath("archive.dir"),
+                settings.getInt("archive.blockBytes", OrderArchive.DEFAULT_BLOCK_BYTES),
+                settings.getInt("archive.cachedBlocks", OrderArchive.DEFAULT_CACHED_BLOCKS));
+        int shards = settings.getInt("shards", 0);
+        OrderRepo hot = shards > 0 ? new ShardedOrderRepo(shards) : MemoryEngine.newOrderStore(settings, clock);
+        return new TieredOrderRepo(hot, archive, policy);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.Stress;
+
+import org.example.Entity.Customer;
+import org.example.ImplRepo.InMemoryCurd;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Reposotory.CrudRepo;
+import org.example.Service.ServiceCrud;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Two creates and one delete of the same ID race.
+ *
+ * <p>Invariants:
+ * <ul>
+ *   <li>At least one create wins; two only if the delete ran in between (then the ID is present).</li>
+ *   <li>{@code count()} agrees with {@code findById}.</li>
+ *   <li>A present entity is the one written by a winning create.</li>
+ * </ul>
+ * Runs either directly against a repository or through {@link ServiceCrud} (whose
+ * check-then-act validation must not let both creates through).
+ */
+public final class CreateDeleteSameIdStress implements StressCase<CreateDeleteSameIdStress.State> {
+
+    private static final String ID = "same-id";
+
+    private final String name;
+    private final boolean viaService;
+    private final MetricsRegistry metrics = new MetricsRegistry(); // keep stress calls out of the global metrics
+
+    /**
+     * @param viaService true = actors call {@link ServiceCrud}; false = the repository directly
+     */
+    public CreateDeleteSameIdStress(boolean viaService) {
+        this.viaService = viaService;
+        this.name = "create/create/delete same id via " + (viaService ? "ServiceCrud" : "InMemoryCurd");
+    }
+
+    public static final class State {
+        final CrudRepo<Customer, String> repo = new InMemoryCurd<>();
+        ServiceCrud<Customer, String> service;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public State newState() {
+        State s = new State();
+        if (viaService) s.service = new ServiceCrud<>(s.repo, "stress", metrics);
+        return s;
+    }
+
+    @Override
+    public List<Function<State, String>> actors() {
+        return List.of(s -> create(s, "first"), s -> create(s, "second"), s -> {
+            if (!viaService) {
+                s.repo.delete(ID);
+                return "done";
+            }
+            try {
+                s.service.delete(ID);
+                return "deleted";
+            } catch (RuntimeException e) {
+                return "missing";
+            }
+        });
+    }
+
+    private String create(State s, String who) {
+        Customer c = new Customer(who, "Stockholm");
+        c.setId(ID);
+        try {
+            if (viaService) s.service.create(c);
+            else s.repo.create(c);
+            return "created";
+        } catch (RuntimeException e) {
+            return "rejected";
+        }
+    }
+
+    @Override
+    public Outcome arbiter(State s, String[] obs) {
+        int creates = ("created".equals(obs[0]) ? 1 : 0) + ("created".equals(obs[1]) ? 1 : 0);
+        Optional<Customer> stored = s.repo.findById(ID);
+        String desc = "creates=" + creates + " delete=" + obs[2] + " present=" + stored.isPresent();
+
+        if (s.repo.count() != (stored.isPresent() ? 1 : 0)) return Outcome.forbidden(desc + " (count " + s.repo.count() + ")");
+        if (creates == 0) return Outcome.forbidden(desc + " (no create won)");
+        if (creates == 2 && stored.isEmpty()) return Outcome.forbidden(desc + " (lost a create)");
+        if (stored.isPresent()) {
+            String winner = stored.get().getName();
+            int idx = "first".equals(winner) ? 0 : 1;
+            if (!"created".equals(obs[idx])) return Outcome.forbidden(desc + " (stored value of a rejected create)");
+        }
+        return creates == 2 ? Outcome.interesting(desc) : Outcome.ok(desc);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.Stress;
+
+/**
+ * Verdict for an observed outcome (mirrors jcstress' {@code Expect}).
+ */
+public enum Expect {
+    /** Correct and expected. */
+    ACCEPTABLE,
+    /** Correct, but only reachable through a race; worth seeing in the report. */
+    INTERESTING,
+    /** A correctness violation: the code under test is racy. */
+    FORBIDDEN
+}
@@ -0,0 +1,102 @@
+package org.example.Stress;
+
+import org.example.Entity.Customer;
+import org.example.Reposotory.CrudRepo;
+import org.example.Reposotory.Versioned;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@code findAll} races a create, a delete and an update.
+ *
+ * <p>Start: customers 1 and 2. Writers: create 3, delete 1, rename 2 to "2b".
+ * <ul>
+ *   <li>The reader must see each ID at most once, never a half-written entity, and only
+ *       combinations a serial execution could produce for each entity separately.</li>
+ *   <li>The final state is exactly {2b, 3}.</li>
+ * </ul>
+ */
+public final class FindAllDuringWritesStress implements StressCase<CrudRepo<Customer, String>> {
+
+    private static final Set<String> VALID_VIEWS = Set.of(
+            "1,2", "1,2,3", "2", "2,3", "1,2b", "1,2b,3", "2b", "2b,3");
+
+    private final String name;
+    private final Supplier<CrudRepo<Customer, String>> repoSupplier;
+
+    /**
+     * @param name         repository name for the report
+     * @param repoSupplier creates a fresh repository per iteration
+     */
+    public FindAllDuringWritesStress(String name, Supplier<CrudRepo<Customer, String>> repoSupplier) {
+        this.name = "findAll during create/delete/update, " + name;
+        this.repoSupplier = repoSupplier;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CrudRepo<Customer, String> newState() {
+        CrudRepo<Customer, String> repo = repoSupplier.get();
+        repo.create(customer("1", "1"));
+        repo.create(customer("2", "2"));
+        return repo;
+    }
+
+    @Override
+    public List<Function<CrudRepo<Customer, String>, String>> actors() {
+        return List.of(
+                repo -> {
+                    repo.create(customer("3", "3"));
+                    return "";
+                },
+                repo -> {
+                    repo.delete("1");
+                    return "";
+                },
+                repo -> {
+                    Customer c = Versioned.editableCopyOf(repo.findById("2").orElseThrow());
+                    c.setName("2b");
+                    repo.update(c);
+                    return "";
+                },
+                FindAllDuringWritesStress::view);
+    }
+
+    /**
+     * Names seen by findAll in ID order; "dup" marks an ID seen twice.
+     */
+    private static String view(CrudRepo<Customer, String> repo) {
+        List<Customer> all = new ArrayList<>(repo.findAll());
+        all.sort(Comparator.comparing(Customer::getId));
+        Set<String> ids = new HashSet<>();
+        List<String> names = new ArrayList<>(all.size());
+        for (Customer c : all) names.add(ids.add(c.getId()) ? c.getName() : "dup:" + c.getName());
+        return String.join(",", names);
+    }
+
+    @Override
+    public Outcome arbiter(CrudRepo<Customer, String> repo, String[] obs) {
+        String seen = obs[3];
+        String end = view(repo);
+        String desc = "reader saw [" + seen + "] final [" + end + "]";
+        if (!"2b,3".equals(end)) return Outcome.forbidden(desc);
+        if (!VALID_VIEWS.contains(seen)) return Outcome.forbidden(desc);
+        return Outcome.ok(desc);
+    }
+
+    private static Customer customer(String id, String name) {
+        Customer c = new Customer(name, "Stockholm");
+        c.setId(id);
+        return c;
+    }
+}
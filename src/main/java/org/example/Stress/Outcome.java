@@ -0,0 +1,22 @@
+package org.example.Stress;
+
+/**
+ * What one iteration of a {@link StressCase} ended in.
+ *
+ * @param description short, stable text (outcomes are counted by it)
+ * @param expect      verdict
+ */
+public record Outcome(String description, Expect expect) {
+
+    public static Outcome ok(String description) {
+        return new Outcome(description, Expect.ACCEPTABLE);
+    }
+
+    public static Outcome interesting(String description) {
+        return new Outcome(description, Expect.INTERESTING);
+    }
+
+    public static Outcome forbidden(String description) {
+        return new Outcome(description, Expect.FORBIDDEN);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.Stress;
+
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Entity.Category;
+import org.example.Reposotory.OrderRepo;
+import org.example.Reposotory.Versioned;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Two writers move the same order (both starting from the same stored version) to different
+ * customers while a reader queries the customer index.
+ *
+ * <p>Invariants:
+ * <ul>
+ *   <li>Exactly one update wins; the other gets a version conflict (no lost update).</li>
+ *   <li>Afterwards the order is indexed exactly once, under the winner's customer only.</li>
+ * </ul>
+ * The reader's view ({@code A,B,C} hit counts) is reported; since its three lookups are not
+ * atomic, seeing the order under none or two customers is allowed and marked interesting.
+ */
+public final class ReindexOnCustomerChangeStress implements StressCase<ReindexOnCustomerChangeStress.State> {
+
+    private static final Product PRODUCT = new Product("stress", Category.BOOKS, 1.0);
+
+    private final String name;
+    private final OrderRepo repo;   // shared by all iterations (like a real, populated store)
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * @param name         repository name for the report
+     * @param repoSupplier creates the repository under test (closed after the run if AutoCloseable)
+     */
+    public ReindexOnCustomerChangeStress(String name, Supplier<? extends OrderRepo> repoSupplier) {
+        this.name = "reindex on concurrent customer change, " + name;
+        this.repo = repoSupplier.get();
+    }
+
+    public static final class State {
+        String orderId;
+        Order original; // the version both writers start from
+        String a;
+        String b;
+        String c;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public State newState() {
+        long n = ids.incrementAndGet();
+        State s = new State();
+        s.a = "A" + n;
+        s.b = "B" + n;
+        s.c = "C" + n;
+        Order o = new Order(s.a, 1.0, new ArrayList<>(List.of(PRODUCT)));
+        o.setId("stress-" + n);
+        repo.create(o);
+        s.orderId = o.getId();
+        s.original = repo.findById(s.orderId).orElseThrow();
+        return s;
+    }
+
+    @Override
+    public List<Function<State, String>> actors() {
+        return List.of(s -> move(s, s.b), s -> move(s, s.c),
+                s -> hits(s.a) + "," + hits(s.b) + "," + hits(s.c));
+    }
+
+    private String move(State s, String customer) {
+        try {
+            Order copy = Versioned.editableCopyOf(s.original);
+            copy.setCustomerId(customer);
+            repo.update(copy);
+            return "won";
+        } catch (RuntimeException e) {
+            return "lost";
+        }
+    }
+
+    private int hits(String customer) {
+        return repo.findByCustomer(customer).size();
+    }
+
+    @Override
+    public Outcome arbiter(State s, String[] obs) {
+        Order stored = repo.findById(s.orderId).orElse(null);
+        String winner = stored == null ? "none" : stored.getCustomerId().substring(0, 1);
+        String desc = "winner=" + winner + " writers=" + obs[0] + "/" + obs[1] + " reader(A,B,C)=" + obs[2];
+
+        if (stored == null) return Outcome.forbidden(desc + " (order vanished)");
+        boolean bWon = "won".equals(obs[0]);
+        boolean cWon = "won".equals(obs[1]);
+        if (bWon == cWon) return Outcome.forbidden(desc + " (expected exactly one winner)");
+        String expected = bWon ? s.b : s.c;
+        if (!expected.equals(stored.getCustomerId())) return Outcome.forbidden(desc + " (stored value of the loser)");
+        String index = hits(s.a) + "," + hits(s.b) + "," + hits(s.c);
+        String wanted = bWon ? "0,1,0" : "0,0,1";
+        if (!wanted.equals(index)) return Outcome.forbidden(desc + " (index after run " + index + ")");
+
+        String[] r = obs[2].split(",");
+        int seen = Integer.parseInt(r[0]) + Integer.parseInt(r[1]) + Integer.parseInt(r[2]);
+        return seen == 1 ? Outcome.ok(desc) : Outcome.interesting(desc);
+    }
+
+    @Override
+    public void close() {
+        if (repo instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // best effort
+            }
+        }
+    }
+}
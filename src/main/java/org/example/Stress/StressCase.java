@@ -0,0 +1,46 @@
+package org.example.Stress;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A jcstress-style concurrency test.
+ *
+ * <p>Per iteration the harness creates a fresh state, runs every actor on its own thread at the
+ * same time, then hands the state and the actors' observations to the arbiter, which classifies
+ * the outcome. Actors must only touch their state (and shared fixtures of the case).
+ *
+ * @param <S> per-iteration state
+ */
+public interface StressCase<S> {
+
+    /**
+     * @return name shown in the report
+     */
+    String name();
+
+    /**
+     * @return a fresh state for one iteration (called on the harness thread)
+     */
+    S newState();
+
+    /**
+     * @return the concurrent actors; each returns a short observation string
+     */
+    List<Function<S, String>> actors();
+
+    /**
+     * Runs after all actors finished; inspects the final state.
+     *
+     * @param state        the iteration's state
+     * @param observations one per actor, in {@link #actors()} order
+     * @return classified outcome
+     */
+    Outcome arbiter(S state, String[] observations);
+
+    /**
+     * Releases shared fixtures (threads, repositories) after the run.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.Stress;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Function;
+
+/**
+ * Runs {@link StressCase}s the way jcstress does, without the external tool.
+ *
+ * <ul>
+ *   <li>One long-lived thread per actor for the whole run (no thread start-up between iterations).</li>
+ *   <li>Iterations are executed in strides: all actors start together on a barrier and each walks
+ *       the same array of {@code stride} fresh states, so actors overlap on every state while
+ *       barrier cost is paid once per stride.</li>
+ *   <li>Outcomes are counted by description; any {@link Expect#FORBIDDEN} outcome fails the case.</li>
+ * </ul>
+ */
+public final class StressHarness {
+
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    public static final int DEFAULT_STRIDE = 64;
+
+    private final int iterations;
+    private final int stride;
+
+    public StressHarness() {
+        this(DEFAULT_ITERATIONS, DEFAULT_STRIDE);
+    }
+
+    /**
+     * @param iterations states to test per case (rounded up to whole strides)
+     * @param stride     states per barrier round
+     */
+    public StressHarness(int iterations, int stride) {
+        if (iterations <= 0 || stride <= 0) throw new IllegalArgumentException("iterations and stride must be > 0");
+        this.iterations = iterations;
+        this.stride = stride;
+    }
+
+    /**
+     * Runs one case to completion (and closes it).
+     *
+     * @param stressCase the case
+     * @param <S>        state type
+     * @return outcome counts
+     */
+    @SuppressWarnings("unchecked")
+    public <S> Result run(StressCase<S> stressCase) {
+        List<Function<S, String>> actors = stressCase.actors();
+        int n = actors.size();
+        Object[] states = new Object[stride];
+        String[][] observations = new String[stride][n];
+        CyclicBarrier start = new CyclicBarrier(n + 1);
+        CyclicBarrier end = new CyclicBarrier(n + 1);
+        int rounds = (iterations + stride - 1) / stride;
+        Result result = new Result(stressCase.name());
+
+        List<Thread> threads = new ArrayList<>(n);
+        for (int a = 0; a < n; a++) {
+            int actor = a;
+            Function<S, String> body = actors.get(a);
+            Thread t = new Thread(() -> {
+                try {
+                    for (int r = 0; r < rounds; r++) {
+                        start.await();
+                        for (int i = 0; i < stride; i++) {
+                            String observed;
+                            try {
+                                observed = body.apply((S) states[i]);
+                            } catch (RuntimeException e) {
+                                observed = "threw " + e.getClass().getSimpleName();
+                            }
+                            observations[i][actor] = observed;
+                        }
+                        end.await();
+                    }
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "stress-actor-" + a);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+
+        try {
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < stride; i++) states[i] = stressCase.newState();
+                start.await();
+                end.await(); // barriers publish states and observations between threads
+                for (int i = 0; i < stride; i++) {
+                    result.add(stressCase.arbiter((S) states[i], observations[i].clone()));
+                }
+            }
+        } catch (InterruptedException | BrokenBarrierException e) {
+            Thread.currentThread().interrupt();
+            threads.forEach(Thread::interrupt);
+            throw new IllegalStateException("stress run interrupted: " + stressCase.name(), e);
+        } finally {
+            stressCase.close();
+        }
+        return result;
+    }
+
+    /**
+     * Outcome histogram of one case.
+     */
+    public static final class Result {
+        private final String name;
+        private final Map<String, Long> counts = new TreeMap<>();
+        private final Map<String, Expect> verdicts = new TreeMap<>();
+
+        private Result(String name) {
+            this.name = name;
+        }
+
+        private void add(Outcome outcome) {
+            counts.merge(outcome.description(), 1L, Long::sum);
+            verdicts.put(outcome.description(), outcome.expect());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+
+        /**
+         * @return true if any forbidden outcome was observed
+         */
+        public boolean failed() {
+            return verdicts.containsValue(Expect.FORBIDDEN);
+        }
+
+        public void print(PrintStream out) {
+            out.printf("%s  [%s]%n", name, failed() ? "FAILED" : "OK");
+            counts.forEach((d, c) -> out.printf("  %12d  %-11s %s%n", c, verdicts.get(d), d));
+        }
+    }
+}
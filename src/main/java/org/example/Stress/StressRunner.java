@@ -0,0 +1,44 @@
+package org.example.Stress;
+
+import org.example.ImplRepo.InMemoryCurd;
+import org.example.ImplRepo.InMemoryOrderImp;
+import org.example.ImplRepo.ShardedOrderRepo;
+
+import java.util.List;
+
+/**
+ * Runs the repository concurrency suite and exits non-zero if any forbidden outcome was seen,
+ * so it can gate a build or a performance rewrite of the repositories.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=org.example.Stress.StressRunner -Dexec.args="100000"
+ * </pre>
+ * The optional argument is the number of iterations per case.
+ */
+public final class StressRunner {
+
+    private StressRunner() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : StressHarness.DEFAULT_ITERATIONS;
+        StressHarness harness = new StressHarness(iterations, StressHarness.DEFAULT_STRIDE);
+
+        List<StressCase<?>> cases = List.of(
+                new CreateDeleteSameIdStress(false),
+                new CreateDeleteSameIdStress(true),
+                new ReindexOnCustomerChangeStress("InMemoryOrderImp", InMemoryOrderImp::new),
+                new ReindexOnCustomerChangeStress("ShardedOrderRepo", () -> new ShardedOrderRepo(4)),
+                new FindAllDuringWritesStress("InMemoryCurd", InMemoryCurd::new));
+
+        boolean failed = false;
+        for (StressCase<?> c : cases) {
+            StressHarness.Result result = harness.run(c);
+            result.print(System.out);
+            failed |= result.failed();
+        }
+        System.out.println(failed ? "FORBIDDEN outcomes observed" : "All cases passed");
+        if (failed) System.exit(1);
+    }
+}
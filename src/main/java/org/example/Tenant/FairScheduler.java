@@ -0,0 +1,207 @@
+package org.example.Tenant;
+
+import org.example.Error.ErrorHandling;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Metrics.OperationMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed pool of workers shared by many tenants, served round-robin so that one busy tenant
+ * cannot starve the others.
+ *
+ * <ul>
+ *   <li>Each key (tenant) has its own FIFO lane. Workers take one task from the lane at the head of
+ *       the ready queue and put the lane back at the tail if it has more work, so every tenant with
+ *       queued work gets a turn before any tenant gets a second one.</li>
+ *   <li>A lane runs at most {@code maxConcurrency} tasks at once and holds at most
+ *       {@code maxQueued} waiting ones; a submit beyond that fails at once with
+ *       {@link ErrorHandling.QuotaExceeded} instead of queueing unbounded work.</li>
+ *   <li>Queue wait and run time are recorded per key under {@code scheduler/<key>/wait} and
+ *       {@code scheduler/<key>/run}.</li>
+ * </ul>
+ * Tasks should not block on other tasks of the same key: with {@code maxConcurrency} of them
+ * waiting, the lane makes no progress.
+ */
+public final class FairScheduler implements AutoCloseable {
+
+    private final MetricsRegistry metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Map<String, Lane> lanes = new HashMap<>();    // keys with queued or running tasks
+    private final ArrayDeque<Lane> ready = new ArrayDeque<>();  // lanes that may start a task now
+    private final List<Thread> workers;
+    private boolean closed;
+
+    /**
+     * @param workers number of worker threads (daemon threads named {@code tenant-worker-N})
+     * @param metrics registry for the wait and run timings
+     */
+    public FairScheduler(int workers, MetricsRegistry metrics) {
+        if (workers <= 0) throw new IllegalArgumentException("workers must be > 0");
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "tenant-worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        this.workers = List.copyOf(threads);
+        this.workers.forEach(Thread::start);
+    }
+
+    private static final class Lane {
+        final String key;
+        final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        final OperationMetrics waitOp;
+        final OperationMetrics runOp;
+        int maxConcurrency;
+        int running;
+        boolean inReady;
+
+        Lane(String key, MetricsRegistry metrics) {
+            this.key = key;
+            this.waitOp = metrics.operation("scheduler", key, "wait");
+            this.runOp = metrics.operation("scheduler", key, "run");
+        }
+
+        boolean canStart() {
+            return !inReady && !queue.isEmpty() && running < maxConcurrency;
+        }
+    }
+
+    private static final class Task<R> {
+        final Callable<R> body;
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final long submittedNanos = System.nanoTime();
+
+        Task(Callable<R> body) {
+            this.body = body;
+        }
+
+        void run(Lane lane) {
+            long start = System.nanoTime();
+            lane.waitOp.success(start - submittedNanos);
+            if (future.isDone()) return; // cancelled while queued
+            try {
+                future.complete(body.call());
+                lane.runOp.success(System.nanoTime() - start);
+            } catch (Throwable ex) {
+                lane.runOp.failure(System.nanoTime() - start, ex);
+                future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Queues {@code task} on the lane of {@code key}.
+     *
+     * @param maxConcurrency tasks of {@code key} that may run at once (the latest submit's value applies)
+     * @param maxQueued      tasks of {@code key} that may wait
+     * @return future of the task's result; cancelling it skips a task that has not started
+     * @throws ErrorHandling.QuotaExceeded if {@code maxQueued} tasks of {@code key} are already waiting
+     * @throws IllegalStateException       after {@link #close()}
+     */
+    public <R> CompletableFuture<R> submit(String key, int maxConcurrency, int maxQueued, Callable<R> task) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(task, "task must not be null");
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency must be > 0");
+        Task<R> queued = new Task<>(task);
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("FairScheduler is closed");
+            Lane lane = lanes.computeIfAbsent(key, k -> new Lane(k, metrics));
+            if (lane.queue.size() >= maxQueued) {
+                lane.waitOp.error("QuotaExceeded");
+                if (lane.queue.isEmpty() && lane.running == 0) lanes.remove(key);
+                throw new ErrorHandling.QuotaExceeded("Work queue of " + key + " is full (" + maxQueued + " tasks)");
+            }
+            lane.maxConcurrency = maxConcurrency;
+            lane.queue.add(queued);
+            offer(lane);
+        } finally {
+            lock.unlock();
+        }
+        return queued.future;
+    }
+
+    /**
+     * @return tasks of {@code key} waiting for a worker
+     */
+    public int queued(String key) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(key);
+            return lane == null ? 0 : lane.queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void offer(Lane lane) {
+        if (!lane.canStart()) return;
+        lane.inReady = true;
+        ready.add(lane);
+        work.signal();
+    }
+
+    private void work() {
+        while (true) {
+            Lane lane;
+            Task<?> task;
+            lock.lock();
+            try {
+                while (ready.isEmpty() && !closed) work.awaitUninterruptibly();
+                if (closed) return;
+                lane = ready.poll();
+                lane.inReady = false;
+                task = lane.queue.poll();
+                lane.running++;
+                offer(lane); // back of the line: the other ready lanes go first
+            } finally {
+                lock.unlock();
+            }
+
+            task.run(lane);
+
+            lock.lock();
+            try {
+                lane.running--;
+                if (lane.queue.isEmpty() && lane.running == 0) lanes.remove(lane.key);
+                else offer(lane);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops the workers after their current task; tasks still queued are cancelled.
+     */
+    @Override
+    public void close() {
+        List<Task<?>> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            for (Lane lane : lanes.values()) pending.addAll(lane.queue);
+            lanes.clear();
+            ready.clear();
+            work.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Task<?> task : pending) task.future.cancel(false);
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.Tenant;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Product;
+import org.example.Error.Failure;
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.TieredOrderRepo;
+import org.example.ImplRepo.TransactionManager;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Reposotory.OrderRepo;
+import org.example.Service.OrderService;
+import org.example.Service.ServiceCrud;
+import org.example.Storage.Capability;
+import org.example.Storage.Repositories;
+import org.example.Storage.StorageConfig;
+import org.example.Utils.TimerWheel;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One shop: its own repositories, services, commit clock, transaction manager and metrics, so
+ * nothing it stores or locks is shared with another tenant.
+ *
+ * <ul>
+ *   <li>Built by {@link TenantRegistry} on first use and closed when evicted; callers reach it only
+ *       inside {@link TenantRegistry#call} or {@link TenantRegistry#submit}, which pin it so it
+ *       cannot be evicted mid-call.</li>
+ *   <li>Creates are admitted against {@link TenantLimits#maxHeapBytes()} using
+ *       {@link #estimatedHeapBytes()}; the check is not atomic with the create, so concurrent
+ *       creates may overshoot the quota by a few entities.</li>
+ * </ul>
+ */
+public final class Tenant {
+
+    // Heap per stored entity: FootprintBenchmark (entity incl. IDs) plus the store's map entry and
+    // version node, and for orders the customer, status and createdAt index entries. An order's
+    // lines cost LINE_BYTES each on top: one reference in its frozen line array (products are shared).
+    public static final int CUSTOMER_BYTES = 200;
+    public static final int PRODUCT_BYTES = 230;
+    public static final int ORDER_BYTES = 310;
+    public static final int LINE_BYTES = 4;
+
+    private final String id;
+    private final TenantLimits limits;
+    private final Repositories storage;
+    private final boolean durable;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final ServiceCrud<Customer, String> customers;
+    private final ServiceCrud<Product, String> products;
+    private final OrderService orders;
+    final Idle idle = new Idle(this);
+
+    /**
+     * Active calls; -1 once the tenant is evicted (no new pins).
+     */
+    private final AtomicInteger pins = new AtomicInteger();
+
+    /**
+     * @param config storage config with this tenant's directories already resolved
+     */
+    Tenant(String id, TenantLimits limits, StorageConfig config) {
+        this.id = id;
+        this.limits = limits;
+        MvccClock clock = new MvccClock();
+        this.storage = Repositories.open(config, clock);
+        this.durable = storage.stores().stream().allMatch(s -> s.capabilities().contains(Capability.DURABLE));
+
+        this.customers = new ServiceCrud<>(storage.customers(), "customer", metrics);
+        this.products = new ServiceCrud<>(storage.products(), "product", metrics);
+        this.orders = new OrderService(storage.orders(), products, customers, metrics);
+        TransactionManager transactions = new TransactionManager(clock, TransactionManager.DEFAULT_STRIPES,
+                TransactionManager.DEFAULT_ATTEMPTS, metrics);
+        customers.useTransactions(transactions);
+        products.useTransactions(transactions);
+        orders.useTransactions(transactions);
+        customers.admitCreates(c -> admit(CUSTOMER_BYTES));
+        products.admitCreates(p -> admit(PRODUCT_BYTES));
+        orders.admitCreates(o -> admit(ORDER_BYTES + (long) LINE_BYTES * o.lineCount()));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TenantLimits getLimits() {
+        return limits;
+    }
+
+    public ServiceCrud<Customer, String> customers() {
+        return customers;
+    }
+
+    public ServiceCrud<Product, String> products() {
+        return products;
+    }
+
+    public OrderService orders() {
+        return orders;
+    }
+
+    /**
+     * The tenant's own registry (its service and repository metrics).
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public Repositories getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return true if every repository is durable, so the tenant may be evicted and reloaded
+     */
+    public boolean isDurable() {
+        return durable;
+    }
+
+    /**
+     * Estimated heap held by the tenant's entities (archived orders excluded).
+     */
+    public long estimatedHeapBytes() {
+        OrderRepo orderRepo = storage.orders();
+        long hotOrders = orderRepo instanceof TieredOrderRepo tiered ? tiered.hotCount() : orderRepo.count();
+        long hotLines = orderRepo instanceof TieredOrderRepo tiered ? tiered.hotLineCount() : orderRepo.countLines();
+        return storage.customers().count() * CUSTOMER_BYTES
+                + storage.products().count() * PRODUCT_BYTES
+                + hotOrders * ORDER_BYTES
+                + hotLines * LINE_BYTES;
+    }
+
+    private Failure admit(long bytes) {
+        if (estimatedHeapBytes() + bytes <= limits.maxHeapBytes()) return null;
+        return Failure.of(Failure.Code.QUOTA_EXCEEDED, "tenant", id,
+                "Heap quota of " + limits.maxHeapBytes() + " bytes reached for tenant ");
+    }
+
+    // ------------------------------------------------------------
+    // Lifecycle (TenantRegistry)
+    // ------------------------------------------------------------
+
+    /**
+     * @return false if the tenant was evicted (the caller must load it again)
+     */
+    boolean pin() {
+        while (true) {
+            int n = pins.get();
+            if (n < 0) return false;
+            if (pins.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    void unpin() {
+        pins.decrementAndGet();
+    }
+
+    /**
+     * Marks an idle tenant evicted.
+     *
+     * @return false if a call is running (the tenant stays loaded)
+     */
+    boolean retire() {
+        return pins.compareAndSet(0, -1);
+    }
+
+    boolean isRetired() {
+        return pins.get() < 0;
+    }
+
+    void close() throws IOException {
+        storage.close();
+    }
+
+    @Override
+    public String toString() {
+        return "Tenant[" + id + "]";
+    }
+
+    /**
+     * Idle-expiry timer of a tenant (see {@link TenantRegistry}).
+     */
+    static final class Idle extends TimerWheel.Timeout {
+        final Tenant tenant;
+
+        Idle(Tenant tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.Tenant;
+
+/**
+ * Resource limits of one tenant.
+ *
+ * @param maxHeapBytes   estimated heap its entities may use (see {@link Tenant#estimatedHeapBytes()});
+ *                       creates beyond it fail with {@code QuotaExceeded}
+ * @param maxConcurrency tasks of the tenant the {@link FairScheduler} runs at the same time
+ * @param maxQueued      tasks that may wait for a worker; further submits are rejected
+ */
+public record TenantLimits(long maxHeapBytes, int maxConcurrency, int maxQueued) {
+
+    public static final long DEFAULT_MAX_HEAP_BYTES = 64L << 20;  // ~200k orders
+    public static final int DEFAULT_MAX_CONCURRENCY = 2;
+    public static final int DEFAULT_MAX_QUEUED = 1024;
+
+    public TenantLimits {
+        if (maxHeapBytes <= 0) throw new IllegalArgumentException("maxHeapBytes must be > 0");
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency must be > 0");
+        if (maxQueued <= 0) throw new IllegalArgumentException("maxQueued must be > 0");
+    }
+
+    public static TenantLimits defaults() {
+        return new TenantLimits(DEFAULT_MAX_HEAP_BYTES, DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_QUEUED);
+    }
+}
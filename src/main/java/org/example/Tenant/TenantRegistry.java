@@ -0,0 +1,302 @@
+package org.example.Tenant;
+
+import org.example.Error.ErrorHandling;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Storage.StorageConfig;
+import org.example.Utils.TimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Many shops in one process, each an isolated {@link Tenant} with its own storage, quotas and
+ * metrics.
+ *
+ * <ul>
+ *   <li>Tenants are registered up front and loaded on first use; concurrent first calls share one
+ *       load.</li>
+ *   <li>Storage comes from a template {@link StorageConfig} in which {@code ${tenant}} is replaced by
+ *       the tenant id, e.g. {@code default.dir=data/tenants/${tenant}}; every {@code dir} setting must
+ *       contain it, so no two tenants share files.</li>
+ *   <li>Durable tenants (every store {@link org.example.Storage.Capability#DURABLE}) are closed after
+ *       {@code idleTtl} without calls, and the least recently used ones once more than
+ *       {@code maxLoaded} are loaded; the next call reloads them from disk. Other tenants would lose
+ *       their data, so they stay loaded until {@link #close()}.</li>
+ *   <li>{@link #submit} runs work on a shared {@link FairScheduler} within the tenant's
+ *       {@link TenantLimits}; {@link #call} runs it on the caller's thread.</li>
+ * </ul>
+ * Like {@code CartService}, idle expiry advances lazily on each call (or {@link #evictIdle()}); no
+ * background thread is needed.
+ */
+public final class TenantRegistry implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRegistry.class);
+
+    public static final Duration DEFAULT_IDLE_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAX_LOADED = 256;
+    private static final long TICK_MILLIS = 1000;                            // idle-expiry resolution
+    private static final String PLACEHOLDER = "${tenant}";
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}"); // safe as a directory name
+
+    private final StorageConfig template;
+    private final long idleTtlMillis;
+    private final int maxLoaded;
+    private final LongSupplier clock;
+    private final Map<String, TenantLimits> registered = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Tenant>> loaded = new ConcurrentHashMap<>();
+    private final TimerWheel<Tenant.Idle> wheel;
+    private final FairScheduler scheduler;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean closed;
+
+    public TenantRegistry(StorageConfig template) {
+        this(template, DEFAULT_IDLE_TTL, DEFAULT_MAX_LOADED, Runtime.getRuntime().availableProcessors(),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param template  storage config shared by all tenants, with {@code ${tenant}} in every directory
+     * @param idleTtl   time without calls after which a durable tenant is closed
+     * @param maxLoaded durable tenants kept loaded at most
+     * @param workers   threads of the {@link FairScheduler} behind {@link #submit}
+     * @param clock     epoch milliseconds (a test clock in benchmarks)
+     * @throws IllegalArgumentException if a directory setting lacks {@code ${tenant}}
+     */
+    public TenantRegistry(StorageConfig template, Duration idleTtl, int maxLoaded, int workers, LongSupplier clock) {
+        this.template = Objects.requireNonNull(template, "template must not be null");
+        Objects.requireNonNull(idleTtl, "idleTtl must not be null");
+        if (idleTtl.isNegative() || idleTtl.isZero()) throw new IllegalArgumentException("idleTtl must be positive");
+        if (maxLoaded <= 0) throw new IllegalArgumentException("maxLoaded must be > 0");
+        for (Map.Entry<String, String> dir : template.find(".dir").entrySet()) {
+            if (!dir.getValue().contains(PLACEHOLDER)) {
+                throw new IllegalArgumentException("storage setting " + dir.getKey() + " must contain "
+                        + PLACEHOLDER + " so tenants do not share files");
+            }
+        }
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.maxLoaded = maxLoaded;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.wheel = new TimerWheel<>(TICK_MILLIS, 1024, clock.getAsLong());
+        this.scheduler = new FairScheduler(workers, MetricsRegistry.global());
+    }
+
+    // ------------------------------------------------------------
+    // Registration
+    // ------------------------------------------------------------
+
+    /**
+     * @throws ErrorHandling.Validation if {@code id} is not 1-64 letters, digits, '_' or '-'
+     *                                  (starting with a letter or digit)
+     * @throws ErrorHandling.Duplicate  if {@code id} is already registered
+     */
+    public void register(String id, TenantLimits limits) {
+        Objects.requireNonNull(limits, "limits must not be null");
+        if (id == null || !TENANT_ID.matcher(id).matches()) {
+            throw new ErrorHandling.Validation("Invalid tenant id: " + id);
+        }
+        if (registered.putIfAbsent(id, limits) != null) {
+            throw new ErrorHandling.Duplicate("Tenant already registered: " + id);
+        }
+    }
+
+    public void register(String id) {
+        register(id, TenantLimits.defaults());
+    }
+
+    public boolean isRegistered(String id) {
+        return registered.containsKey(id);
+    }
+
+    /**
+     * @return registered tenant ids, sorted
+     */
+    public Set<String> tenants() {
+        return new TreeSet<>(registered.keySet());
+    }
+
+    // ------------------------------------------------------------
+    // Calls
+    // ------------------------------------------------------------
+
+    /**
+     * Runs {@code action} against tenant {@code id} on the caller's thread, loading it first if needed.
+     * The tenant stays loaded until {@code action} returns.
+     *
+     * @throws ErrorHandling.NotFound if {@code id} is not registered
+     */
+    public <R> R call(String id, Function<? super Tenant, ? extends R> action) {
+        Tenant tenant = acquire(id);
+        try {
+            return action.apply(tenant);
+        } finally {
+            tenant.unpin();
+            touch(tenant);
+        }
+    }
+
+    /**
+     * Runs {@code action} against tenant {@code id} on the shared workers, within the tenant's
+     * {@link TenantLimits#maxConcurrency()} and {@link TenantLimits#maxQueued()}.
+     *
+     * @throws ErrorHandling.NotFound      if {@code id} is not registered
+     * @throws ErrorHandling.QuotaExceeded if the tenant's queue is full
+     */
+    public <R> CompletableFuture<R> submit(String id, Function<? super Tenant, ? extends R> action) {
+        TenantLimits limits = limits(id);
+        return scheduler.submit(id, limits.maxConcurrency(), limits.maxQueued(), () -> call(id, action));
+    }
+
+    private TenantLimits limits(String id) {
+        TenantLimits limits = id == null ? null : registered.get(id);
+        if (limits == null) throw new ErrorHandling.NotFound("Tenant not found: " + id);
+        return limits;
+    }
+
+    private Tenant acquire(String id) {
+        while (true) {
+            if (closed) throw new IllegalStateException("TenantRegistry is closed");
+            CompletableFuture<Tenant> future = loaded.get(id);
+            if (future == null) {
+                TenantLimits limits = limits(id);
+                CompletableFuture<Tenant> mine = new CompletableFuture<>();
+                future = loaded.putIfAbsent(id, mine);
+                if (future == null) {
+                    future = mine;
+                    load(id, limits, mine);
+                }
+            }
+            Tenant tenant = join(future);
+            if (tenant.pin()) return tenant;
+            Thread.onSpinWait(); // being evicted; its entry goes once its storage is closed
+        }
+    }
+
+    private void load(String id, TenantLimits limits, CompletableFuture<Tenant> future) {
+        Tenant tenant;
+        try {
+            tenant = new Tenant(id, limits, template.resolve("tenant", id));
+        } catch (RuntimeException ex) {
+            loaded.remove(id, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        loads.increment();
+        future.complete(tenant);
+        log.info("Tenant {} loaded ({})", id, tenant.getStorage().stores());
+        int over = durableLoaded() - maxLoaded;
+        if (over > 0) wheel.pollEarliest(over, this::evict); // before touch(): never the tenant just loaded
+        touch(tenant);
+    }
+
+    private static Tenant join(CompletableFuture<Tenant> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Eviction
+    // ------------------------------------------------------------
+
+    private void touch(Tenant tenant) {
+        long now = clock.getAsLong();
+        if (tenant.isDurable() && !tenant.isRetired() && !closed) wheel.schedule(tenant.idle, now + idleTtlMillis);
+        wheel.advance(now, this::evict);
+    }
+
+    /**
+     * Closes the durable tenants idle for longer than the TTL (calls do this as they go).
+     *
+     * @return tenants closed
+     */
+    public int evictIdle() {
+        long before = evictions.sum();
+        wheel.advance(clock.getAsLong(), this::evict);
+        return (int) (evictions.sum() - before);
+    }
+
+    private void evict(Tenant.Idle idle) {
+        Tenant tenant = idle.tenant;
+        if (tenant.isRetired()) return; // a late touch() rescheduled an evicted tenant
+        if (!tenant.retire()) { // in a call right now: try again later
+            wheel.schedule(tenant.idle, clock.getAsLong() + idleTtlMillis);
+            return;
+        }
+        try {
+            tenant.close();
+            evictions.increment();
+            log.info("Tenant {} evicted", tenant.getId());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Closing tenant {} failed", tenant.getId(), ex);
+        } finally {
+            loaded.computeIfPresent(tenant.getId(), (id, f) -> f.getNow(null) == tenant ? null : f);
+        }
+    }
+
+    private int durableLoaded() {
+        int n = 0;
+        for (CompletableFuture<Tenant> future : loaded.values()) {
+            Tenant tenant = future.getNow(null);
+            if (tenant != null && tenant.isDurable()) n++;
+        }
+        return n;
+    }
+
+    // ------------------------------------------------------------
+    // Stats
+    // ------------------------------------------------------------
+
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    public long loads() {
+        return loads.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Stops the scheduler (queued tasks are cancelled) and closes every loaded tenant.
+     *
+     * @throws IOException the first failure; the other tenants are closed regardless
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        scheduler.close();
+        IOException first = null;
+        for (CompletableFuture<Tenant> future : loaded.values()) {
+            Tenant tenant = future.getNow(null);
+            if (tenant == null) continue;
+            wheel.cancel(tenant.idle);
+            try {
+                tenant.close();
+            } catch (IOException ex) {
+                if (first == null) first = ex;
+            }
+        }
+        loaded.clear();
+        if (first != null) throw first;
+    }
+}
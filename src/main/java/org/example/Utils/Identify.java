@@ -1,6 +1,8 @@
 package org.example.Utils;
 
+import org.example.Error.ErrorHandling;
 import org.example.Reposotory.Identifiable;
+import org.example.Reposotory.Versioned;
 import org.example.Service.ServiceCrud;
 
 import java.util.Scanner;
@@ -65,7 +67,7 @@ public class Identify {
      * @param scanner     console scanner
      * @param entityLabel display label
      * @param summaryFn   summary printer used before editing
-     * @param editFn      type-specific in-place editor (Enter keeps current)
+     * @param editFn      type-specific editor applied to a copy of the stored entity (Enter keeps current)
      */
 
     // ===== Generic UPDATE flow =====
@@ -84,8 +86,9 @@ public class Identify {
                 return;
             }
 
-            T entity = service.findOptionalById(id)
-                    .orElseThrow(() -> new IllegalArgumentException(entityLabel + " not found: " + id));
+            // Stored entities are immutable versions: edit a private copy, readers keep seeing the old one
+            T entity = Versioned.editableCopyOf(service.findOptionalById(id)
+                    .orElseThrow(() -> new IllegalArgumentException(entityLabel + " not found: " + id)));
 
             System.out.println("Current values:");
             System.out.println(" " + summaryFn.apply(entity));
@@ -96,6 +99,9 @@ public class Identify {
             service.update(entity);
             System.out.println("✓ " + entityLabel + " updated successfully.");
 
+        } catch (ErrorHandling.Conflict ex) {
+            // someone else saved this entity while we were editing: our changes are not applied
+            System.out.println("Update failed: " + entityLabel + " was changed by someone else. Reload and try again.");
         } catch (IllegalArgumentException ex) {
             System.out.println("Update failed: " + ex.getMessage());
         } catch (Exception ex) {
@@ -0,0 +1,233 @@
+package org.example.Utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Fixed-width console table written through one large buffered writer.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Column widths are declared up front, so no pass over the data is needed.</li>
+ *   <li>Rows are assembled in one reusable {@link StringBuilder}; cells are padded and truncated
+ *       by hand (no {@code printf}, no per-row format string).</li>
+ *   <li>{@link #browse} streams a listing from its source one page at a time with next/prev navigation.</li>
+ * </ul>
+ *
+ * <p>Not thread-safe: one renderer per screen.
+ *
+ * @param <T> row type
+ */
+public final class TableRenderer<T> {
+
+    public enum Align {LEFT, RIGHT}
+
+    /**
+     * Writes one cell's text (untruncated) into {@code out}.
+     */
+    @FunctionalInterface
+    public interface Cell<T> {
+        void write(T row, StringBuilder out);
+    }
+
+    /**
+     * Where {@link #browse} reads its pages from, e.g. {@code ServiceCrud::count} / {@code ServiceCrud::getPage}.
+     */
+    public interface PageSource<T> {
+        long count();
+
+        List<T> page(int offset, int limit);
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final char[] SPACES = new char[256];
+    private static final Writer CONSOLE = new BufferedWriter(
+            new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    private record Column<T>(String header, int width, Align align, Cell<T> cell) {
+    }
+
+    private final List<Column<T>> columns = new ArrayList<>();
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder cell = new StringBuilder(64);
+    private int width;
+
+    // ------------------------------------------------------------
+    // Columns
+    // ------------------------------------------------------------
+
+    public TableRenderer<T> column(String header, int width, Align align, Cell<T> cell) {
+        columns.add(new Column<>(header, Math.max(width, 1), align, cell));
+        this.width += (columns.size() > 1 ? 1 : 0) + Math.max(width, 1);
+        return this;
+    }
+
+    public TableRenderer<T> text(String header, int width, Function<T, String> value) {
+        return column(header, width, Align.LEFT, (row, out) -> {
+            String v = value.apply(row);
+            out.append(v == null ? "-" : v);
+        });
+    }
+
+    public TableRenderer<T> money(String header, int width, ToDoubleFunction<T> value) {
+        return column(header, width, Align.RIGHT, (row, out) -> appendMoney(out, value.applyAsDouble(row)));
+    }
+
+    // ------------------------------------------------------------
+    // Rendering
+    // ------------------------------------------------------------
+
+    /**
+     * Writes header, rows and closing rule, then flushes.
+     */
+    public void render(Iterable<T> rows, Writer out) {
+        try {
+            writeHeader(out);
+            for (T row : rows) writeRow(row, out);
+            writeRule('=', out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void render(Iterable<T> rows) {
+        render(rows, CONSOLE);
+    }
+
+    public void writeHeader(Writer out) throws IOException {
+        writeRule('-', out);
+        line.setLength(0);
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> c = columns.get(i);
+            cell.setLength(0);
+            cell.append(c.header());
+            appendCell(i, c);
+        }
+        out.append(line.append('\n'));
+        writeRule('-', out);
+    }
+
+    public void writeRow(T row, Writer out) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> c = columns.get(i);
+            cell.setLength(0);
+            c.cell().write(row, cell);
+            appendCell(i, c);
+        }
+        out.append(line.append('\n'));
+    }
+
+    public void writeRule(char ch, Writer out) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < width; i++) line.append(ch);
+        out.append(line.append('\n'));
+    }
+
+    /**
+     * Pads or truncates {@link #cell} into {@link #line}.
+     */
+    private void appendCell(int index, Column<T> c) {
+        if (index > 0) line.append(' ');
+        int len = cell.length();
+        int w = c.width();
+        if (len > w) {
+            if (w > 3) line.append(cell, 0, w - 3).append("...");
+            else line.append(cell, 0, w);
+            return;
+        }
+        if (c.align() == Align.RIGHT) {
+            pad(w - len).append(cell);
+        } else {
+            line.append(cell);
+            if (index < columns.size() - 1) pad(w - len); // no trailing blanks on the last column
+        }
+    }
+
+    private StringBuilder pad(int n) {
+        while (n > 0) {
+            int k = Math.min(n, SPACES.length);
+            line.append(SPACES, 0, k);
+            n -= k;
+        }
+        return line;
+    }
+
+    /**
+     * Appends {@code value} with two decimals (half-up), without {@code String.format}.
+     */
+    public static void appendMoney(StringBuilder out, double value) {
+        long cents = Math.round(Math.abs(value) * 100);
+        if (value < 0 && cents != 0) out.append('-');
+        out.append(cents / 100).append('.');
+        long frac = cents % 100;
+        if (frac < 10) out.append('0');
+        out.append(frac);
+    }
+
+    // ------------------------------------------------------------
+    // Paging
+    // ------------------------------------------------------------
+
+    /**
+     * Shows a listing page by page. {@code n}/{@code p} move between pages; any other input ends
+     * the listing and is returned, so pickers can take an ID at the same prompt.
+     *
+     * @param source   page source
+     * @param pageSize rows per page
+     * @param prompt   prompt for the final input, or null for a plain listing (no prompt when it
+     *                 fits on one page)
+     * @param empty    message when there is nothing to show
+     * @return the non-navigation input ("" when none was asked for), or null if the source was empty
+     */
+    public String browse(PageSource<T> source, int pageSize, String prompt, String empty) {
+        long total = source.count();
+        if (total == 0) {
+            System.out.println(empty);
+            return null;
+        }
+        int pages = (int) ((total + pageSize - 1) / pageSize);
+        int page = 0;
+        while (true) {
+            List<T> rows = source.page(page * pageSize, pageSize);
+            try {
+                writeHeader(CONSOLE);
+                for (T row : rows) writeRow(row, CONSOLE);
+                writeRule('=', CONSOLE);
+                line.setLength(0);
+                line.append("Page ").append(page + 1).append('/').append(pages)
+                        .append(" (").append(total).append(" rows)\n");
+                CONSOLE.append(line);
+                CONSOLE.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (pages == 1 && prompt == null) return "";
+
+            String nav = pages > 1 ? "[n]ext [p]rev" + (prompt == null ? " [q]uit: " : " | ") : "";
+            String input = Utility.readLine(nav + (prompt == null ? "" : prompt));
+            if ("n".equalsIgnoreCase(input) && pages > 1) {
+                page = Math.min(page + 1, pages - 1);
+            } else if ("p".equalsIgnoreCase(input) && pages > 1) {
+                page = Math.max(page - 1, 0);
+            } else {
+                return input;
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules expiry of many timers with O(1) insert and cancel, and
+ * per-tick work proportional to the timers that fire, instead of sweeping every entry.
+ *
+ * <ul>
+ *   <li>Time is cut into ticks. Level 0 has one bucket per tick for the next {@code buckets} ticks;
+ *       each higher level has {@value #LEVEL_SLOTS} buckets, each spanning a whole revolution of the
+ *       level below. A timer goes to the lowest level whose range reaches its deadline.</li>
+ *   <li>Buckets are intrusive doubly-linked lists (the timer object is the list node, no wrapper per entry).</li>
+ *   <li>When time enters a higher-level bucket, its timers cascade down a level (at most once per
+ *       level), so far-off timers cost nothing per tick until they come close — any delay, from
+ *       milliseconds to days, without sizing the wheel for it.</li>
+ *   <li>Deadlines are rounded down to the tick: a timer fires in the first {@link #advance} at or
+ *       after the start of its deadline's tick plus one tick at most.</li>
+ *   <li>Callbacks run after the wheel's lock is released, so they may schedule or cancel timers.</li>
+ * </ul>
+ *
+ * <p>Thread-safe; all structural changes take the wheel's monitor.
+ *
+ * @param <T> timer type (callers extend {@link Timeout} with their payload)
+ */
+public final class TimerWheel<T extends TimerWheel.Timeout> {
+
+    /**
+     * A schedulable timer; extend it to carry the payload. A timer is in at most one wheel at a time.
+     */
+    public abstract static class Timeout {
+        private long deadline = Long.MAX_VALUE;
+        private long tick;
+        private int level;
+        private int bucket = -1; // -1 = not scheduled
+        private Timeout prev;
+        private Timeout next;
+
+        /**
+         * @return deadline in epoch milliseconds ({@link Long#MAX_VALUE} if never scheduled)
+         */
+        public final long getDeadline() {
+            return deadline;
+        }
+
+        public final boolean isScheduled() {
+            return bucket >= 0;
+        }
+    }
+
+    // Buckets per level above level 0 (6 bits of the tick each)
+    public static final int LEVEL_SLOTS = 64;
+    private static final int LEVEL_BITS = 6;
+
+    private final long tickMillis;
+    private final Timeout[][] levels; // levels[0].length = buckets, LEVEL_SLOTS above
+    private final int[] shifts;       // a level-k bucket spans 2^shifts[k] ticks
+    private volatile long currentTick; // every tick before this one has been processed
+    private long pollFrom;             // pollEarliest hint: no level-0 timer is due before this tick
+    private int size;
+
+    /**
+     * @param tickMillis  resolution in milliseconds
+     * @param buckets     level-0 size, rounded up to a power of two: delays up to {@code buckets}
+     *                    ticks never cascade
+     * @param startMillis current time in epoch milliseconds
+     */
+    public TimerWheel(long tickMillis, int buckets, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        if (buckets <= 0 || buckets > 1 << 30) throw new IllegalArgumentException("buckets must be in 1..2^30");
+        int size = buckets == 1 ? 1 : Integer.highestOneBit(buckets - 1) << 1;
+        int bits = Integer.numberOfTrailingZeros(size);
+        int count = 1 + (63 - bits + LEVEL_BITS - 1) / LEVEL_BITS; // enough levels to reach any long tick
+        this.tickMillis = tickMillis;
+        this.levels = new Timeout[count][];
+        this.shifts = new int[count];
+        levels[0] = new Timeout[size];
+        for (int k = 1; k < count; k++) {
+            levels[k] = new Timeout[LEVEL_SLOTS];
+            shifts[k] = bits + (k - 1) * LEVEL_BITS;
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // ------------------------------------------------------------
+    // Scheduling
+    // ------------------------------------------------------------
+
+    /**
+     * Schedules (or reschedules) {@code timer} to fire at {@code deadline}; past deadlines fire
+     * on the next {@link #advance}.
+     */
+    public synchronized void schedule(T timer, long deadline) {
+        Timeout node = timer;
+        if (node.bucket >= 0) unlink(node);
+        long tick = Math.max(Math.floorDiv(deadline, tickMillis), currentTick);
+        node.deadline = deadline;
+        node.tick = tick;
+        place(node, currentTick);
+    }
+
+    /**
+     * @return true if the timer was scheduled and is now cancelled
+     */
+    public synchronized boolean cancel(T timer) {
+        Timeout node = timer;
+        if (node.bucket < 0) return false;
+        unlink(node);
+        return true;
+    }
+
+    // ------------------------------------------------------------
+    // Expiry
+    // ------------------------------------------------------------
+
+    /**
+     * Fires every timer whose deadline tick is at or before {@code nowMillis}'s tick. Cheap when no
+     * tick has passed since the last call (one volatile read, no lock).
+     *
+     * @param expired called once per fired timer, outside the lock
+     * @return number of timers fired
+     */
+    public int advance(long nowMillis, Consumer<? super T> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick < currentTick) return 0;
+        List<T> fired;
+        synchronized (this) {
+            long from = currentTick;
+            if (nowTick < from) return 0; // another thread advanced meanwhile
+            fired = new ArrayList<>();
+            if (nowTick - from >= levels[0].length) {
+                rebuild(nowTick, fired); // long gap: one pass over every timer beats tick-by-tick
+            } else {
+                for (long t = from; t <= nowTick; t++) {
+                    for (int k = levels.length - 1; k > 0; k--) {
+                        if ((t & ((1L << shifts[k]) - 1)) == 0) cascade(k, (int) ((t >>> shifts[k]) & (LEVEL_SLOTS - 1)), t);
+                    }
+                    collect(0, (int) (t & (levels[0].length - 1)), Long.MAX_VALUE, Integer.MAX_VALUE, fired);
+                }
+            }
+            currentTick = nowTick + 1;
+        }
+        fired.forEach(expired);
+        return fired.size();
+    }
+
+    /**
+     * Removes up to {@code max} timers, earliest first, before their deadline (e.g. to enforce a
+     * capacity bound). Order is exact for timers within level 0 (the next {@code buckets} ticks);
+     * further out it is exact to the span of a higher-level bucket.
+     *
+     * @param evicted called once per removed timer, outside the lock
+     * @return number of timers removed
+     */
+    public int pollEarliest(int max, Consumer<? super T> evicted) {
+        List<T> polled = new ArrayList<>(Math.min(max, 64));
+        synchronized (this) {
+            long now = currentTick;
+            long horizon = now + levels[0].length - 1; // last tick of level 0
+            // level 0 in tick order, resuming where the last poll stopped
+            long t = Math.max(now, pollFrom);
+            for (; t <= horizon && polled.size() < max && size > 0; t++) {
+                collect(0, (int) (t & (levels[0].length - 1)), t, max, polled);
+                if (polled.size() == max) break; // this bucket may still hold timers
+            }
+            pollFrom = t;
+            // higher levels: bucket by bucket, starting after the current one
+            for (int k = 1; k < levels.length && polled.size() < max && size > 0; k++) {
+                long slot = now >>> shifts[k];
+                for (int i = 1; i < LEVEL_SLOTS && polled.size() < max; i++) {
+                    collect(k, (int) ((slot + i) & (LEVEL_SLOTS - 1)), Long.MAX_VALUE, max, polled);
+                }
+            }
+        }
+        polled.forEach(evicted);
+        return polled.size();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return level-0 buckets (ticks covered without cascading)
+     */
+    public int getBuckets() {
+        return levels[0].length;
+    }
+
+    // ------------------------------------------------------------
+    // Levels and bucket lists (caller holds the monitor)
+    // ------------------------------------------------------------
+
+    /**
+     * Links {@code t} into the lowest level whose buckets ahead of {@code now} reach its tick.
+     */
+    private void place(Timeout t, long now) {
+        if (t.tick - now < levels[0].length) {
+            link(t, 0, (int) (t.tick & (levels[0].length - 1)));
+            if (t.tick < pollFrom) pollFrom = t.tick;
+            return;
+        }
+        for (int k = 1; ; k++) {
+            if ((t.tick >>> shifts[k]) - (now >>> shifts[k]) < LEVEL_SLOTS || k == levels.length - 1) {
+                link(t, k, (int) ((t.tick >>> shifts[k]) & (LEVEL_SLOTS - 1)));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Time {@code now} entered bucket {@code slot} of level {@code k}: moves its timers down.
+     */
+    private void cascade(int k, int slot, long now) {
+        Timeout t = levels[k][slot];
+        while (t != null) {
+            Timeout next = t.next;
+            unlink(t);
+            place(t, now);
+            t = next;
+        }
+    }
+
+    /**
+     * After a gap of a revolution or more: fires every due timer and re-places the rest.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild(long nowTick, List<T> fired) {
+        List<Timeout> keep = new ArrayList<>();
+        for (Timeout[] level : levels) {
+            for (Timeout head : level) {
+                for (Timeout t = head; t != null; t = t.next) {
+                    if (t.tick <= nowTick) fired.add((T) t);
+                    else keep.add(t);
+                }
+            }
+            Arrays.fill(level, null);
+        }
+        for (Timeout t : fired) {
+            t.prev = t.next = null;
+            t.bucket = -1;
+        }
+        size = 0;
+        for (Timeout t : keep) place(t, nowTick + 1);
+    }
+
+    /**
+     * Moves timers with {@code tick <= maxTick} from the bucket to {@code out}, up to {@code max} in total.
+     */
+    @SuppressWarnings("unchecked")
+    private void collect(int k, int bucket, long maxTick, int max, List<T> out) {
+        for (Timeout t = levels[k][bucket]; t != null && out.size() < max; ) {
+            Timeout next = t.next;
+            if (t.tick <= maxTick) {
+                unlink(t);
+                out.add((T) t);
+            }
+            t = next;
+        }
+    }
+
+    private void link(Timeout t, int k, int bucket) {
+        Timeout head = levels[k][bucket];
+        t.prev = null;
+        t.next = head;
+        if (head != null) head.prev = t;
+        levels[k][bucket] = t;
+        t.level = k;
+        t.bucket = bucket;
+        size++;
+    }
+
+    private void unlink(Timeout t) {
+        if (t.prev != null) t.prev.next = t.next;
+        else levels[t.level][t.bucket] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = t.next = null;
+        t.bucket = -1;
+        size--;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.Workload;
+
+import org.example.Entity.Category;
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Measures retained heap per stored Customer, Product and Order, comparing the current entity
+ * layout with the previous one.
+ *
+ * <ul>
+ *   <li>"before" replicas keep the old fields: {@code String city}, an {@code Enum} category reference,
+ *       and frozen order lines as {@code List.copyOf} (a list object around the array).</li>
+ *   <li>"after" are the real, frozen entities: city interned through {@link Customer#CITIES}, category
+ *       as a byte ordinal, frozen order lines as a bare array.</li>
+ *   <li>Cities are fresh String instances per customer, as when read from the console, a file or
+ *       the codec; the interner collapses them, the old layout keeps every copy.</li>
+ *   <li>Per-entity bytes = heap growth (after GC) while holding N entities, divided by N; IDs and
+ *       names are included, the holder array is not.</li>
+ * </ul>
+ * N is capped to what fits in the heap (about 400 bytes per entity), so pass {@code -Xmx} for 10M.
+ *
+ * <p>Usage: {@code MAVEN_OPTS=-Xmx8g mvn -q exec:java -Dexec.mainClass=org.example.Workload.FootprintBenchmark
+ * -Dexec.args="entities=10000000 seed=42"}
+ */
+public final class FootprintBenchmark {
+
+    // Conservative heap needed per entity while measuring (largest layout plus garbage headroom)
+    private static final long BYTES_PER_ENTITY_BUDGET = 400;
+
+    private FootprintBenchmark() {
+    }
+
+    // ------------------------------------------------------------
+    // Previous layouts
+    // ------------------------------------------------------------
+
+    @SuppressWarnings("unused")
+    private static final class LegacyCustomer {
+        String id;
+        String name;
+        String city;
+        long version;
+        boolean frozen;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class LegacyProduct {
+        String id;
+        String name;
+        Enum<Category> category;
+        Double price;
+        long version;
+        boolean frozen;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class LegacyOrder {
+        String id;
+        String customerId;
+        double total;
+        List<Product> products;
+        long createdAt;
+        long version;
+        boolean frozen;
+    }
+
+    // ------------------------------------------------------------
+    // Measurement
+    // ------------------------------------------------------------
+
+    /**
+     * @return retained bytes per entity created by {@code factory}
+     */
+    public static double bytesPerEntity(int n, IntFunction<Object> factory) {
+        Object[] holder = new Object[n];
+        long before = usedAfterGc();
+        for (int i = 0; i < n; i++) holder[i] = factory.apply(i);
+        long after = usedAfterGc();
+        double perEntity = (double) (after - before) / n;
+        if (holder[n - 1] == null) throw new IllegalStateException(); // keep the entities reachable
+        return perEntity;
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) { // a few rounds until the number settles
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long now = rt.totalMemory() - rt.freeMemory();
+            if (now >= used - 1024) return Math.min(now, used);
+            used = now;
+        }
+        return used;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int requested = Integer.parseInt(opt.getOrDefault("entities", "10000000"));
+        long seed = Long.parseLong(opt.getOrDefault("seed", "42"));
+        int n = (int) Math.min(requested, Runtime.getRuntime().maxMemory() / BYTES_PER_ENTITY_BUDGET);
+        if (n < requested) {
+            System.out.printf("Heap too small for %,d entities; measuring %,d (raise -Xmx for more)%n", requested, n);
+        }
+
+        SyntheticData data = new SyntheticData(seed);
+        List<Customer> customers = data.customers(Math.min(n, 100_000)).collect(Collectors.toList());
+        List<Product> products = data.products(1000).collect(Collectors.toList());
+        products.forEach(Product::freeze); // as stored by the product repository
+        int templates = Math.min(n, 100_000);
+        List<Order> orderTemplates = data.orders(templates, customers, products).collect(Collectors.toList());
+
+        System.out.printf("%,d entities per type; bytes per entity (incl. IDs, names, lines)%n", n);
+        System.out.printf("%-10s %10s %10s %10s %14s%n", "entity", "before", "after", "saved", "saved at N");
+
+        report("Customer", n, bytesPerEntity(n, i -> {
+            Customer template = customers.get(i % customers.size());
+            LegacyCustomer c = new LegacyCustomer();
+            c.id = syntheticId('C', i);
+            c.name = new String(template.getName());
+            c.city = new String(template.getCity());
+            c.frozen = true;
+            return c;
+        }), bytesPerEntity(n, i -> {
+            Customer template = customers.get(i % customers.size());
+            Customer c = new Customer(new String(template.getName()), new String(template.getCity()));
+            c.setId(syntheticId('C', i));
+            c.freeze();
+            return c;
+        }));
+
+        report("Product", n, bytesPerEntity(n, i -> {
+            Product template = products.get(i % products.size());
+            LegacyProduct p = new LegacyProduct();
+            p.id = syntheticId('P', i);
+            p.name = new String(template.getName());
+            p.category = legacyCategory(template);
+            p.price = Double.valueOf(template.getPrice());
+            p.frozen = true;
+            return p;
+        }), bytesPerEntity(n, i -> {
+            Product template = products.get(i % products.size());
+            Product p = new Product(new String(template.getName()), legacyCategory(template),
+                    Double.valueOf(template.getPrice()));
+            p.setId(syntheticId('P', i));
+            p.freeze();
+            return p;
+        }));
+
+        report("Order", n, bytesPerEntity(n, i -> {
+            Order template = orderTemplates.get(i % templates);
+            LegacyOrder o = new LegacyOrder();
+            o.id = syntheticId('O', i);
+            o.customerId = template.getCustomerId();
+            o.products = List.copyOf(template.getProducts());
+            o.total = template.getTotal();
+            o.createdAt = template.getCreatedAt();
+            o.frozen = true;
+            return o;
+        }), bytesPerEntity(n, i -> {
+            Order template = orderTemplates.get(i % templates);
+            Order o = new Order(template.getCustomerId(), 0.0, new ArrayList<>(template.getProducts()));
+            o.setId(syntheticId('O', i));
+            o.setCreatedAt(template.getCreatedAt());
+            o.freeze();
+            return o;
+        }));
+        System.out.printf("Interned cities: %d values%n", Customer.CITIES.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Enum<Category> legacyCategory(Product p) {
+        return (Enum<Category>) p.getCategory();
+    }
+
+    /**
+     * 8-character IDs like the generated ones, unique per index.
+     */
+    private static String syntheticId(char prefix, int i) {
+        char[] id = new char[8];
+        id[0] = prefix;
+        for (int k = 7; k > 0; k--, i >>>= 4) id[k] = Character.forDigit(i & 0xF, 16);
+        return new String(id);
+    }
+
+    private static void report(String entity, int n, double before, double after) {
+        System.out.printf("%-10s %10.1f %10.1f %10.1f %11.1f MB%n",
+                entity, before, after, before - after, (before - after) * n / (1 << 20));
+    }
+}
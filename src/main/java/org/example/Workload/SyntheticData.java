@@ -0,0 +1,244 @@
+package org.example.Workload;
+
+import org.example.Entity.Category;
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic, seedable generator of customers, products and orders at any scale
+ * (the large-scale counterpart of {@link org.example.Utils.Data}).
+ *
+ * <p>Distributions:
+ * <ul>
+ *   <li>Cities: weighted by (approximate) Swedish city population.</li>
+ *   <li>Product popularity: Zipf over products (a few best-sellers, a long tail).</li>
+ *   <li>Customer activity: milder Zipf over customers (regulars and one-off buyers).</li>
+ *   <li>Basket size and line quantity: power laws (mostly 1–3 lines, occasionally large carts).</li>
+ *   <li>Prices: log-uniform within a per-category price band.</li>
+ * </ul>
+ *
+ * <p>The same seed always produces the same entities, including IDs ({@code C…}, {@code P…},
+ * {@code O…} plus the index in base 36), independent of how many entities of another kind
+ * are generated. Entities are produced lazily, so millions can be streamed into a repository
+ * without materializing them twice.
+ */
+public final class SyntheticData {
+
+    public static final double DEFAULT_PRODUCT_SKEW = 1.0;
+    public static final double DEFAULT_CUSTOMER_SKEW = 0.6;
+    public static final int MAX_BASKET_LINES = 20;
+    public static final int MAX_LINE_QUANTITY = 5;
+    // orders are spread evenly over this much history, ending at the given end time
+    public static final long DEFAULT_HISTORY_MILLIS = 30L * 24 * 3_600_000L;
+    // end of the order history when none is given (2025-01-01T00:00Z), so timestamps are reproducible
+    public static final long DEFAULT_HISTORY_END = 1_735_689_600_000L;
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "David", "Eva", "Fatima", "Grace", "Hugo", "Ivy", "Jack",
+            "Karin", "Lars", "Maja", "Nils", "Olivia", "Per", "Sara", "Ture", "Ulla", "Viktor",
+            "William", "Yasmin", "Zara", "Elias", "Ebba", "Omar", "Leila", "Anders", "Linnea", "Oscar"};
+    private static final String[] LAST_NAMES = {
+            "Andersson", "Johansson", "Karlsson", "Nilsson", "Eriksson", "Larsson", "Olsson", "Persson",
+            "Svensson", "Gustafsson", "Pettersson", "Jonsson", "Jansson", "Hansson", "Bengtsson",
+            "Jönsson", "Lindberg", "Jakobsson", "Magnusson", "Lindström", "Ali", "Mohammed", "Berg"};
+    private static final String[] CITIES = {
+            "Stockholm", "Gothenburg", "Malmö", "Uppsala", "Linköping", "Örebro", "Västerås",
+            "Helsingborg", "Norrköping", "Jönköping", "Umeå", "Lund", "Gävle", "Borås", "Södertälje",
+            "Eskilstuna", "Halmstad", "Växjö", "Karlstad", "Sundsvall", "Luleå", "Kiruna"};
+    private static final double[] CITY_WEIGHTS = {
+            985, 604, 357, 242, 167, 159, 157, 151, 146, 144, 133, 128, 103, 115, 102,
+            107, 104, 97, 96, 100, 79, 23};
+    private static final String[] PRODUCT_WORDS = {
+            "Pro", "Max", "Mini", "Lite", "Plus", "Air", "Ultra", "Classic", "Eco", "Smart"};
+
+    private final long seed;
+    private final double productSkew;
+    private final double customerSkew;
+    private final double[] cityCdf;
+
+    public SyntheticData(long seed) {
+        this(seed, DEFAULT_PRODUCT_SKEW, DEFAULT_CUSTOMER_SKEW);
+    }
+
+    /**
+     * @param seed         random seed; equal seeds give equal data
+     * @param productSkew  Zipf exponent of product popularity
+     * @param customerSkew Zipf exponent of customer activity
+     */
+    public SyntheticData(long seed, double productSkew, double customerSkew) {
+        this.seed = seed;
+        this.productSkew = productSkew;
+        this.customerSkew = customerSkew;
+        this.cityCdf = cumulative(CITY_WEIGHTS);
+    }
+
+    // ------------------------------------------------------------
+    // Entities
+    // ------------------------------------------------------------
+
+    /**
+     * @param n number of customers
+     * @return lazily generated customers with IDs {@code C0..}
+     */
+    public Stream<Customer> customers(int n) {
+        SplittableRandom rnd = random(0x0C);
+        return IntStream.range(0, n).mapToObj(i -> {
+            String name = FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+            Customer c = new Customer(name, CITIES[pick(cityCdf, rnd.nextDouble())]);
+            c.setId(id('C', i));
+            return c;
+        });
+    }
+
+    /**
+     * @param n number of products
+     * @return lazily generated products with IDs {@code P0..}
+     */
+    public Stream<Product> products(int n) {
+        SplittableRandom rnd = random(0x0B);
+        Category[] categories = Category.values();
+        return IntStream.range(0, n).mapToObj(i -> {
+            Category category = categories[rnd.nextInt(categories.length)];
+            double[] band = priceBand(category);
+            double price = Math.round(band[0] * Math.pow(band[1] / band[0], rnd.nextDouble())) - 0.01;
+            String name = title(category) + " " + PRODUCT_WORDS[rnd.nextInt(PRODUCT_WORDS.length)] + " " + (i + 1);
+            Product p = new Product(name, category, Math.max(0.99, price));
+            p.setId(id('P', i));
+            return p;
+        });
+    }
+
+    /**
+     * Generates orders over existing customers and products (e.g. as stored by the services),
+     * created over the {@link #DEFAULT_HISTORY_MILLIS} before {@link #DEFAULT_HISTORY_END}.
+     *
+     * @param n         number of orders
+     * @param customers customers to order for (index order defines activity rank)
+     * @param products  products to order (index order defines popularity rank)
+     * @return lazily generated orders with IDs {@code O0..}
+     */
+    public Stream<Order> orders(int n, List<Customer> customers, List<Product> products) {
+        return orders(n, customers, products, DEFAULT_HISTORY_END);
+    }
+
+    /**
+     * Like {@link #orders(int, List, List)}, with the history ending at {@code historyEnd}
+     * (e.g. now, so that "last hour" queries find orders). Creation times increase with the index.
+     *
+     * @param historyEnd end of the order history, epoch milliseconds
+     */
+    public Stream<Order> orders(int n, List<Customer> customers, List<Product> products, long historyEnd) {
+        long historyStart = historyEnd - DEFAULT_HISTORY_MILLIS;
+        if (customers.isEmpty() || products.isEmpty()) return Stream.empty();
+        SplittableRandom rnd = random(0x0A);
+        OrderSampler sampler = new OrderSampler(customers.size(), products.size());
+        return IntStream.range(0, n).mapToObj(i -> {
+            List<Product> lines = new ArrayList<>();
+            int basket = sampler.basketSize(rnd);
+            for (int l = 0; l < basket; l++) {
+                Product p = products.get(sampler.product(rnd));
+                int qty = sampler.quantity(rnd);
+                for (int q = 0; q < qty; q++) lines.add(p);
+            }
+            Order o = new Order(customers.get(sampler.customer(rnd)).getId(), 0.0, lines);
+            o.setId(id('O', i));
+            o.setCreatedAt(historyStart + (long) (DEFAULT_HISTORY_MILLIS * ((double) i / n)));
+            o.getTotal();
+            return o;
+        });
+    }
+
+    /**
+     * Samplers with this generator's skew settings, for workloads that draw their own orders.
+     *
+     * @param customerCount number of customers
+     * @param productCount  number of products
+     * @return thread-safe sampler (bring a random source per thread)
+     */
+    public OrderSampler sampler(int customerCount, int productCount) {
+        return new OrderSampler(customerCount, productCount);
+    }
+
+    /**
+     * Draws customers, products, basket sizes and quantities. Immutable and thread-safe.
+     */
+    public final class OrderSampler {
+        private final ZipfDistribution customerRank;
+        private final ZipfDistribution productRank;
+        private final ZipfDistribution basketSize = new ZipfDistribution(MAX_BASKET_LINES, 1.8);
+        private final ZipfDistribution quantity = new ZipfDistribution(MAX_LINE_QUANTITY, 2.5);
+
+        private OrderSampler(int customerCount, int productCount) {
+            this.customerRank = new ZipfDistribution(customerCount, customerSkew);
+            this.productRank = new ZipfDistribution(productCount, productSkew);
+        }
+
+        public int customer(SplittableRandom rnd) {
+            return customerRank.sample(rnd);
+        }
+
+        public int product(SplittableRandom rnd) {
+            return productRank.sample(rnd);
+        }
+
+        public int basketSize(SplittableRandom rnd) {
+            return basketSize.sample(rnd) + 1;
+        }
+
+        public int quantity(SplittableRandom rnd) {
+            return quantity.sample(rnd) + 1;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------
+
+    /**
+     * Independent stream per entity kind, so e.g. products do not depend on the customer count.
+     */
+    private SplittableRandom random(long salt) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + salt);
+    }
+
+    private static String id(char prefix, int index) {
+        return prefix + Integer.toString(index, 36);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) cdf[i] = sum += weights[i];
+        for (int i = 0; i < cdf.length; i++) cdf[i] /= sum;
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        for (int i = 0; i < cdf.length; i++) if (u < cdf[i]) return i;
+        return cdf.length - 1;
+    }
+
+    private static String title(Category category) {
+        String s = category.name().replace('_', ' ').toLowerCase();
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    /**
+     * Min/max price per category (SEK-ish, only the relative spread matters).
+     */
+    private static double[] priceBand(Category category) {
+        return switch (category) {
+            case COMPUTERS, SMARTPHONES, FURNITURE -> new double[]{300, 3000};
+            case ELECTRONICS, GAMING, HOME_APPLIANCES, PRINTERS, PHOTOGRAPHY, WEARABLES -> new double[]{50, 1500};
+            case STATIONERY, BOOKS, BEAUTY, PET_SUPPLIES, OFFICE_SUPPLIES -> new double[]{2, 60};
+            default -> new double[]{10, 300};
+        };
+    }
+}
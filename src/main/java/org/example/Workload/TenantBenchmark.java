@@ -0,0 +1,129 @@
+package org.example.Workload;
+
+import org.example.Entity.Customer;
+import org.example.Metrics.LatencyHistogram;
+import org.example.Storage.StorageConfig;
+import org.example.Tenant.Tenant;
+import org.example.Tenant.TenantLimits;
+import org.example.Tenant.TenantRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Noisy-neighbour test: one tenant floods the workers while the others send a steady trickle of
+ * requests; reports the quiet tenants' latency (submit to completion).
+ *
+ * <ul>
+ *   <li>{@code fair}: {@link TenantRegistry#submit}, round-robin over tenants, the noisy one capped
+ *       at {@code noisyConcurrency} workers.</li>
+ *   <li>{@code fifo}: the same calls on one shared FIFO pool of the same size, as without the
+ *       scheduler; quiet requests wait behind the whole burst.</li>
+ * </ul>
+ * Each request looks up a customer and then spins for {@code workMicros} to stand in for the rest
+ * of a request. Storage is in memory, so only scheduling differs between the runs.
+ *
+ * <p>Usage: {@code mvn -q exec:java -Dexec.mainClass=org.example.Workload.TenantBenchmark
+ * -Dexec.args="tenants=8 workers=4 burst=20000 quiet=200 workMicros=100"}
+ */
+public final class TenantBenchmark {
+
+    private static final String NOISY = "noisy";
+
+    private TenantBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int tenants = Integer.parseInt(opt.getOrDefault("tenants", "8"));
+        int workers = Integer.parseInt(opt.getOrDefault("workers", "4"));
+        int burst = Integer.parseInt(opt.getOrDefault("burst", "20000"));
+        int quiet = Integer.parseInt(opt.getOrDefault("quiet", "200"));
+        int noisyConcurrency = Integer.parseInt(opt.getOrDefault("noisyConcurrency", String.valueOf(Math.max(1, workers / 2))));
+        long workNanos = Long.parseLong(opt.getOrDefault("workMicros", "100")) * 1000;
+
+        try (TenantRegistry registry = new TenantRegistry(StorageConfig.of(new Properties()),
+                TenantRegistry.DEFAULT_IDLE_TTL, TenantRegistry.DEFAULT_MAX_LOADED, workers, System::currentTimeMillis);
+             ExecutorService fifo = Executors.newFixedThreadPool(workers)) {
+            List<String> ids = new ArrayList<>();
+            registry.register(NOISY, new TenantLimits(TenantLimits.DEFAULT_MAX_HEAP_BYTES, noisyConcurrency, burst));
+            ids.add(NOISY);
+            for (int i = 1; i < tenants; i++) {
+                String id = "shop-" + i;
+                registry.register(id);
+                ids.add(id);
+            }
+            Map<String, String> customerIds = new HashMap<>();
+            for (String id : ids) {
+                customerIds.put(id, registry.call(id, t -> {
+                    Customer c = new Customer("Customer of " + id, "Stockholm");
+                    t.customers().create(c);
+                    return c.getId();
+                }));
+            }
+
+            System.out.printf("%d tenants, %d workers, burst of %,d from '%s' (max %d workers), %d quiet requests per tenant, %d us each%n",
+                    tenants, workers, burst, NOISY, noisyConcurrency, quiet, workNanos / 1000);
+            System.out.printf("%-6s %12s %12s %12s %14s%n", "mode", "quiet p50", "quiet p99", "quiet max", "burst done");
+
+            run("fifo", ids, customerIds, burst, quiet, workNanos,
+                    (id, fn) -> CompletableFuture.supplyAsync(() -> registry.call(id, fn), fifo));
+            run("fair", ids, customerIds, burst, quiet, workNanos, registry::submit);
+        }
+    }
+
+    private interface Submitter {
+        CompletableFuture<Object> submit(String id, Function<Tenant, Object> request);
+    }
+
+    private static void run(String mode, List<String> ids, Map<String, String> customerIds, int burst, int quiet,
+                            long workNanos, Submitter submitter) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        long start = System.nanoTime();
+        List<CompletableFuture<Object>> noisy = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            noisy.add(submitter.submit(NOISY, request(customerIds.get(NOISY), workNanos)));
+        }
+
+        // quiet tenants: one request each per round; rounds paced so together they need under one worker
+        List<CompletableFuture<Object>> pending = new ArrayList<>();
+        for (int round = 0; round < quiet; round++) {
+            for (String id : ids) {
+                if (id.equals(NOISY)) continue;
+                long submitted = System.nanoTime();
+                pending.add(submitter.submit(id, request(customerIds.get(id), workNanos))
+                        .whenComplete((r, ex) -> latency.record(System.nanoTime() - submitted)));
+            }
+            LockSupport.parkNanos(workNanos * ids.size());
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        CompletableFuture.allOf(noisy.toArray(CompletableFuture[]::new)).join();
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%-6s %10.2fms %10.2fms %10.2fms %12dms%n", mode,
+                latency.valueAt(0.50) / 1e6, latency.valueAt(0.99) / 1e6, latency.max() / 1e6, burstMillis);
+    }
+
+    private static Function<Tenant, Object> request(String customerId, long workNanos) {
+        return tenant -> {
+            Object customer = tenant.customers().findByIdOrThrow(customerId);
+            long until = System.nanoTime() + workNanos;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return customer;
+        };
+    }
+}
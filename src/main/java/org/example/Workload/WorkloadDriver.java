@@ -0,0 +1,348 @@
+package org.example.Workload;
+
+import org.example.Entity.Customer;
+import org.example.Entity.Order;
+import org.example.Entity.Product;
+import org.example.Error.ErrorHandling;
+import org.example.Error.Failure;
+import org.example.Error.Result;
+import org.example.ImplRepo.MvccClock;
+import org.example.ImplRepo.TransactionManager;
+import org.example.Metrics.LatencyHistogram;
+import org.example.Metrics.MetricsRegistry;
+import org.example.Service.OrderService;
+import org.example.Service.ServiceCrud;
+import org.example.Storage.Repositories;
+import org.example.Storage.StorageConfig;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a configurable mix of service operations against loaded data and reports throughput
+ * and latency percentiles.
+ *
+ * <p>Operations:
+ * <ul>
+ *   <li>{@code place} — {@link OrderService#place} with a Zipf-skewed customer and basket.</li>
+ *   <li>{@code update} — optimistic price change of a (popular) product via {@link ServiceCrud#modify}.</li>
+ *   <li>{@code find} — order lookup by ID among recently known orders.</li>
+ *   <li>{@code delete} — deletes a recently known order.</li>
+ * </ul>
+ * Expected business outcomes (e.g. the order was already deleted by another thread) are counted
+ * as misses; anything else is an error. Place, find and delete go through the non-throwing service
+ * API, so a miss costs no exception.
+ *
+ * <p>Usage (all arguments optional):
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=org.example.Workload.WorkloadDriver \
+ *   -Dexec.args="customers=100000 products=10000 orders=1000000 threads=8 seconds=30 mix=60:10:25:5 seed=42 shards=0"
+ * </pre>
+ * Repositories come from the storage config like in App ({@code -Dbutik.storage.<entity>.engine=name}),
+ * so engines can be compared under the same mix; {@code shards=N} is short for sharded orders.
+ */
+public final class WorkloadDriver {
+
+    public enum Op {PLACE, UPDATE, FIND, DELETE}
+
+    /**
+     * Relative weights of the operations.
+     */
+    public record Mix(int place, int update, int find, int delete) {
+
+        /**
+         * @param spec {@code place:update:find:delete}, e.g. {@code 60:10:25:5}
+         */
+        public static Mix parse(String spec) {
+            String[] p = spec.split(":");
+            if (p.length != 4) throw new IllegalArgumentException("mix must be place:update:find:delete, got " + spec);
+            return new Mix(Integer.parseInt(p[0]), Integer.parseInt(p[1]), Integer.parseInt(p[2]), Integer.parseInt(p[3]));
+        }
+
+        Op pick(SplittableRandom rnd) {
+            int r = rnd.nextInt(place + update + find + delete);
+            if ((r -= place) < 0) return Op.PLACE;
+            if ((r -= update) < 0) return Op.UPDATE;
+            if (r - find < 0) return Op.FIND;
+            return Op.DELETE;
+        }
+    }
+
+    private static final int RECENT_ORDERS = 1 << 16;
+    private static final Failure NO_ORDER = Failure.notFound("orderId", null, "no known order");
+
+    private final ServiceCrud<Customer, String> customerService;
+    private final ServiceCrud<Product, String> productService;
+    private final OrderService orderService;
+    private final SyntheticData data;
+
+    private final List<String> customerIds = new ArrayList<>();
+    private final List<String> productIds = new ArrayList<>();
+    private final AtomicReferenceArray<String> recentOrders = new AtomicReferenceArray<>(RECENT_ORDERS);
+    private final AtomicLong recentCursor = new AtomicLong();
+    private final LongAdder loadRejected = new LongAdder();
+
+    public WorkloadDriver(ServiceCrud<Customer, String> customerService,
+                          ServiceCrud<Product, String> productService,
+                          OrderService orderService,
+                          SyntheticData data) {
+        this.customerService = customerService;
+        this.productService = productService;
+        this.orderService = orderService;
+        this.data = data;
+    }
+
+    // ------------------------------------------------------------
+    // Load phase
+    // ------------------------------------------------------------
+
+    /**
+     * Loads synthetic data through the services (with full validation). Rejected rows (e.g. an
+     * order-ID collision at large sizes) are skipped and counted, see {@link #getLoadRejected()}.
+     *
+     * @return elapsed time
+     */
+    public Duration load(int customers, int products, int orders) {
+        long start = System.nanoTime();
+        data.customers(customers).forEach(c -> {
+            if (customerService.tryCreate(c).isOk()) customerIds.add(c.getId());
+            else loadRejected.increment();
+        });
+        List<Customer> storedCustomers = new ArrayList<>(customerIds.size());
+        for (String id : customerIds) storedCustomers.add(customerService.findByIdOrThrow(id));
+
+        data.products(products).forEach(p -> {
+            if (productService.tryCreate(p).isOk()) productIds.add(p.getId());
+            else loadRejected.increment();
+        });
+        // orders reference the stored (frozen) products, so they share one instance per product
+        List<Product> storedProducts = new ArrayList<>(productIds.size());
+        for (String id : productIds) storedProducts.add(productService.findByIdOrThrow(id));
+
+        data.orders(orders, storedCustomers, storedProducts, System.currentTimeMillis()).forEach(o -> {
+            if (orderService.tryCreate(o).isOk()) remember(o.getId());
+            else loadRejected.increment();
+        });
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Rows rejected by validation during {@link #load}.
+     */
+    public long getLoadRejected() {
+        return loadRejected.sum();
+    }
+
+    // ------------------------------------------------------------
+    // Run phase
+    // ------------------------------------------------------------
+
+    /**
+     * Runs the mix on {@code threads} threads for {@code duration}.
+     *
+     * @param mix      operation weights
+     * @param threads  worker threads
+     * @param duration run time
+     * @param seed     seed for the workers' random sources
+     * @return the measurements
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public Report run(Mix mix, int threads, Duration duration, long seed) throws InterruptedException {
+        if (customerIds.isEmpty() || productIds.isEmpty()) throw new IllegalStateException("load data first");
+        Report report = new Report();
+        SyntheticData.OrderSampler sampler = data.sampler(customerIds.size(), productIds.size());
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom rnd = new SplittableRandom(seed + t);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Op op = mix.pick(rnd);
+                        long start = System.nanoTime();
+                        try {
+                            Failure failure = execute(op, rnd, sampler);
+                            if (failure == null || isMiss(failure)) {
+                                report.latency.get(op).record(System.nanoTime() - start);
+                                if (failure != null) report.misses.get(op).increment();
+                            } else {
+                                report.errors.get(op).increment();
+                            }
+                        } catch (ErrorHandling.NotFound | ErrorHandling.Conflict | IllegalArgumentException e) {
+                            report.latency.get(op).record(System.nanoTime() - start);
+                            report.misses.get(op).increment();
+                        } catch (RuntimeException e) {
+                            report.errors.get(op).increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "workload-" + t);
+            worker.start();
+        }
+        long start = System.nanoTime();
+        done.await();
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * @return null on success, otherwise why the operation was rejected
+     */
+    private Failure execute(Op op, SplittableRandom rnd, SyntheticData.OrderSampler sampler) {
+        switch (op) {
+            case PLACE -> {
+                Map<String, Integer> items = new HashMap<>();
+                int lines = sampler.basketSize(rnd);
+                for (int i = 0; i < lines; i++) {
+                    items.merge(productIds.get(sampler.product(rnd)), sampler.quantity(rnd), Integer::sum);
+                }
+                Result<Order> placed = orderService.tryPlace(customerIds.get(sampler.customer(rnd)), items);
+                if (!placed.isOk()) return placed.failure();
+                remember(placed.get().getId());
+                return null;
+            }
+            case UPDATE -> {
+                productService.modify(productIds.get(sampler.product(rnd)),
+                        p -> p.setPrice(Math.max(0.99, p.getPrice() * (0.95 + rnd.nextDouble() * 0.1))));
+                return null;
+            }
+            case FIND -> {
+                String id = recent(rnd);
+                return id == null || orderService.findOptionalById(id).isEmpty() ? NO_ORDER : null;
+            }
+            case DELETE -> {
+                String id = recent(rnd);
+                return id == null ? NO_ORDER : orderService.tryDelete(id).failure();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isMiss(Failure failure) {
+        return failure.getCode() == Failure.Code.NOT_FOUND || failure.getCode() == Failure.Code.CONFLICT;
+    }
+
+    private void remember(String orderId) {
+        recentOrders.set((int) (recentCursor.getAndIncrement() & (RECENT_ORDERS - 1)), orderId);
+    }
+
+    private String recent(SplittableRandom rnd) {
+        long known = Math.min(recentCursor.get(), RECENT_ORDERS);
+        return known == 0 ? null : recentOrders.get(rnd.nextInt((int) known));
+    }
+
+    // ------------------------------------------------------------
+    // Report
+    // ------------------------------------------------------------
+
+    /**
+     * Per-operation latency (successes and misses), miss and error counts.
+     */
+    public static final class Report {
+        private final Map<Op, LatencyHistogram> latency = new LinkedHashMap<>();
+        private final Map<Op, LongAdder> misses = new LinkedHashMap<>();
+        private final Map<Op, LongAdder> errors = new LinkedHashMap<>();
+        private long elapsedNanos;
+
+        private Report() {
+            for (Op op : Op.values()) {
+                latency.put(op, new LatencyHistogram());
+                misses.put(op, new LongAdder());
+                errors.put(op, new LongAdder());
+            }
+        }
+
+        public LatencyHistogram getLatency(Op op) {
+            return latency.get(op);
+        }
+
+        public long getErrors(Op op) {
+            return errors.get(op).sum();
+        }
+
+        public long getMisses(Op op) {
+            return misses.get(op).sum();
+        }
+
+        public Duration getElapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+        public void print(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            long total = 0;
+            out.printf("%-8s %10s %10s %10s %10s %10s %10s %8s %8s%n",
+                    "Op", "Count", "ops/s", "p50(us)", "p99(us)", "p99.9(us)", "max(us)", "misses", "errors");
+            for (Op op : Op.values()) {
+                LatencyHistogram h = latency.get(op);
+                total += h.count();
+                out.printf("%-8s %10d %10.0f %10.1f %10.1f %10.1f %10.1f %8d %8d%n",
+                        op.name().toLowerCase(), h.count(), h.count() / seconds,
+                        h.valueAt(0.5) / 1_000.0, h.valueAt(0.99) / 1_000.0, h.valueAt(0.999) / 1_000.0,
+                        h.max() / 1_000.0, misses.get(op).sum(), errors.get(op).sum());
+            }
+            out.printf("Total: %d ops in %.1f s = %.0f ops/s%n", total, seconds, total / seconds);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Command line
+    // ------------------------------------------------------------
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int customers = Integer.parseInt(opt.getOrDefault("customers", "10000"));
+        int products = Integer.parseInt(opt.getOrDefault("products", "1000"));
+        int orders = Integer.parseInt(opt.getOrDefault("orders", "100000"));
+        int threads = Integer.parseInt(opt.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int seconds = Integer.parseInt(opt.getOrDefault("seconds", "10"));
+        int shards = Integer.parseInt(opt.getOrDefault("shards", "0"));
+        long seed = Long.parseLong(opt.getOrDefault("seed", "42"));
+        Mix mix = Mix.parse(opt.getOrDefault("mix", "60:10:25:5"));
+
+        // same wiring as App, without the CLI
+        MvccClock clock = MvccClock.global();
+        MetricsRegistry metrics = MetricsRegistry.global();
+        StorageConfig config = StorageConfig.load();
+        if (shards > 0) config = config.with("order.engine", "sharded").with("order.shards", String.valueOf(shards));
+        Repositories storage = Repositories.open(config, clock);
+        ServiceCrud<Customer, String> customerService = new ServiceCrud<>(storage.customers(), "customer", metrics);
+        ServiceCrud<Product, String> productService = new ServiceCrud<>(storage.products(), "product", metrics);
+        OrderService orderService = new OrderService(storage.orders(), productService, customerService, metrics);
+        TransactionManager transactions = new TransactionManager(clock);
+        customerService.useTransactions(transactions);
+        productService.useTransactions(transactions);
+        orderService.useTransactions(transactions);
+
+        WorkloadDriver driver = new WorkloadDriver(customerService, productService, orderService, new SyntheticData(seed));
+        Duration load = driver.load(customers, products, orders);
+        System.out.printf("Loaded %d customers, %d products, %d orders in %.1f s (%d rejected)%n",
+                customers, products, orders, load.toMillis() / 1000.0, driver.getLoadRejected());
+
+        System.out.printf("Running mix %s on %d threads for %d s (storage %s)%n", mix, threads, seconds, storage.stores());
+        driver.run(mix, threads, Duration.ofSeconds(seconds), seed).print(System.out);
+        try {
+            storage.close();
+        } catch (IOException ex) {
+            System.err.println("Closing storage failed: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.Workload;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf (power-law) distribution over ranks {@code 0..n-1}: {@code P(k) ∝ 1 / (k+1)^s}.
+ *
+ * <p>The cumulative distribution is precomputed once (8 bytes per rank) and sampled with a
+ * binary search, so a draw is O(log n) and allocation-free. Instances are immutable and can be
+ * shared between threads; each thread brings its own random source.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cdf;
+
+    /**
+     * @param n        number of ranks (must be > 0)
+     * @param exponent skew {@code s}; 0 = uniform, ~1 = typical popularity skew
+     */
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) throw new IllegalArgumentException("n must be > 0");
+        if (exponent < 0) throw new IllegalArgumentException("exponent must be >= 0");
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        cdf[n - 1] = 1.0; // guard against rounding
+    }
+
+    /**
+     * @param random random source
+     * @return a rank in {@code [0, size())}; rank 0 is the most likely
+     */
+    public int sample(SplittableRandom random) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        return i >= 0 ? i : Math.min(-i - 1, cdf.length - 1);
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}